@@ -50,6 +50,7 @@ import org.springframework.ide.eclipse.aop.core.model.IAopReference;
 import org.springframework.ide.eclipse.aop.core.model.IAspectDefinition;
 import org.springframework.ide.eclipse.aop.core.util.AopReferenceModelMarkerUtils;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.AbstractBeansConfig;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeansComponent;
@@ -63,6 +64,7 @@ import org.springframework.ide.eclipse.core.java.ClassUtils;
 import org.springframework.ide.eclipse.core.java.IProjectClassLoaderSupport;
 import org.springframework.ide.eclipse.core.java.JdtUtils;
 import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
 
 /**
  * Handles creation and modification of the {@link AopReferenceModel}.
@@ -281,49 +283,72 @@ public class AopReferenceModelBuilderJob extends Job {
 
 	private void buildAopReferencesForBeans(IModelElement config, IAspectDefinition info, IProgressMonitor monitor,
 			IResource file, IAopProject aopProject, Set<IBean> beans) {
-
-		monitor.subTask(Activator.getFormattedMessage("AopReferenceModelBuilder.buildingAopReferences"));
-
 		for (IBean bean : beans) {
-			monitor.subTask(Activator.getFormattedMessage("AopReferenceModelBuilder.buildingAopReferencesForBean", bean
-					.getElementName(), bean.getElementResource().getFullPath()));
-			buildAopReferencesForBean(bean, config, info, file, aopProject, monitor);
-
-			// Make sure that inner beans are handled as well
-			buildAopReferencesForBeans(config, info, monitor, file, aopProject, BeansModelUtils.getInnerBeans(bean));
+			buildAopReferencesForBeanAndInnerBeans(config, info, monitor, file, aopProject, bean);
 		}
 	}
 
-	private void buildAopReferencesForBeansConfig(IBeansConfig config, IAspectDefinition info, IProgressMonitor monitor) {
+	private void buildAopReferencesForBeanAndInnerBeans(IModelElement config, IAspectDefinition info,
+			IProgressMonitor monitor, IResource file, IAopProject aopProject, IBean bean) {
+		monitor.subTask(Activator.getFormattedMessage("AopReferenceModelBuilder.buildingAopReferencesForBean", bean
+				.getElementName(), bean.getElementResource().getFullPath()));
+		buildAopReferencesForBean(bean, config, info, file, aopProject, monitor);
+
+		// Make sure that inner beans are handled as well
+		buildAopReferencesForBeans(config, info, monitor, file, aopProject, BeansModelUtils.getInnerBeans(bean));
+	}
+
+	private void buildAopReferencesForBeansConfig(final IBeansConfig config, final IAspectDefinition info,
+			IProgressMonitor monitor) {
 
-		IResource file = config.getElementResource();
+		final IResource file = config.getElementResource();
 		IJavaProject javaProject = JdtUtils.getJavaProject(file.getProject());
 
 		if (javaProject != null) {
-			IAopProject aopProject = ((AopReferenceModel) Activator.getModel()).getProjectWithInitialization(javaProject);
+			final IAopProject aopProject = ((AopReferenceModel) Activator.getModel())
+					.getProjectWithInitialization(javaProject);
 
-			Set<IBean> beans = new LinkedHashSet<>();
-			beans.addAll(config.getBeans());
+			monitor.subTask(Activator.getFormattedMessage("AopReferenceModelBuilder.buildingAopReferences"));
+
+			// Walk the beans of the config as they are instead of copying them into a set first; a bean reached
+			// through more than one imported config only gets its references built once
+			final Set<IBean> visitedBeans = new HashSet<>();
+			IModelElementVisitor visitor = new IModelElementVisitor() {
+
+				public boolean visit(IModelElement element, IProgressMonitor monitor) {
+					if (visitedBeans.add((IBean) element)) {
+						buildAopReferencesForBeanAndInnerBeans(config, info, monitor, file, aopProject, (IBean) element);
+					}
+					return true;
+				}
+			};
+			if (config instanceof AbstractBeansConfig) {
+				((AbstractBeansConfig) config).acceptBeans(visitor, monitor);
+			}
+			else {
+				for (IBean bean : config.getBeans()) {
+					visitor.visit(bean, monitor);
+				}
+			}
 
 			// add component registered beans
 			for (IBeansComponent component : config.getComponents()) {
-				addBeansFromComponent(component, beans);
+				buildAopReferencesForComponent(config, info, monitor, file, aopProject, component, visitedBeans);
 			}
-
-			buildAopReferencesForBeans(config, info, monitor, file, aopProject, beans);
 		}
 	}
 
-	private void addBeansFromComponent(IBeansComponent bc, Set<IBean> beans) {
-		Set<IBean> nestedBeans = bc.getBeans();
-		for (IBean nestedBean : nestedBeans) {
-			if (!nestedBean.isInfrastructure()) {
-				beans.add(nestedBean);
+	private void buildAopReferencesForComponent(IBeansConfig config, IAspectDefinition info,
+			IProgressMonitor monitor, IResource file, IAopProject aopProject, IBeansComponent bc,
+			Set<IBean> visitedBeans) {
+		for (IBean nestedBean : bc.getBeans()) {
+			if (!nestedBean.isInfrastructure() && visitedBeans.add(nestedBean)) {
+				buildAopReferencesForBeanAndInnerBeans(config, info, monitor, file, aopProject, nestedBean);
 			}
 		}
 
 		for (IBeansComponent component : bc.getComponents()) {
-			addBeansFromComponent(component, beans);
+			buildAopReferencesForComponent(config, info, monitor, file, aopProject, component, visitedBeans);
 		}
 	}
 
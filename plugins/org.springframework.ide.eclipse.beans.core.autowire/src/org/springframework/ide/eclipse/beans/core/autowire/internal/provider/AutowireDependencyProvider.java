@@ -10,17 +10,23 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.autowire.internal.provider;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +37,7 @@ import javax.inject.Provider;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.BeansException;
@@ -55,6 +62,8 @@ import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.autowire.IAutowireDependencyResolver;
 import org.springframework.ide.eclipse.beans.core.autowire.IFactoryBeanTypeResolver;
+import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.AutowireResolutionCache.BeanState;
+import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.AutowireResolutionCache.ResolutionState;
 import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.InjectionMetadata.InjectedElement;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.ValidationRuleUtils;
@@ -65,12 +74,15 @@ import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModelElement;
 import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.java.ClassUtils;
+import org.springframework.ide.eclipse.core.java.ITypeStructureCache;
 import org.springframework.ide.eclipse.core.java.IProjectClassLoaderSupport;
 import org.springframework.ide.eclipse.core.java.JdtUtils;
 import org.springframework.ide.eclipse.core.model.validation.ValidationProblem;
 import org.springframework.ide.eclipse.core.model.validation.ValidationProblemAttribute;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -94,6 +106,8 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 	
 	public static final String BEAN_TYPE = "BEAN_TYPE";
 
+	private static final String JAVA_HANDLE = "JAVA_HANDLE";
+
 	private Set<IBean> beans;
 
 	private IBeansModelElement context;
@@ -118,6 +132,28 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 	private Class<?> objectFactoryClass;
 	private Class<?> providerClass;
 
+	/** Bean names by all types the beans can be autowired to; built on the first lookup by type */
+	private Map<Class<?>, Set<String>> beanNamesByType;
+
+	/** All types the beans can be autowired to by bean name; built together with {@link #beanNamesByType} */
+	private Map<String, Set<Class<?>>> beanTypesByName;
+
+	/** Loaded bean classes by bean name; built together with {@link #beanNamesByType} */
+	private Map<String, Class<?>> beanClassesByName;
+
+	private AutowireResolutionCache resolutionCache;
+
+	/** Names of the types and beans looked up while resolving the injection points of a single bean */
+	private Set<String> lookedUpTypes;
+
+	private Set<String> lookedUpNames;
+
+	/** Beans by their names and aliases; built on the first lookup by name */
+	private Map<String, IBean> beansByName;
+
+	/** Aliases by the name of the bean they refer to; built on the first lookup of aliases */
+	private Map<String, Set<String>> aliasesByBeanName;
+
 	public AutowireDependencyProvider(IBeansModelElement element, IBeansModelElement context) {
 		this.context = (context == null ? element : context);
 		this.element = element;
@@ -146,8 +182,15 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 					fillResolvableDependencies();
 
 					Set<IBean> elementBeans = BeansModelUtils.getBeans(element);
+
+					// Only resolve the beans that could be affected by changes since the last resolution
+					ResolutionState previousState = (resolutionCache != null ? resolutionCache.get(getResolutionKey()) : null);
+					ResolutionState state = (resolutionCache != null ? createResolutionState() : null);
+					Set<IBean> beansToResolve = getBeansToResolve(elementBeans, previousState, state);
+					Map<IBean, List<ValidationProblem>> beanProblems = new HashMap<IBean, List<ValidationProblem>>();
+
 					for (IInjectionMetadataProvider provider : createInjectionMetadataProviders()) {
-						for (final IBean bean : elementBeans) {
+						for (final IBean bean : beansToResolve) {
 
 							List<InjectionMetadata> beanInjectionMetadata = null;
 							if (injectionMetadata.containsKey(bean)) {
@@ -159,6 +202,7 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 							}
 
 							String className = BeansModelUtils.getBeanClass(bean, context);
+							int problemCount = problems.size();
 							try {
 								if (className != null && !bean.isFactory()) {
 									Class<?> targetClass = ClassUtils.loadClass(className);
@@ -167,21 +211,54 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 							}
 							catch (Throwable e) {
 							}
+							addProblems(beanProblems, bean, problemCount);
 						}
 					}
 
 					for (Map.Entry<IBean, List<InjectionMetadata>> entry : injectionMetadata.entrySet()) {
 						Set<IBeanReference> autowiredReferences = new HashSet<IBeanReference>();
 
+						int problemCount = problems.size();
+						lookedUpTypes = new HashSet<String>();
+						lookedUpNames = new HashSet<String>();
 						for (InjectionMetadata metadata : entry.getValue()) {
 							resolveDependencies(entry.getKey(), autowiredReferences, metadata.getInjectedFields());
 							resolveDependencies(entry.getKey(), autowiredReferences, metadata.getInjectedMethods());
 							resolveConstructorDependencies(entry.getKey(), autowiredReferences, metadata
 									.getInjectedConstructors());
 						}
+						addProblems(beanProblems, entry.getKey(), problemCount);
 						if (autowiredReferences.size() > 0) {
 							autowiredBeanReferences.put(entry.getKey(), autowiredReferences);
 						}
+
+						BeanState beanState = (state != null ? state.beans.get(entry.getKey().getElementName()) : null);
+						if (beanState != null && beanState.beanId.equals(entry.getKey().getElementID())) {
+							beanState.references = autowiredReferences;
+							beanState.problems = beanProblems.containsKey(entry.getKey()) ? beanProblems.get(entry
+									.getKey()) : new ArrayList<ValidationProblem>();
+							beanState.lookedUpTypes = lookedUpTypes;
+							beanState.lookedUpNames = lookedUpNames;
+						}
+						lookedUpTypes = null;
+						lookedUpNames = null;
+					}
+
+					if (state != null) {
+						addReusedResults(elementBeans, beansToResolve, state, autowiredBeanReferences);
+						resolutionCache.put(getResolutionKey(), state);
+					}
+				}
+
+				private void addProblems(Map<IBean, List<ValidationProblem>> beanProblems, IBean bean,
+						int problemCount) {
+					if (problems.size() > problemCount) {
+						List<ValidationProblem> problemsOfBean = beanProblems.get(bean);
+						if (problemsOfBean == null) {
+							problemsOfBean = new ArrayList<ValidationProblem>();
+							beanProblems.put(bean, problemsOfBean);
+						}
+						problemsOfBean.addAll(problems.subList(problemCount, problems.size()));
 					}
 				}
 
@@ -285,6 +362,9 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 	}
 
 	public void preloadClasses() {
+		// The type index depends on the loaded classes
+		beanNamesByType = null;
+
 		try {
 			factoryBeanClass = ClassUtils.loadClass(FactoryBean.class.getName());
 		} catch (Throwable e) {
@@ -309,41 +389,70 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 	}
 
 	public String[] getAliases(String beanName) {
-		Set<String> aliases = new HashSet<String>();
-		if (context instanceof IBeansConfig) {
-			for (IBeanAlias alias : ((IBeansConfig) context).getAliases()) {
-				if (beanName.equals(alias.getBeanName())) {
-					aliases.add(alias.getElementName());
-				}
-			}
-		}
-		else if (context instanceof IBeansConfigSet) {
-			for (IBeanAlias alias : ((IBeansConfigSet) context).getAliases()) {
-				if (beanName.equals(alias.getBeanName())) {
-					aliases.add(alias.getElementName());
-				}
-			}
+		Set<String> aliases = getAliasesByBeanName().get(beanName);
+		if (aliases == null) {
+			return new String[0];
 		}
 		return (String[]) aliases.toArray(new String[aliases.size()]);
 	}
 
 	public IBean getBean(String candidateName) {
-		for (IBean bean : beans) {
-			if (bean.getElementName().equals(candidateName)) {
-				return bean;
+		if (lookedUpNames != null) {
+			lookedUpNames.add(candidateName);
+		}
+		return getBeansByName().get(candidateName);
+	}
+
+	private Map<String, Set<String>> getAliasesByBeanName() {
+		if (aliasesByBeanName == null) {
+			Set<IBeanAlias> aliases = null;
+			if (context instanceof IBeansConfig) {
+				aliases = ((IBeansConfig) context).getAliases();
 			}
-			else {
+			else if (context instanceof IBeansConfigSet) {
+				aliases = ((IBeansConfigSet) context).getAliases();
+			}
+
+			Map<String, Set<String>> index = new HashMap<String, Set<String>>();
+			if (aliases != null) {
+				for (IBeanAlias alias : aliases) {
+					Set<String> beanAliases = index.get(alias.getBeanName());
+					if (beanAliases == null) {
+						beanAliases = new LinkedHashSet<String>();
+						index.put(alias.getBeanName(), beanAliases);
+					}
+					beanAliases.add(alias.getElementName());
+				}
+			}
+			aliasesByBeanName = index;
+		}
+		return aliasesByBeanName;
+	}
+
+	private Map<String, IBean> getBeansByName() {
+		if (beansByName == null) {
+			// The first bean that matches a name by its name or one of its aliases wins
+			Map<String, IBean> index = new HashMap<String, IBean>();
+			for (IBean bean : beans) {
+				if (!index.containsKey(bean.getElementName())) {
+					index.put(bean.getElementName(), bean);
+				}
 				for (String alias : getAliases(bean.getElementName())) {
-					if (alias.equals(candidateName)) {
-						return bean;
+					if (!index.containsKey(alias)) {
+						index.put(alias, bean);
 					}
 				}
 			}
+			beansByName = index;
 		}
-		return null;
+		return beansByName;
 	}
-	
+
 	public String[] getBeansForType(String requiredTypeName) {
+		// Record the type before loading it; a type that can't be loaded yet may be added by a later change
+		if (lookedUpTypes != null) {
+			lookedUpTypes.add(requiredTypeName);
+		}
 		try {
 			Class<?> requiredType = ClassUtils.loadClass(requiredTypeName);
 			return getBeansForType(requiredType);
@@ -361,44 +470,98 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 	}
 
 	public String[] getBeansForType(Class<?> requiredType) {
-		Set<String> matchingBeans = new HashSet<String>();
-		
-		for (IBean bean : beans) {
-			String beanClassName = ValidationRuleUtils.getBeanClassName(bean, context);
-			if (beanClassName != null) {
-				try {
-					Class<?> beanClass = ClassUtils.loadClass(beanClassName);
-					if (requiredType.isAssignableFrom(beanClass)) {
-						matchingBeans.add(bean.getElementName());
-					}
-					else if (factoryBeanClass != null && factoryBeanClass.isAssignableFrom(beanClass)) {
-						if (isFactoryForType(beanClass, requiredType)) {
-							matchingBeans.add(bean.getElementName());
-						} 
-						else if (isExtensibleFactoryForType(bean, beanClass, requiredType)) {
-							matchingBeans.add(bean.getElementName());
+		if (lookedUpTypes != null) {
+			lookedUpTypes.add(requiredType.getName());
+		}
+		Set<String> matchingBeans = getBeanNamesByType().get(requiredType);
+		if (matchingBeans == null) {
+			return new String[0];
+		}
+		return (String[]) matchingBeans.toArray(new String[matchingBeans.size()]);
+	}
+
+	/**
+	 * Indexes the names of all beans by their bean class, the type of the object created by factory beans and all
+	 * supertypes of these. Bean classes are loaded only once per resolution instead of once per injection point.
+	 */
+	private Map<Class<?>, Set<String>> getBeanNamesByType() {
+		if (beanNamesByType == null) {
+			Map<Class<?>, Set<String>> index = new HashMap<Class<?>, Set<String>>();
+			beanTypesByName = new HashMap<String, Set<Class<?>>>();
+			beanClassesByName = new HashMap<String, Class<?>>();
+			Map<Class<?>, Set<Class<?>>> assignableTypes = new HashMap<Class<?>, Set<Class<?>>>();
+
+			for (IBean bean : beans) {
+				String beanClassName = ValidationRuleUtils.getBeanClassName(bean, context);
+				if (beanClassName != null) {
+					try {
+						Class<?> beanClass = ClassUtils.loadClass(beanClassName);
+						Set<Class<?>> beanTypes = new HashSet<Class<?>>(getAssignableTypes(beanClass, assignableTypes));
+						if (factoryBeanClass != null && factoryBeanClass.isAssignableFrom(beanClass)) {
+							for (Class<?> objectType : getFactoryObjectTypes(bean, beanClass)) {
+								beanTypes.addAll(getAssignableTypes(objectType, assignableTypes));
+							}
+						}
+
+						beanTypesByName.put(bean.getElementName(), beanTypes);
+						beanClassesByName.put(bean.getElementName(), beanClass);
+						for (Class<?> beanType : beanTypes) {
+							Set<String> beanNames = index.get(beanType);
+							if (beanNames == null) {
+								beanNames = new LinkedHashSet<String>();
+								index.put(beanType, beanNames);
+							}
+							beanNames.add(bean.getElementName());
 						}
 					}
-				}
-				catch (ClassNotFoundException e) {
-					// Ignore here as this can easily happen if project class path is not complete
-				}
-				catch (NoClassDefFoundError e) {
-					// Ignore here as this can easily happen if project class path is not complete
-				}
-				catch (Throwable e) {
-					BeansCorePlugin.log(e);
+					catch (ClassNotFoundException e) {
+						// Ignore here as this can easily happen if project class path is not complete
+					}
+					catch (NoClassDefFoundError e) {
+						// Ignore here as this can easily happen if project class path is not complete
+					}
+					catch (Throwable e) {
+						BeansCorePlugin.log(e);
+					}
 				}
 			}
+			beanNamesByType = index;
 		}
-		return (String[]) matchingBeans.toArray(new String[matchingBeans.size()]);
+		return beanNamesByType;
 	}
 
-	private boolean isFactoryForType(Class<?> beanClass, Class<?> requiredType) {
+	/**
+	 * Returns the given type and all types it is assignable to.
+	 */
+	private Set<Class<?>> getAssignableTypes(Class<?> type, Map<Class<?>, Set<Class<?>>> assignableTypes) {
+		Set<Class<?>> types = assignableTypes.get(type);
+		if (types == null) {
+			types = new HashSet<Class<?>>();
+			types.add(type);
+			if (!type.isPrimitive()) {
+				types.add(Object.class);
+			}
+			if (type.getSuperclass() != null) {
+				types.addAll(getAssignableTypes(type.getSuperclass(), assignableTypes));
+			}
+			for (Class<?> interfaceType : type.getInterfaces()) {
+				types.addAll(getAssignableTypes(interfaceType, assignableTypes));
+			}
+			assignableTypes.put(type, types);
+		}
+		return types;
+	}
+
+	/**
+	 * Returns the types of the objects the given factory bean creates, as far as they can be determined from the
+	 * <code>getObject</code> method and the {@link FactoryBeanTypeResolverExtensions}.
+	 */
+	private Set<Class<?>> getFactoryObjectTypes(IBean bean, Class<?> beanClass) {
+		Set<Class<?>> objectTypes = new HashSet<Class<?>>();
 		try {
 			Method factoryMethod = beanClass.getMethod("getObject", new Class[] {});
-			if (factoryMethod != null && requiredType.isAssignableFrom(factoryMethod.getReturnType())) {
-				return true;
+			if (factoryMethod != null) {
+				objectTypes.add(factoryMethod.getReturnType());
 			}
 		}
 		catch (NoClassDefFoundError e) {
@@ -408,20 +571,14 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 			BeansCorePlugin.log(e);
 		}
 
-		return false;
-	}
-
-	private boolean isExtensibleFactoryForType(IBean bean, Class<?> beanClass, Class<?> requiredType) {
 		IFactoryBeanTypeResolver[] resolvers = FactoryBeanTypeResolverExtensions.getFactoryBeanTypeResolvers();
-		
 		for (IFactoryBeanTypeResolver factoryTypeResolver : resolvers) {
 			Class<?> beanType = factoryTypeResolver.resolveBeanTypeFromFactory(bean, beanClass);
-			if (beanType != null && requiredType.isAssignableFrom(beanType)) {
-				return true;
+			if (beanType != null) {
+				objectTypes.add(beanType);
 			}
 		}
-
-		return false;
+		return objectTypes;
 	}
 
 	public boolean isAutowireCandidate(String beanName, DependencyDescriptor descriptor)
@@ -508,6 +665,187 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 		}
 	}
 
+	/**
+	 * Sets the cache to reuse the outcome of previous resolutions of the same element and context from. Only the
+	 * beans that changed since the last resolution and the beans with injection points that could match a changed
+	 * bean get resolved again.
+	 * @since 3.9.1
+	 */
+	public void setResolutionCache(AutowireResolutionCache resolutionCache) {
+		this.resolutionCache = resolutionCache;
+	}
+
+	private String getResolutionKey() {
+		return element.getElementID() + "@" + context.getElementID();
+	}
+
+	/**
+	 * Captures identity, structure and autowire types of all beans of the context.
+	 */
+	private ResolutionState createResolutionState() {
+		getBeanNamesByType();
+		ResolutionState state = new ResolutionState();
+		state.elementIds.add(element.getElementID());
+		state.elementIds.add(context.getElementID());
+		for (IBean bean : beans) {
+			String beanName = bean.getElementName();
+			Set<String> types = new HashSet<String>();
+			if (beanTypesByName.containsKey(beanName)) {
+				for (Class<?> type : beanTypesByName.get(beanName)) {
+					types.add(type.getName());
+				}
+			}
+			long fingerprint = getStructuralFingerprint(beanClassesByName.get(beanName));
+			state.beans.put(beanName, new BeanState(bean.getElementID(),
+					BeansModelUtils.getLoadGeneration(BeansModelUtils.getConfig(bean)), fingerprint, types));
+		}
+		return state;
+	}
+
+	/**
+	 * Returns the beans of the given element that need to be resolved; the outcome of the previous resolution of all
+	 * other beans is carried over into the given state.
+	 */
+	private Set<IBean> getBeansToResolve(Set<IBean> elementBeans, ResolutionState previousState,
+			ResolutionState state) {
+		if (previousState == null || state == null) {
+			return elementBeans;
+		}
+
+		Set<String> changedNames = new HashSet<String>();
+		Set<String> changedTypes = new HashSet<String>();
+		Set<String> beanNames = new HashSet<String>(previousState.beans.keySet());
+		beanNames.addAll(state.beans.keySet());
+		for (String beanName : beanNames) {
+			BeanState previousBean = previousState.beans.get(beanName);
+			BeanState bean = state.beans.get(beanName);
+			if (previousBean == null || bean == null || !previousBean.isSameBean(bean)
+					|| previousBean.fingerprint != bean.fingerprint || !previousBean.types.equals(bean.types)) {
+				changedNames.add(beanName);
+				if (previousBean != null) {
+					changedTypes.addAll(previousBean.types);
+				}
+				if (bean != null) {
+					changedTypes.addAll(bean.types);
+				}
+			}
+		}
+
+		// Changed post processors may change the injection points of all beans
+		if (changedTypes.contains(AutowiredAnnotationBeanPostProcessor.class.getName())
+				|| changedTypes.contains(CommonAnnotationBeanPostProcessor.class.getName())) {
+			return elementBeans;
+		}
+
+		Set<IBean> beansToResolve = new LinkedHashSet<IBean>();
+		for (IBean bean : elementBeans) {
+			BeanState previousBean = previousState.beans.get(bean.getElementName());
+			BeanState beanState = state.beans.get(bean.getElementName());
+			if (previousBean != null && previousBean.isResolved() && beanState != null
+					&& beanState.beanId.equals(bean.getElementID())
+					&& !changedNames.contains(bean.getElementName())
+					&& Collections.disjoint(previousBean.lookedUpTypes, changedTypes)
+					&& Collections.disjoint(previousBean.lookedUpNames, changedNames)) {
+				beanState.references = previousBean.references;
+				beanState.problems = previousBean.problems;
+				beanState.lookedUpTypes = previousBean.lookedUpTypes;
+				beanState.lookedUpNames = previousBean.lookedUpNames;
+			}
+			else {
+				beansToResolve.add(bean);
+			}
+		}
+		return beansToResolve;
+	}
+
+	/**
+	 * Adds the references and problems of all beans that didn't need to be resolved again.
+	 */
+	private void addReusedResults(Set<IBean> elementBeans, Set<IBean> resolvedBeans, ResolutionState state,
+			Map<IBean, Set<IBeanReference>> autowiredBeanReferences) {
+		for (IBean bean : elementBeans) {
+			if (resolvedBeans.contains(bean)) {
+				continue;
+			}
+			BeanState beanState = state.beans.get(bean.getElementName());
+			if (beanState.references.size() > 0) {
+				autowiredBeanReferences.put(bean, beanState.references);
+			}
+			List<ValidationProblem> refreshedProblems = new ArrayList<ValidationProblem>();
+			for (ValidationProblem problem : beanState.problems) {
+				ValidationProblem refreshedProblem = refreshProblem(problem);
+				if (refreshedProblem != null) {
+					refreshedProblems.add(refreshedProblem);
+					if (!problems.contains(refreshedProblem)) {
+						problems.add(refreshedProblem);
+					}
+				}
+			}
+			beanState.problems = refreshedProblems;
+		}
+	}
+
+	/**
+	 * Recomputes the location of the given problem, as the source might have moved without changing its structure.
+	 * Returns <code>null</code> if the source of the problem doesn't exist anymore.
+	 */
+	private ValidationProblem refreshProblem(ValidationProblem problem) {
+		for (ValidationProblemAttribute attribute : problem.getAttributes()) {
+			if (JAVA_HANDLE.equals(attribute.getKey())) {
+				IJavaElement source = JavaCore.create((String) attribute.getValue());
+				try {
+					if (source != null && source.exists() && source.getUnderlyingResource() != null) {
+						return new ValidationProblem(problem.getSeverity(), problem.getMessage(), source
+								.getUnderlyingResource(), JdtUtils.getLineNumber(source), problem.getAttributes());
+					}
+				}
+				catch (JavaModelException e) {
+				}
+				return null;
+			}
+		}
+		return problem;
+	}
+
+	/**
+	 * Returns a combined fingerprint of the structure of the given class and its superclasses, as these define the
+	 * injection points of a bean.
+	 */
+	private long getStructuralFingerprint(Class<?> beanClass) {
+		long fingerprint = 0;
+		for (Class<?> type = beanClass; type != null && type != Object.class; type = type.getSuperclass()) {
+			fingerprint = 31 * fingerprint + getClassFileFingerprint(type);
+		}
+		return fingerprint;
+	}
+
+	private long getClassFileFingerprint(Class<?> type) {
+		ClassLoader classLoader = type.getClassLoader();
+		URL url = (classLoader != null ? classLoader.getResource(ClassUtils.getClassFileName(type.getName())) : null);
+		if (url == null) {
+			return 0;
+		}
+		if ("file".equals(url.getProtocol())) {
+			try {
+				return SpringCore.getTypeStructureCache().getStructuralFingerprint(new File(url.toURI()),
+						ITypeStructureCache.FLAG_ANNOTATION | ITypeStructureCache.FLAG_ANNOTATION_VALUE);
+			}
+			catch (URISyntaxException e) {
+			}
+		}
+		long fingerprint = url.toExternalForm().hashCode();
+		if (ResourceUtils.isJarURL(url)) {
+			// Classes from jars change together with the jar only
+			try {
+				File jarFile = ResourceUtils.getFile(ResourceUtils.extractJarFileURL(url));
+				fingerprint = 31 * (31 * fingerprint + jarFile.length()) + jarFile.lastModified();
+			}
+			catch (IOException e) {
+			}
+		}
+		return fingerprint;
+	}
+
 	public void setProjectClassLoaderSupport(IProjectClassLoaderSupport classLoaderSupport) {
 		this.classLoaderSupport = classLoaderSupport;
 	}
@@ -715,7 +1053,7 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 					for(int i=0; i<attributes.length; i++) {
 						newAttributes[i] = attributes[i];
 					}
-					newAttributes[attributes.length] = new ValidationProblemAttribute("JAVA_HANDLE", source.getHandleIdentifier());
+					newAttributes[attributes.length] = new ValidationProblemAttribute(JAVA_HANDLE, source.getHandleIdentifier());
 					
 					// By convention autowire problems will only get reported as warnings (for now?)
 					problems.add(new ValidationProblem(IMarker.SEVERITY_WARNING, message, source
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.autowire.internal.provider;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.model.IBeanReference;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+import org.springframework.ide.eclipse.core.model.validation.ValidationProblem;
+
+/**
+ * Keeps the outcome of the last autowire resolution per element and context, so that the next resolution only needs
+ * to resolve the injection points that could be affected by beans that changed in the meantime.
+ * <p>
+ * Results are kept as references, problems and the names of the looked up types and beans rather than as
+ * {@link InjectionMetadata}, as the metadata is bound to the classes of the project class loader used for the
+ * resolution and every resolution uses a new one. Beans are identified by their element ID and the load generation
+ * of their config. The states of a changed element and of its children are dropped, so that the cache doesn't keep
+ * beans of outdated loads alive.
+ * @author Martin Lippert
+ * @since 3.9.1
+ * @see AutowireDependencyProvider#setResolutionCache(AutowireResolutionCache)
+ */
+public class AutowireResolutionCache implements IModelChangeListener {
+
+	private static final int MAX_ENTRIES = 256;
+
+	private static final AutowireResolutionCache INSTANCE = new AutowireResolutionCache();
+
+	private final Map<String, ResolutionState> states = new LinkedHashMap<String, ResolutionState>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ResolutionState> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private static boolean listening = false;
+
+	public static AutowireResolutionCache getDefault() {
+		synchronized (INSTANCE) {
+			if (!listening) {
+				BeansCorePlugin.getModel().addChangeListener(INSTANCE);
+				listening = true;
+			}
+		}
+		return INSTANCE;
+	}
+
+	synchronized ResolutionState get(String key) {
+		return states.get(key);
+	}
+
+	synchronized void put(String key, ResolutionState state) {
+		states.put(key, state);
+	}
+
+	public synchronized void clear() {
+		states.clear();
+	}
+
+	/**
+	 * Drops the states of the resolutions of the changed element, of its children and of its parents.
+	 */
+	public synchronized void elementChanged(ModelChangeEvent event) {
+		IModelElement element = event.getElement();
+		if (element == null) {
+			states.clear();
+			return;
+		}
+		String elementId = element.getElementID();
+		for (Iterator<ResolutionState> iterator = states.values().iterator(); iterator.hasNext();) {
+			if (iterator.next().isAffectedBy(elementId)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * The beans of the context at the time of a resolution and the outcome of resolving the beans of the element.
+	 */
+	static class ResolutionState {
+
+		final Map<String, BeanState> beans = new HashMap<String, BeanState>();
+
+		/** IDs of the resolved element and of the context */
+		final Set<String> elementIds = new HashSet<String>();
+
+		boolean isAffectedBy(String changedElementId) {
+			for (String elementId : elementIds) {
+				if (elementId.startsWith(changedElementId) || changedElementId.startsWith(elementId)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	static class BeanState {
+
+		final String beanId;
+
+		/** Load generation of the config of the bean; -1 if unknown */
+		final int loadGeneration;
+
+		/** Combined structural fingerprint of the bean class and its superclasses */
+		final long fingerprint;
+
+		/** Names of all types the bean can be autowired to */
+		final Set<String> types;
+
+		/** Outcome of the resolution; <code>null</code> for beans of the context that are not part of the element */
+		Set<IBeanReference> references;
+
+		List<ValidationProblem> problems;
+
+		Set<String> lookedUpTypes;
+
+		Set<String> lookedUpNames;
+
+		BeanState(String beanId, int loadGeneration, long fingerprint, Set<String> types) {
+			this.beanId = beanId;
+			this.loadGeneration = loadGeneration;
+			this.fingerprint = fingerprint;
+			this.types = types;
+		}
+
+		/**
+		 * Returns <code>true</code> if both states describe the same bean of the same load of its config.
+		 */
+		boolean isSameBean(BeanState other) {
+			return loadGeneration != -1 && loadGeneration == other.loadGeneration && beanId.equals(other.beanId);
+		}
+
+		boolean isResolved() {
+			return references != null;
+		}
+	}
+
+}
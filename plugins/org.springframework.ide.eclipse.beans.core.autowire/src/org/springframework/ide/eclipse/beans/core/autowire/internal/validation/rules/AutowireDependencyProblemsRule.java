@@ -12,6 +12,7 @@ package org.springframework.ide.eclipse.beans.core.autowire.internal.validation.
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.AutowireDependencyProvider;
+import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.AutowireResolutionCache;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModelElement;
@@ -45,6 +46,7 @@ public class AutowireDependencyProblemsRule implements IValidationRule<IBeansCon
 		AutowireDependencyProvider provider = new AutowireDependencyProvider(element, (IBeansModelElement) context
 				.getContextElement());
 		provider.setProjectClassLoaderSupport(context.getProjectClassLoaderSupport());
+		provider.setResolutionCache(AutowireResolutionCache.getDefault());
 		
 		provider.resolveAutowiredDependencies();
 		for (ValidationProblem problem : provider.getValidationProblems()) {
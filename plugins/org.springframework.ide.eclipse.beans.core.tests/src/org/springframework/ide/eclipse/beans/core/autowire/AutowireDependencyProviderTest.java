@@ -11,14 +11,22 @@
 package org.springframework.ide.eclipse.beans.core.autowire;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.InstanceScope;
@@ -28,16 +36,22 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.AutowireDependencyProvider;
+import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.AutowireResolutionCache;
 import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.FactoryBeanTypeResolverExtensions;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigSet;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeanReference;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
 import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.IProjectClassLoaderSupport;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
 
 /**
@@ -723,5 +737,180 @@ public class AutowireDependencyProviderTest {
 	}
 
 
+	@Test
+	public void testCachedResolutionOfUnchangedBean() throws Exception {
+		IBeansConfigSet context = createCachedResolutionContext();
+		IBeansConfig config = beansProject.getConfig("element.xml");
+		AutowireResolutionCache cache = new AutowireResolutionCache();
+
+		Map<IBean, Set<IBeanReference>> references = resolveAutowiredDependencies(config, context, cache);
+		IBean bean = BeansModelUtils.getBean("annotatedBean", config);
+		assertEquals(2, references.get(bean).size());
+
+		Map<IBean, Set<IBeanReference>> cachedReferences = resolveAutowiredDependencies(config, context, cache);
+		assertSame(references.get(bean), cachedReferences.get(bean));
+	}
+
+	@Test
+	public void testCachedResolutionOfChangedCandidateType() throws Exception {
+		IBeansConfigSet context = createCachedResolutionContext();
+		IBeansConfig config = beansProject.getConfig("element.xml");
+		AutowireResolutionCache cache = new AutowireResolutionCache();
+
+		Map<IBean, Set<IBeanReference>> references = resolveAutowiredDependencies(config, context, cache);
+		IBean bean = BeansModelUtils.getBean("annotatedBean", config);
+		assertEquals(2, references.get(bean).size());
+
+		// the candidate doesn't match the injection points of the unchanged bean anymore
+		writeConfigFile("candidates.xml", "<bean id=\"testBean\" class=\"test.beans.NestedTestBean\" />");
+		((BeansConfig) beansProject.getConfig("candidates.xml")).reload();
+
+		Map<IBean, Set<IBeanReference>> changedReferences = resolveAutowiredDependencies(config, context, cache);
+		assertSame(bean, BeansModelUtils.getBean("annotatedBean", config));
+		assertFalse(changedReferences.containsKey(bean));
+	}
+
+	@Test
+	public void testCachedResolutionOfChangedPostProcessor() throws Exception {
+		IBeansConfigSet context = createCachedResolutionContext();
+		IBeansConfig config = beansProject.getConfig("element.xml");
+		AutowireResolutionCache cache = new AutowireResolutionCache();
+
+		Map<IBean, Set<IBeanReference>> references = resolveAutowiredDependencies(config, context, cache);
+		IBean bean = BeansModelUtils.getBean("annotatedBean", config);
+		assertEquals(2, references.get(bean).size());
+
+		// the post processor is not looked up by the bean but may change all injection points
+		writeConfigFile("postprocessors.xml", "<bean class=\"org.springframework.beans.factory.annotation."
+				+ "AutowiredAnnotationBeanPostProcessor\" />");
+		((BeansConfig) beansProject.getConfig("postprocessors.xml")).reload();
+
+		Map<IBean, Set<IBeanReference>> changedReferences = resolveAutowiredDependencies(config, context, cache);
+		assertSame(bean, BeansModelUtils.getBean("annotatedBean", config));
+		assertEquals(2, changedReferences.get(bean).size());
+		assertNotSame(references.get(bean), changedReferences.get(bean));
+	}
+
+	@Test
+	public void testCachedResolutionDroppedOnModelChange() throws Exception {
+		IBeansConfigSet context = createCachedResolutionContext();
+		IBeansConfig config = beansProject.getConfig("element.xml");
+		IBeansConfig candidates = beansProject.getConfig("candidates.xml");
+		AutowireResolutionCache cache = new AutowireResolutionCache();
+
+		Map<IBean, Set<IBeanReference>> references = resolveAutowiredDependencies(config, context, cache);
+		IBean bean = BeansModelUtils.getBean("annotatedBean", config);
+
+		// a change of another config of the context keeps the state of the element
+		cache.elementChanged(new ModelChangeEvent(candidates, ModelChangeEvent.Type.CHANGED));
+		Map<IBean, Set<IBeanReference>> cachedReferences = resolveAutowiredDependencies(config, context, cache);
+		assertSame(references.get(bean), cachedReferences.get(bean));
+
+		cache.elementChanged(new ModelChangeEvent(config, ModelChangeEvent.Type.CHANGED));
+		Map<IBean, Set<IBeanReference>> changedReferences = resolveAutowiredDependencies(config, context, cache);
+		assertEquals(2, changedReferences.get(bean).size());
+		assertNotSame(references.get(bean), changedReferences.get(bean));
+	}
+
+	@Test
+	public void testBeanLookupByNameAndAlias() throws Exception {
+		writeConfigFile("lookup.xml", "<bean id=\"testBean\" class=\"test.beans.TestBean\" />"
+				+ "<bean id=\"otherBean\" class=\"test.beans.TestBean\" />"
+				+ "<alias name=\"testBean\" alias=\"firstAlias\" />"
+				+ "<alias name=\"testBean\" alias=\"secondAlias\" />");
+		BeansConfig config = new BeansConfig(beansProject, "lookup.xml", IBeansConfig.Type.MANUAL);
+		AutowireDependencyProvider provider = new AutowireDependencyProvider(config, config);
+		IBean testBean = BeansModelUtils.getBean("testBean", config);
+
+		assertSame(testBean, provider.getBean("testBean"));
+		assertSame(testBean, provider.getBean("firstAlias"));
+		assertSame(testBean, provider.getBean("secondAlias"));
+		assertSame(BeansModelUtils.getBean("otherBean", config), provider.getBean("otherBean"));
+		assertNull(provider.getBean("unknownBean"));
+		assertFalse(provider.containsBean("unknownBean"));
+
+		assertEquals(Arrays.asList("firstAlias", "secondAlias"), Arrays.asList(provider.getAliases("testBean")));
+		assertEquals(0, provider.getAliases("otherBean").length);
+	}
+
+	@Test
+	public void testBeanLookupByType() throws Throwable {
+		writeConfigFile("lookup.xml", "<bean id=\"testBean\" class=\"test.beans.TestBean\" />"
+				+ "<bean id=\"derivedBean\" class=\"test.beans.DerivedTestBean\" />"
+				+ "<bean id=\"stringFactory\" class=\"org.springframework.beans.factory.annotation."
+				+ "AutowiredAnnotationBeanPostProcessorTests$StringFactoryBean\" />"
+				+ "<bean id=\"unknownBean\" class=\"test.beans.UnknownBean\" />");
+		BeansConfig config = new BeansConfig(beansProject, "lookup.xml", IBeansConfig.Type.MANUAL);
+		final AutowireDependencyProvider provider = new AutowireDependencyProvider(config, config);
+
+		JdtUtils.getProjectClassLoaderSupport(project, null).executeCallback(
+				new IProjectClassLoaderSupport.IProjectClassLoaderAwareCallback() {
+
+					public void doWithActiveProjectClassLoader() throws Throwable {
+						provider.preloadClasses();
+						assertBeansForType(provider, "test.beans.TestBean", "testBean", "derivedBean");
+						assertBeansForType(provider, "test.beans.ITestBean", "testBean", "derivedBean");
+						assertBeansForType(provider, "test.beans.DerivedTestBean", "derivedBean");
+						assertBeansForType(provider, "java.io.Serializable", "derivedBean", "stringFactory");
+						assertBeansForType(provider, "java.lang.String", "stringFactory");
+						assertBeansForType(provider, "org.springframework.beans.factory.FactoryBean", "stringFactory");
+						assertBeansForType(provider, "java.lang.Object", "testBean", "derivedBean", "stringFactory");
+						assertBeansForType(provider, "test.beans.UnknownBean");
+						assertBeansForType(provider, "java.lang.Integer");
+					}
+				});
+	}
+
+	private static void assertBeansForType(AutowireDependencyProvider provider, String typeName, String... beanNames) {
+		assertEquals(typeName, new HashSet<String>(Arrays.asList(beanNames)), new HashSet<String>(Arrays.asList(provider
+				.getBeansForType(typeName))));
+	}
+
+	/**
+	 * Creates a config set with the annotated bean, its autowire candidate and the post processors in separate
+	 * configs, so that each of them can be changed on its own.
+	 */
+	private IBeansConfigSet createCachedResolutionContext() throws Exception {
+		writeConfigFile("element.xml", "<bean id=\"annotatedBean\" class=\"org.springframework.beans.factory."
+				+ "annotation.AutowiredAnnotationBeanPostProcessorTests$ResourceInjectionBean\" />");
+		writeConfigFile("candidates.xml", "<bean id=\"testBean\" class=\"test.beans.TestBean\" />");
+		writeConfigFile("postprocessors.xml", "<context:annotation-config />");
+
+		BeansConfigSet configSet = new BeansConfigSet(beansProject, "context", IBeansConfigSet.Type.MANUAL);
+		for (String configName : new String[] { "element.xml", "candidates.xml", "postprocessors.xml" }) {
+			((BeansProject) beansProject).addConfig(configName, IBeansConfig.Type.MANUAL);
+			configSet.addConfig(configName);
+		}
+		((BeansProject) beansProject).addConfigSet(configSet);
+		return configSet;
+	}
+
+	private Map<IBean, Set<IBeanReference>> resolveAutowiredDependencies(IBeansConfig config,
+			IBeansConfigSet context, AutowireResolutionCache cache) {
+		AutowireDependencyProvider provider = new AutowireDependencyProvider(config, context);
+		provider.setResolutionCache(cache);
+		return provider.resolveAutowiredDependencies();
+	}
+
+	private void writeConfigFile(String name, String beans) throws Exception {
+		String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<beans xmlns=\"http://www.springframework.org/schema/beans\"\n"
+				+ "\txmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+				+ "\txmlns:context=\"http://www.springframework.org/schema/context\"\n"
+				+ "\txsi:schemaLocation=\"http://www.springframework.org/schema/beans "
+				+ "http://www.springframework.org/schema/beans/spring-beans-3.0.xsd\n"
+				+ "\t\thttp://www.springframework.org/schema/context "
+				+ "http://www.springframework.org/schema/context/spring-context-2.5.xsd\">\n"
+				+ "\t" + beans + "\n"
+				+ "</beans>\n";
+		IFile file = project.getFile(name);
+		InputStream source = new ByteArrayInputStream(content.getBytes("UTF-8"));
+		if (file.exists()) {
+			file.setContents(source, true, false, null);
+		}
+		else {
+			file.create(source, true, null);
+		}
+	}
 
 }
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests caching, persisting and invalidating the per jar entries of the {@link SchemaNamespaceCache}.
+ * @author Martin Lippert
+ */
+public class SchemaNamespaceCacheTest {
+
+	private static final String NAMESPACE = "http://www.springframework.org/schema/test";
+
+	private static final Map<String, String> MAPPINGS = Collections.singletonMap(
+			"http://www.springframework.org/schema/test/spring-test.xsd", "org/test/spring-test.xsd");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File jar;
+
+	private final SchemaNamespaceCache cache = new SchemaNamespaceCache();
+
+	@Before
+	public void createJar() throws Exception {
+		jar = folder.newFile("test.jar");
+		writeJar(jar, 10);
+	}
+
+	@Test
+	public void testCacheEntriesOfJar() throws Exception {
+		cache.putSchemaMappings(getUrl(jar, "META-INF/spring.schemas"), MAPPINGS);
+		cache.putTargetNamespace(getUrl(jar, "org/test/spring-test.xsd"), NAMESPACE);
+		cache.putTargetNamespace(getUrl(jar, "org/test/no-namespace.xsd"), null);
+		assertCached(cache);
+	}
+
+	@Test
+	public void testNoCacheOutsideJars() throws Exception {
+		URL url = folder.newFile("spring.schemas").toURI().toURL();
+		cache.putSchemaMappings(url, MAPPINGS);
+		cache.putTargetNamespace(url, NAMESPACE);
+		assertNull(cache.getSchemaMappings(url));
+		assertFalse(cache.hasTargetNamespace(url));
+	}
+
+	@Test
+	public void testReplacedJar() throws Exception {
+		cache.putSchemaMappings(getUrl(jar, "META-INF/spring.schemas"), MAPPINGS);
+		cache.putTargetNamespace(getUrl(jar, "org/test/spring-test.xsd"), NAMESPACE);
+
+		writeJar(jar, 20);
+		assertNull(cache.getSchemaMappings(getUrl(jar, "META-INF/spring.schemas")));
+		assertFalse(cache.hasTargetNamespace(getUrl(jar, "org/test/spring-test.xsd")));
+	}
+
+	@Test
+	public void testReplacedJarWithSameLength() throws Exception {
+		cache.putSchemaMappings(getUrl(jar, "META-INF/spring.schemas"), MAPPINGS);
+
+		writeJar(jar, 10);
+		assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+		assertNull(cache.getSchemaMappings(getUrl(jar, "META-INF/spring.schemas")));
+	}
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		File otherJar = folder.newFile("other.jar");
+		writeJar(otherJar, 10);
+		cache.putSchemaMappings(getUrl(jar, "META-INF/spring.schemas"), MAPPINGS);
+		cache.putTargetNamespace(getUrl(jar, "org/test/spring-test.xsd"), NAMESPACE);
+		cache.putTargetNamespace(getUrl(jar, "org/test/no-namespace.xsd"), null);
+		cache.putTargetNamespace(getUrl(otherJar, "org/test/spring-test.xsd"), NAMESPACE);
+
+		File file = new File(folder.getRoot(), "cache/schemas.cache");
+		cache.write(file);
+		SchemaNamespaceCache readCache = new SchemaNamespaceCache();
+		readCache.read(file);
+		assertCached(readCache);
+		assertNull(readCache.getSchemaMappings(getUrl(otherJar, "META-INF/spring.schemas")));
+		assertEquals(NAMESPACE, readCache.getTargetNamespace(getUrl(otherJar, "org/test/spring-test.xsd")));
+	}
+
+	@Test
+	public void testReplacedJarNotRead() throws Exception {
+		cache.putSchemaMappings(getUrl(jar, "META-INF/spring.schemas"), MAPPINGS);
+		File file = folder.newFile("schemas.cache");
+		cache.write(file);
+
+		// replaced while the workspace was closed
+		writeJar(jar, 20);
+		SchemaNamespaceCache readCache = new SchemaNamespaceCache();
+		readCache.read(file);
+		assertNull(readCache.getSchemaMappings(getUrl(jar, "META-INF/spring.schemas")));
+	}
+
+	@Test
+	public void testReplacedJarNotWritten() throws Exception {
+		long lastModified = jar.lastModified();
+		cache.putSchemaMappings(getUrl(jar, "META-INF/spring.schemas"), MAPPINGS);
+		writeJar(jar, 20);
+		File file = folder.newFile("schemas.cache");
+		cache.write(file);
+
+		// an entry written for the replaced jar would be up to date again
+		writeJar(jar, 10);
+		assertTrue(jar.setLastModified(lastModified));
+		SchemaNamespaceCache readCache = new SchemaNamespaceCache();
+		readCache.read(file);
+		assertNull(readCache.getSchemaMappings(getUrl(jar, "META-INF/spring.schemas")));
+	}
+
+	@Test
+	public void testReadOtherVersion() throws Exception {
+		cache.putSchemaMappings(getUrl(jar, "META-INF/spring.schemas"), MAPPINGS);
+		File file = folder.newFile("schemas.cache");
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		try {
+			out.writeInt(-1);
+		}
+		finally {
+			out.close();
+		}
+
+		cache.read(file);
+		assertNull(cache.getSchemaMappings(getUrl(jar, "META-INF/spring.schemas")));
+		cache.read(new File(folder.getRoot(), "missing.cache"));
+	}
+
+	private void assertCached(SchemaNamespaceCache cache) throws Exception {
+		assertEquals(MAPPINGS, cache.getSchemaMappings(getUrl(jar, "META-INF/spring.schemas")));
+		assertTrue(cache.hasTargetNamespace(getUrl(jar, "org/test/spring-test.xsd")));
+		assertEquals(NAMESPACE, cache.getTargetNamespace(getUrl(jar, "org/test/spring-test.xsd")));
+		assertTrue(cache.hasTargetNamespace(getUrl(jar, "org/test/no-namespace.xsd")));
+		assertNull(cache.getTargetNamespace(getUrl(jar, "org/test/no-namespace.xsd")));
+		assertFalse(cache.hasTargetNamespace(getUrl(jar, "org/test/other.xsd")));
+	}
+
+	private static URL getUrl(File jar, String entry) throws IOException {
+		return new URL("jar:" + jar.toURI().toURL() + "!/" + entry);
+	}
+
+	/**
+	 * Writes a file of the given length; the cache only looks at the length and modification time of jars.
+	 */
+	private static void writeJar(File jar, int length) throws IOException {
+		FileOutputStream out = new FileOutputStream(jar);
+		try {
+			out.write(new byte[length]);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+}
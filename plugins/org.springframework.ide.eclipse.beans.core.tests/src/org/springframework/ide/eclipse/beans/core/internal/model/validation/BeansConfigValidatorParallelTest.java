@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.IBeansProjectMarker;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinitionFactory;
+
+/**
+ * Compares the parallel validation of the {@link BeansConfigValidator} with the serial one and reports the time
+ * both take.
+ * @author Martin Lippert
+ */
+public class BeansConfigValidatorParallelTest extends BeansCoreTestCase {
+
+	private static final String VALIDATOR_ID = "org.springframework.ide.eclipse.beans.core.beansvalidator";
+
+	private static final int COPIES = 10;
+
+	private static final int RUNS = 3;
+
+	private IProject project;
+
+	private int parallelism;
+
+	@Before
+	public void setUp() throws Exception {
+		parallelism = SpringCore.getDefault().getPluginPreferences().getInt(SpringCore.VALIDATION_PARALLELISM);
+		project = createPredefinedProject("validation");
+		copyConfigs();
+	}
+
+	@After
+	public void restoreParallelism() {
+		SpringCore.getDefault().getPluginPreferences().setValue(SpringCore.VALIDATION_PARALLELISM, parallelism);
+	}
+
+	@Test
+	public void testBeansRulesAreThreadSafe() throws Exception {
+		for (ValidationRuleDefinition ruleDefinition : ValidationRuleDefinitionFactory.getRuleDefinitions(VALIDATOR_ID)) {
+			assertTrue(ruleDefinition.getId(), ruleDefinition.isThreadSafe());
+		}
+	}
+
+	@Test
+	public void testRulesAreNotThreadSafeByDefault() {
+		assertFalse(new ValidationRuleDefinition(VALIDATOR_ID, "rule", "Rule", null).isThreadSafe());
+	}
+
+	@Test
+	public void testParallelValidationReportsSameProblems() throws Exception {
+		Set<String> serialProblems = validate(1);
+		assertFalse(serialProblems.isEmpty());
+		assertEquals(serialProblems, validate(getParallelism()));
+	}
+
+	@Test
+	public void testParallelValidationSpeedup() throws Exception {
+		// warm up class loading and type caches
+		validate(1);
+
+		long serialTime = getBestValidationTime(1);
+		long parallelTime = getBestValidationTime(getParallelism());
+		System.out.println(String.format("Validated %d configs serially in %d ms and with %d threads in %d ms",
+				getConfigs().size(), serialTime, getParallelism(), parallelTime));
+	}
+
+	/**
+	 * Adds {@link #COPIES} copies of every config of the project to it.
+	 */
+	private void copyConfigs() throws CoreException {
+		BeansProject beansProject = (BeansProject) BeansCorePlugin.getModel().getProject(project);
+		for (IBeansConfig config : new ArrayList<IBeansConfig>(beansProject.getConfigs())) {
+			IFile file = (IFile) config.getElementResource();
+			for (int i = 0; i < COPIES; i++) {
+				IFile copy = file.getParent().getFile(new Path("copy-" + i + "-" + file.getName()));
+				copy.create(file.getContents(), true, null);
+				beansProject.addConfig(copy, IBeansConfig.Type.MANUAL);
+			}
+		}
+		beansProject.saveDescription();
+	}
+
+	private Set<IBeansConfig> getConfigs() {
+		return BeansCorePlugin.getModel().getProject(project).getConfigs();
+	}
+
+	private int getParallelism() {
+		return Math.max(2, Runtime.getRuntime().availableProcessors());
+	}
+
+	private long getBestValidationTime(int parallelism) throws CoreException {
+		long bestTime = Long.MAX_VALUE;
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			validate(parallelism);
+			bestTime = Math.min(bestTime, (System.nanoTime() - start) / 1000000);
+		}
+		return bestTime;
+	}
+
+	/**
+	 * Rebuilds the project with the given validation parallelism and returns the found problems.
+	 */
+	private Set<String> validate(int parallelism) throws CoreException {
+		SpringCore.getDefault().getPluginPreferences().setValue(SpringCore.VALIDATION_PARALLELISM, parallelism);
+		project.build(IncrementalProjectBuilder.CLEAN_BUILD, null);
+		project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+
+		Set<String> problems = new TreeSet<String>();
+		for (IMarker marker : project.findMarkers(IBeansProjectMarker.PROBLEM_MARKER, true, IResource.DEPTH_INFINITE)) {
+			problems.add(marker.getResource().getProjectRelativePath() + ":"
+					+ marker.getAttribute(IMarker.LINE_NUMBER, -1) + ":" + marker.getAttribute(IMarker.MESSAGE, ""));
+		}
+		return problems;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeanClassIndex;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests querying and pruning the {@link BeanClassIndex}.
+ * @author Martin Lippert
+ */
+public class BeanClassIndexTest {
+
+	private static final String CONFIG_NAME = "basic-bean-config.xml";
+
+	private static final String BEAN_CLASS = "org.test.spring.SimpleBeanClass";
+
+	private IProject project;
+	private BeansProject beansProject;
+	private IBeansConfig config;
+	private Set<IBeansConfig> configs;
+
+	private BeanClassIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		beansProject = new BeansProject(new BeansModel(), project);
+		beansProject.addConfig(CONFIG_NAME, IBeansConfig.Type.MANUAL);
+		config = beansProject.getConfig(CONFIG_NAME);
+		configs = Collections.singleton(config);
+		index = new BeanClassIndex();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testGetConfigs() throws Exception {
+		assertEquals(configs, index.getConfigs(BEAN_CLASS, configs));
+		assertTrue(index.getConfigs("org.test.spring.Unknown", configs).isEmpty());
+		assertTrue(index.getConfigs(BEAN_CLASS, Collections.<IBeansConfig> emptySet()).isEmpty());
+	}
+
+	@Test
+	public void testGetConfigsByContainingTypes() throws Exception {
+		assertEquals(configs, index.getConfigsByContainingTypes(Collections.singleton(BEAN_CLASS), configs, project,
+				SpringCore.getTypeHierarchyEngine()));
+		assertEquals(configs, index.getConfigsByContainingTypes(Collections.singleton("java.lang.Object"), configs,
+				project, SpringCore.getTypeHierarchyEngine()));
+		assertTrue(index.getConfigsByContainingTypes(Collections.singleton("java.io.Serializable"), configs, project,
+				SpringCore.getTypeHierarchyEngine()).isEmpty());
+
+		// resolved again after the type changed
+		index.invalidateTypes(Collections.singleton(BEAN_CLASS));
+		assertEquals(configs, index.getConfigsByContainingTypes(Collections.singleton("java.lang.Object"), configs,
+				project, SpringCore.getTypeHierarchyEngine()));
+	}
+
+	@Test
+	public void testReindexReloadedConfig() throws Exception {
+		assertEquals(configs, index.getConfigs(BEAN_CLASS, configs));
+		((BeansConfig) config).reload();
+		assertEquals(configs, index.getConfigs(BEAN_CLASS, configs));
+		assertTrue(index.isIndexed(config));
+	}
+
+	@Test
+	public void testRemovedConfigDropped() throws Exception {
+		index.getConfigs(BEAN_CLASS, configs);
+		assertTrue(index.isIndexed(config));
+
+		index.elementChanged(new ModelChangeEvent(config, ModelChangeEvent.Type.CHANGED));
+		assertTrue(index.isIndexed(config));
+
+		index.elementChanged(new ModelChangeEvent(config, ModelChangeEvent.Type.REMOVED));
+		assertFalse(index.isIndexed(config));
+	}
+
+	@Test
+	public void testConfigRemovedFromProjectDropped() throws Exception {
+		index.getConfigs(BEAN_CLASS, configs);
+
+		index.elementChanged(new ModelChangeEvent(beansProject, ModelChangeEvent.Type.CHANGED));
+		assertTrue(index.isIndexed(config));
+
+		beansProject.removeConfig(CONFIG_NAME);
+		index.elementChanged(new ModelChangeEvent(beansProject, ModelChangeEvent.Type.CHANGED));
+		assertFalse(index.isIndexed(config));
+	}
+
+	@Test
+	public void testRemovedProjectDropped() throws Exception {
+		index.getConfigs(BEAN_CLASS, configs);
+
+		index.elementChanged(new ModelChangeEvent(beansProject, ModelChangeEvent.Type.REMOVED));
+		assertFalse(index.isIndexed(config));
+		assertTrue(index.getConfigs(BEAN_CLASS, Collections.<IBeansConfig> emptySet()).isEmpty());
+	}
+
+}
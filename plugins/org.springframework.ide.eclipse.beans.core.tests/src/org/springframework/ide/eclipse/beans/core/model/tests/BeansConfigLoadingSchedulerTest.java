@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoadingScheduler;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests coalescing, supersession and cancellation of loads in the {@link BeansConfigLoadingScheduler}.
+ * @author Martin Lippert
+ */
+public class BeansConfigLoadingSchedulerTest {
+
+	private static final long TIMEOUT = 10;
+
+	private IProject project;
+	private IBeansConfig config;
+	private IBeansConfig otherConfig;
+
+	private BeansConfigLoadingScheduler scheduler;
+	private ExecutorService requests;
+
+	@Before
+	public void setUp() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		IBeansProject beansProject = new BeansProject(new BeansModel(), project);
+		config = new BeansConfig(beansProject, "basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		otherConfig = new BeansConfig(beansProject, "advanced-bean-config.xml", IBeansConfig.Type.MANUAL);
+
+		scheduler = new BeansConfigLoadingScheduler(1, Executors.defaultThreadFactory());
+		requests = Executors.newCachedThreadPool();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		requests.shutdownNow();
+		scheduler.shutdown();
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testCoalesceLoadsOfSameGeneration() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		Future<Integer> first = requestLoad(config, 0, new BlockingOperation(started, release, calls, 1));
+		assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+		final AtomicReference<Thread> secondThread = new AtomicReference<Thread>();
+		Future<Integer> second = requests.submit(new Callable<Integer>() {
+
+			public Integer call() throws Exception {
+				secondThread.set(Thread.currentThread());
+				return scheduler.load(config, 0, new BlockingOperation(null, null, new AtomicInteger(), 2),
+						TIMEOUT, TimeUnit.SECONDS);
+			}
+		});
+		awaitWaiting(secondThread);
+		release.countDown();
+
+		assertEquals(Integer.valueOf(1), first.get(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(1), second.get(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testSupersedeLoadOfOutdatedGeneration() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		Future<Integer> outdated = requestLoad(config, 0, new CancelableOperation(started));
+		assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+		Integer result = scheduler.load(config, 1, new BlockingOperation(null, null, new AtomicInteger(), 2),
+				TIMEOUT, TimeUnit.SECONDS);
+		assertEquals(Integer.valueOf(2), result);
+		assertCanceled(outdated);
+	}
+
+	@Test
+	public void testCancelRunningLoad() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		Future<Integer> load = requestLoad(config, 0, new CancelableOperation(started));
+		assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+		scheduler.cancel(config);
+		assertCanceled(load);
+	}
+
+	@Test
+	public void testQueuedLoadRunsOnRequestingThread() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<Integer> busy = requestLoad(config, 0, new BlockingOperation(started, release, new AtomicInteger(), 1));
+		assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+		// the only loading thread is busy, e.g. waiting for a lock held by this thread
+		final AtomicReference<Thread> loadingThread = new AtomicReference<Thread>();
+		Integer result = scheduler.load(otherConfig, 0, new Callable<Integer>() {
+
+			public Integer call() {
+				loadingThread.set(Thread.currentThread());
+				return 2;
+			}
+		}, TIMEOUT, TimeUnit.SECONDS);
+		assertEquals(Integer.valueOf(2), result);
+		assertSame(Thread.currentThread(), loadingThread.get());
+
+		release.countDown();
+		assertEquals(Integer.valueOf(1), busy.get(TIMEOUT, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testNestedLoadRunsOnLoadingThread() throws Exception {
+		final AtomicReference<Thread> outerThread = new AtomicReference<Thread>();
+		final AtomicReference<Thread> innerThread = new AtomicReference<Thread>();
+		Integer result = scheduler.load(config, 0, new Callable<Integer>() {
+
+			public Integer call() throws Exception {
+				outerThread.set(Thread.currentThread());
+				return scheduler.load(otherConfig, 0, new Callable<Integer>() {
+
+					public Integer call() {
+						innerThread.set(Thread.currentThread());
+						return 3;
+					}
+				}, TIMEOUT, TimeUnit.SECONDS);
+			}
+		}, TIMEOUT, TimeUnit.SECONDS);
+
+		assertEquals(Integer.valueOf(3), result);
+		assertSame(outerThread.get(), innerThread.get());
+	}
+
+	private Future<Integer> requestLoad(final IBeansConfig config, final int generation,
+			final Callable<Integer> operation) {
+		return requests.submit(new Callable<Integer>() {
+
+			public Integer call() throws Exception {
+				return scheduler.load(config, generation, operation, TIMEOUT, TimeUnit.SECONDS);
+			}
+		});
+	}
+
+	/**
+	 * Waits until the given thread blocks waiting for the result of a load.
+	 */
+	private void awaitWaiting(AtomicReference<Thread> thread) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+		while (thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Load request didn't wait for the running load");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private void assertCanceled(Future<Integer> load) throws Exception {
+		try {
+			load.get(TIMEOUT, TimeUnit.SECONDS);
+			fail("Load should have been canceled");
+		}
+		catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof OperationCanceledException);
+		}
+	}
+
+	/**
+	 * Loading operation that waits until it gets released.
+	 */
+	private static class BlockingOperation implements Callable<Integer> {
+
+		private final CountDownLatch started;
+		private final CountDownLatch release;
+		private final AtomicInteger calls;
+		private final int result;
+
+		public BlockingOperation(CountDownLatch started, CountDownLatch release, AtomicInteger calls, int result) {
+			this.started = started;
+			this.release = release;
+			this.calls = calls;
+			this.result = result;
+		}
+
+		public Integer call() throws Exception {
+			calls.incrementAndGet();
+			if (started != null) {
+				started.countDown();
+			}
+			if (release != null) {
+				release.await(TIMEOUT, TimeUnit.SECONDS);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Loading operation that runs until it gets canceled.
+	 */
+	private static class CancelableOperation implements Callable<Integer> {
+
+		private final CountDownLatch started;
+
+		public CancelableOperation(CountDownLatch started) {
+			this.started = started;
+		}
+
+		public Integer call() throws Exception {
+			started.countDown();
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+			while (System.currentTimeMillis() < deadline) {
+				BeansConfigLoadingScheduler.checkCanceled();
+				Thread.sleep(10);
+			}
+			return 0;
+		}
+	}
+
+}
@@ -11,18 +11,26 @@
 package org.springframework.ide.eclipse.beans.core.model.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
@@ -34,6 +42,7 @@ import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.beans.core.model.IProfileAwareBeansComponent;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
 
 /**
@@ -140,6 +149,89 @@ public class BeansConfigTest {
 		assertEquals(0, getProfiles(configClassBean).size());
 	}
 
+	@Test
+	public void testReuseParsedDocumentsOnReload() throws Exception {
+		BeansConfig config = new BeansConfig(beansProject, "basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		assertEquals(1, BeansModelUtils.getBeans(config).size());
+		assertEquals(0, config.getReusedDocumentCount());
+
+		// every load uses a new project class loader, but the class path is unchanged
+		config.reload();
+		assertEquals(1, BeansModelUtils.getBeans(config).size());
+		assertEquals(1, config.getReusedDocumentCount());
+	}
+
+	@Test
+	public void testReleaseParsedDocumentsOnRemoval() throws Exception {
+		BeansProject project = (BeansProject) beansProject;
+		project.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		BeansConfig config = (BeansConfig) project.getConfig("basic-bean-config.xml");
+		assertEquals(1, BeansModelUtils.getBeans(config).size());
+
+		assertTrue(project.removeConfig("basic-bean-config.xml"));
+		config.reload();
+		assertEquals(1, BeansModelUtils.getBeans(config).size());
+		assertEquals(0, config.getReusedDocumentCount());
+	}
+
+	@Test
+	public void testReuseParsedDocumentsOnReloadWithoutNamespacesFromClasspath() throws Exception {
+		BeansCorePlugin.getDefault().getPreferenceStore().setValue(BeansCorePlugin.LOAD_NAMESPACEHANDLER_FROM_CLASSPATH_ID, false);
+		try {
+			BeansConfig config = new BeansConfig(beansProject, "basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+			assertEquals(1, BeansModelUtils.getBeans(config).size());
+			assertEquals(0, config.getReusedDocumentCount());
+
+			config.reload();
+			assertEquals(1, BeansModelUtils.getBeans(config).size());
+			assertEquals(1, config.getReusedDocumentCount());
+		}
+		finally {
+			BeansCorePlugin.getDefault().getPreferenceStore().setToDefault(BeansCorePlugin.LOAD_NAMESPACEHANDLER_FROM_CLASSPATH_ID);
+		}
+	}
+
+	@Test
+	public void testAcceptBeansWhileReloading() throws Exception {
+		final BeansConfig config = new BeansConfig(beansProject, "multiple-bean-config.xml", IBeansConfig.Type.MANUAL);
+		int generation = config.getLoadGeneration();
+
+		final List<String> visitedNames = new ArrayList<String>();
+		boolean completed = config.acceptBeans(new IModelElementVisitor() {
+
+			public boolean visit(IModelElement element, IProgressMonitor monitor) {
+				if (visitedNames.isEmpty()) {
+					// replaces the bean map of the running iteration
+					config.reload();
+					assertEquals(3, config.getBeans().size());
+				}
+				visitedNames.add(element.getElementName());
+				return true;
+			}
+		}, new NullProgressMonitor());
+
+		assertTrue(completed);
+		assertEquals(Arrays.asList("firstBean", "secondBean", "thirdBean"), visitedNames);
+		assertTrue(config.getLoadGeneration() > generation);
+	}
+
+	@Test
+	public void testAcceptBeansStopsWhenVisitorReturnsFalse() throws Exception {
+		BeansConfig config = new BeansConfig(beansProject, "multiple-bean-config.xml", IBeansConfig.Type.MANUAL);
+
+		final List<String> visitedNames = new ArrayList<String>();
+		boolean completed = config.acceptBeans(new IModelElementVisitor() {
+
+			public boolean visit(IModelElement element, IProgressMonitor monitor) {
+				visitedNames.add(element.getElementName());
+				return visitedNames.size() < 2;
+			}
+		}, new NullProgressMonitor());
+
+		assertFalse(completed);
+		assertEquals(Arrays.asList("firstBean", "secondBean"), visitedNames);
+	}
+
 	protected Set<String> getProfiles(IModelElement element) {
 		Set<String> profiles = new HashSet<String>();
 		while (element != null) {
@@ -9,9 +9,15 @@ package org.springframework.ide.eclipse.beans.core.model.tests;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.Platform;
@@ -23,6 +29,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConnection;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
@@ -31,6 +39,7 @@ import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.java.JdtUtils;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springframework.util.FileCopyUtils;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
 
 public class BeansModelUtilsTest {
@@ -297,4 +306,64 @@ public class BeansModelUtilsTest {
 		assertTrue(realConfig2 == config1 || realConfig2 == config2);
 	}
 
+
+	@Test
+	public void testNonRecursiveBeanReferences() throws Exception {
+		IBeansConfig config = addBeanReferencesConfig();
+		IBean bean = BeansModelUtils.getBean("referencingBean", config);
+
+		Set<BeansConnection> references = BeansModelUtils.getBeanReferences(bean, config, false);
+		assertEquals(Collections.singleton("referencedBean"), getTargetNames(references));
+		assertSame(BeansModelUtils.getBean("referencedBean", config), references.iterator().next().getTarget());
+	}
+
+	@Test
+	public void testRecursiveBeanReferencesWithCycle() throws Exception {
+		IBeansConfig config = addBeanReferencesConfig();
+		IBean bean = BeansModelUtils.getBean("referencingBean", config);
+
+		Set<BeansConnection> references = BeansModelUtils.getBeanReferences(bean, config, true);
+		assertEquals(3, references.size());
+		assertEquals(new HashSet<String>(Arrays.asList("referencedBean", "cycleBean", "referencingBean")),
+				getTargetNames(references));
+
+		Set<BeansConnection> otherReferences = BeansModelUtils.getBeanReferences(
+				BeansModelUtils.getBean("otherBean", config), config, true);
+		assertTrue(otherReferences.isEmpty());
+	}
+
+	@Test
+	public void testBeanReferencesAfterReload() throws Exception {
+		IBeansConfig config = addBeanReferencesConfig();
+		IBean bean = BeansModelUtils.getBean("referencingBean", config);
+		assertEquals(3, BeansModelUtils.getBeanReferences(bean, config, true).size());
+
+		IFile file = project.getFile("bean-references-config.xml");
+		String content = FileCopyUtils.copyToString(new InputStreamReader(file.getContents(), file.getCharset()));
+		content = content.replace("ref=\"cycleBean\"", "ref=\"otherBean\"");
+		file.setContents(new ByteArrayInputStream(content.getBytes(file.getCharset())), true, false, null);
+		((BeansConfig) config).reload();
+
+		IBean reloadedBean = BeansModelUtils.getBean("referencingBean", config);
+		assertNotSame(bean, reloadedBean);
+		Set<BeansConnection> references = BeansModelUtils.getBeanReferences(reloadedBean, config, true);
+		assertEquals(new HashSet<String>(Arrays.asList("referencedBean", "otherBean")), getTargetNames(references));
+		for (BeansConnection reference : references) {
+			assertSame(BeansModelUtils.getBean(reference.getTarget().getElementName(), config), reference.getTarget());
+		}
+	}
+
+	private IBeansConfig addBeanReferencesConfig() {
+		beansProject.addConfig("bean-references-config.xml", IBeansConfig.Type.MANUAL);
+		return beansProject.getConfig("bean-references-config.xml");
+	}
+
+	private static Set<String> getTargetNames(Set<BeansConnection> references) {
+		Set<String> names = new HashSet<String>();
+		for (BeansConnection reference : references) {
+			names.add(reference.getTarget().getElementName());
+		}
+		return names;
+	}
+
 }
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.internal.model.ContextElementIndex;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.model.IResourceModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests looking up and invalidating the context elements of the {@link ContextElementIndex}.
+ * @author Martin Lippert
+ */
+public class ContextElementIndexTest {
+
+	private static final String IMPORTING_CONFIG_NAME = "importing-bean-config.xml";
+
+	private static final String IMPORTED_CONFIG_NAME = "advanced-bean-config.xml";
+
+	private static final String CONFIG_WITHOUT_IMPORTS = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<beans xmlns=\"http://www.springframework.org/schema/beans\"\n"
+			+ "\txmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+			+ "\txsi:schemaLocation=\"http://www.springframework.org/schema/beans "
+			+ "http://www.springframework.org/schema/beans/spring-beans.xsd\">\n"
+			+ "\t<bean id=\"simpleBean\" class=\"org.test.spring.SimpleBeanClass\"/>\n" + "</beans>\n";
+
+	private IProject project;
+	private BeansProject beansProject;
+
+	private ContextElementIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		beansProject = new BeansProject(new BeansModel(), project);
+		index = new ContextElementIndex();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testImportingConfigs() throws Exception {
+		beansProject.addConfig(IMPORTING_CONFIG_NAME, IBeansConfig.Type.MANUAL);
+		IBeansConfig config = beansProject.getConfig(IMPORTING_CONFIG_NAME);
+
+		assertEquals(Collections.singleton(config), getContextElements(IMPORTED_CONFIG_NAME));
+		assertTrue(getContextElements("basic-bean-config.xml").isEmpty());
+	}
+
+	@Test
+	public void testConfigSets() throws Exception {
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		BeansConfigSet configSet = new BeansConfigSet(beansProject, "test-set", IBeansConfigSet.Type.MANUAL);
+		configSet.addConfig("basic-bean-config.xml");
+		beansProject.addConfigSet(configSet);
+
+		assertEquals(Collections.singleton(configSet), getContextElements("basic-bean-config.xml"));
+	}
+
+	@Test
+	public void testReloadedConfig() throws Exception {
+		beansProject.addConfig(IMPORTING_CONFIG_NAME, IBeansConfig.Type.MANUAL);
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		IBeansConfig config = beansProject.getConfig(IMPORTING_CONFIG_NAME);
+		assertEquals(Collections.singleton(config), getContextElements(IMPORTED_CONFIG_NAME));
+
+		// reloading another config keeps the imports
+		((BeansConfig) beansProject.getConfig("basic-bean-config.xml")).reload();
+		assertEquals(Collections.singleton(config), getContextElements(IMPORTED_CONFIG_NAME));
+
+		// the import got removed without a model change event
+		IFile file = project.getFile(IMPORTING_CONFIG_NAME);
+		file.setContents(new ByteArrayInputStream(CONFIG_WITHOUT_IMPORTS.getBytes("UTF-8")), true, false, null);
+		((BeansConfig) config).reload();
+		assertTrue(getContextElements(IMPORTED_CONFIG_NAME).isEmpty());
+	}
+
+	@Test
+	public void testRemovedConfig() throws Exception {
+		beansProject.addConfig(IMPORTING_CONFIG_NAME, IBeansConfig.Type.MANUAL);
+		assertEquals(1, getContextElements(IMPORTED_CONFIG_NAME).size());
+
+		beansProject.removeConfig(IMPORTING_CONFIG_NAME);
+		index.elementChanged(new ModelChangeEvent(beansProject, ModelChangeEvent.Type.CHANGED));
+		assertTrue(getContextElements(IMPORTED_CONFIG_NAME).isEmpty());
+	}
+
+	private Set<IResourceModelElement> getContextElements(String fileName) {
+		IResource resource = project.getFile(fileName);
+		return index.getContextElements(resource, Collections.<IBeansProject> singleton(beansProject));
+	}
+
+}
@@ -18,7 +18,9 @@ import org.springframework.ide.core.classreading.tests.JdtBasedAnnotationMetadat
 import org.springframework.ide.core.classreading.tests.JdtClassMetadataTest;
 import org.springframework.ide.eclipse.beans.core.autowire.AutowireDependencyProviderTest;
 import org.springframework.ide.eclipse.beans.core.autowire.CommonAnnotationInjectionMetadataProviderTests;
+import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.SchemaNamespaceCacheTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.resources.tests.ResourceChangeEventHandlerTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.validation.BeansConfigValidatorParallelTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanClassRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRulesAutowireTest;
@@ -30,16 +32,24 @@ import org.springframework.ide.eclipse.beans.core.internal.model.validation.rule
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanReferenceRuleWithConfigSetTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.NamespaceElementsRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.RequiredPropertyRuleTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.BeanClassIndexTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.ContextElementIndexTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectAutoConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectDescriptionWriterTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigFactoryTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigLoadingSchedulerTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansJavaConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansModelUtilsTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectTest;
 import org.springframework.ide.eclipse.beans.ui.refactoring.tests.BeansJavaConfigRenameTypeRefactoringParticipantTest;
+import org.springframework.ide.eclipse.beans.ui.search.tests.BeansSearchIndexTest;
+import org.springframework.ide.eclipse.core.internal.project.ProjectContributorSchedulerTest;
 import org.springframework.ide.eclipse.core.java.IntrospectorTest;
+import org.springframework.ide.eclipse.core.java.JarTypeHierarchyIndexTest;
+import org.springframework.ide.eclipse.core.java.TypeStructureCacheTest;
 import org.springframework.ide.eclipse.core.java.JdtUtilsTest;
+import org.springframework.ide.eclipse.core.java.TypeHierarchyElementCacheTest;
 import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 
 /**
@@ -80,7 +90,17 @@ import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 	BeansJavaConfigRenameTypeRefactoringParticipantTest.class,
 	ResourceChangeEventHandlerTest.class,
 	TypeHierarchyEngineTest.class,
-	BeansModelUtilsTest.class
+	TypeHierarchyElementCacheTest.class,
+	JarTypeHierarchyIndexTest.class,
+	ProjectContributorSchedulerTest.class,
+	TypeStructureCacheTest.class,
+	BeansModelUtilsTest.class,
+	BeansConfigLoadingSchedulerTest.class,
+	BeansConfigValidatorParallelTest.class,
+	BeansSearchIndexTest.class,
+	BeanClassIndexTest.class,
+	ContextElementIndexTest.class,
+	SchemaNamespaceCacheTest.class
 })
 public class AllBeansCoreTests {
 	// goofy junit4, no class body needed
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.search.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchScope;
+import org.springframework.ide.eclipse.beans.ui.search.internal.queries.AbstractBeansQuery;
+import org.springframework.ide.eclipse.beans.ui.search.internal.queries.BeanClassQuery;
+import org.springframework.ide.eclipse.beans.ui.search.internal.queries.BeanNameQuery;
+import org.springframework.ide.eclipse.beans.ui.search.internal.queries.BeansSearchIndex;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests searching and updating the {@link BeansSearchIndex}.
+ * @author Martin Lippert
+ */
+public class BeansSearchIndexTest {
+
+	private static final String CONFIG_NAME = "basic-bean-config.xml";
+
+	private IProject project;
+	private BeansProject beansProject;
+	private IBeansConfig config;
+
+	private BeansSearchIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		beansProject = new BeansProject(new BeansModel(), project);
+		beansProject.addConfig(CONFIG_NAME, IBeansConfig.Type.MANUAL);
+		config = beansProject.getConfig(CONFIG_NAME);
+		index = new BeansSearchIndex();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		index.dispose();
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testPrefixSearch() throws Exception {
+		Set<IModelElement> matches = search(new BeanNameQuery(getScope(), "simple*", false, false), "simple.*",
+				"simple");
+		assertEquals(1, matches.size());
+		assertEquals("simpleBean", matches.iterator().next().getElementName());
+
+		assertTrue(search(new BeanNameQuery(getScope(), "other*", false, false), "other.*", "other").isEmpty());
+	}
+
+	@Test
+	public void testRegexSearchWithoutPrefix() throws Exception {
+		Set<IModelElement> matches = search(new BeanClassQuery(getScope(), ".*Simple.*", true, true), ".*Simple.*",
+				null);
+		assertEquals(1, matches.size());
+		assertEquals("simpleBean", matches.iterator().next().getElementName());
+	}
+
+	@Test
+	public void testReloadedConfigIndexedWithoutSearch() throws Exception {
+		search(new BeanNameQuery(getScope(), "simple*", false, false), "simple.*", "simple");
+		assertTrue(index.isIndexed(config, BeanNameQuery.class));
+		assertFalse(index.isIndexed(config, BeanClassQuery.class));
+
+		((BeansConfig) config).reload();
+		assertFalse(index.isIndexed(config, BeanNameQuery.class));
+
+		index.elementChanged(new ModelChangeEvent(config, ModelChangeEvent.Type.CHANGED));
+		index.join();
+		assertTrue(index.isIndexed(config, BeanNameQuery.class));
+		assertFalse(index.isIndexed(config, BeanClassQuery.class));
+	}
+
+	@Test
+	public void testRemovedConfigDropped() throws Exception {
+		search(new BeanNameQuery(getScope(), "simple*", false, false), "simple.*", "simple");
+		assertTrue(index.isIndexed(config, BeanNameQuery.class));
+
+		beansProject.removeConfig(CONFIG_NAME);
+		index.elementChanged(new ModelChangeEvent(beansProject, ModelChangeEvent.Type.CHANGED));
+		index.join();
+		assertFalse(index.isIndexed(config, BeanNameQuery.class));
+	}
+
+	@Test
+	public void testNoUpdateBeforeFirstSearch() throws Exception {
+		index.elementChanged(new ModelChangeEvent(config, ModelChangeEvent.Type.CHANGED));
+		index.join();
+		assertFalse(index.isIndexed(config, BeanNameQuery.class));
+	}
+
+	private Set<IModelElement> search(AbstractBeansQuery query, String regex, String prefix) {
+		return index.getMatches(config, query, Pattern.compile(regex, Pattern.CASE_INSENSITIVE), prefix,
+				new NullProgressMonitor());
+	}
+
+	private BeansSearchScope getScope() {
+		return BeansSearchScope.newSearchScope();
+	}
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.internal.project.ProjectContributorScheduler.ContributorTask;
+
+/**
+ * Tests the order in which the {@link ProjectContributorScheduler} runs builders and validators.
+ * @author Martin Lippert
+ */
+public class ProjectContributorSchedulerTest {
+
+	private ExecutorService executorService;
+
+	private List<String> events;
+
+	@Before
+	public void setUp() {
+		executorService = Executors.newFixedThreadPool(4);
+		events = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	@After
+	public void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void testBuildersFinishBeforeParallelValidators() throws Exception {
+		List<ContributorTask> builders = Arrays.asList(task("builder1", true, 200), task("builder2", true, 100));
+		List<ContributorTask> validators = Arrays.asList(task("validator1", true, 0), task("validator2", true, 0));
+
+		new ProjectContributorScheduler(executorService).run(builders, validators, new NullProgressMonitor());
+
+		assertEquals(8, events.size());
+		for (String builder : Arrays.asList("builder1", "builder2")) {
+			for (String validator : Arrays.asList("validator1", "validator2")) {
+				assertBefore("end " + builder, "start " + validator);
+			}
+		}
+	}
+
+	@Test
+	public void testSequentialBuilderBeforeParallelValidator() throws Exception {
+		List<ContributorTask> builders = Arrays.asList(task("builder", false, 100));
+		List<ContributorTask> validators = Arrays.asList(task("validator", true, 0));
+
+		new ProjectContributorScheduler(executorService).run(builders, validators, new NullProgressMonitor());
+
+		assertEquals(Arrays.asList("start builder", "end builder", "start validator", "end validator"), events);
+	}
+
+	@Test
+	public void testDependsOn() throws Exception {
+		List<ContributorTask> builders = Collections.emptyList();
+		List<ContributorTask> validators = Arrays.asList(task("validator1", true, 0, "validator2"),
+				task("validator2", true, 200));
+
+		new ProjectContributorScheduler(executorService).run(builders, validators, new NullProgressMonitor());
+
+		assertEquals(Arrays.asList("start validator2", "end validator2", "start validator1", "end validator1"),
+				events);
+	}
+
+	@Test
+	public void testSequentialTaskIsBarrier() throws Exception {
+		List<ContributorTask> builders = Arrays.asList(task("builder1", true, 200), task("builder2", false, 0),
+				task("builder3", true, 0));
+		List<ContributorTask> validators = Collections.emptyList();
+
+		new ProjectContributorScheduler(executorService).run(builders, validators, new NullProgressMonitor());
+
+		assertEquals(Arrays.asList("start builder1", "end builder1", "start builder2", "end builder2",
+				"start builder3", "end builder3"), events);
+	}
+
+	@Test
+	public void testWithoutExecutor() throws Exception {
+		List<ContributorTask> builders = Arrays.asList(task("builder1", true, 100), task("builder2", true, 0));
+		List<ContributorTask> validators = Arrays.asList(task("validator", true, 0));
+
+		new ProjectContributorScheduler(null).run(builders, validators, new NullProgressMonitor());
+
+		assertEquals(Arrays.asList("start builder1", "end builder1", "start builder2", "end builder2",
+				"start validator", "end validator"), events);
+	}
+
+	private void assertBefore(String first, String second) {
+		int firstIndex = events.indexOf(first);
+		int secondIndex = events.indexOf(second);
+		assertTrue(first + " missing", firstIndex >= 0);
+		assertTrue(second + " missing", secondIndex >= 0);
+		assertTrue(first + " expected before " + second + ": " + events, firstIndex < secondIndex);
+	}
+
+	private ContributorTask task(final String id, boolean parallel, final long duration, String... dependsOn) {
+		return new ContributorTask(id, parallel, new HashSet<String>(Arrays.asList(dependsOn))) {
+
+			@Override
+			public void run(IProgressMonitor monitor) {
+				events.add("start " + id);
+				try {
+					Thread.sleep(duration);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				events.add("end " + id);
+			}
+		};
+	}
+
+}
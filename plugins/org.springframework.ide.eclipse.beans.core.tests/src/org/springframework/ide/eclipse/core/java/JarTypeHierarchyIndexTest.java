@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.core.java.typehierarchy.JarTypeHierarchyIndex;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyIndex;
+
+/**
+ * Tests for the persistent per-jar {@link JarTypeHierarchyIndex}.
+ * @author Martin Lippert
+ */
+public class JarTypeHierarchyIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File jar;
+	private File indexDirectory;
+
+	@Before
+	public void createJar() throws Exception {
+		jar = new File(folder.getRoot(), "test.jar");
+		writeJar(jar, "java/util/ArrayList", "java/lang/Object");
+		indexDirectory = new File(folder.getRoot(), "index");
+	}
+
+	@Test
+	public void testLookup() throws Exception {
+		JarTypeHierarchyIndex index = newIndex(jar, indexDirectory);
+
+		TypeHierarchyElement element = index.get("java/util/ArrayList".toCharArray());
+		assertNotNull(element);
+		assertEquals("java/util/ArrayList", new String(element.className));
+		assertEquals("java/util/AbstractList", new String(element.superclassName));
+		assertTrue(element.shared);
+		assertInterfaces(element, "java/util/List", "java/util/RandomAccess", "java/lang/Cloneable",
+				"java/io/Serializable");
+		assertSame(element, index.get("java/util/ArrayList".toCharArray()));
+
+		TypeHierarchyElement object = index.get("java/lang/Object".toCharArray());
+		assertNotNull(object);
+		assertNull(object.superclassName);
+		assertNull(object.interfaces);
+
+		assertNull(index.get("java/util/HashMap".toCharArray()));
+		assertNull(index.get("java/util/ArrayLis".toCharArray()));
+		assertNull(index.get("java/util/ArrayListX".toCharArray()));
+	}
+
+	@Test
+	public void testReadPersistedIndex() throws Exception {
+		newIndex(jar, indexDirectory).get("java/lang/Object".toCharArray());
+		File[] indexFiles = indexDirectory.listFiles();
+		assertEquals(1, indexFiles.length);
+		assertTrue(indexFiles[0].getName().endsWith(".idx"));
+
+		// the persisted index is used without opening the jar again
+		long lastModified = jar.lastModified();
+		long fileSize = jar.length();
+		assertTrue(jar.delete());
+		JarTypeHierarchyIndex index = new JarTypeHierarchyIndex(jar.getAbsolutePath(), lastModified, fileSize,
+				indexDirectory);
+		TypeHierarchyElement element = index.get("java/util/ArrayList".toCharArray());
+		assertNotNull(element);
+		assertEquals("java/util/AbstractList", new String(element.superclassName));
+	}
+
+	@Test
+	public void testChangedJarReplacesIndexFile() throws Exception {
+		newIndex(jar, indexDirectory).get("java/lang/Object".toCharArray());
+
+		writeJar(jar, "java/lang/Object");
+		jar.setLastModified(jar.lastModified() + 2000);
+		JarTypeHierarchyIndex index = newIndex(jar, indexDirectory);
+		assertNull(index.get("java/util/ArrayList".toCharArray()));
+		assertNotNull(index.get("java/lang/Object".toCharArray()));
+	}
+
+	@Test
+	public void testFailureRememberedPerJarVersion() throws Exception {
+		// a plain file in place of the index directory makes writing the index fail
+		assertTrue(indexDirectory.createNewFile());
+		JarTypeHierarchyIndex index = newIndex(jar, indexDirectory);
+		assertNull(index.get("java/lang/Object".toCharArray()));
+
+		// the same version of the jar is not read again
+		assertTrue(indexDirectory.delete());
+		assertNull(index.get("java/lang/Object".toCharArray()));
+		assertFalse(indexDirectory.exists());
+
+		assertNotNull(newIndex(jar, indexDirectory).get("java/lang/Object".toCharArray()));
+	}
+
+	@Test
+	public void testJarsWithCollidingHashes() throws Exception {
+		// "Aa" and "BB" have the same hash code, so have both paths
+		File jar1 = new File(folder.getRoot(), "Aa.jar");
+		File jar2 = new File(folder.getRoot(), "BB.jar");
+		assertEquals(jar1.getAbsolutePath().hashCode(), jar2.getAbsolutePath().hashCode());
+		writeJar(jar1, "java/util/ArrayList", "java/lang/Object");
+		writeJar(jar2, "java/util/ArrayList", "java/lang/Object");
+		assertEquals(jar1.length(), jar2.length());
+		assertTrue(jar2.setLastModified(jar1.lastModified()));
+
+		assertNotNull(newIndex(jar1, indexDirectory).get("java/util/ArrayList".toCharArray()));
+		assertNotNull(newIndex(jar2, indexDirectory).get("java/util/ArrayList".toCharArray()));
+		assertEquals(2, indexDirectory.listFiles().length);
+
+		// both index files are used without opening the jars again
+		long lastModified = jar1.lastModified();
+		long fileSize = jar1.length();
+		assertTrue(jar1.delete());
+		assertTrue(jar2.delete());
+		assertNotNull(new JarTypeHierarchyIndex(jar1.getAbsolutePath(), lastModified, fileSize, indexDirectory)
+				.get("java/util/ArrayList".toCharArray()));
+		assertNotNull(new JarTypeHierarchyIndex(jar2.getAbsolutePath(), lastModified, fileSize, indexDirectory)
+				.get("java/util/ArrayList".toCharArray()));
+	}
+
+	@Test
+	public void testSharedJarIndex() throws Exception {
+		TypeHierarchyIndex typeHierarchyIndex = new TypeHierarchyIndex(indexDirectory);
+		JarTypeHierarchyIndex index = typeHierarchyIndex.getJarIndex(jar);
+		assertSame(index, typeHierarchyIndex.getJarIndex(jar));
+
+		jar.setLastModified(jar.lastModified() + 2000);
+		JarTypeHierarchyIndex changedIndex = typeHierarchyIndex.getJarIndex(jar);
+		assertNotSame(index, changedIndex);
+		assertSame(changedIndex, typeHierarchyIndex.getJarIndex(jar));
+	}
+
+	@Test
+	public void testRemoveIndexesOfMissingJars() throws Exception {
+		TypeHierarchyIndex typeHierarchyIndex = new TypeHierarchyIndex(indexDirectory);
+		JarTypeHierarchyIndex index = typeHierarchyIndex.getJarIndex(jar);
+		long lastModified = jar.lastModified();
+
+		typeHierarchyIndex.removeStaleIndexes();
+		assertSame(index, typeHierarchyIndex.getJarIndex(jar));
+
+		assertTrue(jar.delete());
+		typeHierarchyIndex.removeStaleIndexes();
+
+		// the same version of the jar shows up again
+		writeJar(jar, "java/util/ArrayList", "java/lang/Object");
+		assertTrue(jar.setLastModified(lastModified));
+		assertNotSame(index, typeHierarchyIndex.getJarIndex(jar));
+	}
+
+	private static JarTypeHierarchyIndex newIndex(File jar, File indexDirectory) {
+		return new JarTypeHierarchyIndex(jar.getAbsolutePath(), jar.lastModified(), jar.length(), indexDirectory);
+	}
+
+	private static void assertInterfaces(TypeHierarchyElement element, String... expected) {
+		String[] actual = new String[element.interfaces.length];
+		for (int i = 0; i < actual.length; i++) {
+			actual[i] = new String(element.interfaces[i]);
+		}
+		assertArrayEquals(expected, actual);
+	}
+
+	/**
+	 * Writes a jar with the class files of the given JRE classes.
+	 */
+	private static void writeJar(File jar, String... classNames) throws IOException {
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			for (String className : classNames) {
+				out.putNextEntry(new JarEntry(className + ".class"));
+				InputStream in = Object.class.getResourceAsStream("/" + className + ".class");
+				try {
+					byte[] buffer = new byte[8192];
+					for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+						out.write(buffer, 0, read);
+					}
+				}
+				finally {
+					in.close();
+				}
+				out.closeEntry();
+			}
+		}
+		finally {
+			out.close();
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElementCache;
+
+/**
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class TypeHierarchyElementCacheTest {
+
+	@Test
+	public void testCollidingHashCodes() throws Exception {
+		// "Aa" and "BB" share the same String hash code
+		assertEquals("org/Aa".hashCode(), "org/BB".hashCode());
+
+		TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		TypeHierarchyElement elementAa = new TypeHierarchyElement("org/Aa".toCharArray(), null, null);
+		TypeHierarchyElement elementBB = new TypeHierarchyElement("org/BB".toCharArray(), null, null);
+
+		cache.put("org/Aa".toCharArray(), elementAa);
+		assertNull(cache.get("org/BB".toCharArray()));
+
+		cache.put("org/BB".toCharArray(), elementBB);
+		assertSame(elementAa, cache.get("org/Aa".toCharArray()));
+		assertSame(elementBB, cache.get("org/BB".toCharArray()));
+	}
+
+	@Test
+	public void testGrowingCache() throws Exception {
+		TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		TypeHierarchyElement[] elements = new TypeHierarchyElement[5000];
+		for (int i = 0; i < elements.length; i++) {
+			char[] name = ("org/Class" + i).toCharArray();
+			elements[i] = new TypeHierarchyElement(name, null, null);
+			cache.put(name, elements[i]);
+		}
+
+		for (int i = 0; i < elements.length; i++) {
+			assertSame(elements[i], cache.get(("org/Class" + i).toCharArray()));
+		}
+		assertNull(cache.get("org/Class5000".toCharArray()));
+	}
+
+}
@@ -15,9 +15,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.Platform;
@@ -81,6 +85,24 @@ public class TypeHierarchyEngineTest {
 		engine.clearCache();
 	}
 	
+	@Test
+	public void testGetSupertypes() throws Exception {
+		Map<String, Set<String>> supertypes = engine.getSupertypes(project, Arrays.asList("org.Subclass",
+				"org.ClassImplementingInterfaceThroughSubInterface", "org.Unknown"));
+		assertEquals(3, supertypes.size());
+		assertEquals(Arrays.asList("org.SimpleClass", "java.lang.Object"),
+				new ArrayList<String>(supertypes.get("org.Subclass")));
+		assertEquals(new HashSet<String>(Arrays.asList("java.lang.Object", "org.SubInterface", "org.SimpleInterface")),
+				supertypes.get("org.ClassImplementingInterfaceThroughSubInterface"));
+		assertTrue(supertypes.get("org.Unknown").isEmpty());
+	}
+
+	@Test
+	public void testGetSupertypesOfDefaultPackageClass() throws Exception {
+		assertEquals(new HashSet<String>(Arrays.asList("org.SimpleClass", "java.lang.Object")),
+				engine.getSupertypes(project, Collections.singleton("DefaultPackageClass")).get("DefaultPackageClass"));
+	}
+
 	@Test
 	public void testDefaultPackageClass() throws Exception {
 		assertEquals("org.SimpleClass", engine.getSupertype(project, "DefaultPackageClass"));
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the structural fingerprints of the {@link TypeStructureCache}.
+ * @author Martin Lippert
+ */
+public class TypeStructureCacheTest {
+
+	private static final String ANNOTATION = "@java.lang.annotation.Retention("
+			+ "java.lang.annotation.RetentionPolicy.RUNTIME) @interface Autowired {}\n";
+
+	private static final int FLAGS = ITypeStructureCache.FLAG_ANNOTATION | ITypeStructureCache.FLAG_ANNOTATION_VALUE;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final TypeStructureCache cache = new TypeStructureCache();
+
+	@Test
+	public void testUnchangedStructure() throws Exception {
+		long fingerprint = getFingerprint("public class Bean { @Autowired String a; Integer b; }");
+		assertEquals(fingerprint, getFingerprint("public class Bean { @Autowired String a; Integer b; }"));
+		assertEquals(fingerprint, getFingerprint("public class Bean { Integer b; @Autowired String a; }"));
+	}
+
+	@Test
+	public void testAnnotationMovedToOtherField() throws Exception {
+		long fingerprint = getFingerprint("public class Bean { @Autowired String a; String b; }");
+		assertFalse(fingerprint == getFingerprint("public class Bean { String a; @Autowired String b; }"));
+	}
+
+	@Test
+	public void testFieldTypesSwapped() throws Exception {
+		long fingerprint = getFingerprint("public class Bean { String a; Integer b; }");
+		assertFalse(fingerprint == getFingerprint("public class Bean { Integer a; String b; }"));
+	}
+
+	@Test
+	public void testParameterTypesSwapped() throws Exception {
+		long fingerprint = getFingerprint("public class Bean { void a(String s) {} void b(Integer i) {} }");
+		assertFalse(fingerprint == getFingerprint("public class Bean { void a(Integer i) {} void b(String s) {} }"));
+	}
+
+	@Test
+	public void testModifiedClassFileWithSameTimestamp() throws Exception {
+		File directory = folder.newFolder();
+		File classFile = compile("public class Bean { String a; }", directory);
+		long fingerprint = cache.getStructuralFingerprint(classFile, FLAGS);
+		long lastModified = classFile.lastModified();
+
+		compile("public class Bean { String a; Integer b; }", directory);
+		assertTrue(classFile.setLastModified(lastModified));
+		assertFalse(fingerprint == cache.getStructuralFingerprint(classFile, FLAGS));
+	}
+
+	@Test
+	public void testFingerprintsDroppedWithProjectState() throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject("TypeStructureCacheTest");
+		project.create(null);
+		project.open(null);
+		try {
+			File directory = new File(project.getLocation().toFile(), "bin");
+			assertTrue(directory.mkdirs());
+			File classFile = compile("public class Bean { String a; Integer b; }", directory);
+			long fingerprint = cache.getStructuralFingerprint(classFile, FLAGS);
+			long lastModified = classFile.lastModified();
+			long length = classFile.length();
+
+			// a change the cache can't tell from the file's size and modification time
+			compile("public class Bean { Integer a; String b; }", directory);
+			assumeTrue(length == classFile.length());
+			assertTrue(classFile.setLastModified(lastModified));
+			assertEquals(fingerprint, cache.getStructuralFingerprint(classFile, FLAGS));
+
+			cache.clearStateForProject(project);
+			assertFalse(fingerprint == cache.getStructuralFingerprint(classFile, FLAGS));
+		}
+		finally {
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Compiles the given source of the class <code>Bean</code> into a new directory and returns the fingerprint of
+	 * the resulting class file.
+	 */
+	private long getFingerprint(String source) throws IOException {
+		return cache.getStructuralFingerprint(compile(source, folder.newFolder()), FLAGS);
+	}
+
+	/**
+	 * Compiles the given source of the class <code>Bean</code> into the given directory and returns the resulting
+	 * class file.
+	 */
+	private File compile(String source, File directory) throws IOException {
+		File sourceFile = new File(directory, "Bean.java");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(sourceFile), "UTF-8");
+		try {
+			writer.write(source + "\n" + ANNOTATION);
+		}
+		finally {
+			writer.close();
+		}
+
+		StringWriter errors = new StringWriter();
+		boolean compiled = BatchCompiler.compile(new String[] { "-1.7", "-proc:none", "-nowarn", "-encoding",
+				"UTF-8", "-d", directory.getAbsolutePath(), sourceFile.getAbsolutePath() }, new PrintWriter(
+				new StringWriter()), new PrintWriter(errors), null);
+		assertTrue(errors.toString(), compiled);
+		return new File(directory, "Bean.class");
+	}
+
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashSet;
@@ -45,9 +46,11 @@ import org.osgi.framework.Version;
 import org.osgi.service.url.URLConstants;
 import org.osgi.service.url.URLStreamHandlerService;
 import org.springframework.beans.factory.xml.NamespaceHandlerResolver;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoadingScheduler;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.NamespaceManager;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.ProjectClasspathNamespaceDefinitionResolverCache;
+import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.SchemaNamespaceCache;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
 import org.springframework.ide.eclipse.beans.core.model.INamespaceDefinitionListener;
 import org.springframework.ide.eclipse.beans.core.model.INamespaceDefinitionResolver;
@@ -85,6 +88,9 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 	/** preference key for defining the parsing timeout */
 	public static final String TIMEOUT_CONFIG_LOADING_PREFERENCE_ID = PLUGIN_ID + ".timeoutConfigLoading";
 
+	/** preference key for defining the number of configs that get loaded in parallel */
+	public static final String CONFIG_LOADING_PARALLELISM_PREFERENCE_ID = PLUGIN_ID + ".configLoadingParallelism";
+
 	/** preference key to enable namespace versions per namespace */
 	public static final String PROJECT_PROPERTY_ID = "enable.project.preferences";
 
@@ -112,9 +118,17 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 
 	/** Internal executor service */
 	private ExecutorService executorService;
+
+	/** Pool that loads the beans configs */
+	private BeansConfigLoadingScheduler configLoadingScheduler;
 	private AtomicInteger threadCount = new AtomicInteger(0);
 	private static final String THREAD_NAME_TEMPLATE = "Background Thread-%s (%s/%s.%s.%s)";
 
+	private static final String SCHEMA_NAMESPACE_CACHE_FILE_NAME = "schema-namespaces.cache";
+
+	/** Schema mappings and target namespaces of the jars on the project classpaths */
+	private final SchemaNamespaceCache schemaNamespaceCache = new SchemaNamespaceCache();
+
 	/**
 	 * Preference ID to globally disable any beans auto detection scanning.
 	 */
@@ -165,7 +179,7 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 				URLStreamHandlerService.class.getName(),
 				new ProjectAwareUrlStreamHandlerService(), properties);
 		
-		executorService = Executors.newCachedThreadPool(new ThreadFactory() {
+		ThreadFactory threadFactory = new ThreadFactory() {
 			
 			public Thread newThread(Runnable runnable) {
 				Version version = Version.parseVersion(getPluginVersion());
@@ -178,11 +192,15 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 				reportingThread.setDaemon(true);
 				return reportingThread;
 			}
-		});
-
+		};
+		executorService = Executors.newCachedThreadPool(threadFactory);
+		schemaNamespaceCache.read(getSchemaNamespaceCacheFile());
 		
 		nsManager = new NamespaceManager(context);
 		getPreferenceStore().setDefault(TIMEOUT_CONFIG_LOADING_PREFERENCE_ID, 60);
+		getPreferenceStore().setDefault(CONFIG_LOADING_PARALLELISM_PREFERENCE_ID, Runtime.getRuntime().availableProcessors());
+		configLoadingScheduler = new BeansConfigLoadingScheduler(Math.max(1,
+				getPreferenceStore().getInt(CONFIG_LOADING_PARALLELISM_PREFERENCE_ID)), threadFactory);
 		getPreferenceStore().setDefault(NAMESPACE_DEFAULT_FROM_CLASSPATH_ID, true);
 		getPreferenceStore().setDefault(LOAD_NAMESPACEHANDLER_FROM_CLASSPATH_ID, true);
 
@@ -211,6 +229,8 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 			isClosed = true;
 		}
 		model.stop();
+		configLoadingScheduler.shutdown();
+		schemaNamespaceCache.write(getSchemaNamespaceCacheFile());
 		if (projectAwareUrlService != null) {
 			projectAwareUrlService.unregister();
 		}
@@ -257,6 +277,26 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 		return getDefault().executorService;
 	}
 
+	/**
+	 * Returns the scheduler that loads the beans configs.
+	 * @since 3.9.1
+	 */
+	public static BeansConfigLoadingScheduler getConfigLoadingScheduler() {
+		return getDefault().configLoadingScheduler;
+	}
+
+	/**
+	 * Returns the cache of the schema mappings and target namespaces of the jars on the project classpaths.
+	 * @since 3.9.1
+	 */
+	public static SchemaNamespaceCache getSchemaNamespaceCache() {
+		return getDefault().schemaNamespaceCache;
+	}
+
+	private File getSchemaNamespaceCacheFile() {
+		return getStateLocation().append(SCHEMA_NAMESPACE_CACHE_FILE_NAME).toFile();
+	}
+
 	public static void notifyNamespaceDefinitionListeners(IProject project) {
 		for (INamespaceDefinitionListener listener : getDefault().namespaceDefinitionListeners) {
 			listener.onNamespaceDefinitionRegistered(new INamespaceDefinitionListener.NamespaceDefinitionChangeEvent(
@@ -17,6 +17,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -67,10 +68,14 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 	/** List of bean class names mapped to list of beans implementing the corresponding class */
 	protected volatile Map<String, Set<IBean>> beanClassesMap = new HashMap<String, Set<IBean>>();
 
-	/** List of bean names mapped beans (in registration order) */
+	/**
+	 * List of bean names mapped beans (in registration order); replaced instead of cleared on reload, as running
+	 * {@link #acceptBeans(IModelElementVisitor, IProgressMonitor)} iterations keep using the map of their load
+	 * generation
+	 */
 	protected volatile Map<String, IBean> beans = new LinkedHashMap<String, IBean>();
 
-	/** List of components (in registration order) */
+	/** List of components (in registration order); replaced instead of cleared on reload */
 	protected volatile Set<IBeansComponent> components = new LinkedHashSet<IBeansComponent>();
 
 	/** Defaults values for this beans config file */
@@ -79,7 +84,7 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 	/** This bean's config file */
 	protected volatile IFile file;
 
-	/** List of imports (in registration order) */
+	/** List of imports (in registration order); replaced instead of cleared on reload, like {@link #beans} */
 	protected volatile Set<IBeansImport> imports = new CopyOnWriteArraySet<IBeansImport>();
 
 	/** Indicator for a beans configuration embedded in a ZIP file */
@@ -89,11 +94,17 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 
 	protected volatile boolean isModelPopulated = false;
 
+	/** Number of reloads of this config; problems reported by loads of an older generation are dropped */
+	protected volatile int loadGeneration = 0;
+
+	/** Number of reloads of all configs; tells whether any config got reloaded at all */
+	private static final AtomicInteger totalLoadGeneration = new AtomicInteger();
+
 	/** This bean config file's timestamp of last modification */
 	protected volatile long modificationTimestamp;
 
-	/** Set of parsing errors */
-	protected Set<ValidationProblem> problems = new CopyOnWriteArraySet<ValidationProblem>();
+	/** Set of parsing errors; replaced (not cleared) on reload, see {@link #getProblemSet(int)} */
+	protected volatile Set<ValidationProblem> problems = new CopyOnWriteArraySet<ValidationProblem>();
 
 	protected final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
 
@@ -265,6 +276,33 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		return null;
 	}
 
+	/**
+	 * Returns the number of reloads of this config.
+	 * @since 3.9.1
+	 */
+	public int getLoadGeneration() {
+		return loadGeneration;
+	}
+
+	/**
+	 * Returns the number of reloads of all configs.
+	 * @since 3.9.1
+	 */
+	public static int getTotalLoadGeneration() {
+		return totalLoadGeneration.get();
+	}
+
+	/**
+	 * Starts a new load generation of this config and returns it.
+	 * @since 3.9.1
+	 */
+	protected int nextLoadGeneration() {
+		// Increment the total after the config's generation, so that a change of the total is never missed
+		int generation = ++loadGeneration;
+		totalLoadGeneration.incrementAndGet();
+		return generation;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -294,6 +332,65 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		}
 	}
 
+	/**
+	 * Passes the beans of this config and of its imported configs to the given visitor without copying them, in the
+	 * same order as {@link #getBeans()}. The beans are taken from the load of this config that is current when the
+	 * iteration starts; a reload of the config while iterating doesn't affect the iteration.
+	 * <p>
+	 * The iteration stops as soon as the visitor returns <code>false</code> or the monitor is canceled.
+	 * @return <code>false</code> if the iteration has been stopped
+	 * @since 3.9.1
+	 */
+	public boolean acceptBeans(IModelElementVisitor visitor, IProgressMonitor monitor) {
+		// Lazily initialization of this config
+		readConfig();
+
+		Map<String, IBean> loadedBeans = null;
+		Set<IBeansImport> loadedImports = null;
+		try {
+			r.lock();
+			// A reload between reading the config and acquiring the lock leaves a map that is not populated yet
+			if (isModelPopulated) {
+				loadedBeans = beans;
+				loadedImports = imports;
+			}
+		}
+		finally {
+			r.unlock();
+		}
+		if (loadedBeans == null) {
+			for (IBean bean : getBeans()) {
+				if (monitor.isCanceled() || !visitor.visit(bean, monitor)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		for (IBean bean : loadedBeans.values()) {
+			if (monitor.isCanceled() || !visitor.visit(bean, monitor)) {
+				return false;
+			}
+		}
+		for (IBeansImport beansImport : loadedImports) {
+			for (IBeansConfig bc : beansImport.getImportedBeansConfigs()) {
+				if (bc instanceof AbstractBeansConfig) {
+					if (!((AbstractBeansConfig) bc).acceptBeans(visitor, monitor)) {
+						return false;
+					}
+				}
+				else {
+					for (IBean bean : bc.getBeans()) {
+						if (monitor.isCanceled() || !visitor.visit(bean, monitor)) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -474,6 +571,19 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Returns the set to add the problems of the load of the given generation to. A load that got superseded by a
+	 * reload but is still running gets a detached set, so its problems don't end up in the current load.
+	 */
+	protected Set<ValidationProblem> getProblemSet(int generation) {
+		// read the set first: reload() increments the generation before it replaces the set
+		Set<ValidationProblem> currentProblems = problems;
+		if (generation == loadGeneration) {
+			return currentProblems;
+		}
+		return new CopyOnWriteArraySet<ValidationProblem>();
+	}
+
 	/**
 	 * Returns the set of {@link ValidationProblem}s that have been recored during initialization.
 	 */
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+
+/**
+ * Reverse index from bean class names (and the names of their superclasses and interfaces) to the
+ * {@link IBeansConfig}s that declare beans of these classes.
+ * <p>
+ * The bean classes of a config are indexed when the config is queried for the first time and again after the config
+ * got reloaded (detected by its load generation). The supertypes of the bean classes are only resolved when a query
+ * asks for them. As they depend on the Java code instead of the config, the supertypes of all configs that refer to
+ * a type are resolved again when the configs are queried for a change of that type.
+ * <p>
+ * Queries take the configs to consider; entries of other configs are ignored. Entries of configs that are removed
+ * from the model are dropped on the corresponding model change event.
+ * The (potentially expensive) loading of configs and resolving of type hierarchies is done outside of the index lock.
+ * @author Martin Lippert
+ * @since 3.9.1
+ * @see BeansModel#getBeanClassIndex()
+ */
+public class BeanClassIndex implements IModelChangeListener {
+
+	private final Map<IBeansConfig, Entry> entries = new HashMap<IBeansConfig, Entry>();
+
+	private final Map<String, Set<IBeansConfig>> configsByBeanClass = new HashMap<String, Set<IBeansConfig>>();
+
+	/** Configs by the names of their bean classes and all the supertypes of these classes */
+	private final Map<String, Set<IBeansConfig>> configsByType = new HashMap<String, Set<IBeansConfig>>();
+
+	/**
+	 * Returns those of the given configs that contain a bean with the given bean class.
+	 */
+	public Set<IBeansConfig> getConfigs(String className, Collection<IBeansConfig> configs) {
+		for (IBeansConfig config : configs) {
+			updateBeanClasses(config);
+		}
+		synchronized (this) {
+			return filter(configsByBeanClass.get(className), configs);
+		}
+	}
+
+	/**
+	 * Returns those of the given configs of the given project that contain a bean with a bean class that is or that
+	 * extends or implements one of the given types.
+	 */
+	public Set<IBeansConfig> getConfigsByContainingTypes(Collection<String> typeNames,
+			Collection<IBeansConfig> configs, IProject project, TypeHierarchyEngine typeEngine) {
+		for (IBeansConfig config : configs) {
+			Entry entry = updateBeanClasses(config);
+			if (entry.types == null) {
+				Set<String> types = new HashSet<String>(entry.beanClasses);
+				for (Set<String> supertypes : typeEngine.getSupertypes(project, entry.beanClasses).values()) {
+					types.addAll(supertypes);
+				}
+				synchronized (this) {
+					// Only install the types if the config didn't get reindexed in the meantime
+					if (entries.get(config) == entry && entry.types == null) {
+						entry.types = types;
+						addAll(configsByType, types, config);
+					}
+				}
+			}
+		}
+
+		Set<IBeansConfig> result = new LinkedHashSet<IBeansConfig>();
+		synchronized (this) {
+			for (String typeName : typeNames) {
+				result.addAll(filter(configsByType.get(typeName), configs));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Drops the resolved supertypes of all configs that refer to the given (changed) types, so they get resolved
+	 * again by the next query.
+	 */
+	public synchronized void invalidateTypes(Collection<String> typeNames) {
+		for (String typeName : typeNames) {
+			Set<IBeansConfig> referringConfigs = configsByType.get(typeName);
+			if (referringConfigs != null) {
+				for (IBeansConfig config : new HashSet<IBeansConfig>(referringConfigs)) {
+					removeTypes(config, entries.get(config));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drops the entries of removed configs, of all configs of a removed project and of the configs that a changed
+	 * project doesn't contain anymore.
+	 */
+	public void elementChanged(ModelChangeEvent event) {
+		IModelElement element = event.getElement();
+		if (element instanceof IBeansConfig) {
+			if (event.getType() == ModelChangeEvent.Type.REMOVED) {
+				remove((IBeansConfig) element);
+			}
+		}
+		else if (element instanceof IBeansProject) {
+			IBeansProject project = (IBeansProject) element;
+			Set<IBeansConfig> retainedConfigs = (event.getType() == ModelChangeEvent.Type.REMOVED ? Collections
+					.<IBeansConfig> emptySet() : project.getConfigs());
+			synchronized (this) {
+				for (IBeansConfig config : new HashSet<IBeansConfig>(entries.keySet())) {
+					if (project.equals(BeansModelUtils.getParentOfClass(config, IBeansProject.class))
+							&& !retainedConfigs.contains(config)) {
+						remove(config);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the bean classes of the given config are indexed.
+	 */
+	public synchronized boolean isIndexed(IBeansConfig config) {
+		return entries.containsKey(config);
+	}
+
+	public synchronized void remove(IBeansConfig config) {
+		Entry entry = entries.remove(config);
+		if (entry != null) {
+			removeAll(configsByBeanClass, entry.beanClasses, config);
+			removeTypes(config, entry);
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		configsByBeanClass.clear();
+		configsByType.clear();
+	}
+
+	private Entry updateBeanClasses(IBeansConfig config) {
+		int generation = BeansModelUtils.getLoadGeneration(config);
+		synchronized (this) {
+			Entry entry = entries.get(config);
+			if (entry != null && generation >= 0 && entry.generation == generation) {
+				return entry;
+			}
+		}
+
+		// Read the generation before the bean classes; a reload in between leaves an outdated entry behind
+		Entry entry = new Entry(generation, new HashSet<String>(config.getBeanClasses()));
+		synchronized (this) {
+			remove(config);
+			entries.put(config, entry);
+			addAll(configsByBeanClass, entry.beanClasses, config);
+		}
+		return entry;
+	}
+
+	private void removeTypes(IBeansConfig config, Entry entry) {
+		if (entry != null && entry.types != null) {
+			removeAll(configsByType, entry.types, config);
+			entry.types = null;
+		}
+	}
+
+	private static Set<IBeansConfig> filter(Set<IBeansConfig> indexedConfigs, Collection<IBeansConfig> configs) {
+		Set<IBeansConfig> result = new LinkedHashSet<IBeansConfig>();
+		if (indexedConfigs == null || indexedConfigs.isEmpty()) {
+			return result;
+		}
+		for (IBeansConfig config : configs) {
+			if (indexedConfigs.contains(config)) {
+				result.add(config);
+			}
+		}
+		return result;
+	}
+
+	private static void addAll(Map<String, Set<IBeansConfig>> index, Set<String> keys, IBeansConfig config) {
+		for (String key : keys) {
+			Set<IBeansConfig> configs = index.get(key);
+			if (configs == null) {
+				configs = new HashSet<IBeansConfig>();
+				index.put(key, configs);
+			}
+			configs.add(config);
+		}
+	}
+
+	private static void removeAll(Map<String, Set<IBeansConfig>> index, Set<String> keys, IBeansConfig config) {
+		for (String key : keys) {
+			Set<IBeansConfig> configs = index.get(key);
+			if (configs != null) {
+				configs.remove(config);
+				if (configs.isEmpty()) {
+					index.remove(key);
+				}
+			}
+		}
+	}
+
+	private static class Entry {
+
+		private final int generation;
+
+		private final Set<String> beanClasses;
+
+		/** Bean classes and their supertypes; <code>null</code> if not resolved yet */
+		private volatile Set<String> types;
+
+		public Entry(int generation, Set<String> beanClasses) {
+			this.generation = generation;
+			this.beanClasses = beanClasses;
+		}
+	}
+
+}
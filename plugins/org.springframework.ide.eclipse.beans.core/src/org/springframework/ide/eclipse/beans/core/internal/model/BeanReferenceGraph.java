@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.core.IType;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.LookupOverride;
+import org.springframework.beans.factory.support.ReplaceOverride;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConnection.BeanType;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeanConstructorArgument;
+import org.springframework.ide.eclipse.beans.core.model.IBeanProperty;
+import org.springframework.ide.eclipse.beans.core.model.IBeanReference;
+import org.springframework.ide.eclipse.beans.core.model.IBeansComponent;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.model.IBeansList;
+import org.springframework.ide.eclipse.beans.core.model.IBeansMap;
+import org.springframework.ide.eclipse.beans.core.model.IBeansMapEntry;
+import org.springframework.ide.eclipse.beans.core.model.IBeansSet;
+import org.springframework.ide.eclipse.beans.core.model.IBeansTypedString;
+import org.springframework.ide.eclipse.beans.core.model.IImportedBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IReloadableBeansConfig;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+
+/**
+ * Graph of the {@link BeansConnection}s between the beans of a context ({@link IBeansConfig} or
+ * {@link IBeansConfigSet}).
+ * <p>
+ * The outgoing connections of a bean are computed once when the bean is queried for the first time. Recursive queries
+ * are answered by traversing the cached connections. The graph is bound to the load generations of the configs of
+ * the context and has to be replaced as soon as {@link #isUpToDate()} returns <code>false</code>.
+ * @author Martin Lippert
+ * @since 3.9.1
+ * @see BeansModelUtils#getBeanReferences(IModelElement, IModelElement, boolean)
+ */
+class BeanReferenceGraph {
+
+	private static final String PROXY_FACTORY_BEAN_CLASS_NAME = "org.springframework.aop.framework.ProxyFactoryBean";
+
+	private final IModelElement context;
+
+	private final Map<IBeansConfig, Integer> generations;
+
+	/** Beans by name; contains <code>null</code> values for names without a bean */
+	private final Map<String, IBean> beans = new HashMap<String, IBean>();
+
+	private final Map<IBean, List<Edge>> edges = new ConcurrentHashMap<IBean, List<Edge>>();
+
+	/** Outgoing connections of a bean if looked at as part of a recursive query (merged bean definitions) */
+	private final Map<IBean, List<Edge>> recursiveEdges = new ConcurrentHashMap<IBean, List<Edge>>();
+
+	public BeanReferenceGraph(IModelElement context) {
+		this.context = context;
+		this.generations = getGenerations(context);
+	}
+
+	public static boolean isSupportedContext(IModelElement context) {
+		return context instanceof IBeansConfig || context instanceof IBeansConfigSet;
+	}
+
+	public IModelElement getContext() {
+		return context;
+	}
+
+	/**
+	 * Returns <code>false</code> if one of the configs of the context got reloaded since this graph was created or if
+	 * the configs can't tell.
+	 */
+	public boolean isUpToDate() {
+		// Configs added to or removed from a config set don't change the generations of the other configs
+		return BeansModelUtils.isLoadGenerationUpToDate(generations)
+				&& generations.keySet().equals(getGenerations(context).keySet());
+	}
+
+	/**
+	 * @see BeansModelUtils#getBeanReferences(IModelElement, IModelElement, boolean)
+	 */
+	public Set<BeansConnection> getBeanReferences(IModelElement element, boolean recursive) {
+		Set<BeansConnection> references = new LinkedHashSet<BeansConnection>();
+		Set<IBean> referencedBeans = new HashSet<IBean>(); // used to break from cycles
+		if (element instanceof IBeansComponent) {
+			addReferencesForComponent((IBeansComponent) element, recursive, references, referencedBeans);
+		}
+		else if (element instanceof Bean) {
+			addReferences((IBean) element, recursive, references, referencedBeans);
+		}
+		else if (element instanceof IBeanConstructorArgument) {
+			IBeanConstructorArgument carg = (IBeanConstructorArgument) element;
+			addReferences(getValueEdges(carg, carg.getValue()), recursive, references, referencedBeans);
+		}
+		else if (element instanceof IBeanProperty) {
+			IBeanProperty property = (IBeanProperty) element;
+			addReferences(getValueEdges(property, property.getValue()), recursive, references, referencedBeans);
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported model element " + element);
+		}
+		return references;
+	}
+
+	private void addReferencesForComponent(IBeansComponent component, boolean recursive,
+			Set<BeansConnection> references, Set<IBean> referencedBeans) {
+		for (IBean bean : component.getBeans()) {
+			addReferences(bean, recursive, references, referencedBeans);
+		}
+		for (IBeansComponent innerComponent : component.getComponents()) {
+			addReferencesForComponent(innerComponent, recursive, references, referencedBeans);
+		}
+	}
+
+	private void addReferences(IBean bean, boolean recursive, Set<BeansConnection> references,
+			Set<IBean> referencedBeans) {
+		// must add this bean first to break from cycles
+		if (referencedBeans.add(bean)) {
+			addReferences(getEdges(bean, recursive), recursive, references, referencedBeans);
+		}
+	}
+
+	private void addReferences(List<Edge> edges, boolean recursive, Set<BeansConnection> references,
+			Set<IBean> referencedBeans) {
+		for (Edge edge : edges) {
+			if (references.add(edge.connection) && recursive && edge.isFollowed) {
+				addReferences(edge.connection.getTarget(), recursive, references, referencedBeans);
+			}
+		}
+	}
+
+	private List<Edge> getEdges(IBean bean, boolean recursive) {
+		Map<IBean, List<Edge>> cache = (recursive ? recursiveEdges : edges);
+		List<Edge> beanEdges = cache.get(bean);
+		if (beanEdges == null) {
+			beanEdges = computeEdges(bean, recursive);
+			cache.put(bean, beanEdges);
+		}
+		return beanEdges;
+	}
+
+	/**
+	 * Computes the connections from the given bean the same way as the recursive walk in {@link BeansModelUtils} did,
+	 * but without descending into the referenced beans.
+	 */
+	private List<Edge> computeEdges(IBean element, boolean recursive) {
+		if (!(element instanceof Bean)) {
+			throw new IllegalArgumentException("Unsupported model element " + element);
+		}
+		Bean bean = (Bean) element;
+		Map<BeansConnection, Edge> beanEdges = new LinkedHashMap<BeansConnection, Edge>();
+
+		// For a child bean add the parent bean
+		if (bean.isChildBean()) {
+			IBean parentBean = getBean(bean.getParentName());
+			if (addEdge(beanEdges, BeanType.PARENT, bean, parentBean, false) && recursive) {
+				// Now add all parent beans of the parent bean; the HashSet is used to detect a cycle
+				Set<String> beanNames = new HashSet<String>();
+				beanNames.add(bean.getElementName());
+				beanNames.add(parentBean.getElementName());
+				while (parentBean != null && parentBean.isChildBean()) {
+					String parentName = parentBean.getParentName();
+					if (beanNames.contains(parentName)) {
+						// break from cycle
+						break;
+					}
+					beanNames.add(parentName);
+					parentBean = getBean(parentName);
+					addEdge(beanEdges, BeanType.PARENT, bean, parentBean, true);
+				}
+			}
+		}
+
+		// Get bean's merged or standard bean definition
+		AbstractBeanDefinition bd;
+		if (recursive) {
+			bd = (AbstractBeanDefinition) BeansModelUtils.getMergedBeanDefinition(bean, context);
+		}
+		else {
+			bd = (AbstractBeanDefinition) bean.getBeanDefinition();
+		}
+
+		// Add bean's factory bean
+		if (bd.getFactoryBeanName() != null) {
+			addEdge(beanEdges, BeanType.FACTORY, bean, getBean(bd.getFactoryBeanName()), true);
+		}
+
+		// Add bean's depends-on beans
+		if (bd.getDependsOn() != null) {
+			for (String dependsOnBeanId : bd.getDependsOn()) {
+				addEdge(beanEdges, BeanType.DEPENDS_ON, bean, getBean(dependsOnBeanId), true);
+			}
+		}
+
+		// Add beans from bean's MethodOverrides
+		if (!bd.getMethodOverrides().isEmpty()) {
+			for (Object methodOverride : bd.getMethodOverrides().getOverrides()) {
+				if (methodOverride instanceof LookupOverride) {
+					String beanName = ((LookupOverride) methodOverride).getBeanName();
+					addEdge(beanEdges, BeanType.METHOD_OVERRIDE, bean, getBean(beanName), true);
+				}
+				else if (methodOverride instanceof ReplaceOverride) {
+					String beanName = ((ReplaceOverride) methodOverride).getMethodReplacerBeanName();
+					addEdge(beanEdges, BeanType.METHOD_OVERRIDE, bean, getBean(beanName), true);
+				}
+			}
+		}
+
+		// Add beans referenced from bean's constructor arguments
+		for (IBeanConstructorArgument carg : bean.getConstructorArguments()) {
+			addValueEdges(beanEdges, carg, carg.getValue());
+		}
+
+		// Add referenced beans from bean's properties
+		for (IBeanProperty property : bean.getProperties()) {
+			addValueEdges(beanEdges, property, property.getValue());
+		}
+
+		// Add references from inner beans
+		for (IBean nestedBean : BeansModelUtils.getInnerBeans(bean, false)) {
+			for (Edge nestedEdge : getEdges(nestedBean, false)) {
+				BeansConnection nestedConnection = nestedEdge.connection;
+				BeansConnection connection = new BeansConnection(nestedConnection.getType(), bean,
+						nestedConnection.getTarget(), true);
+				if (!beanEdges.containsKey(connection)) {
+					beanEdges.put(connection, new Edge(connection, false));
+				}
+			}
+		}
+		return Collections.unmodifiableList(new ArrayList<Edge>(beanEdges.values()));
+	}
+
+	private List<Edge> getValueEdges(IModelElement element, Object value) {
+		Map<BeansConnection, Edge> valueEdges = new LinkedHashMap<BeansConnection, Edge>();
+		addValueEdges(valueEdges, element, value);
+		return new ArrayList<Edge>(valueEdges.values());
+	}
+
+	/**
+	 * Adds the connections to the beans referenced by the given bean property's or constructor argument's value.
+	 */
+	private void addValueEdges(Map<BeansConnection, Edge> edges, IModelElement element, Object value) {
+		if (value instanceof IBeanReference) {
+			addEdge(edges, BeanType.STANDARD, element, getBean(((IBeanReference) value).getBeanName()), true);
+		}
+		else if (value instanceof IBeansList) {
+
+			// Add bean property's interceptors
+			if (element instanceof IBeanProperty && element.getElementName().equals("interceptorNames")) {
+				IType type = BeansModelUtils.getBeanType((IBean) element.getElementParent(), context);
+				if (type != null && type.getFullyQualifiedName().equals(PROXY_FACTORY_BEAN_CLASS_NAME)) {
+					for (IModelElement child : ((IBeansList) value).getElementChildren()) {
+						if (child instanceof IBeansTypedString) {
+							IBean interceptor = getBean(((IBeansTypedString) child).getString());
+							addEdge(edges, BeanType.INTERCEPTOR, element, interceptor, true);
+						}
+					}
+				}
+			}
+			else {
+				for (IModelElement child : ((IBeansList) value).getElementChildren()) {
+					addValueEdges(edges, element, child);
+				}
+			}
+		}
+		else if (value instanceof IBeansSet) {
+			for (IModelElement child : ((IBeansSet) value).getElementChildren()) {
+				addValueEdges(edges, element, child);
+			}
+		}
+		else if (value instanceof IBeansMap) {
+			for (IModelElement child : ((IBeansMap) value).getElementChildren()) {
+				if (child instanceof IBeansMapEntry) {
+					addValueEdges(edges, element, ((IBeansMapEntry) child).getKey());
+					addValueEdges(edges, element, ((IBeansMapEntry) child).getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a connection from the given source to the given target unless the target is <code>null</code>, equal to
+	 * the source or already connected. Returns <code>true</code> if the connection has been added.
+	 * @param isFollowed <code>true</code> if recursive queries descend into the target
+	 */
+	private boolean addEdge(Map<BeansConnection, Edge> edges, BeanType type, IModelElement source, IBean target,
+			boolean isFollowed) {
+		if (target != null && target != source) {
+			BeansConnection connection = new BeansConnection(type, source, target, context);
+			if (!edges.containsKey(connection)) {
+				edges.put(connection, new Edge(connection, isFollowed));
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private IBean getBean(String name) {
+		synchronized (beans) {
+			if (beans.containsKey(name)) {
+				return beans.get(name);
+			}
+		}
+		IBean bean = BeansModelUtils.getBean(name, context);
+		synchronized (beans) {
+			beans.put(name, bean);
+		}
+		return bean;
+	}
+
+	/**
+	 * Returns the load generations of the reloadable configs the given context consists of.
+	 */
+	private static Map<IBeansConfig, Integer> getGenerations(IModelElement context) {
+		Collection<IBeansConfig> configs;
+		if (context instanceof IBeansConfigSet) {
+			configs = ((IBeansConfigSet) context).getConfigs();
+		}
+		else {
+			configs = Collections.singleton((IBeansConfig) context);
+		}
+
+		Map<IBeansConfig, Integer> generations = new HashMap<IBeansConfig, Integer>();
+		for (IBeansConfig config : configs) {
+			// Imported configs are replaced when their importing config gets reloaded
+			if (config instanceof IImportedBeansConfig) {
+				IReloadableBeansConfig importingConfig = BeansModelUtils.getParentOfClass(config,
+						IReloadableBeansConfig.class);
+				if (importingConfig instanceof IBeansConfig) {
+					config = (IBeansConfig) importingConfig;
+				}
+			}
+			generations.put(config, BeansModelUtils.getLoadGeneration(config));
+		}
+		return generations;
+	}
+
+	private static class Edge {
+
+		private final BeansConnection connection;
+
+		private final boolean isFollowed;
+
+		public Edge(BeansConnection connection, boolean isFollowed) {
+			this.connection = connection;
+			this.isFollowed = isFollowed;
+		}
+	}
+
+}
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +25,6 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -38,6 +38,7 @@ import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
@@ -125,6 +126,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
@@ -179,6 +181,9 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 
 	private BeanRegistrationContextTracker beanRegistrationTracker = new BeanRegistrationContextTracker();
 
+	/** Parsed documents of this config and its imports; survives {@link #reload()} */
+	private final BeansConfigDocumentCache documentCache = new BeansConfigDocumentCache();
+
 	/**
 	 * Creates a new {@link BeansConfig}.
 	 */
@@ -217,19 +222,22 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 	 */
 	public void reload() {
 		if (file != null) {
+			// Stop a running load of the outdated version early so that it releases the lock
+			BeansCorePlugin.getConfigLoadingScheduler().cancel(this);
 			try {
 				w.lock();
 				// System.out.println(String.format("++- resetting config '%s'", file.getFullPath().toString()));
+				nextLoadGeneration();
 				isModelPopulated = false;
 				modificationTimestamp = IResource.NULL_STAMP;
 				defaults = null;
-				imports.clear();
+				imports = new CopyOnWriteArraySet<IBeansImport>();
 				aliases.clear();
-				beans.clear();
-				components.clear();
+				beans = new LinkedHashMap<String, IBean>();
+				components = new LinkedHashSet<IBeansComponent>();
 				isBeanClassesMapPopulated = false;
 				beanClassesMap.clear();
-				problems.clear();
+				problems = new CopyOnWriteArraySet<ValidationProblem>();
 				children = null;
 
 				beanRegistrationTracker.clear();
@@ -323,6 +331,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 				return;
 			}
 
+			final int generation = loadGeneration;
 			final ClassLoader projectIncludingClassloader = getProjectRelatedClassLoader();
 
 			try {
@@ -360,8 +369,15 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 
 					// Set up classloader to use for NamespaceHandler and XSD loading
 					ClassLoader namespaceResolvingClassloader = projectIncludingClassloader;
+					final Object schemaClassPathIdentity;
 					if (!NamespaceUtils.useNamespacesFromClasspath(file.getProject())) {
-						 namespaceResolvingClassloader = BeansCorePlugin.getClassLoader();
+						namespaceResolvingClassloader = BeansCorePlugin.getClassLoader();
+						schemaClassPathIdentity = namespaceResolvingClassloader;
+					}
+					else {
+						// the project class loader is new for every load, its class path is stable however
+						schemaClassPathIdentity = JdtUtils.getClassPathIdentity(file.getProject(),
+								BeansCorePlugin.getClassLoader());
 					}
 
 					registry = new ScannedGenericBeanDefinitionSuppressingBeanDefinitionRegistry();
@@ -371,7 +387,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 					final BeansConfigReaderEventListener eventListener = new BeansConfigReaderEventListener(this, resource, sourceExtractor, documentAccessor);
 					final NamespaceHandlerResolver namespaceHandlerResolver = new DelegatingNamespaceHandlerResolver(namespaceResolvingClassloader, this,	documentAccessor);
 
-					problemReporter = new BeansConfigProblemReporter();
+					problemReporter = new BeansConfigProblemReporter(generation);
 					beanNameGenerator = new UniqueBeanNameGenerator(this);
 
 					final XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry) {
@@ -387,6 +403,9 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 								currentEncodedResource = encodedResource;
 							}
 
+							// Stop loading if a newer version of this config is being loaded
+							BeansConfigLoadingScheduler.checkCanceled();
+
 							try {
 								// Delegate actual processing to XmlBeanDefinitionReader
 								int loadedBeans = 0;
@@ -402,6 +421,33 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 							}
 						}
 
+						@Override
+						protected Document doLoadDocument(InputSource inputSource, Resource resource) throws Exception {
+							// Reuse the document of unchanged files, parsing is the most expensive part of loading
+							IFile documentFile = null;
+							if (resource instanceof IAdaptable) {
+								Object adapter = ((IAdaptable) resource).getAdapter(IResource.class);
+								if (adapter instanceof IFile) {
+									documentFile = (IFile) adapter;
+								}
+							}
+							if (documentFile == null) {
+								return super.doLoadDocument(inputSource, resource);
+							}
+
+							Document document = documentCache.get(documentFile, schemaClassPathIdentity);
+							if (document == null) {
+								long modificationStamp = documentFile.getModificationStamp();
+								int problemCount = problems.size();
+								document = super.doLoadDocument(inputSource, resource);
+								if (modificationStamp != IResource.NULL_STAMP && problems.size() == problemCount
+										&& generation == loadGeneration) {
+									documentCache.put(documentFile, modificationStamp, schemaClassPathIdentity, document);
+								}
+							}
+							return document;
+						}
+
 						@Override
 						public int registerBeanDefinitions(Document doc, Resource resource)
 								throws BeanDefinitionStoreException {
@@ -433,7 +479,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 					reader.setSourceExtractor(sourceExtractor);
 					reader.setEventListener(eventListener);
 					reader.setProblemReporter(problemReporter);
-					reader.setErrorHandler(new BeansConfigErrorHandler());
+					reader.setErrorHandler(new BeansConfigErrorHandler(generation));
 					reader.setNamespaceHandlerResolver(namespaceHandlerResolver);
 					reader.setBeanNameGenerator(beanNameGenerator);
 					reader.setEnvironment(new ToolingAwareEnvironment());
@@ -448,6 +494,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 								ClassLoader threadClassLoader = Thread.currentThread().getContextClassLoader();
 								Thread.currentThread().setContextClassLoader(resourceLoader.getClassLoader());
 
+								documentCache.startLoading();
 								try {
 									// Load bean definitions
 									int count = reader.loadBeanDefinitions(resource);
@@ -456,7 +503,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 									eventListener.registerComponents();
 
 									// Post process beans config if required
-									postProcess(resourceLoader.getClassLoader());
+									postProcess(resourceLoader.getClassLoader(), generation);
 
 									return count;
 								}
@@ -465,6 +512,8 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 									throwables.put(e, LineNumberPreservingDOMParser.getStartLineNumber(documentAccessor.getLastElement()));
 								}
 								finally {
+									documentCache.finishLoading();
+
 									// Reset the context classloader
 									Thread.currentThread().setContextClassLoader(threadClassLoader);
 								}
@@ -474,10 +523,9 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 						};
 
 						try {
-							FutureTask<Integer> task = new FutureTask<Integer>(loadBeanDefinitionOperation);
-							BeansCorePlugin.getExecutorService().submit(task);
-							count = task.get(BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
-									TimeUnit.SECONDS);
+							count = BeansCorePlugin.getConfigLoadingScheduler().load(this, generation, loadBeanDefinitionOperation,
+									BeansCorePlugin.getDefault().getPreferenceStore()
+											.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID), TimeUnit.SECONDS);
 
 							// if we recored an exception use this instead of stupid concurrent exception
 							if (throwables.size() > 0) {
@@ -491,6 +539,9 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 											.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID) + "sec",
 									file, 1));
 						}
+						catch (OperationCanceledException e) {
+							// superseded by the load of a newer version of this config
+						}
 					}
 					catch (Throwable e) {
 						int line = -1;
@@ -538,7 +589,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 				w.unlock();
 
 				// Run external post processors
-				postProcessExternal(externalPostProcessors.keySet(), projectIncludingClassloader);
+				postProcessExternal(externalPostProcessors.keySet(), projectIncludingClassloader, generation);
 
 				// Publish events for all existing post processors
 				if (this.ownPostProcessors != null) {
@@ -562,13 +613,32 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 				}
 
 				if (DEBUG) {
-					System.out.println(String.format("> loading of %s beans from %s took %sms", count, file
-							.getFullPath().toString(), (System.currentTimeMillis() - start)));
+					System.out.println(String.format("> loading of %s beans from %s took %sms (%s parsed files reused)",
+							count, file.getFullPath().toString(), (System.currentTimeMillis() - start),
+							documentCache.getReusedCount()));
 				}
 			}
 		}
 	}
 
+	/**
+	 * Returns the number of parsed documents that have been reused from the previous load during the last load of
+	 * this config.
+	 * @since 3.9.1
+	 */
+	public int getReusedDocumentCount() {
+		return documentCache.getReusedCount();
+	}
+
+	/**
+	 * Drops the parsed documents kept for the next load of this config; called once the config is removed from its
+	 * project.
+	 * @since 3.9.1
+	 */
+	public void releaseDocuments() {
+		documentCache.clear();
+	}
+
 	public ClassLoader getProjectRelatedClassLoader() {
 		if (file != null && file.exists()) {
 			return JdtUtils.getClassLoader(file.getProject(), BeansCorePlugin.getClassLoader());
@@ -596,7 +666,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 	/**
 	 * Entry into processing the contributed {@link IBeansConfigPostProcessor}.
 	 */
-	private void postProcess(ClassLoader classloader) {
+	private void postProcess(ClassLoader classloader, int generation) {
 
 		Set<IBeansConfigPostProcessor> detectedPostProcessors = new LinkedHashSet<IBeansConfigPostProcessor>();
 		removedPostProcessors = new LinkedHashSet<IBeansConfigPostProcessor>();
@@ -625,7 +695,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 
 		// Run all generally contributed post processors
 		for (IBeansConfigPostProcessor postProcessor : BeansConfigPostProcessorFactory.createPostProcessor(null)) {
-			executePostProcessor(postProcessor, eventListener, classloader);
+			executePostProcessor(postProcessor, eventListener, classloader, generation);
 		}
 
 		// Run all post processors specific to a bean class
@@ -637,7 +707,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 					for (IBeansConfigPostProcessor postProcessor : BeansConfigPostProcessorFactory
 							.createPostProcessor(beanClassName)) {
 
-						executePostProcessor(postProcessor, eventListener, classloader);
+						executePostProcessor(postProcessor, eventListener, classloader, generation);
 
 						// Keep the detected post processor for later
 						detectedPostProcessors.add(postProcessor);
@@ -674,21 +744,44 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 	/**
 	 * Execute the externally added {@link IBeansConfigPostProcessor}s.
 	 * <p>
-	 * This will only execute the given post processors if this config is already populated.
+	 * This will only execute the given post processors if this config is already populated. The beans and components
+	 * they register go into copies of the current maps, which replace the published ones as a new load generation;
+	 * iterations over the populated beans keep using the unchanged maps.
+	 * @param generation the load generation the post processors belong to; nothing is executed if this config got
+	 * reloaded in the meantime
 	 */
-	private void postProcessExternal(Set<IBeansConfigPostProcessor> postProcessors, ClassLoader classloader) {
+	private void postProcessExternal(Set<IBeansConfigPostProcessor> postProcessors, ClassLoader classloader,
+			int generation) {
 		if (this.isModelPopulated) {
 			try {
 				w.lock();
+				if (generation != loadGeneration || !this.isModelPopulated) {
+					return;
+				}
+
+				Set<IBeansConfigPostProcessor> pendingPostProcessors = new LinkedHashSet<IBeansConfigPostProcessor>();
+				for (IBeansConfigPostProcessor postProcessor : postProcessors) {
+					if (!ownPostProcessors.contains(postProcessor)) {
+						pendingPostProcessors.add(postProcessor);
+					}
+				}
+				if (pendingPostProcessors.isEmpty()) {
+					return;
+				}
+
+				// Copy on write; the problems set stays, as it belongs to the populated model as well
+				beans = new LinkedHashMap<String, IBean>(beans);
+				components = new LinkedHashSet<IBeansComponent>(components);
+				isBeanClassesMapPopulated = false;
+				int postProcessingGeneration = nextLoadGeneration();
+				problemReporter = new BeansConfigProblemReporter(postProcessingGeneration);
 
 				// Create special ReaderEventListener that essentially just passes through component definitions
 				ReaderEventListener eventListener = new BeansConfigPostProcessorReaderEventListener();
 
 				// Run all external found post processor instances
-				for (IBeansConfigPostProcessor postProcessor : postProcessors) {
-					if (!ownPostProcessors.contains(postProcessor)) {
-						executePostProcessor(postProcessor, eventListener, classloader);
-					}
+				for (IBeansConfigPostProcessor postProcessor : pendingPostProcessors) {
+					executePostProcessor(postProcessor, eventListener, classloader, postProcessingGeneration);
 				}
 			}
 			finally {
@@ -719,7 +812,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 					// Run the external post processors
 					Set<IBeansConfigPostProcessor> postProcessors = new HashSet<IBeansConfigPostProcessor>();
 					postProcessors.add(postProcessor);
-					postProcessExternal(postProcessors, getProjectRelatedClassLoader());
+					postProcessExternal(postProcessors, getProjectRelatedClassLoader(), loadGeneration);
 				}
 			}
 		}
@@ -753,7 +846,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 	 * Safely execute the given {@link IBeansConfigPostProcessor}.
 	 */
 	private void executePostProcessor(final IBeansConfigPostProcessor postProcessor,
-			final ReaderEventListener eventListener, final ClassLoader classloader) {
+			final ReaderEventListener eventListener, final ClassLoader classloader, final int generation) {
 		SafeRunner.run(new ISafeRunnable() {
 
 			@Override
@@ -772,7 +865,8 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 
 				try {
 					postProcessor.postProcess(BeansConfigPostProcessorFactory.createPostProcessingContext(BeansConfig.this,
-							beans.values(), eventListener, problemReporter, beanNameGenerator, registry, problems));
+							beans.values(), eventListener, problemReporter, beanNameGenerator, registry,
+							getProblemSet(generation)));
 				}
 				catch (Exception e) {
 					handleException(e);
@@ -1103,28 +1197,34 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 	 */
 	class BeansConfigErrorHandler implements ErrorHandler {
 
+		private final int generation;
+
+		public BeansConfigErrorHandler(int generation) {
+			this.generation = generation;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
 		public void warning(SAXParseException e) throws SAXException {
-			problems.add(new ValidationProblem(IMarker.SEVERITY_WARNING, e.getMessage(), getCurrentResource(), e
-					.getLineNumber()));
+			getProblemSet(generation).add(new ValidationProblem(IMarker.SEVERITY_WARNING, e.getMessage(),
+					getCurrentResource(), e.getLineNumber()));
 		}
 
 		/**
 		 * {@inheritDoc}
 		 */
 		public void error(SAXParseException e) throws SAXException {
-			problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, e.getMessage(), getCurrentResource(), e
-					.getLineNumber()));
+			getProblemSet(generation).add(new ValidationProblem(IMarker.SEVERITY_ERROR, e.getMessage(),
+					getCurrentResource(), e.getLineNumber()));
 		}
 
 		/**
 		 * {@inheritDoc}
 		 */
 		public void fatalError(SAXParseException e) throws SAXException {
-			problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, e.getMessage(), getCurrentResource(), e
-					.getLineNumber()));
+			getProblemSet(generation).add(new ValidationProblem(IMarker.SEVERITY_ERROR, e.getMessage(),
+					getCurrentResource(), e.getLineNumber()));
 		}
 	}
 
@@ -1134,12 +1234,18 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 	 */
 	class BeansConfigProblemReporter implements ProblemReporter {
 
+		private final int generation;
+
+		public BeansConfigProblemReporter(int generation) {
+			this.generation = generation;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
 		public void fatal(Problem problem) {
-			problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, getMessage(problem), getCurrentResource(),
-					getLine(problem)));
+			getProblemSet(generation).add(new ValidationProblem(IMarker.SEVERITY_ERROR, getMessage(problem),
+					getCurrentResource(), getLine(problem)));
 			throw new BeanDefinitionParsingException(problem);
 		}
 
@@ -1147,16 +1253,16 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 		 * {@inheritDoc}
 		 */
 		public void error(Problem problem) {
-			problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, getMessage(problem), getCurrentResource(),
-					getLine(problem)));
+			getProblemSet(generation).add(new ValidationProblem(IMarker.SEVERITY_ERROR, getMessage(problem),
+					getCurrentResource(), getLine(problem)));
 		}
 
 		/**
 		 * {@inheritDoc}
 		 */
 		public void warning(Problem problem) {
-			problems.add(new ValidationProblem(IMarker.SEVERITY_WARNING, getMessage(problem), getCurrentResource(),
-					getLine(problem)));
+			getProblemSet(generation).add(new ValidationProblem(IMarker.SEVERITY_WARNING, getMessage(problem),
+					getCurrentResource(), getLine(problem)));
 		}
 
 		/**
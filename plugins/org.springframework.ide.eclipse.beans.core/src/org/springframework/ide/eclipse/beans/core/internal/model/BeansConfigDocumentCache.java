@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.w3c.dom.Document;
+
+/**
+ * Cache of the parsed XML {@link Document}s of a {@link BeansConfig} and all the files it imports.
+ * <p>
+ * Parsing (including the XSD validation) is the most expensive part of loading a config. If one of many imported
+ * files changes, only that file needs to be parsed again; the documents of all other files are reused from this
+ * cache as long as their modification stamp and the class path used to resolve the schemas didn't change. The
+ * class path is compared by an identity token rather than the class loader itself, as every load uses a new class
+ * loader.
+ * <p>
+ * Only documents that have been parsed without any problem are cached, as reusing a document doesn't report the
+ * parse problems again. Entries of files that are not part of the config anymore are dropped after every load, and
+ * all entries once the config is removed from its project. The documents are only softly referenced, so the garbage
+ * collector can reclaim them under memory pressure; they are parsed again on the next load then.
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+class BeansConfigDocumentCache {
+
+	private final Map<IFile, Entry> entries = new HashMap<IFile, Entry>();
+
+	private final Set<IFile> loadedFiles = new HashSet<IFile>();
+
+	private int reused;
+
+	/**
+	 * Marks the start of loading the config.
+	 */
+	public synchronized void startLoading() {
+		loadedFiles.clear();
+		reused = 0;
+	}
+
+	/**
+	 * Marks the end of loading the config and drops all documents of files that haven't been loaded.
+	 */
+	public synchronized void finishLoading() {
+		entries.keySet().retainAll(loadedFiles);
+	}
+
+	/**
+	 * Returns the cached document for the given file or <code>null</code> if the file needs to be parsed.
+	 */
+	public synchronized Document get(IFile file, Object schemaClassPathIdentity) {
+		loadedFiles.add(file);
+		Entry entry = entries.get(file);
+		if (entry != null && entry.modificationStamp == file.getModificationStamp()
+				&& entry.schemaClassPathIdentity == schemaClassPathIdentity) {
+			Document document = entry.document.get();
+			if (document != null) {
+				reused++;
+				return document;
+			}
+		}
+		entries.remove(file);
+		return null;
+	}
+
+	public synchronized void put(IFile file, long modificationStamp, Object schemaClassPathIdentity, Document document) {
+		entries.put(file, new Entry(modificationStamp, schemaClassPathIdentity, document));
+	}
+
+	/**
+	 * Returns the number of documents reused during the last load.
+	 */
+	public synchronized int getReusedCount() {
+		return reused;
+	}
+
+	/**
+	 * Drops all cached documents.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		loadedFiles.clear();
+	}
+
+	private static class Entry {
+
+		private final long modificationStamp;
+
+		private final Object schemaClassPathIdentity;
+
+		private final SoftReference<Document> document;
+
+		public Entry(long modificationStamp, Object schemaClassPathIdentity, Document document) {
+			this.modificationStamp = modificationStamp;
+			this.schemaClassPathIdentity = schemaClassPathIdentity;
+			this.document = new SoftReference<Document>(document);
+		}
+	}
+
+}
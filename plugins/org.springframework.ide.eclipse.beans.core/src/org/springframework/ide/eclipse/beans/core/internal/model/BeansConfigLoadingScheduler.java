@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+
+/**
+ * Runs the loading of {@link IBeansConfig}s on a bounded pool of threads dedicated to config loading.
+ * <p>
+ * Loading requests are tracked per config and load generation (the number of reloads of the config):
+ * <ul>
+ * <li>a request for a generation that is already being loaded joins the running load instead of starting another
+ * one</li>
+ * <li>a request for a newer generation cancels the running load of an older generation</li>
+ * <li>a load that times out is cancelled as well instead of being left running in the background</li>
+ * </ul>
+ * Cancellation is cooperative: loading operations call {@link #checkCanceled()} at safe points (e.g. before every
+ * file they parse).
+ * <p>
+ * Configs submit their loads while holding their write lock, and loads read other configs. A load that still waits in
+ * the queue after a short time is therefore taken back and run by the requesting thread, as the busy pool threads
+ * might wait for the lock held by that thread. Loads that don't fit into the queue run on the requesting thread right
+ * away. A config that gets loaded while another one is being loaded (e.g. by a post processor) is loaded on the
+ * current thread, so nested loads never wait for the pool.
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class BeansConfigLoadingScheduler {
+
+	/** Number of queued loads per loading thread */
+	private static final int QUEUE_CAPACITY_PER_THREAD = 4;
+
+	/** Time a queued load waits for a loading thread before the requesting thread runs it */
+	private static final long QUEUE_WAIT_MILLIS = 100;
+
+	private static final ThreadLocal<LoadingTask> CURRENT_TASK = new ThreadLocal<LoadingTask>();
+
+	private final ThreadPoolExecutor executor;
+
+	private final ConcurrentMap<IBeansConfig, LoadingTask> runningTasks = new ConcurrentHashMap<IBeansConfig, LoadingTask>();
+
+	public BeansConfigLoadingScheduler(int parallelism, ThreadFactory threadFactory) {
+		this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(parallelism * QUEUE_CAPACITY_PER_THREAD), threadFactory);
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Loads the given config by running the given operation on the loading pool and waits at most the given timeout
+	 * for its result.
+	 * @param generation the load generation of the config; increases with every reload of the config
+	 * @throws TimeoutException if the operation didn't finish in time; the operation got cancelled
+	 * @throws ExecutionException if the operation failed
+	 * @throws OperationCanceledException if the operation got cancelled by a load of a newer generation
+	 */
+	public Integer load(IBeansConfig config, int generation, Callable<Integer> operation, long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+
+		// Nested load from within a loading thread; run directly to not wait for a pool thread
+		if (CURRENT_TASK.get() != null) {
+			try {
+				return operation.call();
+			}
+			catch (OperationCanceledException e) {
+				throw e;
+			}
+			catch (Exception e) {
+				throw new ExecutionException(e);
+			}
+		}
+
+		LoadingTask task = submit(config, generation, operation);
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		try {
+			while (true) {
+				long remaining = deadline - System.nanoTime();
+				try {
+					return task.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(QUEUE_WAIT_MILLIS)),
+							TimeUnit.NANOSECONDS);
+				}
+				catch (TimeoutException e) {
+					if (executor.remove(task)) {
+						// Still queued; the busy loading threads might wait for a lock held by this thread
+						task.run();
+					}
+					else if (deadline - System.nanoTime() <= 0) {
+						task.cancel(false);
+						throw e;
+					}
+				}
+			}
+		}
+		catch (CancellationException e) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	/**
+	 * Cancels the running load of the given config, if there is any.
+	 */
+	public void cancel(IBeansConfig config) {
+		LoadingTask task = runningTasks.get(config);
+		if (task != null) {
+			task.cancel(false);
+		}
+	}
+
+	public void shutdown() {
+		for (LoadingTask task : runningTasks.values()) {
+			task.cancel(false);
+		}
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Throws an {@link OperationCanceledException} if the load running on the current thread got cancelled.
+	 */
+	public static void checkCanceled() {
+		LoadingTask task = CURRENT_TASK.get();
+		if (task != null && task.isCancelled()) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	private LoadingTask submit(IBeansConfig config, int generation, Callable<Integer> operation) {
+		LoadingTask newTask = new LoadingTask(config, generation, operation);
+		while (true) {
+			LoadingTask task = runningTasks.putIfAbsent(config, newTask);
+			if (task == null) {
+				break;
+			}
+			if (task.generation == generation && !task.isCancelled()) {
+				// Coalesce with the load that is already running
+				return task;
+			}
+			// Supersede the load of an outdated generation
+			task.cancel(false);
+			runningTasks.remove(config, task);
+		}
+
+		try {
+			executor.execute(newTask);
+		}
+		catch (RejectedExecutionException e) {
+			// The queue is full; load on the requesting thread
+			newTask.run();
+		}
+		return newTask;
+	}
+
+	private class LoadingTask extends FutureTask<Integer> {
+
+		private final IBeansConfig config;
+
+		private final int generation;
+
+		public LoadingTask(IBeansConfig config, int generation, Callable<Integer> operation) {
+			super(operation);
+			this.config = config;
+			this.generation = generation;
+		}
+
+		@Override
+		public void run() {
+			CURRENT_TASK.set(this);
+			try {
+				super.run();
+			}
+			finally {
+				CURRENT_TASK.remove();
+			}
+		}
+
+		@Override
+		protected void done() {
+			runningTasks.remove(config, this);
+		}
+	}
+
+}
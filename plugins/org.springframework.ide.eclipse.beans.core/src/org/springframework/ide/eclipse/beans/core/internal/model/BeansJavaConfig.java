@@ -14,12 +14,13 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -31,6 +32,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.core.IClassFile;
@@ -196,6 +198,7 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 				return;
 			}
 
+			final int generation = loadGeneration;
 			try {
 				if (this.configClass == null) {
 					return;
@@ -230,7 +233,9 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 
 							IBeansConfigPostProcessor[] postProcessors = BeansConfigPostProcessorFactory.createPostProcessor(ConfigurationClassPostProcessor.class.getName());
 							for (IBeansConfigPostProcessor postProcessor : postProcessors) {
-								executePostProcessor(postProcessor, eventListener);
+								// Stop loading if a newer version of this config is being loaded
+								BeansConfigLoadingScheduler.checkCanceled();
+								executePostProcessor(postProcessor, eventListener, generation);
 							}
 						}
 						finally {
@@ -242,10 +247,9 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 					}
 				};
 
-				FutureTask<Integer> task = new FutureTask<Integer>(loadBeanDefinitionOperation);
-				BeansCorePlugin.getExecutorService().submit(task);
-				task.get(BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
-						TimeUnit.SECONDS);
+				BeansCorePlugin.getConfigLoadingScheduler().load(this, generation, loadBeanDefinitionOperation,
+						BeansCorePlugin.getDefault().getPreferenceStore()
+								.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID), TimeUnit.SECONDS);
 			}
 			catch (TimeoutException e) {
 				problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of configuration '"
@@ -254,6 +258,9 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 						.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID) + "sec",
 						file, 1));
 			}
+			catch (OperationCanceledException e) {
+				// superseded by the load of a newer version of this config
+			}
 			catch (Exception e) {
 				problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, String.format(
 						"Error occured processing Java config '%s'. See Error Log for more details", e.getCause().getMessage()), getElementResource()));
@@ -286,19 +293,22 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 	 */
 	public void reload() {
 		if (configClass != null) {
+			// Stop a running load of the outdated version early so that it releases the lock
+			BeansCorePlugin.getConfigLoadingScheduler().cancel(this);
 			try {
 				w.lock();
 				// System.out.println(String.format("++- resetting config '%s'", file.getFullPath().toString()));
+				nextLoadGeneration();
 				isModelPopulated = false;
 				modificationTimestamp = IResource.NULL_STAMP;
 				defaults = null;
-				imports.clear();
+				imports = new CopyOnWriteArraySet<IBeansImport>();
 				aliases.clear();
-				beans.clear();
-				components.clear();
+				beans = new LinkedHashMap<String, IBean>();
+				components = new LinkedHashSet<IBeansComponent>();
 				isBeanClassesMapPopulated = false;
 				beanClassesMap.clear();
-				problems.clear();
+				problems = new CopyOnWriteArraySet<ValidationProblem>();
 				children = null;
 				//				componentDefinitions.clear();
 			}
@@ -317,7 +327,7 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 	 * Safely execute the given {@link IBeansConfigPostProcessor}.
 	 */
 	private void executePostProcessor(final IBeansConfigPostProcessor postProcessor,
-			final ReaderEventListener eventListener) {
+			final ReaderEventListener eventListener, final int generation) {
 		SafeRunner.run(new ISafeRunnable() {
 
 			@Override
@@ -330,7 +340,8 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 			public void run() throws Exception {
 				try {
 					postProcessor.postProcess(BeansConfigPostProcessorFactory.createPostProcessingContext(BeansJavaConfig.this,
-							beans.values(), eventListener, problemReporter, beanNameGenerator, registry, problems));
+							beans.values(), eventListener, problemReporter, beanNameGenerator, registry,
+							getProblemSet(generation)));
 				}
 				catch (Exception e) {
 					handleException(e);
@@ -53,6 +53,7 @@ import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.SpringCoreUtils;
 import org.springframework.ide.eclipse.core.io.ExternalFile;
 import org.springframework.ide.eclipse.core.model.AbstractModel;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
 import org.springframework.ide.eclipse.core.model.IModelElement;
 import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
 import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
@@ -87,6 +88,12 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	 */
 	private volatile Map<IProject, IBeansProject> projects = new HashMap<IProject, IBeansProject>();
 
+	private final BeanClassIndex beanClassIndex = new BeanClassIndex();
+
+	private final ContextElementIndex contextElementIndex = new ContextElementIndex();
+
+	private final Map<IModelElement, BeanReferenceGraph> beanReferenceGraphs = new ConcurrentHashMap<IModelElement, BeanReferenceGraph>();
+
 	private IResourceChangeListener workspaceListener;
 
 	private IFacetedProjectListener facetedProjectListener;
@@ -94,6 +101,24 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	public BeansModel() {
 		super(null, IBeansModel.ELEMENT_NAME);
 		projects = new ConcurrentHashMap<IProject, IBeansProject>();
+		addChangeListener(beanClassIndex);
+		addChangeListener(contextElementIndex);
+		addChangeListener(new IModelChangeListener() {
+
+			public void elementChanged(ModelChangeEvent event) {
+				// Reloaded configs are detected by the graphs themselves; this only releases the graphs of the
+				// contexts of a changed project, which might not exist anymore
+				IModelElement element = event.getElement();
+				IBeansProject project = (element instanceof IBeansProject ? (IBeansProject) element
+						: BeansModelUtils.getParentOfClass(element, IBeansProject.class));
+				for (IModelElement context : beanReferenceGraphs.keySet()) {
+					if (project == null
+							|| project.equals(BeansModelUtils.getParentOfClass(context, IBeansProject.class))) {
+						beanReferenceGraphs.remove(context);
+					}
+				}
+			}
+		});
 		BeansCorePlugin.getDefault().getPreferenceStore().addPropertyChangeListener(new IPropertyChangeListener() {
 
 			public void propertyChange(PropertyChangeEvent event) {
@@ -196,6 +221,9 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			w.lock();
 			// Remove all projects
 			projects.clear();
+			beanClassIndex.clear();
+			contextElementIndex.clear();
+			beanReferenceGraphs.clear();
 		}
 		finally {
 			w.unlock();
@@ -343,17 +371,45 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		try {
 			r.lock();
 			for (IBeansProject project : projects.values()) {
-				for (IBeansConfig config : project.getConfigs()) {
-					if (config.isBeanClass(className)) {
-						configs.add(config);
-					}
-				}
+				configs.addAll(project.getConfigs());
 			}
 		}
 		finally {
 			r.unlock();
 		}
-		return configs;
+		return beanClassIndex.getConfigs(className, configs);
+	}
+
+	/**
+	 * Returns the index of the bean classes of all configs of this model.
+	 * @since 3.9.1
+	 */
+	public BeanClassIndex getBeanClassIndex() {
+		return beanClassIndex;
+	}
+
+	/**
+	 * Returns the cached reference graph of the given context or <code>null</code> if the context is not supported.
+	 */
+	BeanReferenceGraph getBeanReferenceGraph(IModelElement context) {
+		if (!BeanReferenceGraph.isSupportedContext(context)) {
+			return null;
+		}
+		BeanReferenceGraph graph = beanReferenceGraphs.get(context);
+		if (graph == null || !graph.isUpToDate()) {
+			graph = new BeanReferenceGraph(context);
+			beanReferenceGraphs.put(context, graph);
+		}
+		return graph;
+	}
+
+	/**
+	 * Returns the index of the context elements (importing configs and config sets) of the resources of this model.
+	 * @since 3.9.1
+	 */
+	public ContextElementIndex getContextElementIndex() {
+		contextElementIndex.retain(getProjects());
+		return contextElementIndex;
 	}
 
 	@Override
@@ -12,9 +12,11 @@ package org.springframework.ide.eclipse.beans.core.internal.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
@@ -239,6 +241,9 @@ public abstract class BeansModelUtils {
 	 * model element. For a bean it's parent bean (for child beans only), constructor argument values and property
 	 * values are checked. {@link IBean} look-up is done from the specified {@link IBeanConfig} or
 	 * {@link IBeanConfigSet}.
+	 * <p>
+	 * The connections between the beans of a context are cached by the {@link BeansModel} until one of the configs of
+	 * the context gets reloaded.
 	 * @param element the element ({@link IBean}, {@link IBeanConstructorArgument} or {@link IBeanProperty}) to get all
 	 * referenced beans from
 	 * @param context the context ({@link IBeanConfig} or {@link IBeanConfigSet}) the referenced beans are looked-up
@@ -246,6 +251,14 @@ public abstract class BeansModelUtils {
 	 * @throws IllegalArgumentException if unsupported model element specified
 	 */
 	public static Set<BeansConnection> getBeanReferences(IModelElement element, IModelElement context, boolean recursive) {
+		IBeansModel model = BeansCorePlugin.getModel();
+		if (model instanceof BeansModel) {
+			BeanReferenceGraph graph = ((BeansModel) model).getBeanReferenceGraph(context);
+			if (graph != null) {
+				return graph.getBeanReferences(element, recursive);
+			}
+		}
+
 		Set<BeansConnection> references = new LinkedHashSet<BeansConnection>();
 		Set<IBean> referencedBeans = new HashSet<IBean>(); // used to break
 		// from cycles
@@ -266,13 +279,41 @@ public abstract class BeansModelUtils {
 	 * @param element the model element which contains beans
 	 * @param monitor the progress monitor to indicate progress; mark the monitor done after completing the work
 	 * @throws IllegalArgumentException if unsupported model element specified
+	 * @throws OperationCanceledException if the monitor got canceled
+	 * @see #visitBeans(IModelElement, IModelElementVisitor, IProgressMonitor)
 	 */
 	public static Set<IBean> getBeans(IModelElement element, IProgressMonitor monitor) {
+		final Set<IBean> beans = new LinkedHashSet<IBean>();
+		visitBeans(element, new IModelElementVisitor() {
+
+			public boolean visit(IModelElement bean, IProgressMonitor monitor) {
+				beans.add((IBean) bean);
+				return true;
+			}
+		}, monitor);
+		return beans;
+	}
+
+	/**
+	 * Passes all beans which belong to the given model element to the given visitor, without collecting them into a
+	 * set first. The beans of a config are taken from the load of the config that is current when the config is
+	 * visited (see {@link AbstractBeansConfig#acceptBeans(IModelElementVisitor, IProgressMonitor)}). A bean that can
+	 * be reached in several ways (e.g. via a config and a config set) may be visited more than once.
+	 * <p>
+	 * The iteration stops as soon as the visitor returns <code>false</code>.
+	 * @param element the model element which contains beans
+	 * @param monitor the progress monitor to indicate progress; mark the monitor done after completing the work
+	 * @return <code>false</code> if the iteration has been stopped by the visitor
+	 * @throws IllegalArgumentException if unsupported model element specified
+	 * @throws OperationCanceledException if the monitor got canceled
+	 * @since 3.9.1
+	 */
+	public static boolean visitBeans(IModelElement element, final IModelElementVisitor visitor,
+			IProgressMonitor monitor) {
 		if (monitor == null) {
 			monitor = new NullProgressMonitor();
 		}
 
-		final Set<IBean> beans = new LinkedHashSet<IBean>();
 		if (element instanceof IBeansModel) {
 			Set<IBeansProject> projects = ((IBeansModel) element).getProjects();
 			monitor.beginTask("Locating bean definitions", projects.size());
@@ -286,19 +327,23 @@ public abstract class BeansModelUtils {
 							throw new OperationCanceledException();
 						}
 
+						final boolean[] isStopped = new boolean[1];
 						config.accept(new IModelElementVisitor() {
 							
 							public boolean visit(IModelElement element, IProgressMonitor monitor) {
-								if (element instanceof IBean) {
-									beans.add((IBean) element);
+								if (element instanceof IBean && !visitor.visit(element, monitor)) {
+									isStopped[0] = true;
 								}
-								return !monitor.isCanceled();
+								return !isStopped[0] && !monitor.isCanceled();
 							}
 						}, new NullProgressMonitor());
 						
 						if (monitor.isCanceled()) {
 							throw new OperationCanceledException();
 						}
+						if (isStopped[0]) {
+							return false;
+						}
 					}
 					monitor.worked(1);
 					if (monitor.isCanceled()) {
@@ -316,12 +361,13 @@ public abstract class BeansModelUtils {
 			try {
 				for (IBeansConfig config : configs) {
 					monitor.subTask("Loading bean defintion from file '" + config.getElementName() + "'");
-					beans.addAll(config.getBeans());
-					if (monitor.isCanceled()) {
-						throw new OperationCanceledException();
+					if (!visitConfigBeans(config, visitor, monitor)) {
+						return false;
 					}
 					for (IBeansComponent component : config.getComponents()) {
-						beans.addAll(component.getBeans());
+						if (!visitBeans(component.getBeans(), visitor, monitor)) {
+							return false;
+						}
 					}
 					monitor.worked(1);
 					if (monitor.isCanceled()) {
@@ -334,30 +380,68 @@ public abstract class BeansModelUtils {
 			}
 		}
 		else if (element instanceof IBeansConfig) {
-			beans.addAll(((IBeansConfig) element).getBeans());
+			if (!visitConfigBeans((IBeansConfig) element, visitor, monitor)) {
+				return false;
+			}
 			for (IBeansComponent component : ((IBeansConfig) element).getComponents()) {
-				beans.addAll(getBeans(component, monitor));
+				if (!visitBeans(component, visitor, monitor)) {
+					return false;
+				}
 			}
 		}
 		else if (element instanceof IBeansConfigSet) {
-			beans.addAll(((IBeansConfigSet) element).getBeans());
+			if (!visitBeans(((IBeansConfigSet) element).getBeans(), visitor, monitor)) {
+				return false;
+			}
 			for (IBeansComponent component : ((IBeansConfigSet) element).getComponents()) {
-				beans.addAll(getBeans(component, monitor));
+				if (!visitBeans(component, visitor, monitor)) {
+					return false;
+				}
 			}
 		}
 		else if (element instanceof IBeansComponent) {
 			for (IBeansComponent component : ((IBeansComponent) element).getComponents()) {
-				beans.addAll(getBeans(component, monitor));
+				if (!visitBeans(component, visitor, monitor)) {
+					return false;
+				}
 			}
-			beans.addAll(((IBeansComponent) element).getBeans());
+			return visitBeans(((IBeansComponent) element).getBeans(), visitor, monitor);
 		}
 		else if (element instanceof IBean) {
-			beans.add((IBean) element);
+			return visitor.visit(element, monitor);
 		}
 		else {
 			throw new IllegalArgumentException("Unsupported model element " + element);
 		}
-		return beans;
+		return true;
+	}
+
+	/**
+	 * Passes the beans of the given config to the given visitor.
+	 * @throws OperationCanceledException if the monitor got canceled
+	 */
+	private static boolean visitConfigBeans(IBeansConfig config, IModelElementVisitor visitor,
+			IProgressMonitor monitor) {
+		boolean completed;
+		if (config instanceof AbstractBeansConfig) {
+			completed = ((AbstractBeansConfig) config).acceptBeans(visitor, monitor);
+		}
+		else {
+			completed = visitBeans(config.getBeans(), visitor, monitor);
+		}
+		if (monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+		return completed;
+	}
+
+	private static boolean visitBeans(Collection<IBean> beans, IModelElementVisitor visitor, IProgressMonitor monitor) {
+		for (IBean bean : beans) {
+			if (!visitor.visit(bean, monitor)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -577,6 +661,19 @@ public abstract class BeansModelUtils {
 		return getInnerBeans(element, true);
 	}
 
+	/**
+	 * Returns the number of reloads of the given config, to tell whether data derived from the config is outdated.
+	 * Returns <code>-1</code> if the config can't tell.
+	 * @since 3.9.1
+	 * @see #isLoadGenerationUpToDate(Map)
+	 */
+	public static int getLoadGeneration(IBeansConfig config) {
+		if (config instanceof AbstractBeansConfig) {
+			return ((AbstractBeansConfig) config).getLoadGeneration();
+		}
+		return -1;
+	}
+
 	/**
 	 * Returns the merged bean definition for a given bean from specified context ( {@link IBeansConfig} or
 	 * {@link IBeansConfigSet}). Any cyclic-references are ignored.
@@ -855,6 +952,31 @@ public abstract class BeansModelUtils {
 		return !(bean.getElementParent() instanceof IBeansConfig);
 	}
 
+	/**
+	 * Returns the number of reloads of all configs. As long as it didn't change, none of the configs got reloaded and
+	 * the result of {@link #isLoadGenerationUpToDate(Map)} didn't change either.
+	 * @since 3.9.1
+	 */
+	public static int getTotalLoadGeneration() {
+		return AbstractBeansConfig.getTotalLoadGeneration();
+	}
+
+	/**
+	 * Returns <code>true</code> if none of the given configs got reloaded since their load generations were taken
+	 * with {@link #getLoadGeneration(IBeansConfig)}. Configs that can't tell their load generation are considered to
+	 * be outdated.
+	 * @since 3.9.1
+	 */
+	public static boolean isLoadGenerationUpToDate(Map<IBeansConfig, Integer> loadGenerations) {
+		for (Map.Entry<IBeansConfig, Integer> loadGeneration : loadGenerations.entrySet()) {
+			int generation = loadGeneration.getValue();
+			if (generation < 0 || generation != getLoadGeneration(loadGeneration.getKey())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Registers all bean definitions and aliases from given {@link IBeansConfig} in specified
 	 * {@link BeanDefinitionRegistry}. All {@link BeansException}s thrown by the {@link BeanDefinitionRegistry} are
@@ -1303,13 +1425,14 @@ public abstract class BeansModelUtils {
 					
 					try {
 						IType[] types = ((ICompilationUnit) element).getAllTypes();
-						String[] changedTypeNames = new String[types.length];
-						boolean[] changedTypeIsInterface = new boolean[types.length];
-						for (int i = 0; i < types.length; i++) {
-							changedTypeNames[i] = types[i].getFullyQualifiedName();
-							changedTypeIsInterface[i] = types[i].isInterface();
+						Set<String> changedTypeNames = new LinkedHashSet<String>();
+						for (IType type : types) {
+							changedTypeNames.add(type.getFullyQualifiedName());
 						}
-						
+
+						IBeansModel model = BeansCorePlugin.getModel();
+						BeanClassIndex index = (model instanceof BeansModel ? ((BeansModel) model).getBeanClassIndex() : new BeanClassIndex());
+						index.invalidateTypes(changedTypeNames);
 						for (IBeansProject project : projects) {
 							if (project != null) {
 
@@ -1318,27 +1441,8 @@ public abstract class BeansModelUtils {
 									continue;
 								}
 								
-								Set<IBeansConfig> configs = project.getConfigs();
-								for (IBeansConfig config : configs) {
-									boolean configAdded = false;
-									Set<String> allBeanClasses = config.getBeanClasses();
-									for (int i = 0; i < changedTypeNames.length; i++) {
-										for (String className : allBeanClasses) {
-											if (changedTypeIsInterface[i] && typeEngine.doesImplement(className, changedTypeNames[i], project.getProject())) {
-												files.add(config);
-												configAdded = true;
-												break;
-											}
-											else if (!changedTypeIsInterface[i] && typeEngine.doesExtend(className, changedTypeNames[i], project.getProject())) {
-												files.add(config);
-												configAdded = true;
-												break;
-											}
-										}
-										if (configAdded) break;
-									}
-								}
-								
+								files.addAll(index.getConfigsByContainingTypes(changedTypeNames, project.getConfigs(),
+										project.getProject(), typeEngine));
 //								typeHierarchyEngine.cleanup(project.getProject());
 							}
 						}
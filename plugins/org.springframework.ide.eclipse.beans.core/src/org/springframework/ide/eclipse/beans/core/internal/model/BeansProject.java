@@ -443,9 +443,11 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				IBeansConfig autoDetectedConfig = autoDetectedConfigs.remove(configName);
 				if (config != null) {
 					config.unregisterEventListener(eventListener);
+					releaseDocuments(config);
 				}
 				if (autoDetectedConfig != null) {
 					autoDetectedConfig.unregisterEventListener(eventListener);
+					releaseDocuments(autoDetectedConfig);
 				}
 				String locatorId = locatorByAutoDetectedConfig.remove(configName);
 				if (locatorId != null && autoDetectedConfigsByLocator.containsKey(locatorId)) {
@@ -887,6 +889,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			w.lock();
 			this.modelPopulated = false;
 			configSuffixes.clear();
+			for (IBeansConfig config : configs.values()) {
+				releaseDocuments(config);
+			}
+			for (IBeansConfig config : autoDetectedConfigs.values()) {
+				releaseDocuments(config);
+			}
 			configs.clear();
 			configSets.clear();
 			autoDetectedConfigs.clear();
@@ -1006,6 +1014,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		return false;
 	}
 
+	private static void releaseDocuments(IBeansConfig config) {
+		if (config instanceof BeansConfig) {
+			((BeansConfig) config).releaseDocuments();
+		}
+	}
+
 	private boolean removeConfigFromConfigSets(String configName) {
 		if (!this.modelPopulated) {
 			populateModel();
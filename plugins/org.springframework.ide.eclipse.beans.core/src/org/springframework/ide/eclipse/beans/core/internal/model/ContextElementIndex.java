@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.model.IBeansImport;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IImportedBeansConfig;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IResourceModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+
+/**
+ * Index from resources to the context elements a config of that resource is validated in: the configs that
+ * (directly or indirectly) import the resource and the config sets that contain a config of the resource.
+ * <p>
+ * The context elements are indexed per project when the project is queried for the first time. The entry of a project
+ * is dropped on any model change event of the project or of one of its elements and if one of its configs got
+ * reloaded (detected by its load generation), as the reload may have changed the imports of the config. The load
+ * generations of the configs are only compared again once any config got reloaded.
+ * @author Martin Lippert
+ * @since 3.9.1
+ * @see BeansModel#getContextElementIndex()
+ */
+public class ContextElementIndex implements IModelChangeListener {
+
+	private final Map<IBeansProject, Entry> entries = new HashMap<IBeansProject, Entry>();
+
+	/** Number of received change events; detects changes while an entry is built */
+	private int changeCount = 0;
+
+	/**
+	 * Returns the context elements of the given resource within the given projects.
+	 */
+	public Set<IResourceModelElement> getContextElements(IResource resource, Collection<IBeansProject> projects) {
+		Set<IResourceModelElement> contextElements = new LinkedHashSet<IResourceModelElement>();
+		for (IBeansProject project : projects) {
+			Set<IResourceModelElement> projectContextElements = getEntry(project).contextElements.get(resource);
+			if (projectContextElements != null) {
+				contextElements.addAll(projectContextElements);
+			}
+		}
+		return contextElements;
+	}
+
+	public void elementChanged(ModelChangeEvent event) {
+		IModelElement element = event.getElement();
+		IBeansProject project = (element instanceof IBeansProject ? (IBeansProject) element : BeansModelUtils
+				.getParentOfClass(element, IBeansProject.class));
+		synchronized (this) {
+			changeCount++;
+			if (project != null) {
+				entries.remove(project);
+			}
+			else {
+				entries.clear();
+			}
+		}
+	}
+
+	/**
+	 * Drops the entries of all projects that are not part of the given projects.
+	 */
+	public synchronized void retain(Collection<IBeansProject> projects) {
+		entries.keySet().retainAll(new HashSet<IBeansProject>(projects));
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	private Entry getEntry(IBeansProject project) {
+		int count;
+		synchronized (this) {
+			Entry entry = entries.get(project);
+			if (entry != null && entry.isUpToDate()) {
+				return entry;
+			}
+			count = changeCount;
+		}
+
+		// Read the generations before the imports; a reload in between leaves an outdated entry behind
+		int totalGeneration = BeansModelUtils.getTotalLoadGeneration();
+		Map<IBeansConfig, Integer> generations = new HashMap<IBeansConfig, Integer>();
+		Map<IResource, Set<IResourceModelElement>> contextElements = new HashMap<IResource, Set<IResourceModelElement>>();
+		for (IBeansConfig config : project.getConfigs()) {
+			generations.put(config, BeansModelUtils.getLoadGeneration(config));
+			Set<IResource> importedResources = new HashSet<IResource>();
+			addImportedResources(config, importedResources, new HashSet<IBeansConfig>());
+			for (IResource importedResource : importedResources) {
+				add(contextElements, importedResource, config);
+			}
+		}
+		for (IBeansConfigSet configSet : project.getConfigSets()) {
+			for (IBeansConfig config : configSet.getConfigs()) {
+				if (config.getElementResource() != null) {
+					add(contextElements, config.getElementResource(), configSet);
+				}
+			}
+		}
+
+		Entry entry = new Entry(generations, contextElements, totalGeneration);
+		synchronized (this) {
+			// Only install the entry if the project didn't change in the meantime
+			if (count == changeCount) {
+				entries.put(project, entry);
+			}
+		}
+		return entry;
+	}
+
+	private static void addImportedResources(IBeansConfig config, Set<IResource> importedResources,
+			Set<IBeansConfig> visitedConfigs) {
+		if (!visitedConfigs.add(config)) {
+			return;
+		}
+		for (IBeansImport beansImport : config.getImports()) {
+			for (IImportedBeansConfig importedConfig : beansImport.getImportedBeansConfigs()) {
+				if (importedConfig.getElementResource() != null) {
+					importedResources.add(importedConfig.getElementResource());
+				}
+				addImportedResources(importedConfig, importedResources, visitedConfigs);
+			}
+		}
+	}
+
+	private static void add(Map<IResource, Set<IResourceModelElement>> contextElements, IResource resource,
+			IResourceModelElement contextElement) {
+		Set<IResourceModelElement> elements = contextElements.get(resource);
+		if (elements == null) {
+			elements = new LinkedHashSet<IResourceModelElement>();
+			contextElements.put(resource, elements);
+		}
+		elements.add(contextElement);
+	}
+
+	private static class Entry {
+
+		private final Map<IBeansConfig, Integer> generations;
+
+		private final Map<IResource, Set<IResourceModelElement>> contextElements;
+
+		/** Total load generation the configs were found to be up to date in */
+		private volatile int checkedTotalGeneration;
+
+		public Entry(Map<IBeansConfig, Integer> generations, Map<IResource, Set<IResourceModelElement>> contextElements,
+				int totalGeneration) {
+			this.generations = generations;
+			this.contextElements = contextElements;
+			// Configs that can't tell their load generation keep the entry outdated
+			this.checkedTotalGeneration = (generations.containsValue(-1) ? -1 : totalGeneration);
+		}
+
+		/**
+		 * Checks the load generations of the configs only if any config got reloaded since the last check.
+		 */
+		public boolean isUpToDate() {
+			int totalGeneration = BeansModelUtils.getTotalLoadGeneration();
+			if (totalGeneration == checkedTotalGeneration) {
+				return true;
+			}
+			if (BeansModelUtils.isLoadGenerationUpToDate(generations)) {
+				checkedTotalGeneration = totalGeneration;
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Spring IDE Developers
+ * Copyright (c) 2011, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,12 +14,14 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IProject;
+import org.springframework.core.io.UrlResource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.ProjectAwareUrlStreamHandlerService;
@@ -67,7 +69,7 @@ public class ProjectClasspathUriResolver {
 	private String resolveOnClasspathAndSourceFolders(String publicId,
 			String systemId) {
 		ClassLoader classLoader = JdtUtils.getClassLoader(project, null);
-		Map<String, String> mappings = getSchemaMappings(classLoader);
+		Map<String, String> mappings = getSchemaMappings(classLoader, null);
 		if (mappings != null && systemId != null
 				&& mappings.containsKey(systemId)) {
 			String xsdPath = mappings.get(systemId);
@@ -95,8 +97,9 @@ public class ProjectClasspathUriResolver {
 
 		Map<String, NamespaceDefinition> namespaceDefinitionRegistry = new HashMap<String, NamespaceDefinition>();
 		ClassLoader classLoader = JdtUtils.getClassLoader(project, null);
+		SchemaNamespaceCache cache = BeansCorePlugin.getSchemaNamespaceCache();
 
-		schemaMappings = getSchemaMappings(classLoader);
+		schemaMappings = getSchemaMappings(classLoader, cache);
 		if (schemaMappings != null) {
 			for (String key : schemaMappings.keySet()) {
 				String path = schemaMappings.get(key);
@@ -108,7 +111,8 @@ public class ProjectClasspathUriResolver {
 					typeUri.put(key, resolvedPath);
 
 					// collect base information to later extract the default uri
-					String namespaceUri = getTargetNamespace(resolvedPath);
+					String namespaceUri = getTargetNamespace(resolvedPath,
+							classLoader, cache);
 
 					if (namespaceDefinitionRegistry.containsKey(namespaceUri)) {
 						namespaceDefinitionRegistry.get(namespaceUri)
@@ -145,18 +149,27 @@ public class ProjectClasspathUriResolver {
 
 	/**
 	 * Returns the target namespace URI of the XSD identified by the given
-	 * <code>resolvedPath</code>.
+	 * <code>resolvedPath</code>. XSDs located in jar files are only parsed if
+	 * the jar is not in the given cache yet.
 	 */
-	private String getTargetNamespace(String resolvedPath) {
+	private String getTargetNamespace(String resolvedPath,
+			ClassLoader classLoader, SchemaNamespaceCache cache) {
 		if (resolvedPath == null) {
 			return null;
 		}
 
+		URL xsdUrl = classLoader.getResource(resolvedPath);
+		if (cache.hasTargetNamespace(xsdUrl)) {
+			return cache.getTargetNamespace(xsdUrl);
+		}
+
 		try {
 			URL url = new URI(
 					ProjectAwareUrlStreamHandlerService.createProjectAwareUrl(
 							project.getName(), resolvedPath)).toURL();
-			return TargetNamespaceScanner.getTargetNamespace(url);
+			String namespaceUri = TargetNamespaceScanner.getTargetNamespace(url);
+			cache.putTargetNamespace(xsdUrl, namespaceUri);
+			return namespaceUri;
 		} catch (IOException e) {
 			BeansCorePlugin.log(e);
 		} catch (URISyntaxException e) {
@@ -171,15 +184,38 @@ public class ProjectClasspathUriResolver {
 	 * 
 	 * @param classLoader
 	 *            The classloader that is used to load the properties
+	 * @param cache
+	 *            The cache of the mappings of <code>spring.schemas</code>
+	 *            files in jars; <code>null</code> to read all files
 	 */
-	private Map<String, String> getSchemaMappings(ClassLoader classLoader) {
+	private Map<String, String> getSchemaMappings(ClassLoader classLoader,
+			SchemaNamespaceCache cache) {
 		Map<String, String> handlerMappings = new ConcurrentHashMap<String, String>();
 		try {
-			Properties mappings = PropertiesLoaderUtils
-					.loadAllProperties(
-							ProjectClasspathNamespaceDefinitionResolver.DEFAULT_SCHEMA_MAPPINGS_LOCATION,
-							classLoader);
-			CollectionUtils.mergePropertiesIntoMap(mappings, handlerMappings);
+			Enumeration<URL> urls = classLoader
+					.getResources(ProjectClasspathNamespaceDefinitionResolver.DEFAULT_SCHEMA_MAPPINGS_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				Map<String, String> mappings = (cache != null ? cache
+						.getSchemaMappings(url) : null);
+				if (mappings == null) {
+					mappings = new LinkedHashMap<String, String>();
+					try {
+						CollectionUtils.mergePropertiesIntoMap(
+								PropertiesLoaderUtils
+										.loadProperties(new UrlResource(url)),
+								mappings);
+					} catch (IOException ex) {
+						// We can ignore this as we simply don't find the xsd file then.
+						continue;
+					}
+					if (cache != null) {
+						cache.putSchemaMappings(url, mappings);
+					}
+				}
+				// Later files override earlier ones, as they did when loading all properties at once
+				handlerMappings.putAll(mappings);
+			}
 		} catch (IOException ex) {
 			// We can ignore this as we simply don't find the xsd file then.
 		}
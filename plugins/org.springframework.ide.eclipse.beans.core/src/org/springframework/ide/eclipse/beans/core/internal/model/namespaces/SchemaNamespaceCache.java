@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Cache of the <code>spring.schemas</code> mappings and the XSD target namespaces found in jar files, shared by the
+ * {@link ProjectClasspathUriResolver}s of all projects.
+ * <p>
+ * The entries are kept per jar file, keyed by the location, length and modification time of the jar, so a jar that
+ * got replaced is read again while all other jars are answered from the cache. The cache is written on shutdown of
+ * the {@link BeansCorePlugin} and read on startup. Anything that is not located in a jar file (e.g. the output
+ * folders of workspace projects) is not cached.
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class SchemaNamespaceCache {
+
+	private static final int VERSION = 1;
+
+	/** Marks an XSD without target namespace, as the maps don't allow <code>null</code> values */
+	private static final String NO_NAMESPACE = "";
+
+	private final ConcurrentMap<String, ArchiveEntry> archives = new ConcurrentHashMap<String, ArchiveEntry>();
+
+	/**
+	 * Returns the schema mappings of the <code>spring.schemas</code> file identified by the given URL or
+	 * <code>null</code> if they are not cached.
+	 */
+	public Map<String, String> getSchemaMappings(URL url) {
+		ArchiveEntry entry = getEntry(url, false);
+		return (entry != null ? entry.schemaMappings : null);
+	}
+
+	public void putSchemaMappings(URL url, Map<String, String> schemaMappings) {
+		ArchiveEntry entry = getEntry(url, true);
+		if (entry != null) {
+			entry.schemaMappings = schemaMappings;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the target namespace of the XSD identified by the given URL is cached.
+	 */
+	public boolean hasTargetNamespace(URL url) {
+		ArchiveEntry entry = getEntry(url, false);
+		return entry != null && entry.targetNamespaces.containsKey(getEntryName(url));
+	}
+
+	/**
+	 * Returns the cached target namespace of the XSD identified by the given URL; <code>null</code> if the XSD has
+	 * none or if it isn't cached.
+	 * @see #hasTargetNamespace(URL)
+	 */
+	public String getTargetNamespace(URL url) {
+		ArchiveEntry entry = getEntry(url, false);
+		if (entry != null) {
+			String namespace = entry.targetNamespaces.get(getEntryName(url));
+			if (namespace != null && !NO_NAMESPACE.equals(namespace)) {
+				return namespace;
+			}
+		}
+		return null;
+	}
+
+	public void putTargetNamespace(URL url, String namespace) {
+		ArchiveEntry entry = getEntry(url, true);
+		if (entry != null) {
+			entry.targetNamespaces.put(getEntryName(url), namespace != null ? namespace : NO_NAMESPACE);
+		}
+	}
+
+	public void clear() {
+		archives.clear();
+	}
+
+	/**
+	 * Reads the cache from the given file. A missing file or a file written by another version is ignored.
+	 */
+	public void read(File file) {
+		archives.clear();
+		if (!file.exists()) {
+			return;
+		}
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != VERSION) {
+				return;
+			}
+			int archiveCount = in.readInt();
+			for (int i = 0; i < archiveCount; i++) {
+				String location = in.readUTF();
+				ArchiveEntry entry = new ArchiveEntry(in.readLong(), in.readLong());
+				if (in.readBoolean()) {
+					entry.schemaMappings = readMap(in, new LinkedHashMap<String, String>());
+				}
+				readMap(in, entry.targetNamespaces);
+				archives.put(location, entry);
+			}
+		}
+		catch (IOException e) {
+			archives.clear();
+			BeansCorePlugin.log("Error reading schema namespace cache", e);
+		}
+		finally {
+			if (in != null) {
+				try {
+					in.close();
+				}
+				catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the entries of all jar files that still exist unchanged to the given file.
+	 */
+	public void write(File file) {
+		DataOutputStream out = null;
+		try {
+			file.getParentFile().mkdirs();
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeInt(VERSION);
+			Map<String, ArchiveEntry> entries = new LinkedHashMap<String, ArchiveEntry>();
+			for (Map.Entry<String, ArchiveEntry> entry : archives.entrySet()) {
+				if (entry.getValue().isUpToDate(new File(entry.getKey()))) {
+					entries.put(entry.getKey(), entry.getValue());
+				}
+			}
+			out.writeInt(entries.size());
+			for (Map.Entry<String, ArchiveEntry> entry : entries.entrySet()) {
+				ArchiveEntry archive = entry.getValue();
+				out.writeUTF(entry.getKey());
+				out.writeLong(archive.length);
+				out.writeLong(archive.lastModified);
+				Map<String, String> schemaMappings = archive.schemaMappings;
+				out.writeBoolean(schemaMappings != null);
+				if (schemaMappings != null) {
+					writeMap(out, schemaMappings);
+				}
+				writeMap(out, archive.targetNamespaces);
+			}
+		}
+		catch (IOException e) {
+			BeansCorePlugin.log("Error writing schema namespace cache", e);
+		}
+		finally {
+			if (out != null) {
+				try {
+					out.close();
+				}
+				catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the up-to-date entry of the jar file the given URL points into or <code>null</code> if the URL doesn't
+	 * point into a jar file.
+	 * @param create whether to replace a missing or outdated entry with an empty one
+	 */
+	private ArchiveEntry getEntry(URL url, boolean create) {
+		File jarFile = getJarFile(url);
+		if (jarFile == null) {
+			return null;
+		}
+		String location = jarFile.getAbsolutePath();
+		ArchiveEntry entry = archives.get(location);
+		if (entry != null && entry.isUpToDate(jarFile)) {
+			return entry;
+		}
+		if (!create) {
+			return null;
+		}
+		ArchiveEntry newEntry = new ArchiveEntry(jarFile.length(), jarFile.lastModified());
+		if (entry != null) {
+			archives.remove(location, entry);
+		}
+		ArchiveEntry existingEntry = archives.putIfAbsent(location, newEntry);
+		return (existingEntry != null && existingEntry.isUpToDate(jarFile) ? existingEntry : newEntry);
+	}
+
+	private static File getJarFile(URL url) {
+		if (url == null || !ResourceUtils.isJarURL(url)) {
+			return null;
+		}
+		try {
+			URL jarUrl = ResourceUtils.extractJarFileURL(url);
+			if (!ResourceUtils.isFileURL(jarUrl)) {
+				return null;
+			}
+			File file = ResourceUtils.getFile(jarUrl);
+			return (file.isFile() ? file : null);
+		}
+		catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static String getEntryName(URL url) {
+		String path = url.getPath();
+		int separator = path.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+		return (separator >= 0 ? path.substring(separator + ResourceUtils.JAR_URL_SEPARATOR.length()) : path);
+	}
+
+	private static Map<String, String> readMap(DataInputStream in, Map<String, String> map) throws IOException {
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			map.put(in.readUTF(), in.readUTF());
+		}
+		return map;
+	}
+
+	private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+		Map<String, String> entries = new LinkedHashMap<String, String>(map);
+		out.writeInt(entries.size());
+		for (Map.Entry<String, String> entry : entries.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue());
+		}
+	}
+
+	/**
+	 * The cached content of a single jar file together with the length and modification time it has been read at.
+	 */
+	private static class ArchiveEntry {
+
+		private final long length;
+
+		private final long lastModified;
+
+		private volatile Map<String, String> schemaMappings;
+
+		/** Target namespaces by the path of the XSD within the jar */
+		private final Map<String, String> targetNamespaces = new ConcurrentHashMap<String, String>();
+
+		public ArchiveEntry(long length, long lastModified) {
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		public boolean isUpToDate(File jarFile) {
+			return jarFile.length() == length && jarFile.lastModified() == lastModified;
+		}
+	}
+
+}
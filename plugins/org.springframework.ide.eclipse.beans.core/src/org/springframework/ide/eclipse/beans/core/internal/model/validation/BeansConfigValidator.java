@@ -12,9 +12,11 @@ package org.springframework.ide.eclipse.beans.core.internal.model.validation;
 
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
@@ -88,6 +90,11 @@ public class BeansConfigValidator extends AbstractValidator {
 		MarkerUtils.deleteAllMarkers(resource, getMarkerId());
 	}
 
+	@Override
+	protected List<IMarker> getProblemMarkers(IResource resource) throws CoreException {
+		return MarkerUtils.getAllMarkers(resource, getMarkerId());
+	}
+
 	public Set<IResource> getAffectedResources(IResource resource, int kind, int deltaKind) throws CoreException {
 		Set<IResource> resources = new LinkedHashSet<IResource>();
 		if (resource instanceof IFile) {
@@ -231,6 +238,15 @@ public class BeansConfigValidator extends AbstractValidator {
 		return null;
 	}
 
+	/**
+	 * The affected beans are only collected in {@link #getAffectedResources(IResource, int, int)}, validation itself
+	 * just reads them.
+	 */
+	@Override
+	protected boolean supportsParallelValidation() {
+		return true;
+	}
+
 	@Override
 	protected boolean supports(IModelElement element) {
 		// Validate only those beans that have been changed
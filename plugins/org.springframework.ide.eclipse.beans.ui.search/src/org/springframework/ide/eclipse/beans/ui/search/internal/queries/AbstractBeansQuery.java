@@ -10,6 +10,17 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.Assert;
@@ -20,6 +31,12 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.text.Match;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.beans.ui.search.BeansSearchPlugin;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchMessages;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchResult;
@@ -31,14 +48,18 @@ import org.springframework.ide.eclipse.core.model.ISourceModelElement;
 import org.springsource.ide.eclipse.commons.core.PatternUtils;
 
 /**
+ * Base class for the beans queries. The configs within the scope are searched via the {@link BeansSearchIndex}, one
+ * task per project running in parallel; matches are added to the {@link BeansSearchResult} as soon as they are found.
  * @author Torsten Juergeleit
  * @author Christian Dupuis
+ * @author Martin Lippert
  */
 public abstract class AbstractBeansQuery implements ISearchQuery {
 
 	private BeansSearchScope scope;
 	private String pattern;
 	private Pattern compiledPattern;
+	private String prefix;
 	private ISearchResult result;
 
 	public AbstractBeansQuery(BeansSearchScope scope, String pattern,
@@ -48,6 +69,7 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 		this.pattern = pattern;
 		this.compiledPattern = PatternUtils.createPattern(pattern,
 				isCaseSensitive, isRegexSearch);
+		this.prefix = (isRegexSearch ? null : getLiteralPrefix(pattern));
 	}
 
 	public BeansSearchScope getScope() {
@@ -73,38 +95,53 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 		return true;
 	}
 
-	public final IStatus run(IProgressMonitor monitor) {
+	public final IStatus run(final IProgressMonitor monitor) {
 		final BeansSearchResult result = (BeansSearchResult) getSearchResult();
 		result.removeAll();
+
+		// Configs are searched via the index; other elements (e.g. a single
+		// bean selected in the explorer) are visited directly
+		Map<IBeansProject, Set<IBeansConfig>> configs =
+				new LinkedHashMap<IBeansProject, Set<IBeansConfig>>();
 		for (IModelElement element : scope.getModelElements()) {
 			if (monitor.isCanceled()) {
 				throw new OperationCanceledException();
 			}
-			IModelElementVisitor visitor = new IModelElementVisitor() {
-				public boolean visit(IModelElement element,
-						IProgressMonitor monitor) {
-					if (doesMatch(element, compiledPattern, monitor)) {
-						int startLine;
-						int lines;
-						if (element instanceof ISourceModelElement) {
-							ISourceModelElement sourceElement =
-								(ISourceModelElement) element;
-							startLine = sourceElement.getElementStartLine();
-							lines = sourceElement.getElementEndLine()
-									- startLine + 1;
-						} else {
-							startLine = -1;
-							lines = -1;
+			if (!addConfigs(element, configs)) {
+				element.accept(new IModelElementVisitor() {
+					public boolean visit(IModelElement element,
+							IProgressMonitor monitor) {
+						if (doesMatch(element, compiledPattern, monitor)) {
+							addMatch(result, element);
 						}
-						Match match = new Match(element, Match.UNIT_LINE,
-								startLine, lines);
-						result.addMatch(match);
+						return true;
 					}
-					return true;
-				}
-			};
-			element.accept(visitor, monitor);
+				}, monitor);
+			}
+		}
+
+		final BeansSearchIndex index = BeansSearchPlugin.getDefault()
+				.getSearchIndex();
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (final Set<IBeansConfig> projectConfigs : configs.values()) {
+			futures.add(BeansCorePlugin.getExecutorService().submit(
+					new Runnable() {
+						public void run() {
+							for (IBeansConfig config : projectConfigs) {
+								if (monitor.isCanceled()) {
+									return;
+								}
+								for (IModelElement element : index.getMatches(
+										config, AbstractBeansQuery.this,
+										compiledPattern, prefix, monitor)) {
+									addMatch(result, element);
+								}
+							}
+						}
+					}));
 		}
+		waitFor(futures, monitor);
+
 		Object[] args = new Object[] { new Integer(result.getMatchCount()) };
 		String message = MessageUtils.format(
 				BeansSearchMessages.SearchQuery_status, args);
@@ -114,8 +151,124 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 
 	/**
 	 * Returns <code>true</code> if given {@link IModelElement} matches
-	 * this query. 
+	 * this query, i.e. if one of its search keys matches the given pattern.
+	 */
+	protected boolean doesMatch(IModelElement element, Pattern pattern,
+			IProgressMonitor monitor) {
+		Set<String> keys = new LinkedHashSet<String>();
+		addSearchKeys(element, keys);
+		for (String key : keys) {
+			if (key != null && pattern.matcher(key).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the strings of the given {@link IModelElement} this query
+	 * compares the search pattern with. The keys must only depend on the
+	 * element, as they are kept in the {@link BeansSearchIndex}.
 	 */
-	protected abstract boolean doesMatch(IModelElement element,
-			Pattern pattern, IProgressMonitor monitor);
+	protected abstract void addSearchKeys(IModelElement element,
+			Collection<String> keys);
+
+	private void addMatch(BeansSearchResult result, IModelElement element) {
+		int startLine;
+		int lines;
+		if (element instanceof ISourceModelElement) {
+			ISourceModelElement sourceElement = (ISourceModelElement) element;
+			startLine = sourceElement.getElementStartLine();
+			lines = sourceElement.getElementEndLine() - startLine + 1;
+		} else {
+			startLine = -1;
+			lines = -1;
+		}
+		result.addMatch(new Match(element, Match.UNIT_LINE, startLine, lines));
+	}
+
+	/**
+	 * Adds the configs of the given scope element grouped by their project.
+	 * Returns <code>false</code> if the element is not made up of configs.
+	 */
+	private boolean addConfigs(IModelElement element,
+			Map<IBeansProject, Set<IBeansConfig>> configs) {
+		if (element instanceof IBeansModel) {
+			for (IBeansProject project : ((IBeansModel) element).getProjects()) {
+				addConfigs(project, configs);
+			}
+		} else if (element instanceof IBeansProject) {
+			for (IBeansConfig config : ((IBeansProject) element).getConfigs()) {
+				addConfig(config, configs);
+			}
+			for (IBeansConfigSet configSet : ((IBeansProject) element)
+					.getConfigSets()) {
+				addConfigs(configSet, configs);
+			}
+		} else if (element instanceof IBeansConfigSet) {
+			for (IBeansConfig config : ((IBeansConfigSet) element).getConfigs()) {
+				addConfig(config, configs);
+			}
+		} else if (element instanceof IBeansConfig) {
+			addConfig((IBeansConfig) element, configs);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private void addConfig(IBeansConfig config,
+			Map<IBeansProject, Set<IBeansConfig>> configs) {
+		IBeansProject project = BeansModelUtils.getParentOfClass(config,
+				IBeansProject.class);
+		Set<IBeansConfig> projectConfigs = configs.get(project);
+		if (projectConfigs == null) {
+			projectConfigs = new LinkedHashSet<IBeansConfig>();
+			configs.put(project, projectConfigs);
+		}
+		projectConfigs.add(config);
+	}
+
+	private void waitFor(List<Future<?>> futures, IProgressMonitor monitor) {
+		try {
+			for (Future<?> future : futures) {
+				while (true) {
+					if (monitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						break;
+					} catch (TimeoutException e) {
+						// check for cancellation and wait again
+					} catch (ExecutionException e) {
+						if (e.getCause() instanceof OperationCanceledException) {
+							throw (OperationCanceledException) e.getCause();
+						}
+						BeansSearchPlugin.log(e.getCause());
+						break;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			for (Future<?> future : futures) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Returns the literal text all strings matched by the given (non regex)
+	 * search pattern start with or <code>null</code> if there is none.
+	 */
+	private static String getLiteralPrefix(String pattern) {
+		int i = 0;
+		while (i < pattern.length() && "*?\\".indexOf(pattern.charAt(i)) < 0) {
+			i++;
+		}
+		return (i > 0 ? pattern.substring(0, i) : null);
+	}
 }
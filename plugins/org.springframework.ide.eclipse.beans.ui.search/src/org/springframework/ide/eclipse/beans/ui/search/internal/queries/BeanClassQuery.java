@@ -10,9 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
 
-import java.util.regex.Pattern;
+import java.util.Collection;
 
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchMessages;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchScope;
@@ -40,18 +39,15 @@ public class BeanClassQuery extends AbstractBeansQuery {
 	}
 
 	@Override
-	protected boolean doesMatch(IModelElement element, Pattern pattern,
-			IProgressMonitor monitor) {
+	protected void addSearchKeys(IModelElement element,
+			Collection<String> keys) {
 		if (element instanceof IBean) {
 			String className = ((IBean) element).getClassName();
 			if (className != null) {
 
 				// Compare given class name with bean's one
-				if (pattern.matcher(className).matches()) {
-					return true;
-				}
+				keys.add(className);
 			}
 		}
-		return false;
 	}
 }
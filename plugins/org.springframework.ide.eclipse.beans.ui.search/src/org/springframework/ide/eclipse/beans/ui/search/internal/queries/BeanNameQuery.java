@@ -10,9 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
 
-import java.util.regex.Pattern;
+import java.util.Collection;
 
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.springframework.ide.eclipse.beans.core.internal.model.Bean;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchMessages;
@@ -41,27 +40,21 @@ public class BeanNameQuery extends AbstractBeansQuery {
 	}
 
 	@Override
-	protected boolean doesMatch(IModelElement element, Pattern pattern,
-			IProgressMonitor monitor) {
+	protected void addSearchKeys(IModelElement element,
+			Collection<String> keys) {
 		if (element instanceof IBean) {
 			Bean bean = (Bean) element;
 
 			// Compare bean name first
-			if (pattern.matcher(bean.getElementName()).matches()) {
-				return true;
-			}
+			keys.add(bean.getElementName());
 
 			// Now compare aliases
 			String[] aliases = bean.getAliases();
 			if (aliases != null) {
 				for (String alias : aliases) {
-					if (pattern.matcher(alias).matches()) {
-						return true;
-					}
-
+					keys.add(alias);
 				}
 			}
 		}
-		return false;
 	}
 }
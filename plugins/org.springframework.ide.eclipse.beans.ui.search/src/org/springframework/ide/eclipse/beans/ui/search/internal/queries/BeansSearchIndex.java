@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+
+/**
+ * Index of the search keys (bean names, class names, property names, referenced bean names, ...) of the elements of
+ * the {@link IBeansConfig}s, so that repeated searches don't have to walk the beans model again.
+ * <p>
+ * The keys of a config are collected per kind of query by walking the config once, when the config is searched for
+ * the first time. After that the keys are kept up to date in the background: as soon as the
+ * {@link IModelChangeListener} is notified about a changed project, the outdated entries (detected by the load
+ * generation of their config) of all kinds of queries searched so far are rebuilt and the entries of removed configs
+ * are dropped. The keys are kept in a sorted map, so that searches with a literal prefix only need to test the keys
+ * starting with that prefix.
+ * @author Martin Lippert
+ * @since 3.9.1
+ * @see AbstractBeansQuery#addSearchKeys(IModelElement, Collection)
+ */
+public class BeansSearchIndex implements IModelChangeListener {
+
+	/** Delay to collect further change events before updating the index */
+	private static final long UPDATE_DELAY = 500;
+
+	private final Map<IBeansConfig, Map<Class<?>, Entry>> entries = new HashMap<IBeansConfig, Map<Class<?>, Entry>>();
+
+	/** The last query of every kind of query that got searched, used to collect the keys during updates */
+	private final Map<Class<?>, AbstractBeansQuery> queries = new HashMap<Class<?>, AbstractBeansQuery>();
+
+	/** Projects whose entries need to be updated */
+	private final Set<IBeansProject> changedProjects = new LinkedHashSet<IBeansProject>();
+
+	private final Job updateJob = new Job("Updating beans search index") {
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			IBeansProject project;
+			while ((project = nextChangedProject()) != null) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				update(project, monitor);
+			}
+			return Status.OK_STATUS;
+		}
+	};
+
+	public BeansSearchIndex() {
+		updateJob.setSystem(true);
+		updateJob.setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Returns the elements of the given config that match the given query.
+	 * @param prefix a literal prefix all matching keys start with; <code>null</code> if unknown
+	 */
+	public Set<IModelElement> getMatches(IBeansConfig config, AbstractBeansQuery query, Pattern pattern,
+			String prefix, IProgressMonitor monitor) {
+		Entry entry = getEntry(config, query, monitor);
+
+		Collection<List<Posting>> candidates;
+		if (prefix != null && isAscii(prefix)) {
+			String lowerCasePrefix = prefix.toLowerCase(Locale.ENGLISH);
+			candidates = entry.postings.subMap(lowerCasePrefix, true, lowerCasePrefix + Character.MAX_VALUE, false)
+					.values();
+		}
+		else {
+			candidates = entry.postings.values();
+		}
+
+		Set<IModelElement> matches = new LinkedHashSet<IModelElement>();
+		for (List<Posting> postings : candidates) {
+			for (Posting posting : postings) {
+				if (!matches.contains(posting.element) && pattern.matcher(posting.key).matches()) {
+					matches.add(posting.element);
+				}
+			}
+		}
+		return matches;
+	}
+
+	public void elementChanged(ModelChangeEvent event) {
+		IModelElement element = event.getElement();
+		IBeansProject project = (element instanceof IBeansProject ? (IBeansProject) element : BeansModelUtils
+				.getParentOfClass(element, IBeansProject.class));
+		synchronized (this) {
+			if (project == null) {
+				entries.clear();
+				changedProjects.clear();
+				return;
+			}
+			if (queries.isEmpty()) {
+				return;
+			}
+			changedProjects.add(project);
+		}
+		updateJob.schedule(UPDATE_DELAY);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		changedProjects.clear();
+	}
+
+	/**
+	 * Stops updating the index and drops all entries.
+	 */
+	public void dispose() {
+		updateJob.cancel();
+		synchronized (this) {
+			entries.clear();
+			queries.clear();
+			changedProjects.clear();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the keys of the given config are indexed for the given kind of query and up to
+	 * date.
+	 */
+	public synchronized boolean isIndexed(IBeansConfig config, Class<? extends AbstractBeansQuery> queryClass) {
+		Map<Class<?>, Entry> configEntries = entries.get(config);
+		Entry entry = (configEntries != null ? configEntries.get(queryClass) : null);
+		return entry != null && isUpToDate(entry, BeansModelUtils.getLoadGeneration(config));
+	}
+
+	/**
+	 * Waits until pending updates of the index are finished.
+	 */
+	public void join() throws InterruptedException {
+		updateJob.join();
+	}
+
+	private synchronized IBeansProject nextChangedProject() {
+		Iterator<IBeansProject> projects = changedProjects.iterator();
+		if (!projects.hasNext()) {
+			return null;
+		}
+		IBeansProject project = projects.next();
+		projects.remove();
+		return project;
+	}
+
+	/**
+	 * Drops the entries of the configs that are no longer part of the given project and rebuilds the outdated
+	 * entries of the remaining ones.
+	 */
+	private void update(IBeansProject project, IProgressMonitor monitor) {
+		Set<IBeansConfig> configs = (project.getProject().isAccessible() ? project.getConfigs() : Collections
+				.<IBeansConfig> emptySet());
+		List<AbstractBeansQuery> indexedQueries;
+		synchronized (this) {
+			Iterator<IBeansConfig> indexedConfigs = entries.keySet().iterator();
+			while (indexedConfigs.hasNext()) {
+				IBeansConfig config = indexedConfigs.next();
+				if (project.equals(config.getElementParent()) && !configs.contains(config)) {
+					indexedConfigs.remove();
+				}
+			}
+			indexedQueries = new ArrayList<AbstractBeansQuery>(queries.values());
+		}
+		try {
+			for (IBeansConfig config : configs) {
+				for (AbstractBeansQuery query : indexedQueries) {
+					getEntry(config, query, monitor);
+				}
+			}
+		}
+		catch (OperationCanceledException e) {
+			// the remaining entries are rebuilt on the next search
+		}
+	}
+
+	private Entry getEntry(IBeansConfig config, final AbstractBeansQuery query, IProgressMonitor monitor) {
+		int generation = BeansModelUtils.getLoadGeneration(config);
+		synchronized (this) {
+			queries.put(query.getClass(), query);
+			Map<Class<?>, Entry> configEntries = entries.get(config);
+			if (configEntries != null) {
+				Entry entry = configEntries.get(query.getClass());
+				if (entry != null && isUpToDate(entry, generation)) {
+					return entry;
+				}
+			}
+		}
+
+		// Read the generation before walking the config; a reload in between leaves an outdated entry behind
+		final TreeMap<String, List<Posting>> postings = new TreeMap<String, List<Posting>>();
+		config.accept(new IModelElementVisitor() {
+
+			public boolean visit(IModelElement element, IProgressMonitor monitor) {
+				Set<String> keys = new LinkedHashSet<String>();
+				query.addSearchKeys(element, keys);
+				for (String key : keys) {
+					if (key == null) {
+						continue;
+					}
+					String lowerCaseKey = key.toLowerCase(Locale.ENGLISH);
+					List<Posting> keyPostings = postings.get(lowerCaseKey);
+					if (keyPostings == null) {
+						keyPostings = new ArrayList<Posting>(1);
+						postings.put(lowerCaseKey, keyPostings);
+					}
+					keyPostings.add(new Posting(element, key));
+				}
+				return true;
+			}
+		}, monitor);
+		if (monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+
+		Entry entry = new Entry(generation, postings);
+		synchronized (this) {
+			Map<Class<?>, Entry> configEntries = entries.get(config);
+			if (configEntries == null) {
+				configEntries = new HashMap<Class<?>, Entry>();
+				entries.put(config, configEntries);
+			}
+			configEntries.put(query.getClass(), entry);
+		}
+		return entry;
+	}
+
+	private static boolean isUpToDate(Entry entry, int generation) {
+		return generation >= 0 && entry.generation == generation;
+	}
+
+	private static boolean isAscii(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) > 127) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static class Entry {
+
+		private final int generation;
+
+		/** Postings by the lower case key */
+		private final TreeMap<String, List<Posting>> postings;
+
+		public Entry(int generation, TreeMap<String, List<Posting>> postings) {
+			this.generation = generation;
+			this.postings = postings;
+		}
+	}
+
+	private static class Posting {
+
+		private final IModelElement element;
+
+		private final String key;
+
+		public Posting(IModelElement element, String key) {
+			this.element = element;
+			this.key = key;
+		}
+	}
+
+}
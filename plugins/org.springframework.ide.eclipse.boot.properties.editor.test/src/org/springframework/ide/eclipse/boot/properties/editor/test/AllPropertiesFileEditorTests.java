@@ -27,6 +27,8 @@ import org.junit.runners.Suite.SuiteClasses;
 	SpringPropertiesEditorTests.class,
 	TypeUtilTests.class,
 	FuzzyMapTests.class,
+	SpringPropertiesIndexManagerTest.class,
+	JarMetadataCacheTest.class,
 	TypeParserTest.class,
 
 	YamlASTTests.class,
@@ -10,9 +10,12 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor.test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 
 import junit.framework.TestCase;
 
@@ -133,6 +136,111 @@ public class FuzzyMapTests extends TestCase {
 	}
 
 
+	public void testFindSameAsScoringAllKeys() {
+		Random random = new Random(42);
+		TreeSet<String> keys = new TreeSet<>();
+		for (int i = 0; i < 2000; i++) {
+			keys.add(randomString(random, 1, 25));
+		}
+		TestMap map = new TestMap(keys.toArray(new String[keys.size()]));
+		for (int i = 0; i < 500; i++) {
+			String pattern = randomString(random, 1, 5);
+			List<Match<String>> found = map.find(pattern);
+
+			List<String> expected = new ArrayList<>();
+			for (String key : keys) {
+				double score = FuzzyMatcher.matchScore(pattern, key);
+				if (score!=0.0) {
+					expected.add(key);
+					assertEquals(score, found.get(expected.size()-1).score);
+				}
+			}
+			assertEquals(expected.size(), found.size());
+			for (int j = 0; j < expected.size(); j++) {
+				assertEquals(expected.get(j), found.get(j).data);
+			}
+		}
+	}
+
+	/**
+	 * Compares the indexed search with scoring all keys on property like keys and reports
+	 * the time both take. Not a proper (JMH) benchmark, but good enough to spot regressions.
+	 */
+	public void testFindPerformance() {
+		String[] segments = {
+				"spring", "server", "management", "datasource", "jpa", "security", "cloud", "config",
+				"port", "address", "enabled", "url", "username", "password", "timeout", "max-size",
+				"hibernate", "ddl-auto", "context-path", "session", "cookie", "endpoints", "health"
+		};
+		Random random = new Random(42);
+		TreeSet<String> keys = new TreeSet<>();
+		while (keys.size() < 20000) {
+			StringBuilder key = new StringBuilder();
+			int length = 2 + random.nextInt(4);
+			for (int i = 0; i < length; i++) {
+				if (i > 0) {
+					key.append('.');
+				}
+				key.append(segments[random.nextInt(segments.length)]);
+			}
+			key.append(random.nextInt(100));
+			keys.add(key.toString());
+		}
+		TestMap map = new TestMap(keys.toArray(new String[keys.size()]));
+		String[] patterns = { "sp", "port", "spdsurl", "mgmtend", "jpahibddl", "sessck", "xyz" };
+
+		// warm up and build the index
+		assertEquals(scoreAll(keys, patterns), find(map, patterns));
+
+		long matches = 0;
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			matches += find(map, patterns);
+		}
+		long indexedTime = (System.nanoTime() - start) / 1000000;
+
+		start = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			matches -= scoreAll(keys, patterns);
+		}
+		long linearTime = (System.nanoTime() - start) / 1000000;
+
+		assertEquals(0, matches);
+		System.out.println(String.format("Searched %d keys 10 times for %d patterns: indexed in %d ms, scoring all keys in %d ms",
+				keys.size(), patterns.length, indexedTime, linearTime));
+	}
+
+	private static long find(TestMap map, String[] patterns) {
+		long matches = 0;
+		for (String pattern : patterns) {
+			matches += map.find(pattern).size();
+		}
+		return matches;
+	}
+
+	private static long scoreAll(TreeSet<String> keys, String[] patterns) {
+		long matches = 0;
+		for (String pattern : patterns) {
+			for (String key : keys) {
+				if (FuzzyMatcher.matchScore(pattern, key)!=0.0) {
+					matches++;
+				}
+			}
+		}
+		return matches;
+	}
+
+	private static String randomString(Random random, int minLength, int maxLength) {
+		String chars = "abcdeiopqrst.-";
+		int length = minLength + random.nextInt(maxLength - minLength + 1);
+		StringBuilder string = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			string.append(chars.charAt(random.nextInt(chars.length())));
+		}
+		return string.toString();
+	}
+
 	private void assertMatchOrder(String pattern, String... datas) {
 		TestMap map = new TestMap(datas);
 		List<Match<String>> found = map.find(pattern);
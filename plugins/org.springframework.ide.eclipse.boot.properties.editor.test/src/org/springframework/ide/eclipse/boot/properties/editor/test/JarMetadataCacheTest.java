@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.boot.properties.editor.JarMetadataCache;
+
+/**
+ * Tests caching, persisting and invalidating the metadata documents of the {@link JarMetadataCache}.
+ *
+ * @author Kris De Volder
+ */
+public class JarMetadataCacheTest {
+
+	private static final String ENTRY = "META-INF/spring-configuration-metadata.json";
+	private static final byte[] DOCUMENT = "{\"properties\": []}".getBytes();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final JarMetadataCache cache = new JarMetadataCache();
+	private File jar;
+
+	@Before
+	public void setup() throws Exception {
+		jar = folder.newFile("test.jar");
+		writeJar(jar, 10);
+	}
+
+	@Test
+	public void putAndGet() throws Exception {
+		assertNull(cache.get(jar));
+		cache.put(jar, documents());
+		assertDocuments(cache.get(jar));
+
+		File emptyJar = folder.newFile("empty.jar");
+		cache.put(emptyJar, Collections.emptyMap());
+		assertTrue(cache.get(emptyJar).isEmpty());
+	}
+
+	@Test
+	public void changedJar() throws Exception {
+		cache.put(jar, documents());
+		writeJar(jar, 20);
+		assertNull(cache.get(jar));
+	}
+
+	@Test
+	public void changedJarWithSameLength() throws Exception {
+		cache.put(jar, documents());
+		writeJar(jar, 10);
+		assertTrue(jar.setLastModified(jar.lastModified()+2000));
+		assertNull(cache.get(jar));
+	}
+
+	@Test
+	public void writeAndRead() throws Exception {
+		File emptyJar = folder.newFile("empty.jar");
+		cache.put(jar, documents());
+		cache.put(emptyJar, Collections.emptyMap());
+
+		File file = new File(folder.getRoot(), "cache/metadata.cache");
+		cache.write(file);
+		JarMetadataCache readCache = new JarMetadataCache();
+		readCache.read(file);
+		assertDocuments(readCache.get(jar));
+		assertTrue(readCache.get(emptyJar).isEmpty());
+	}
+
+	@Test
+	public void changedJarNotRead() throws Exception {
+		cache.put(jar, documents());
+		File file = folder.newFile("metadata.cache");
+		cache.write(file);
+
+		//changed while the workspace was closed
+		writeJar(jar, 20);
+		JarMetadataCache readCache = new JarMetadataCache();
+		readCache.read(file);
+		assertNull(readCache.get(jar));
+	}
+
+	@Test
+	public void changedJarNotWritten() throws Exception {
+		long lastModified = jar.lastModified();
+		cache.put(jar, documents());
+		writeJar(jar, 20);
+		File file = folder.newFile("metadata.cache");
+		cache.write(file);
+
+		//an entry written for the changed jar would be up to date again
+		writeJar(jar, 10);
+		assertTrue(jar.setLastModified(lastModified));
+		JarMetadataCache readCache = new JarMetadataCache();
+		readCache.read(file);
+		assertNull(readCache.get(jar));
+	}
+
+	@Test
+	public void readOtherVersion() throws Exception {
+		cache.put(jar, documents());
+		File file = folder.newFile("metadata.cache");
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			out.writeInt(-1);
+		}
+		cache.read(file);
+		assertNull(cache.get(jar));
+
+		cache.read(new File(folder.getRoot(), "missing.cache"));
+		assertNull(cache.get(jar));
+	}
+
+	private static Map<String, byte[]> documents() {
+		Map<String, byte[]> documents = new LinkedHashMap<>();
+		documents.put(ENTRY, DOCUMENT);
+		return documents;
+	}
+
+	private static void assertDocuments(Map<String, byte[]> documents) {
+		assertNotNull(documents);
+		assertEquals(Collections.singleton(ENTRY), documents.keySet());
+		assertArrayEquals(DOCUMENT, documents.get(ENTRY));
+	}
+
+	/**
+	 * Writes a file of the given length; the cache only looks at the length and
+	 * modification time of jars.
+	 */
+	private static void writeJar(File jar, int length) throws IOException {
+		try (FileOutputStream out = new FileOutputStream(jar)) {
+			out.write(new byte[length]);
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiPredicate;
+
+import org.eclipse.jface.text.DefaultPositionUpdater;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
+import org.springframework.ide.eclipse.editor.support.reconcile.IScopedProblemCollector;
+import org.springframework.ide.eclipse.editor.support.reconcile.ReconcileProblem;
+
+/**
+ * Problem collector that keeps the problems in the document, like an annotation model,
+ * so that their locations are updated when the document is edited.
+ *
+ * @author Kris De Volder
+ */
+public class MockScopedProblemCollector implements IScopedProblemCollector {
+
+	private static final String CATEGORY = MockScopedProblemCollector.class.getName();
+
+	private final IDocument doc;
+	private final Map<ReconcileProblem, Position> problems = new LinkedHashMap<>();
+	private Map<ReconcileProblem, Position> added = null;
+	private BiPredicate<ReconcileProblem, IRegion> scope = null;
+
+	public MockScopedProblemCollector(IDocument doc) {
+		this.doc = doc;
+		doc.addPositionCategory(CATEGORY);
+		doc.addPositionUpdater(new DefaultPositionUpdater(CATEGORY));
+	}
+
+	/**
+	 * @return The collected problems with their current locations.
+	 */
+	public Map<ReconcileProblem, IRegion> getAllProblems() {
+		Map<ReconcileProblem, IRegion> locations = new LinkedHashMap<>();
+		for (Entry<ReconcileProblem, Position> e : problems.entrySet()) {
+			Position p = e.getValue();
+			if (!p.isDeleted()) {
+				locations.put(e.getKey(), new Region(p.getOffset(), p.getLength()));
+			}
+		}
+		return locations;
+	}
+
+	public void beginCollecting() {
+		beginCollecting(null);
+	}
+
+	public void beginCollecting(BiPredicate<ReconcileProblem, IRegion> scope) {
+		this.scope = scope;
+		this.added = new LinkedHashMap<>();
+	}
+
+	public void accept(ReconcileProblem problem) {
+		added.put(problem, new Position(problem.getOffset(), problem.getLength()));
+	}
+
+	public void endCollecting() {
+		try {
+			Iterator<Entry<ReconcileProblem, Position>> iter = problems.entrySet().iterator();
+			while (iter.hasNext()) {
+				Entry<ReconcileProblem, Position> e = iter.next();
+				Position p = e.getValue();
+				if (p.isDeleted() || scope==null || scope.test(e.getKey(), new Region(p.getOffset(), p.getLength()))) {
+					doc.removePosition(CATEGORY, p);
+					iter.remove();
+				}
+			}
+			for (Entry<ReconcileProblem, Position> e : added.entrySet()) {
+				doc.addPosition(CATEGORY, e.getValue());
+				problems.put(e.getKey(), e.getValue());
+			}
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		} finally {
+			added = null;
+			scope = null;
+		}
+	}
+}
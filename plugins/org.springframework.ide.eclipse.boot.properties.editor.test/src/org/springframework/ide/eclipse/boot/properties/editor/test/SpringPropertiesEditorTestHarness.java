@@ -13,15 +13,18 @@ package org.springframework.ide.eclipse.boot.properties.editor.test;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Provider;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.ui.JavaElementLabels;
@@ -29,6 +32,7 @@ import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
 import org.springframework.ide.eclipse.boot.properties.editor.completions.SpringPropertyHoverInfo;
@@ -40,6 +44,7 @@ import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtil;
 import org.springframework.ide.eclipse.editor.support.hover.HoverInfo;
 import org.springframework.ide.eclipse.editor.support.hover.HoverInfoProvider;
 import org.springframework.ide.eclipse.editor.support.reconcile.QuickfixContext;
+import org.springframework.ide.eclipse.editor.support.reconcile.ReconcileProblem;
 import org.springframework.ide.eclipse.editor.support.util.UserInteractions;
 import org.springsource.ide.eclipse.commons.frameworks.core.util.IOUtil;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
@@ -69,6 +74,39 @@ public abstract class SpringPropertiesEditorTestHarness extends YamlOrPropertyEd
 		return new SpringPropertiesReconcileEngine(engine.getIndexProvider(), engine.getTypeUtil());
 	}
 
+	/**
+	 * Reconciles a document, replaces the first occurrence of a snippet in it and then reconciles
+	 * again incrementally. Checks that this finds the same problems as reconciling the edited
+	 * document from scratch.
+	 */
+	public void assertIncrementalReconcile(String editorContents, String snippet, String replacement) throws Exception {
+		MockEditor editor = newEditor(editorContents);
+		SpringPropertiesReconcileEngine reconciler = createReconcileEngine();
+		MockScopedProblemCollector problems = new MockScopedProblemCollector(editor.document);
+		reconciler.reconcile(editor.document, problems, new NullProgressMonitor());
+
+		int offset = editor.document.get().indexOf(snippet);
+		assertTrue("Not found in editor: '"+snippet+"'", offset>=0);
+		editor.document.replace(offset, snippet.length(), replacement);
+		assertTrue(reconciler.reconcile(editor.document, new Region(offset, replacement.length()), problems, new NullProgressMonitor()));
+
+		List<String> expected = new ArrayList<>();
+		for (ReconcileProblem p : reconcile(editor)) {
+			expected.add(problemString(p.getOffset(), p.getLength(), p.getMessage()));
+		}
+		List<String> actual = new ArrayList<>();
+		for (Map.Entry<ReconcileProblem, IRegion> e : problems.getAllProblems().entrySet()) {
+			actual.add(problemString(e.getValue().getOffset(), e.getValue().getLength(), e.getKey().getMessage()));
+		}
+		Collections.sort(expected);
+		Collections.sort(actual);
+		assertEquals(String.join("\n", expected), String.join("\n", actual));
+	}
+
+	private static String problemString(int offset, int length, String message) {
+		return String.format("%05d-%05d: %s", offset, offset+length, message);
+	}
+
 
 	@Override
 	public ICompletionProposal[] getCompletions(MockEditor editor)
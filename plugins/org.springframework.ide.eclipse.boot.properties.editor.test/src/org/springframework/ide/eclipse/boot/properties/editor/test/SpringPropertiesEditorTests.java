@@ -1501,6 +1501,34 @@ public class SpringPropertiesEditorTests extends SpringPropertiesEditorTestHarne
 		);
 	}
 
+	public void testIncrementalReconcile() throws Exception {
+		data("some.property", "java.lang.String", null, "yada");
+		data("some.int", "java.lang.Integer", null, "yada");
+		data("some.list", "java.util.List<java.lang.Integer>", null, "yada");
+
+		String contents =
+				"#comment\n" +
+				"some.property=stuff\n" +
+				"some.int=12\n" +
+				"some.list=1,\\\n" +
+				"   two\n" +
+				"some.int=xx\n" +
+				"bad.property=1\n";
+		//Problems in the edited line
+		assertIncrementalReconcile(contents, "some.int=12", "some.int=12x");
+		assertIncrementalReconcile(contents, "bad.property", "some.property");
+		//Problems of other lines moved along
+		assertIncrementalReconcile(contents, "#comment\n", "");
+		assertIncrementalReconcile(contents, "#comment", "bad=\nsome.list=x\n#comment");
+		//Duplicates elsewhere added or removed
+		assertIncrementalReconcile(contents, "some.int=xx\n", "");
+		assertIncrementalReconcile(contents, "some.property=", "some.int=");
+		//Line continuations added or removed
+		assertIncrementalReconcile(contents, "1,\\", "1,");
+		assertIncrementalReconcile(contents, "some.property=stuff", "some.property=stuff\\");
+		assertIncrementalReconcile(contents, "   two", "   3");
+	}
+
 	public void test_PT_119352965() throws Exception {
 		data("some.property", "java.lang.String", null, "Some property to test stuff")
 		.valueHint("SOMETHING", "A value for something")
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertyIndex;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry;
+import org.springframework.ide.eclipse.boot.properties.editor.util.SpringPropertiesIndexManager;
+import org.springframework.ide.eclipse.boot.test.BootProjectTestHarness;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests rebuilding the per-project indexes of the {@link SpringPropertiesIndexManager}.
+ *
+ * @author Kris De Volder
+ */
+public class SpringPropertiesIndexManagerTest {
+
+	private IJavaProject project;
+	private SpringPropertiesIndexManager indexManager;
+
+	@Before
+	public void setup() throws Exception {
+		StsTestUtil.deleteAllProjects();
+		project = JavaCore.create(BootProjectTestHarness.createPredefinedMavenProject("demo",
+				"org.springframework.ide.eclipse.boot.properties.editor.test"));
+		indexManager = new SpringPropertiesIndexManager(ValueProviderRegistry.getDefault());
+	}
+
+	@Test
+	public void rebuildTwiceThenWait() throws Exception {
+		assertFalse(indexManager.get(project).isEmpty());
+
+		//The second rebuild cancels the job of the first one before it could run
+		indexManager.classpathChanged(project);
+		indexManager.classpathChanged(project);
+
+		CompletableFuture<SpringPropertyIndex> future = indexManager.getFuture(project);
+		SpringPropertyIndex index = future.get(60, TimeUnit.SECONDS);
+		assertNotNull(index.get("server.port"));
+		//Not marked stale, so no other rebuild got scheduled
+		assertSame(future, indexManager.getFuture(project));
+	}
+
+	@Test
+	public void dropIndexOfClosedProject() throws Exception {
+		assertFalse(indexManager.get(project).isEmpty());
+		CompletableFuture<SpringPropertyIndex> future = indexManager.getFuture(project);
+		assertSame(future, indexManager.getFuture(project));
+
+		project.getProject().close(null);
+		project.getProject().open(null);
+		assertNotSame(future, indexManager.getFuture(project));
+		assertNotNull(indexManager.get(project).get("server.port"));
+	}
+
+	@Test
+	public void dropIndexOfDeletedProject() throws Exception {
+		assertFalse(indexManager.get(project).isEmpty());
+		CompletableFuture<SpringPropertyIndex> future = indexManager.getFuture(project);
+
+		project.getProject().delete(true, true, null);
+		project = JavaCore.create(BootProjectTestHarness.createPredefinedMavenProject("demo",
+				"org.springframework.ide.eclipse.boot.properties.editor.test"));
+		assertNotSame(future, indexManager.getFuture(project));
+		assertNotNull(indexManager.get(project).get("server.port"));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,12 @@
 package org.springframework.ide.eclipse.boot.properties.editor;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 
@@ -27,6 +30,12 @@ import org.springsource.ide.eclipse.commons.core.util.StringUtil;
  * <p>
  * The collection can then be searched for items who's key matches
  * simple 'fuzzy' patterns.
+ * <p>
+ * To avoid scoring every key on each search, the keys are indexed by the
+ * ordered character pairs they contain: a key can only match a pattern if,
+ * for every two consecutive characters of the pattern, the first one occurs
+ * somewhere before the second one in the key. The index is built on the
+ * first search after entries have been added.
  */
 public abstract class FuzzyMap<E> implements Iterable<E> {
 
@@ -68,6 +77,12 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 
 	private TreeMap<String,E> entries = new TreeMap<>();
 
+	/**
+	 * Index of the current entries; <code>null</code> if entries have been added since
+	 * it was built.
+	 */
+	private volatile Index<E> index;
+
 	protected abstract String getKey(E entry);
 
 	public void add(E value) {
@@ -76,6 +91,7 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 		E existing = entries.get(key);
 		if (existing==null) {
 			entries.put(getKey(value), value);
+			index = null;
 		} else {
 			SpringPropertiesEditorPlugin.warning(FuzzyMap.class.getName()+": Multiple entries for key "+key+" some entries discarded");
 		}
@@ -99,19 +115,33 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 			}
 			return matches;
 		} else {
-			//TODO: optimize somehow with a smarter index? (right now searches all map entries sequentially)
+			Index<E> index = getIndex();
 			ArrayList<Match<E>> matches = new ArrayList<>();
-			for (Entry<String, E> e : entries.entrySet()) {
-				String key = e.getKey();
-				double score = FuzzyMatcher.matchScore(pattern, key);
+			BitSet candidates = index.getCandidates(pattern);
+			for (int i = candidates.nextSetBit(0); i>=0; i = candidates.nextSetBit(i+1)) {
+				double score = FuzzyMatcher.matchScore(pattern, index.keys[i]);
 				if (score!=0.0) {
-					matches.add(new Match<>(pattern, score, e.getValue()));
+					matches.add(new Match<>(pattern, score, index.values.get(i)));
 				}
 			}
 			return matches;
 		}
 	}
 
+	private Index<E> getIndex() {
+		Index<E> index = this.index;
+		if (index==null) {
+			synchronized (this) {
+				index = this.index;
+				if (index==null) {
+					index = new Index<>(entries);
+					this.index = index;
+				}
+			}
+		}
+		return index;
+	}
+
 	/**
 	 * Searches the index for the longest string which is both
 	 *  - a prefix of propertyName
@@ -164,4 +194,97 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 		return entries.size();
 	}
 
+	/**
+	 * Posting lists of the entries by the ordered character pairs of their keys.
+	 */
+	private static class Index<E> {
+
+		/** Size of the table for pairs of characters below this value */
+		private static final int TABLE_CHARS = 128;
+
+		final String[] keys;
+		final List<E> values;
+
+		/** Entries containing a single character, for one character patterns */
+		private final Map<Character, BitSet> chars = new HashMap<>();
+
+		/** Entries containing the first character somewhere before the second one; pairs of 'table' characters */
+		private final BitSet[] tablePairs = new BitSet[TABLE_CHARS*TABLE_CHARS];
+
+		/** Entries containing the first character somewhere before the second one; all other pairs */
+		private final Map<Long, BitSet> otherPairs = new HashMap<>();
+
+		Index(TreeMap<String, E> entries) {
+			keys = entries.keySet().toArray(new String[entries.size()]);
+			values = new ArrayList<>(entries.values());
+			StringBuilder seen = new StringBuilder();
+			for (int i = 0; i < keys.length; i++) {
+				String key = keys[i];
+				seen.setLength(0);
+				for (int j = 0; j < key.length(); j++) {
+					char c = key.charAt(j);
+					for (int k = 0; k < seen.length(); k++) {
+						getPairPostings(seen.charAt(k), c, true).set(i);
+					}
+					if (seen.indexOf(String.valueOf(c))<0) {
+						seen.append(c);
+						BitSet postings = chars.get(c);
+						if (postings==null) {
+							postings = new BitSet();
+							chars.put(c, postings);
+						}
+						postings.set(i);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns the entries whose keys may match the given (non empty) pattern. This is a
+		 * superset of the actual matches; the caller must still score each candidate.
+		 */
+		BitSet getCandidates(String pattern) {
+			if (pattern.length()==1) {
+				BitSet postings = chars.get(pattern.charAt(0));
+				return postings==null ? new BitSet() : postings;
+			}
+			BitSet candidates = null;
+			for (int i = 1; i < pattern.length(); i++) {
+				BitSet postings = getPairPostings(pattern.charAt(i-1), pattern.charAt(i), false);
+				if (postings==null) {
+					return new BitSet();
+				}
+				if (candidates==null) {
+					candidates = (BitSet) postings.clone();
+				} else {
+					candidates.and(postings);
+				}
+				if (candidates.isEmpty()) {
+					break;
+				}
+			}
+			return candidates;
+		}
+
+		private BitSet getPairPostings(char first, char second, boolean create) {
+			BitSet postings;
+			if (first<TABLE_CHARS && second<TABLE_CHARS) {
+				int pair = first*TABLE_CHARS+second;
+				postings = tablePairs[pair];
+				if (postings==null && create) {
+					postings = new BitSet();
+					tablePairs[pair] = postings;
+				}
+			} else {
+				long pair = ((long)first<<16) | second;
+				postings = otherPairs.get(pair);
+				if (postings==null && create) {
+					postings = new BitSet();
+					otherPairs.put(pair, postings);
+				}
+			}
+			return postings;
+		}
+	}
+
 }
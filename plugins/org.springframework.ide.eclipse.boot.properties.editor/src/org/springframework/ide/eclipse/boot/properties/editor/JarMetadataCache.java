@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the config metadata json documents contained in jar files, shared by
+ * all projects. Jars without any metadata are cached as well, so that they don't
+ * have to be opened again.
+ * <p>
+ * Entries are keyed by the path, length and modification time of the jar, so a
+ * jar that changed is read again. The cache is written when the plugin stops and
+ * read back the first time it is used in the next session.
+ *
+ * @author Kris De Volder
+ */
+public class JarMetadataCache {
+
+	private static final int VERSION = 2;
+
+	private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * @return The metadata documents found in the given jar by the name of their
+	 * jar entry, in the order of
+	 * {@link StsConfigMetadataRepositoryJsonLoader#JAR_META_DATA_LOCATIONS}; an
+	 * empty map if the jar has none; or null if the jar isn't cached (or changed
+	 * since it was cached).
+	 */
+	public Map<String, byte[]> get(File jar) {
+		CacheEntry entry = entries.get(jar.getAbsolutePath());
+		if (entry!=null && entry.isUpToDate(jar)) {
+			return entry.documents;
+		}
+		return null;
+	}
+
+	public void put(File jar, Map<String, byte[]> documents) {
+		entries.put(jar.getAbsolutePath(), new CacheEntry(jar.length(), jar.lastModified(), documents));
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Reads the cache from the given file. A missing file or a file written by another
+	 * version of the cache is ignored.
+	 */
+	public void read(File file) {
+		entries.clear();
+		if (!file.exists()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt()!=VERSION) {
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String path = in.readUTF();
+				long length = in.readLong();
+				long lastModified = in.readLong();
+				int documentCount = in.readInt();
+				Map<String, byte[]> documents = new LinkedHashMap<>(documentCount);
+				for (int j = 0; j < documentCount; j++) {
+					String name = in.readUTF();
+					byte[] document = new byte[in.readInt()];
+					in.readFully(document);
+					documents.put(name, document);
+				}
+				entries.put(path, new CacheEntry(length, lastModified, documents));
+			}
+		} catch (IOException e) {
+			entries.clear();
+			SpringPropertiesEditorPlugin.log(e);
+		}
+	}
+
+	/**
+	 * Writes the entries of all jars that still exist unchanged to the given file.
+	 */
+	public void write(File file) {
+		file.getParentFile().mkdirs();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			List<Entry<String, CacheEntry>> upToDate = new ArrayList<>();
+			for (Entry<String, CacheEntry> e : entries.entrySet()) {
+				if (e.getValue().isUpToDate(new File(e.getKey()))) {
+					upToDate.add(e);
+				}
+			}
+			out.writeInt(VERSION);
+			out.writeInt(upToDate.size());
+			for (Entry<String, CacheEntry> e : upToDate) {
+				CacheEntry entry = e.getValue();
+				out.writeUTF(e.getKey());
+				out.writeLong(entry.length);
+				out.writeLong(entry.lastModified);
+				out.writeInt(entry.documents.size());
+				for (Entry<String, byte[]> document : entry.documents.entrySet()) {
+					out.writeUTF(document.getKey());
+					out.writeInt(document.getValue().length);
+					out.write(document.getValue());
+				}
+			}
+		} catch (IOException e) {
+			SpringPropertiesEditorPlugin.log(e);
+		}
+	}
+
+	private static class CacheEntry {
+		final long length;
+		final long lastModified;
+		final Map<String, byte[]> documents;
+
+		CacheEntry(long length, long lastModified, Map<String, byte[]> documents) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.documents = Collections.unmodifiableMap(documents);
+		}
+
+		boolean isUpToDate(File jar) {
+			return jar.length()==length && jar.lastModified()==lastModified;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor;
 
+import java.io.File;
+
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.preferences.DefaultScope;
@@ -53,6 +55,12 @@ public class SpringPropertiesEditorPlugin extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		synchronized (SpringPropertiesEditorPlugin.class) {
+			if (jarMetadataCache!=null) {
+				jarMetadataCache.write(getJarMetadataCacheFile());
+				jarMetadataCache = null;
+			}
+		}
 		plugin = null;
 		super.stop(context);
 	}
@@ -92,6 +100,25 @@ public class SpringPropertiesEditorPlugin extends AbstractUIPlugin {
 		return indexManager;
 	}
 
+	private static JarMetadataCache jarMetadataCache;
+
+	/**
+	 * @return The cache of the config metadata found in classpath jars, shared by all projects.
+	 */
+	public static synchronized JarMetadataCache getJarMetadataCache() {
+		if (jarMetadataCache==null) {
+			jarMetadataCache = new JarMetadataCache();
+			if (plugin!=null) {
+				jarMetadataCache.read(plugin.getJarMetadataCacheFile());
+			}
+		}
+		return jarMetadataCache;
+	}
+
+	private File getJarMetadataCacheFile() {
+		return getStateLocation().append("jar-metadata.cache").toFile();
+	}
+
 	public IEclipsePreferences getDefaultPreferences() {
 		return DefaultScope.INSTANCE.getNode(PLUGIN_ID);
 	}
@@ -19,6 +19,7 @@ import org.eclipse.ui.texteditor.spelling.SpellingService;
 import org.springframework.ide.eclipse.boot.properties.editor.reconciling.SpringPropertiesReconcileStrategy;
 import org.springframework.ide.eclipse.boot.properties.editor.util.ReconcilingUtil;
 import org.springframework.ide.eclipse.editor.support.ForceableReconciler;
+import org.springframework.ide.eclipse.editor.support.reconcile.IIncrementalReconcileEngine;
 import org.springframework.ide.eclipse.editor.support.reconcile.IReconcileEngine;
 
 public abstract class SpringPropertiesReconcilerFactory {
@@ -31,6 +32,7 @@ public abstract class SpringPropertiesReconcilerFactory {
 
 	public ForceableReconciler createReconciler(ISourceViewer sourceViewer, DocumentContextFinder documentContextFinder, IReconcileTrigger reconcileTigger) {
 		IReconcilingStrategy strategy = null;
+		boolean isIncremental = false;
 		if (!DISABLE_SPELL_CHECKER && EditorsUI.getPreferenceStore().getBoolean(SpellingService.PREFERENCE_SPELLING_ENABLED)) {
 			IReconcilingStrategy spellcheck = new SpellingReconcileStrategy(sourceViewer, EditorsUI.getSpellingService()) {
 				@Override
@@ -42,13 +44,14 @@ public abstract class SpringPropertiesReconcilerFactory {
 		}
 		try {
 			IReconcileEngine reconcileEngine = createEngine();
+			isIncremental = reconcileEngine instanceof IIncrementalReconcileEngine;
 			IReconcilingStrategy propertyChecker = new SpringPropertiesReconcileStrategy(sourceViewer, reconcileEngine, documentContextFinder, reconcileTigger);
 			strategy = ReconcilingUtil.compose(strategy, propertyChecker);
 		} catch (Exception e) {
 			SpringPropertiesEditorPlugin.log(e);
 		}
 		if (strategy!=null) {
-			ForceableReconciler reconciler = new ForceableReconciler(strategy);
+			ForceableReconciler reconciler = new ForceableReconciler(strategy, isIncremental);
 			reconciler.setDelay(500);
 			return reconciler;
 		}
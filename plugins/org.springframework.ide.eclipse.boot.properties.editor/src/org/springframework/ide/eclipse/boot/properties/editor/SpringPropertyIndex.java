@@ -31,7 +31,7 @@ public class SpringPropertyIndex extends FuzzyMap<PropertyInfo> {
 			try {
 				StsConfigMetadataRepositoryJsonLoader loader = new StsConfigMetadataRepositoryJsonLoader();
 				ConfigurationMetadataRepository metadata = loader.load(jp);
-				//^^^ Should be done in bg? It seems fast enough for now.
+				//^^^ Indexes are built in background jobs by the SpringPropertiesIndexManager.
 
 				Collection<ConfigurationMetadataProperty> allEntries = metadata.getAllProperties().values();
 				for (ConfigurationMetadataProperty item : allEntries) {
@@ -12,9 +12,14 @@ package org.springframework.ide.eclipse.boot.properties.editor;
 
 import static org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesCompletionEngine.debug;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 
@@ -35,6 +40,9 @@ import org.springframework.ide.eclipse.boot.util.FileUtil;
 /**
  * Load a {@link ConfigMetadataRepository} from the content of an eclipse
  * projects classpath.
+ * <p>
+ * The metadata documents of jars are taken from the {@link JarMetadataCache}, so
+ * only jars that are new or changed have to be opened.
  *
  * @author Kris De Volder
  */
@@ -143,19 +151,48 @@ public class StsConfigMetadataRepositoryJsonLoader {
 	}
 
 	private void loadFromJar(File f) {
+		JarMetadataCache cache = SpringPropertiesEditorPlugin.getJarMetadataCache();
+		Map<String, byte[]> documents = cache.get(f);
+		if (documents==null) {
+			documents = readFromJar(f);
+			if (documents!=null) {
+				cache.put(f, documents);
+			}
+		} else {
+			debug("load from cache: "+f);
+		}
+		if (documents!=null) {
+			for (Entry<String, byte[]> document : documents.entrySet()) {
+				try {
+					loadFromInputStream(f.getPath()+"["+document.getKey()+"]", new ByteArrayInputStream(document.getValue()));
+				} catch (Throwable e) {
+					SpringPropertiesEditorPlugin.log(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The metadata documents contained in the given jar by the name of their
+	 * jar entry or null if the jar can't be read.
+	 */
+	private Map<String, byte[]> readFromJar(File f) {
 		debug("load from jar: "+f);
 		JarFile jarFile = null;
 		try {
 			jarFile = new JarFile(f);
 			//jarDump(jarFile);
+			Map<String, byte[]> documents = new LinkedHashMap<>(1);
 			for (String loc : JAR_META_DATA_LOCATIONS) {
 				ZipEntry e = jarFile.getEntry(loc);
 				if (e!=null) {
-					loadFrom(jarFile, e);
+					documents.put(e.getName(), read(jarFile, e));
 				}
 			}
+			return documents;
 		} catch (Throwable e) {
 			SpringPropertiesEditorPlugin.log(e);
+			return null;
 		} finally {
 			if (jarFile!=null) {
 				try {
@@ -166,21 +203,15 @@ public class StsConfigMetadataRepositoryJsonLoader {
 		}
 	}
 
-
-	private void loadFrom(JarFile jarFile, ZipEntry ze) {
-		InputStream is = null;
-		try {
-			is = jarFile.getInputStream(ze);
-			loadFromInputStream(jarFile.getName()+"["+ze.getName()+"]", is);
-		} catch (Throwable e) {
-			SpringPropertiesEditorPlugin.log(e);
-		} finally {
-			if (is!=null) {
-				try {
-					is.close();
-				} catch (IOException e) {
-				}
+	private byte[] read(JarFile jarFile, ZipEntry ze) throws IOException {
+		try (InputStream is = jarFile.getInputStream(ze)) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer))>=0) {
+				bytes.write(buffer, 0, read);
 			}
+			return bytes.toByteArray();
 		}
 	}
 
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.reconciling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.PropertyInfo;
+import org.springframework.ide.eclipse.editor.support.util.DocumentRegion;
+
+/**
+ * Keeps track of the property entries that {@link SpringPropertiesReconcileEngine} found in a
+ * document, so that after an edit only the entries in the edited part of the document have
+ * to be reconciled again.
+ * <p>
+ * The entries are also kept by name. This is used to find duplicate properties without
+ * looking at the rest of the document.
+ *
+ * @author Kris De Volder
+ */
+public class PropertyEntries {
+
+	/**
+	 * A property name together with its value. The offsets are moved along with edits
+	 * of the document.
+	 */
+	public static class Entry {
+		private final String name;
+		private int nameStart;
+		private int nameEnd;
+		private int end; //end of the value (or of the name, if there is no value)
+
+		private Entry(DocumentRegion name, int end) {
+			this.name = name.toString();
+			this.nameStart = name.getStart();
+			this.nameEnd = name.getEnd();
+			this.end = Math.max(end, nameEnd);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public IRegion getNameRegion() {
+			return new Region(nameStart, nameEnd-nameStart);
+		}
+
+		@Override
+		public String toString() {
+			return "Entry("+name+"@"+nameStart+"-"+end+")";
+		}
+	}
+
+	private final IDocument doc;
+	private final FuzzyMap<PropertyInfo> index;
+
+	/**
+	 * Length of the document when the entries were last updated.
+	 */
+	private int docLength;
+
+	private final List<Entry> entries = new ArrayList<>();
+	private final Map<String, List<Entry>> byName = new HashMap<>();
+
+	public PropertyEntries(IDocument doc, FuzzyMap<PropertyInfo> index) {
+		this.doc = doc;
+		this.index = index;
+		this.docLength = doc.getLength();
+	}
+
+	/**
+	 * @return Whether these are the entries of the given document, as checked against the given index.
+	 */
+	public boolean isFor(IDocument doc, FuzzyMap<PropertyInfo> index) {
+		return this.doc==doc && this.index==index;
+	}
+
+	public Entry add(DocumentRegion name, int end) {
+		Entry entry = new Entry(name, end);
+		entries.add(entry);
+		if (!entry.name.isEmpty()) {
+			List<Entry> occurrences = byName.get(entry.name);
+			if (occurrences==null) {
+				byName.put(entry.name, occurrences = new ArrayList<>(1));
+			}
+			occurrences.add(entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * @return The entries with the given name, in the order they were added.
+	 */
+	public List<Entry> getOccurrences(String name) {
+		List<Entry> occurrences = byName.get(name);
+		return occurrences==null ? Collections.emptyList() : occurrences;
+	}
+
+	/**
+	 * Moves the entries along with edits of the document. The text before the edited region must
+	 * be unchanged since the entries were last updated, the text after it only shifted.
+	 * <p>
+	 * The offsets of entries overlapping the edited region are only approximate afterwards; these
+	 * entries are expected to be removed with {@link #remove(IRegion, Set)}.
+	 *
+	 * @param edited region spanning all edits, in coordinates of the current document.
+	 */
+	public void edited(IRegion edited) {
+		int delta = doc.getLength() - docLength;
+		int editEnd = edited.getOffset() + edited.getLength();
+		int oldEditEnd = editEnd - delta;
+		docLength = doc.getLength();
+		if (delta!=0 || edited.getLength()!=0) {
+			for (Entry e : entries) {
+				e.nameStart = move(e.nameStart, oldEditEnd, editEnd, delta);
+				e.nameEnd = move(e.nameEnd, oldEditEnd, editEnd, delta);
+				e.end = move(e.end, oldEditEnd, editEnd, delta);
+			}
+		}
+	}
+
+	private static int move(int offset, int oldEditEnd, int editEnd, int delta) {
+		if (offset>=oldEditEnd) {
+			return offset + delta;
+		}
+		//Offsets within the edited region can't be mapped, so just keep them inside.
+		return Math.min(offset, editEnd);
+	}
+
+	/**
+	 * Removes the entries overlapping, or touching, the given region.
+	 *
+	 * @param removedNames receives the names of the removed entries.
+	 * @return The region extended to cover all of the removed entries.
+	 */
+	public IRegion remove(IRegion region, Set<String> removedNames) {
+		int start = region.getOffset();
+		int end = start + region.getLength();
+		int newStart = start;
+		int newEnd = end;
+		for (Entry e : entries) {
+			if (e.nameStart<=end && e.end>=start) {
+				newStart = Math.min(newStart, e.nameStart);
+				newEnd = Math.max(newEnd, e.end);
+				if (!e.name.isEmpty()) {
+					removedNames.add(e.name);
+					List<Entry> occurrences = byName.get(e.name);
+					occurrences.remove(e);
+					if (occurrences.isEmpty()) {
+						byName.remove(e.name);
+					}
+				}
+			}
+		}
+		entries.removeIf(e -> e.nameStart<=end && e.end>=start);
+		return newStart==start && newEnd==end ? region : new Region(newStart, newEnd-newStart);
+	}
+
+}
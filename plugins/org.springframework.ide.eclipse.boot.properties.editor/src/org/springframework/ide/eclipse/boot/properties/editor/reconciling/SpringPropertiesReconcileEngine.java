@@ -15,6 +15,10 @@ import static org.springframework.ide.eclipse.boot.properties.editor.reconciling
 import static org.springframework.ide.eclipse.boot.properties.editor.reconciling.SpringPropertyProblem.problem;
 import static org.springsource.ide.eclipse.commons.core.util.StringUtil.commonPrefix;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.inject.Provider;
@@ -26,6 +30,7 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextUtilities;
 import org.springframework.boot.configurationmetadata.Deprecation;
 import org.springframework.boot.configurationmetadata.Deprecation.Level;
@@ -34,11 +39,13 @@ import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesCo
 import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
 import org.springframework.ide.eclipse.boot.properties.editor.metadata.PropertyInfo;
 import org.springframework.ide.eclipse.boot.properties.editor.quickfix.ReplaceDeprecatedPropertyQuickfix;
+import org.springframework.ide.eclipse.boot.properties.editor.reconciling.PropertyEntries.Entry;
 import org.springframework.ide.eclipse.boot.properties.editor.util.Type;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypeParser;
 import org.springframework.ide.eclipse.boot.properties.editor.util.TypeUtil;
+import org.springframework.ide.eclipse.editor.support.reconcile.IIncrementalReconcileEngine;
 import org.springframework.ide.eclipse.editor.support.reconcile.IProblemCollector;
-import org.springframework.ide.eclipse.editor.support.reconcile.IReconcileEngine;
+import org.springframework.ide.eclipse.editor.support.reconcile.IScopedProblemCollector;
 import org.springframework.ide.eclipse.editor.support.util.DocumentRegion;
 import org.springframework.ide.eclipse.editor.support.util.DocumentUtil;
 import org.springframework.ide.eclipse.editor.support.util.ValueParser;
@@ -49,11 +56,14 @@ import org.springframework.ide.eclipse.editor.support.util.ValueParser;
  * The code in here could have been also part of the {@link SpringPropertiesReconcileStrategy}
  * itself, however isolating it here allows it to me more easily unit tested (no dependencies
  * on ISourceViewer which is difficult to 'mock' in testing harness.
+ * <p>
+ * The engine remembers the property entries it found in the last document it reconciled. After
+ * an edit of that document, only the lines around the edit are reconciled again.
  *
  * @author Kris De Volder
  */
 @SuppressWarnings("restriction")
-public class SpringPropertiesReconcileEngine implements IReconcileEngine {
+public class SpringPropertiesReconcileEngine implements IIncrementalReconcileEngine {
 
 	/**
 	 * Regexp that matches a ',' surrounded by whitespace, including escaped whitespace / newlines
@@ -75,12 +85,19 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 	private TypeUtil typeUtil;
 	private final DelimitedListReconciler commaListReconciler = new DelimitedListReconciler(COMMA, this::reconcileType);
 
+	/**
+	 * The entries found by the last reconcile, or null if there's no last reconcile that an
+	 * incremental one can build on.
+	 */
+	private PropertyEntries entries;
+
 	public SpringPropertiesReconcileEngine(Provider<FuzzyMap<PropertyInfo>> provider, TypeUtil typeUtil) {
 		this.fIndexProvider = provider;
 		this.typeUtil = typeUtil;
 	}
 
 	public void reconcile(IDocument doc, IProblemCollector problemCollector, IProgressMonitor mon) {
+		entries = null;
 		FuzzyMap<PropertyInfo> index = getIndex();
 		if (index==null || index.isEmpty()) {
 			//don't report errors when index is empty, simply don't check (otherwise we will just reprot
@@ -90,56 +107,219 @@ public class SpringPropertiesReconcileEngine implements IReconcileEngine {
 		}
 		problemCollector.beginCollecting();
 		try {
-			DuplicateNameChecker duplicateNameChecker = new DuplicateNameChecker(problemCollector);
+			PropertyEntries entries = new PropertyEntries(doc, index);
 			ITypedRegion[] regions = TextUtilities.computePartitioning(doc, IPropertiesFilePartitions.PROPERTIES_FILE_PARTITIONING, 0, doc.getLength(), true);
 			if (regions!=null && regions.length>0) {
 				mon.beginTask("Reconciling Spring Properties", regions.length);
-				for (int i = 0; i < regions.length; i++) {
-					ITypedRegion r = regions[i];
-					try {
-						String type = r.getType();
-						if (IDocument.DEFAULT_CONTENT_TYPE.equals(type)) {
-							DocumentRegion fullName = new DocumentRegion(doc, r).trim();
-							if (fullName.isEmpty()) {
-								if (!isAssigned(doc, r)) {
-									//empty 'properties' are okay if not being assigned to. This just means that
-									// there are empty sections in the props file and this is okay.
-									continue;
-								}
-							}
-							duplicateNameChecker.check(fullName);
-							PropertyInfo validProperty = SpringPropertiesCompletionEngine.findLongestValidProperty(index, fullName.toString());
-							if (validProperty!=null) {
-								//TODO: Remove last remnants of 'IRegion trimmedRegion' here and replace
-								// it all with just passing around 'fullName' DocumentRegion. This may require changes
-								// in PropertyNavigator (probably these changes are also for the better making it simpler as well)
-								IRegion trimmedRegion = fullName.asRegion();
-								if (validProperty.isDeprecated()) {
-									problemCollector.accept(problemDeprecated(fullName, validProperty));
-								}
-								int offset = validProperty.getId().length() + trimmedRegion.getOffset();
-								PropertyNavigator navigator = new PropertyNavigator(doc, problemCollector, typeUtil, trimmedRegion);
-								Type valueType = navigator.navigate(offset, TypeParser.parse(validProperty.getType()));
-								if (valueType!=null) {
-									reconcileType(doc, valueType, regions, i, problemCollector);
-								}
-							} else { //validProperty==null
-								//The name is invalid, with no 'prefix' of the name being a valid property name.
-								PropertyInfo similarEntry = index.findLongestCommonPrefixEntry(fullName.toString());
-								CharSequence validPrefix = commonPrefix(similarEntry.getId(), fullName);
-								problemCollector.accept(problemUnkownProperty(fullName, similarEntry, validPrefix));
-							} //end: validProperty==null
-						}
-					} catch (Exception e) {
-						SpringPropertiesEditorPlugin.log(e);
+				reconcileEntries(doc, regions, index, entries, true, problemCollector);
+			}
+			if (!mon.isCanceled()) {
+				//Otherwise the document was changed while we were looking at it.
+				this.entries = entries;
+			}
+		} catch (Throwable e2) {
+			SpringPropertiesEditorPlugin.log(e2);
+		} finally {
+			problemCollector.endCollecting();
+		}
+	}
+
+	@Override
+	public boolean reconcile(IDocument doc, IRegion edited, IScopedProblemCollector problemCollector, IProgressMonitor mon) {
+		PropertyEntries entries = this.entries;
+		this.entries = null;
+		FuzzyMap<PropertyInfo> index = getIndex();
+		if (entries==null || !entries.isFor(doc, index)) {
+			return false;
+		}
+		Set<String> names = new HashSet<>();
+		IRegion region;
+		try {
+			entries.edited(edited);
+			region = expandToEntries(doc, edited);
+			IRegion covered = entries.remove(region, names);
+			while (covered!=region) {
+				//Removed entries extending beyond the region must be reconciled again as a whole
+				region = expandToEntries(doc, covered);
+				covered = entries.remove(region, names);
+			}
+		} catch (Exception e) {
+			SpringPropertiesEditorPlugin.log(e);
+			return false;
+		}
+		//Replace problems in the reconciled region, as well as all duplicate key problems of
+		// names that were added or removed.
+		IRegion reconciled = region;
+		problemCollector.beginCollecting((problem, location) ->
+			overlaps(location, reconciled) || problem.getType()==PROP_DUPLICATE_KEY
+					&& names.contains(((SpringPropertyProblem)problem).getPropertyName())
+		);
+		try {
+			ITypedRegion[] regions = TextUtilities.computePartitioning(doc, IPropertiesFilePartitions.PROPERTIES_FILE_PARTITIONING, region.getOffset(), region.getLength(), true);
+			if (regions!=null && regions.length>0) {
+				for (Entry entry : reconcileEntries(doc, regions, index, entries, false, problemCollector)) {
+					names.add(entry.getName());
+				}
+			}
+			for (String name : names) {
+				List<Entry> occurrences = entries.getOccurrences(name);
+				if (occurrences.size()>1) {
+					for (Entry entry : occurrences) {
+						problemCollector.accept(problemDuplicate(entry));
 					}
-				} //end: for regions
+				}
+			}
+			if (!mon.isCanceled()) {
+				this.entries = entries;
 			}
 		} catch (Throwable e2) {
 			SpringPropertiesEditorPlugin.log(e2);
 		} finally {
 			problemCollector.endCollecting();
 		}
+		return true;
+	}
+
+	/**
+	 * Reconciles the property entries in the given regions and adds them to the given entries.
+	 *
+	 * @param reportDuplicates whether to report duplicates of the entries as they are added. This
+	 *     only works if the regions are added in document order.
+	 * @return The added entries.
+	 */
+	private List<Entry> reconcileEntries(IDocument doc, ITypedRegion[] regions, FuzzyMap<PropertyInfo> index,
+			PropertyEntries entries, boolean reportDuplicates, IProblemCollector problemCollector) {
+		List<Entry> added = new ArrayList<>();
+		for (int i = 0; i < regions.length; i++) {
+			ITypedRegion r = regions[i];
+			try {
+				String type = r.getType();
+				if (IDocument.DEFAULT_CONTENT_TYPE.equals(type)) {
+					DocumentRegion fullName = new DocumentRegion(doc, r).trim();
+					if (fullName.isEmpty()) {
+						if (!isAssigned(doc, r)) {
+							//empty 'properties' are okay if not being assigned to. This just means that
+							// there are empty sections in the props file and this is okay.
+							continue;
+						}
+					}
+					Entry entry = entries.add(fullName, getEntryEnd(doc, regions, i));
+					added.add(entry);
+					if (reportDuplicates) {
+						List<Entry> occurrences = entries.getOccurrences(entry.getName());
+						if (occurrences.size()==2) {
+							//Report the first occurrence retroactively
+							problemCollector.accept(problemDuplicate(occurrences.get(0)));
+						}
+						if (occurrences.size()>=2) {
+							problemCollector.accept(problemDuplicate(entry));
+						}
+					}
+					PropertyInfo validProperty = SpringPropertiesCompletionEngine.findLongestValidProperty(index, fullName.toString());
+					if (validProperty!=null) {
+						//TODO: Remove last remnants of 'IRegion trimmedRegion' here and replace
+						// it all with just passing around 'fullName' DocumentRegion. This may require changes
+						// in PropertyNavigator (probably these changes are also for the better making it simpler as well)
+						IRegion trimmedRegion = fullName.asRegion();
+						if (validProperty.isDeprecated()) {
+							problemCollector.accept(problemDeprecated(fullName, validProperty));
+						}
+						int offset = validProperty.getId().length() + trimmedRegion.getOffset();
+						PropertyNavigator navigator = new PropertyNavigator(doc, problemCollector, typeUtil, trimmedRegion);
+						Type valueType = navigator.navigate(offset, TypeParser.parse(validProperty.getType()));
+						if (valueType!=null) {
+							reconcileType(doc, valueType, regions, i, problemCollector);
+						}
+					} else { //validProperty==null
+						//The name is invalid, with no 'prefix' of the name being a valid property name.
+						PropertyInfo similarEntry = index.findLongestCommonPrefixEntry(fullName.toString());
+						CharSequence validPrefix = commonPrefix(similarEntry.getId(), fullName);
+						problemCollector.accept(problemUnkownProperty(fullName, similarEntry, validPrefix));
+					} //end: validProperty==null
+				}
+			} catch (Exception e) {
+				SpringPropertiesEditorPlugin.log(e);
+			}
+		} //end: for regions
+		return added;
+	}
+
+	/**
+	 * Extends a region to whole lines, including lines joined to them by a line continuation and
+	 * partitions spanning lines, so that it doesn't cut through any property entries.
+	 */
+	private IRegion expandToEntries(IDocument doc, IRegion region) throws BadLocationException {
+		int start = Math.max(0, region.getOffset());
+		int end = Math.min(doc.getLength(), region.getOffset()+region.getLength());
+		int startLine = doc.getLineOfOffset(start);
+		int endLine = doc.getLineOfOffset(end);
+		boolean changed;
+		do {
+			changed = false;
+			while (startLine>0 && isContinued(doc, startLine-1)) {
+				startLine--;
+			}
+			while (endLine<doc.getNumberOfLines()-1 && isContinued(doc, endLine)) {
+				endLine++;
+			}
+			start = doc.getLineOffset(startLine);
+			end = doc.getLineOffset(endLine) + doc.getLineLength(endLine);
+			if (endLine<doc.getNumberOfLines()-1) {
+				end -= doc.getLineDelimiter(endLine).length();
+			}
+			//Partitions other than the first and last one that extend to other lines
+			ITypedRegion first = TextUtilities.getPartition(doc, IPropertiesFilePartitions.PROPERTIES_FILE_PARTITIONING, start, false);
+			DocumentRegion before = new DocumentRegion(doc, first.getOffset(), start).trim();
+			if (!before.isEmpty() && doc.getLineOfOffset(before.getStart())<startLine) {
+				startLine = doc.getLineOfOffset(before.getStart());
+				changed = true;
+			}
+			ITypedRegion last = TextUtilities.getPartition(doc, IPropertiesFilePartitions.PROPERTIES_FILE_PARTITIONING, end, false);
+			DocumentRegion after = new DocumentRegion(doc, end, last.getOffset()+last.getLength()).trim();
+			if (!after.isEmpty() && doc.getLineOfOffset(after.getEnd())>endLine) {
+				endLine = doc.getLineOfOffset(after.getEnd());
+				changed = true;
+			}
+		} while (changed);
+		return region.getOffset()==start && region.getLength()==end-start ? region : new Region(start, end-start);
+	}
+
+	/**
+	 * @return Whether a line ends with a line continuation, i.e. an odd number of backslashes.
+	 */
+	private boolean isContinued(IDocument doc, int line) throws BadLocationException {
+		IRegion info = doc.getLineInformation(line);
+		int pos = info.getOffset()+info.getLength()-1;
+		while (pos>=info.getOffset() && doc.getChar(pos)=='\\') {
+			pos--;
+		}
+		return (info.getOffset()+info.getLength()-1-pos)%2==1;
+	}
+
+	private static boolean overlaps(IRegion a, IRegion b) {
+		return a.getOffset()<=b.getOffset()+b.getLength() && a.getOffset()+a.getLength()>=b.getOffset();
+	}
+
+	/**
+	 * @return End of the value assigned in the property entry starting with the name region
+	 *    at the given index (or end of the name if there is no value).
+	 */
+	private int getEntryEnd(IDocument doc, ITypedRegion[] regions, int i) {
+		DocumentRegion value = getAssignedValue(doc, regions, i);
+		if (value!=null) {
+			return value.getEnd();
+		}
+		return new DocumentRegion(doc, regions[i]).trimEnd().getEnd();
+	}
+
+	protected SpringPropertyProblem problemDuplicate(Entry entry) {
+		IRegion nameRegion = entry.getNameRegion();
+		SpringPropertyProblem p = problem(PROP_DUPLICATE_KEY,
+				"Duplicate property '"+entry.getName()+"'",
+				nameRegion.getOffset(), nameRegion.getLength()
+		);
+		p.setPropertyName(entry.getName());
+		return p;
 	}
 
 	protected SpringPropertyProblem problemDeprecated(DocumentRegion trimmedRegion, PropertyInfo property) {
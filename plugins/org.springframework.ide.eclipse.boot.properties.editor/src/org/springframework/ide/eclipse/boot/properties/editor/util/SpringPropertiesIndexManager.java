@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2016 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,12 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor.util;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -23,8 +27,15 @@ import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
 import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
 import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
 import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertyIndex;
@@ -37,52 +48,143 @@ import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProv
  * file all make use of a per-project index of spring properties metadata extracted
  * from project's classpath. This Index manager is responsible for keeping at most
  * one index per-project and to keep the index up-to-date.
+ * <p>
+ * A classpath or live metadata change of a project only rebuilds the indexes
+ * of that project and of the projects depending on it, as the metadata of the
+ * project ends up on their classpath as well.
+ * <p>
+ * Indexes are built by background jobs. While an index is rebuilt, clients keep
+ * getting the last complete index of the project; listeners are notified once
+ * the new index is ready. Only the very first request for a project's index has
+ * to wait for it to be built.
+ * <p>
+ * The index of a project is dropped when the project is closed or deleted.
  *
  * @author Kris De Volder
  */
 public class SpringPropertiesIndexManager extends ListenerManager<Listener<SpringPropertiesIndexManager>> implements ClasspathListener {
 
-	//TODO: More precise cache flushing?
-	// right now, any detected change that may affect the cached metadata results.
-	// in clearing the entire cache.
-	// Probably this is okay, since reading the data is pretty fast.
-
-	private Map<String, SpringPropertyIndex> indexes = null;
+	private final ConcurrentMap<String, ProjectIndex> indexes = new ConcurrentHashMap<>();
 	final private ValueProviderRegistry valueProviders;
 
 	public SpringPropertiesIndexManager(ValueProviderRegistry valueProviders) {
 		this.valueProviders = valueProviders;
 		SpringPropertiesEditorPlugin.getClasspathListeners().addListener(this);
-		ResourcesPlugin.getWorkspace().addResourceChangeListener(new LiveMetadataListener(), IResourceChangeEvent.POST_CHANGE);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(new LiveMetadataListener(),
+				IResourceChangeEvent.POST_CHANGE | IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
 	}
 
-	public synchronized FuzzyMap<PropertyInfo> get(IJavaProject jp) {
-		String key = jp.getElementName();
-		if (indexes==null) {
-			indexes = new HashMap<>();
+	/**
+	 * @return The last complete index of the given project. If the project hasn't
+	 * been indexed yet, waits until its first index is built.
+	 */
+	public FuzzyMap<PropertyInfo> get(IJavaProject jp) {
+		ProjectIndex projectIndex = getProjectIndex(jp);
+		SpringPropertyIndex index = projectIndex.getLastGood();
+		if (index!=null) {
+			return index;
+		}
+		try {
+			return projectIndex.getFuture().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			SpringPropertiesEditorPlugin.log(e.getCause());
 		}
-		SpringPropertyIndex index = indexes.get(key);
-		if (index==null) {
-			index = new SpringPropertyIndex(valueProviders, jp);
-			indexes.put(key, index);
+		return new SpringPropertyIndex(valueProviders, null);
+	}
+
+	/**
+	 * @return Future of the up-to-date index of the given project. Completes once
+	 * a pending rebuild of the index is done.
+	 */
+	public CompletableFuture<SpringPropertyIndex> getFuture(IJavaProject jp) {
+		return getProjectIndex(jp).getFuture();
+	}
+
+	private ProjectIndex getProjectIndex(IJavaProject jp) {
+		String key = jp.getElementName();
+		ProjectIndex projectIndex = indexes.get(key);
+		if (projectIndex==null) {
+			projectIndex = new ProjectIndex(jp);
+			ProjectIndex existing = indexes.putIfAbsent(key, projectIndex);
+			if (existing!=null) {
+				projectIndex = existing;
+			} else {
+				projectIndex.rebuild();
+			}
 		}
-		return index;
+		return projectIndex;
 	}
 
 	@Override
-	public synchronized void classpathChanged(IJavaProject jp) {
-		clear();
+	public void classpathChanged(IJavaProject jp) {
+		invalidate(jp);
 	}
 
-	private void clear() {
-		if (indexes!=null) {
-			indexes.clear();
-			for (Listener<SpringPropertiesIndexManager> l : getListeners()) {
-				l.changed(this);
+	/**
+	 * Rebuilds the indexes of the given project and of all projects that (directly or
+	 * indirectly) depend on it.
+	 */
+	private void invalidate(IJavaProject jp) {
+		for (String affected : getDependentProjects(jp.getElementName())) {
+			ProjectIndex projectIndex = indexes.get(affected);
+			if (projectIndex!=null) {
+				projectIndex.rebuild();
 			}
 		}
 	}
 
+	/**
+	 * Drops the index of the given project, e.g. because the project is closed or deleted.
+	 */
+	private void remove(IProject project) {
+		ProjectIndex projectIndex = indexes.remove(project.getName());
+		if (projectIndex!=null) {
+			projectIndex.dispose();
+		}
+	}
+
+	private void notifyListeners() {
+		for (Listener<SpringPropertiesIndexManager> l : getListeners()) {
+			l.changed(this);
+		}
+	}
+
+	/**
+	 * @return The names of the given project and of all indexed projects depending on it.
+	 */
+	private Set<String> getDependentProjects(String projectName) {
+		Set<String> dependents = new HashSet<>();
+		dependents.add(projectName);
+		boolean added;
+		do {
+			added = false;
+			for (String indexed : indexes.keySet()) {
+				if (!dependents.contains(indexed) && dependsOnAny(indexed, dependents)) {
+					dependents.add(indexed);
+					added = true;
+				}
+			}
+		} while (added);
+		return dependents;
+	}
+
+	private boolean dependsOnAny(String projectName, Set<String> projectNames) {
+		IJavaProject jp = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot().getProject(projectName));
+		try {
+			for (String required : jp.getRequiredProjectNames()) {
+				if (projectNames.contains(required)) {
+					return true;
+				}
+			}
+			return false;
+		} catch (JavaModelException e) {
+			//Can't tell, so better assume it does.
+			return true;
+		}
+	}
+
 
 	/**
 	 * Called by LiveMetadataListener when a change to live json metadata file in the
@@ -91,14 +193,140 @@ public class SpringPropertiesIndexManager extends ListenerManager<Listener<Sprin
 	 * @param The project on which the metadata change was detected.
 	 * @param jsonFile The IFile in project's output folder that was changed.
 	 */
-	public synchronized void liveMetadataChanged(IJavaProject jp, IFile jsonFile) {
-		clear();
+	public void liveMetadataChanged(IJavaProject jp, IFile jsonFile) {
+		invalidate(jp);
+	}
+
+	/**
+	 * The index of a single project: the last complete index, which is served while
+	 * a new one is built, and the future of the index being built.
+	 * <p>
+	 * A build that fails or whose job is canceled before it could run completes the
+	 * future with the last complete index (or an empty one) and leaves the index
+	 * stale, so that the next request for the index schedules a new build.
+	 */
+	private class ProjectIndex {
+
+		private final IJavaProject jp;
+
+		private SpringPropertyIndex lastGood;
+
+		private CompletableFuture<SpringPropertyIndex> future;
+
+		/** Incremented per rebuild; only the job of the latest rebuild publishes its result */
+		private int generation;
+
+		private Job job;
+
+		/** Whether the latest build didn't produce an index */
+		private boolean stale;
+
+		ProjectIndex(IJavaProject jp) {
+			this.jp = jp;
+		}
+
+		synchronized SpringPropertyIndex getLastGood() {
+			return lastGood;
+		}
+
+		synchronized CompletableFuture<SpringPropertyIndex> getFuture() {
+			if (stale) {
+				rebuild();
+			}
+			return future;
+		}
+
+		/**
+		 * Schedules building a new index. A pending future is kept, so clients waiting
+		 * for it get the result of the latest rebuild.
+		 */
+		synchronized void rebuild() {
+			if (future==null || future.isDone()) {
+				future = new CompletableFuture<>();
+			}
+			//Supersede the old job before canceling it: a job that didn't run yet reports
+			//its cancellation synchronously and must not publish an empty index.
+			Job oldJob = job;
+			stale = false;
+			final int jobGeneration = ++generation;
+			if (oldJob!=null) {
+				oldJob.cancel();
+			}
+			job = new Job("Indexing Spring Boot properties of "+jp.getElementName()) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					try {
+						if (publish(jobGeneration, new SpringPropertyIndex(valueProviders, jp))) {
+							notifyListeners();
+						}
+					} catch (Throwable e) {
+						SpringPropertiesEditorPlugin.log(e);
+						publish(jobGeneration, null);
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			job.addJobChangeListener(new JobChangeAdapter() {
+				@Override
+				public void done(IJobChangeEvent event) {
+					if (event.getResult().getSeverity()==IStatus.CANCEL) {
+						//Canceled before it could run, e.g. on shutdown or by the user
+						publish(jobGeneration, null);
+					}
+				}
+			});
+			job.setSystem(true);
+			job.schedule();
+		}
+
+		/**
+		 * Cancels a pending build. Clients still waiting for the index get the last
+		 * complete one.
+		 */
+		synchronized void dispose() {
+			generation++;
+			Job oldJob = job;
+			job = null;
+			if (oldJob!=null) {
+				oldJob.cancel();
+			}
+			if (future!=null && !future.isDone()) {
+				future.complete(lastGood!=null ? lastGood : new SpringPropertyIndex(valueProviders, null));
+			}
+		}
+
+		/**
+		 * Completes the future with the given index or, if no index could be built, with
+		 * the last complete one.
+		 * @return Whether the given index has been published.
+		 */
+		private synchronized boolean publish(int jobGeneration, SpringPropertyIndex index) {
+			if (jobGeneration!=generation || job==null) {
+				//Superseded by a later rebuild or already published
+				return false;
+			}
+			job = null;
+			if (index!=null) {
+				lastGood = index;
+				future.complete(index);
+				return true;
+			}
+			stale = true;
+			future.complete(lastGood!=null ? lastGood : new SpringPropertyIndex(valueProviders, null));
+			return false;
+		}
 	}
 
 	private class LiveMetadataListener implements IResourceChangeListener, IResourceDeltaVisitor {
 
 		@Override
 		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getType()==IResourceChangeEvent.PRE_CLOSE || event.getType()==IResourceChangeEvent.PRE_DELETE) {
+				if (event.getResource() instanceof IProject) {
+					remove((IProject) event.getResource());
+				}
+				return;
+			}
 			try {
 				event.getDelta().accept(this);
 			} catch (Exception e) {
@@ -123,9 +351,6 @@ public class SpringPropertiesIndexManager extends ListenerManager<Listener<Sprin
 							liveMetadataChanged(jp, jsonFile);
 						}
 					}
-				} else {
-					//TODO: not accessible (closed or deleted?)
-					//  Do we need to do something with these?
 				}
 				return false;
 			default:
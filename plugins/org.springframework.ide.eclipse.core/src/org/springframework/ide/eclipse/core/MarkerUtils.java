@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.resources.IMarker;
@@ -89,16 +91,8 @@ public final class MarkerUtils {
 	public static void deleteAllMarkers(IResource resource, String id) {
 		if (resource != null && resource.isAccessible()) {
 			try {
-				// Look for markers that have been created elsewhere in the
-				// workspace but originate from the given resource
-				String originatingResourceValue = resource.getFullPath().toString();
-				IMarker[] markers = ResourcesPlugin.getWorkspace().getRoot().findMarkers(id, true,
-						IResource.DEPTH_INFINITE);
-				for (IMarker marker : markers) {
-					if (originatingResourceValue.equals(marker
-							.getAttribute(ORIGINATING_RESOURCE_KEY))) {
-						marker.delete();
-					}
+				for (IMarker marker : getAllMarkers(resource, id)) {
+					marker.delete();
 				}
 			}
 			catch (CoreException e) {
@@ -107,6 +101,28 @@ public final class MarkerUtils {
 		}
 	}
 
+	/**
+	 * Returns all {@link IMarker markers} with the given id (including the
+	 * inherited ones) anywhere in the workspace that have an attribute under
+	 * the key named {@link #ORIGINATING_RESOURCE_KEY} that matches the given
+	 * {@link IResource#getFullPath()}.
+	 * @since 3.9.1
+	 */
+	public static List<IMarker> getAllMarkers(IResource resource, String id) throws CoreException {
+		List<IMarker> foundMarkers = new ArrayList<IMarker>();
+		// Look for markers that have been created elsewhere in the
+		// workspace but originate from the given resource
+		String originatingResourceValue = resource.getFullPath().toString();
+		IMarker[] markers = ResourcesPlugin.getWorkspace().getRoot().findMarkers(id, true,
+				IResource.DEPTH_INFINITE);
+		for (IMarker marker : markers) {
+			if (originatingResourceValue.equals(marker.getAttribute(ORIGINATING_RESOURCE_KEY))) {
+				foundMarkers.add(marker);
+			}
+		}
+		return foundMarkers;
+	}
+
 	/**
 	 * Removes all {@link IMarker markers} with given id (including the
 	 * inherited ones) from given {@link IResource} and it's members.
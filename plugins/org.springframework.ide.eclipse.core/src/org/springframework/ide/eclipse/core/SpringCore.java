@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core;
 
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
@@ -27,9 +28,12 @@ import org.springframework.ide.eclipse.core.java.ITypeStructureCache;
 import org.springframework.ide.eclipse.core.java.TypeStructureCache;
 import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReaderFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.IndexedTypeHierarchyClassReaderFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyIndex;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyResourceChangeListener;
 import org.springframework.ide.eclipse.core.model.ISpringModel;
+import org.springframework.ide.eclipse.core.model.validation.ValidationStatistics;
 
 /**
  * Central access point for the Spring IDE core plug-in (id <code>"org.springframework.ide.eclipse.core"</code>).
@@ -74,6 +78,18 @@ public class SpringCore extends Plugin {
 	/** Temporally setting to enable or disable the use of XBean's non-locking classloader infrastructure */
 	public static final String USE_NON_LOCKING_CLASSLOADER = PLUGIN_ID + ".useNonLockingClassLoader";
 
+	/** Setting to share the class loader for the jars between projects that have the same jars on their classpath */
+	public static final String USE_SHARED_JAR_CLASSLOADERS = PLUGIN_ID + ".useSharedJarClassLoaders";
+
+	/** Setting to enable or disable the concurrent execution of builders and validators declared as parallel */
+	public static final String USE_PARALLEL_PROJECT_CONTRIBUTORS = PLUGIN_ID + ".useParallelProjectContributors";
+
+	/** Number of resources a validator that supports it validates concurrently; <code>1</code> validates serially */
+	public static final String VALIDATION_PARALLELISM = PLUGIN_ID + ".validationParallelism";
+
+	/** Maximum weight (number of jars plus their size in MB) of all cached project class loaders */
+	public static final String CLASSLOADER_CACHE_MAX_WEIGHT = PLUGIN_ID + ".classLoaderCacheMaxWeight";
+
 	/** The shared instance */
 	private static SpringCore plugin;
 
@@ -87,6 +103,8 @@ public class SpringCore extends Plugin {
 	
 	private static TypeHierarchyEngine typeHierarchyEngine;
 
+	private static ValidationStatistics validationStatistics = new ValidationStatistics(false);
+
 	/**
 	 * Creates the Spring core plug-in.
 	 * <p>
@@ -117,16 +135,36 @@ public class SpringCore extends Plugin {
 		super.start(context);
 		model.startup();
 		typeStructureCache.startup();
+		validationStatistics = new ValidationStatistics(isDebug(ValidationStatistics.DEBUG_OPTION));
+		if (System.getProperty(TypeHierarchyEngine.ENABLE_INDEX_PROPERTY, "true").equals("true")) {
+			TypeHierarchyIndex typeHierarchyIndex = new TypeHierarchyIndex(getStateLocation().append("typehierarchy").toFile());
+			typeHierarchyEngine.setClassReaderFactory(new IndexedTypeHierarchyClassReaderFactory(typeHierarchyIndex,
+					new BytecodeTypeHierarchyClassReaderFactory()));
+		}
 		// install default for incremtal compilation
 		plugin.getPluginPreferences().setDefault(USE_CHANGE_DETECTION_IN_JAVA_FILES, true);
 		// non.locking classloader is not enabled by default
 		plugin.getPluginPreferences().setDefault(USE_NON_LOCKING_CLASSLOADER, false);
+		// sharing jar classloaders between projects is opt-in, as it shares static state of the jar classes
+		plugin.getPluginPreferences().setDefault(USE_SHARED_JAR_CLASSLOADERS, false);
+		plugin.getPluginPreferences().setDefault(USE_PARALLEL_PROJECT_CONTRIBUTORS, true);
+		plugin.getPluginPreferences().setDefault(VALIDATION_PARALLELISM, Runtime.getRuntime().availableProcessors());
+		// roughly a dozen projects with typical Spring classpaths
+		plugin.getPluginPreferences().setDefault(CLASSLOADER_CACHE_MAX_WEIGHT, 3000L);
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		model.shutdown();
 		typeStructureCache.shutdown();
+		if (validationStatistics.isEnabled()) {
+			try {
+				validationStatistics.writeJson(getStateLocation().append("validation-statistics.json").toFile());
+			}
+			catch (IOException e) {
+				log("Error writing validation statistics", e);
+			}
+		}
 		super.stop(context);
 	}
 
@@ -152,6 +190,15 @@ public class SpringCore extends Plugin {
 		return typeHierarchyEngine;
 	}
 
+	/**
+	 * Returns the timing and counters of the validation pipeline; only collected if the debug option
+	 * {@link ValidationStatistics#DEBUG_OPTION} is enabled.
+	 * @since 3.9.1
+	 */
+	public static final ValidationStatistics getValidationStatistics() {
+		return validationStatistics;
+	}
+
 	/**
 	 * Returns the workspace instance.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2008 Spring IDE Developers
+ * Copyright (c) 2007, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -34,6 +34,8 @@ public class ValidatorDefinition extends PersistablePreferenceObjectSupport {
 
 	private static final String CLASS_ATTRIBUTE = "class";
 
+	private static final String DEPENDS_ON_ATTRIBUTE = "dependsOn";
+
 	private static final String DESCRIPTION_ATTRIBUTE = "description";
 
 	private static final String ENABLED_BY_DEFAULT_ATTRIBUTE = "enabledByDefault";
@@ -50,6 +52,10 @@ public class ValidatorDefinition extends PersistablePreferenceObjectSupport {
 
 	private static final String ORDER_ATTRIBUTE = "order";
 
+	private static final String PARALLEL_ATTRIBUTE = "parallel";
+
+	private Set<String> dependsOn;
+
 	private String description;
 
 	private String iconUri;
@@ -64,6 +70,8 @@ public class ValidatorDefinition extends PersistablePreferenceObjectSupport {
 	
 	private int order;
 
+	private boolean parallel;
+
 	private IValidator validator;
 
 	public ValidatorDefinition(IConfigurationElement element)
@@ -93,6 +101,14 @@ public class ValidatorDefinition extends PersistablePreferenceObjectSupport {
 		}
 	}
 
+	/**
+	 * Returns the ids of the builders and validators that need to be finished before this validator is started.
+	 * @since 3.9.1
+	 */
+	public Set<String> getDependsOn() {
+		return dependsOn;
+	}
+
 	public String getDescription() {
 		return description;
 	}
@@ -109,6 +125,14 @@ public class ValidatorDefinition extends PersistablePreferenceObjectSupport {
 		return order;
 	}
 
+	/**
+	 * Returns <code>true</code> if this validator can run concurrently with other parallel builders and validators.
+	 * @since 3.9.1
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
 	public String getMarkerId() {
 		return markerId;
 	}
@@ -159,6 +183,9 @@ public class ValidatorDefinition extends PersistablePreferenceObjectSupport {
 		else {
 			setEnabledByDefault(true);
 		}
+		parallel = Boolean.valueOf(element.getAttribute(PARALLEL_ATTRIBUTE));
+		dependsOn = StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(element
+				.getAttribute(DEPENDS_ON_ATTRIBUTE)));
 		initValidator();
 	}
 
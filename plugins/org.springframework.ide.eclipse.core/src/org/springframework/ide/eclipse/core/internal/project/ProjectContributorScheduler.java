@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.project;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Runs the builders and validators of a single build as scheduled by the {@link SpringProjectContributionManager}.
+ * <p>
+ * All builders are finished before the first validator starts, as validators read the model the builders produce.
+ * Within each of the two phases, tasks that are not marked as parallel are executed on the calling thread in the
+ * given order and act as a barrier: they start after all previous tasks are finished and no later task starts before
+ * they are finished. Parallel tasks are executed on the given executor as soon as all the tasks they depend on are
+ * finished.
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class ProjectContributorScheduler {
+
+	private final ExecutorService executorService;
+
+	/**
+	 * Creates a new scheduler.
+	 * @param executorService the executor for parallel tasks; <code>null</code> runs all tasks sequentially
+	 */
+	public ProjectContributorScheduler(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Runs the given builder tasks, followed by the given validator tasks.
+	 */
+	public void run(List<ContributorTask> builderTasks, List<ContributorTask> validatorTasks,
+			IProgressMonitor monitor) throws CoreException {
+		runTasks(builderTasks, monitor);
+		runTasks(validatorTasks, monitor);
+	}
+
+	private void runTasks(List<ContributorTask> tasks, IProgressMonitor monitor) throws CoreException {
+		if (executorService == null || !containsParallelTask(tasks)) {
+			for (ContributorTask task : tasks) {
+				task.run(monitor);
+			}
+			return;
+		}
+
+		Set<String> taskIds = new HashSet<String>();
+		for (ContributorTask task : tasks) {
+			taskIds.add(task.getId());
+		}
+
+		CompletionService<ContributorTask> completionService = new ExecutorCompletionService<ContributorTask>(
+				executorService);
+		List<ContributorTask> pendingTasks = new ArrayList<ContributorTask>(tasks);
+		Set<String> finishedTasks = new HashSet<String>();
+		int runningTasks = 0;
+		boolean interrupted = false;
+
+		try {
+			while (!pendingTasks.isEmpty() || runningTasks > 0) {
+				boolean started = false;
+				for (Iterator<ContributorTask> iterator = pendingTasks.iterator(); iterator.hasNext();) {
+					final ContributorTask task = iterator.next();
+					if (!task.isParallel()) {
+						if (runningTasks == 0 && task == pendingTasks.get(0) && task.isReady(taskIds, finishedTasks)) {
+							iterator.remove();
+							task.run(monitor);
+							finishedTasks.add(task.getId());
+							started = true;
+						}
+						// later tasks are not allowed to overtake a sequential task
+						break;
+					}
+					else if (task.isReady(taskIds, finishedTasks)) {
+						iterator.remove();
+						completionService.submit(createParallelRunnable(task, monitor), task);
+						runningTasks++;
+						started = true;
+					}
+				}
+
+				if (runningTasks > 0) {
+					if (!started) {
+						try {
+							finishedTasks.add(completionService.take().get().getId());
+							runningTasks--;
+							monitor.worked(1);
+						}
+						catch (InterruptedException e) {
+							interrupted = true;
+						}
+						catch (ExecutionException e) {
+							// not possible as contributors are executed by the safe runner
+							SpringCore.log(e);
+						}
+					}
+				}
+				else if (!started && !pendingTasks.isEmpty()) {
+					// dependencies can't be satisfied (cycle or dependency on a later sequential task)
+					ContributorTask task = pendingTasks.remove(0);
+					task.run(monitor);
+					finishedTasks.add(task.getId());
+				}
+			}
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private Runnable createParallelRunnable(final ContributorTask task, final IProgressMonitor monitor) {
+		return new Runnable() {
+
+			public void run() {
+				// progress monitors are not thread-safe, the parallel tasks only forward cancellation
+				IProgressMonitor taskMonitor = new NullProgressMonitor() {
+
+					@Override
+					public boolean isCanceled() {
+						return super.isCanceled() || monitor.isCanceled();
+					}
+				};
+				try {
+					task.run(taskMonitor);
+				}
+				catch (CoreException e) {
+					SpringCore.log(e);
+				}
+			}
+		};
+	}
+
+	private boolean containsParallelTask(List<ContributorTask> tasks) {
+		for (ContributorTask task : tasks) {
+			if (task.isParallel()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A single builder or validator run.
+	 */
+	public static abstract class ContributorTask {
+
+		private final String id;
+
+		private final boolean parallel;
+
+		private final Set<String> dependsOn;
+
+		public ContributorTask(String id, boolean parallel, Set<String> dependsOn) {
+			this.id = id;
+			this.parallel = parallel;
+			this.dependsOn = dependsOn;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public boolean isParallel() {
+			return parallel;
+		}
+
+		/**
+		 * Returns <code>true</code> if all the dependencies that take part in the same phase are finished.
+		 */
+		public boolean isReady(Set<String> taskIds, Set<String> finishedTasks) {
+			if (dependsOn != null) {
+				for (String dependency : dependsOn) {
+					if (taskIds.contains(dependency) && !finishedTasks.contains(dependency)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		public abstract void run(IProgressMonitor monitor) throws CoreException;
+
+	}
+
+}
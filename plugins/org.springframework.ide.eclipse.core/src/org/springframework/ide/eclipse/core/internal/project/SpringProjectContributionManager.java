@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Spring IDE Developers
+ * Copyright (c) 2007, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,11 +10,18 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.internal.project;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -29,9 +36,11 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.SubProgressMonitor;
+import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.SpringCoreUtils;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidatorDefinition;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidatorDefinitionFactory;
+import org.springframework.ide.eclipse.core.internal.project.ProjectContributorScheduler.ContributorTask;
 import org.springframework.ide.eclipse.core.model.validation.IValidator;
 import org.springframework.ide.eclipse.core.project.DefaultProjectContributorState;
 import org.springframework.ide.eclipse.core.project.IProjectBuilder;
@@ -55,6 +64,10 @@ import org.springframework.ide.eclipse.core.project.ProjectContributionEventList
  * <p>
  * {@link IProjectBuilder} or {@link IValidator} implementations that want to access the state should implement the
  * {@link IProjectContributorStateAware} interface to a call back with the current state.
+ * <p>
+ * Builders and validators that are declared as <code>parallel</code> are executed concurrently on a bounded thread
+ * pool, respecting the contributors they declare to depend on via <code>dependsOn</code>. All builders are finished
+ * before the first validator starts, see {@link ProjectContributorScheduler}.
  * 
  * @author Torsten Juergeleit
  * @author Christian Dupuis
@@ -70,6 +83,9 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 	
 	private static Object dummyMapObject = new Object();
 	private static Map<String, Object> classpathChanged = new ConcurrentHashMap<String, Object>();
+
+	/** Bounded pool for the builders and validators that can run in parallel */
+	private static ExecutorService executorService;
 	
 	/**
 	 * indicate that the classpath changed for the given project since the last build
@@ -115,22 +131,37 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 
 		}
 
-		// At first run all builders
-		for (ProjectBuilderDefinition builderDefinition : builderDefinitions) {
+		// At first run all builders, then all validators
+		List<ContributorTask> builderTasks = new ArrayList<ContributorTask>();
+		for (final ProjectBuilderDefinition builderDefinition : builderDefinitions) {
 			if (builderDefinition.isEnabled(project)) {
-				Set<IResource> affectedResources = getAffectedResources(builderDefinition.getProjectBuilder(), project,
-						buildKind, delta);
-				runBuilder(builderDefinition, affectedResources, buildKind, monitor, listeners);
+				builderTasks.add(new ContributorTask(builderDefinition.getId(), builderDefinition.isParallel(),
+						builderDefinition.getDependsOn()) {
+
+					public void run(IProgressMonitor monitor) throws CoreException {
+						Set<IResource> affectedResources = getAffectedResources(builderDefinition.getProjectBuilder(),
+								project, buildKind, delta);
+						runBuilder(builderDefinition, affectedResources, buildKind, monitor, listeners);
+					}
+				});
 			}
 		}
-
-		// Finally run all validators
-		for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
+		List<ContributorTask> validatorTasks = new ArrayList<ContributorTask>();
+		for (final ValidatorDefinition validatorDefinition : validatorDefinitions) {
 			if (validatorDefinition.isEnabled(project)) {
-				Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(), project, buildKind, delta);
-				runValidator(validatorDefinition, affectedResources, buildKind, monitor, listeners);
+				validatorTasks.add(new ContributorTask(validatorDefinition.getID(), validatorDefinition.isParallel(),
+						validatorDefinition.getDependsOn()) {
+
+					public void run(IProgressMonitor monitor) throws CoreException {
+						Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(),
+								project, buildKind, delta);
+						runValidator(validatorDefinition, affectedResources, buildKind, monitor, listeners);
+					}
+				});
 			}
 		}
+		new ProjectContributorScheduler(isParallelExecutionEnabled() ? getExecutorService() : null).run(builderTasks,
+				validatorTasks, monitor);
 
 		// Fire end event on listeners
 		for (final IProjectContributionEventListener listener : listeners) {
@@ -144,6 +175,30 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 		return null;
 	}
 
+	private boolean isParallelExecutionEnabled() {
+		return SpringCore.getDefault().getPluginPreferences().getBoolean(SpringCore.USE_PARALLEL_PROJECT_CONTRIBUTORS);
+	}
+
+	private static synchronized ExecutorService getExecutorService() {
+		if (executorService == null) {
+			int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+						private final AtomicInteger count = new AtomicInteger();
+
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, "Spring Project Contributor " + count.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			executorService = executor;
+		}
+		return executorService;
+	}
+
 	/**
 	 * Collects all affected resources from the given {@link IResourceDelta} and {@link IProjectContributor}.
 	 */
@@ -207,8 +262,10 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 
 				@SuppressWarnings("deprecation")
 				public void execute(IProgressMonitor subMonitor) throws Exception {
-					listener.startContributor(builderDefinition.getProjectBuilder(), affectedResources, subMonitor);
-					listener.startProjectBuilder(builderDefinition, affectedResources, subMonitor);
+					synchronized (listeners) {
+						listener.startContributor(builderDefinition.getProjectBuilder(), affectedResources, subMonitor);
+						listener.startProjectBuilder(builderDefinition, affectedResources, subMonitor);
+					}
 				}
 			}, monitor);
 
@@ -227,8 +284,10 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 				
 				@SuppressWarnings("deprecation")
 				public void execute(IProgressMonitor subMonitor) throws Exception {
-					listener.finishContributor(builderDefinition.getProjectBuilder(), affectedResources, subMonitor);
-					listener.finishProjectBuilder(builderDefinition, affectedResources, subMonitor);
+					synchronized (listeners) {
+						listener.finishContributor(builderDefinition.getProjectBuilder(), affectedResources, subMonitor);
+						listener.finishProjectBuilder(builderDefinition, affectedResources, subMonitor);
+					}
 				}
 			}, monitor);
 			
@@ -239,7 +298,7 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 	 * Runs all given {@link IValidator} in the order as they are given in the set.
 	 */
 	private void runValidator(final ValidatorDefinition validatorDefinition, final Set<IResource> affectedResources,
-			final int kind, IProgressMonitor monitor, List<IProjectContributionEventListener> listeners) {
+			final int kind, IProgressMonitor monitor, final List<IProjectContributionEventListener> listeners) {
 
 		for (final IProjectContributionEventListener listener : listeners) {
 
@@ -247,8 +306,10 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 
 				@SuppressWarnings("deprecation")
 				public void execute(IProgressMonitor subMonitor) throws Exception {
-					listener.startContributor(validatorDefinition.getValidator(), affectedResources, subMonitor);
-					listener.startValidator(validatorDefinition, affectedResources, subMonitor);
+					synchronized (listeners) {
+						listener.startContributor(validatorDefinition.getValidator(), affectedResources, subMonitor);
+						listener.startValidator(validatorDefinition, affectedResources, subMonitor);
+					}
 				}
 			}, monitor);
 
@@ -267,8 +328,10 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 				
 				@SuppressWarnings("deprecation")
 				public void execute(IProgressMonitor subMonitor) throws Exception {
-					listener.finishContributor(validatorDefinition.getValidator(), affectedResources, subMonitor);
-					listener.finishValidator(validatorDefinition, affectedResources, subMonitor);
+					synchronized (listeners) {
+						listener.finishContributor(validatorDefinition.getValidator(), affectedResources, subMonitor);
+						listener.finishValidator(validatorDefinition, affectedResources, subMonitor);
+					}
 				}
 			}, monitor);
 			
@@ -10,11 +10,13 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.java;
 
+import java.io.File;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 
 /**
- * Interface to be implemented by clients that can cache instances of {@link TypeStructure}.
+ * Interface to be implemented by clients that can cache the structure of Java types.
  * @author Christian Dupuis
  * @since 2.2.1
  */
@@ -52,6 +54,19 @@ public interface ITypeStructureCache {
 	 */
 	void recordTypeStructures(IProject project, IResource... resources);
 	
+	/**
+	 * Returns a fingerprint of the structure of the given class file.
+	 * <p>
+	 * Class files with different fingerprints have structural changes in terms of
+	 * {@link #hasStructuralChanges(IResource, int)} with the same <code>flags</code>; in contrast to recorded type
+	 * structures fingerprints can be compared across builds without recording the old state first.
+	 * @param classFile the class file to fingerprint
+	 * @param flags flags indicate changes of interest
+	 * @return the fingerprint or <code>0</code> if the class file can't be read
+	 * @since 3.9.1
+	 */
+	long getStructuralFingerprint(File classFile, int flags);
+
 	/**
 	 * Clear recored type structures for the given <code>project</code>.
 	 * @param project the project to clear
@@ -263,6 +263,15 @@ public class JdtUtils {
 		return ProjectClassLoaderCache.getClassLoader(project, parentClassLoader);
 	}
 	
+	/**
+	 * Returns a token that is identical for subsequent calls as long as the class loader returned by
+	 * {@link #getClassLoader(IProject, ClassLoader)} for the same arguments uses the same class path.
+	 * @since 3.9.1
+	 */
+	public static Object getClassPathIdentity(IProject project, ClassLoader parentClassLoader) {
+		return ProjectClassLoaderCache.getClassPathIdentity(project, parentClassLoader);
+	}
+
 	public static void removeClassLoaderEntryFromCache(IProject project) {
 		ProjectClassLoaderCache.removeClassLoaderEntryFromCache(project);
 	}
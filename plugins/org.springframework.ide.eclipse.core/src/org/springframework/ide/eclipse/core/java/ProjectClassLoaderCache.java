@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 Spring IDE Developers
+ * Copyright (c) 2009, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,12 +15,21 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.xbean.classloader.NonLockingJarFileClassLoader;
 import org.eclipse.core.resources.IFolder;
@@ -57,48 +66,97 @@ import org.springframework.ide.eclipse.core.SpringCore;
 public class ProjectClassLoaderCache {
 
 	private static final String FILE_SCHEME = "file";
-	private static final int CACHE_SIZE = 12;
-	private static final List<ClassLoaderCacheEntry> CLASSLOADER_CACHE = new ArrayList<ClassLoaderCacheEntry>(CACHE_SIZE);
+	private static final long WEIGHT_BYTES_PER_UNIT = 1024 * 1024;
+
+	/**
+	 * The cached entries, created at most once per key via the stored futures. Lookups don't lock, concurrent
+	 * requests for the same project wait for the same future instead of creating their own class loaders.
+	 */
+	private static final ConcurrentMap<ClassLoaderCacheKey, FutureTask<ClassLoaderCacheEntry>> CLASSLOADER_CACHE = new ConcurrentHashMap<ClassLoaderCacheKey, FutureTask<ClassLoaderCacheEntry>>();
+	private static final Object EVICTION_LOCK = new Object();
+
+	/**
+	 * Jar class loaders shared by all projects with identical jars on their classpath, only used if enabled via
+	 * {@link SpringCore#USE_SHARED_JAR_CLASSLOADERS}. Guarded by itself.
+	 */
+	private static final Map<SharedJarClassLoaderKey, SharedJarClassLoader> SHARED_JAR_CLASSLOADERS = new HashMap<SharedJarClassLoaderKey, SharedJarClassLoader>();
+
+	private static final AtomicLong TOTAL_WEIGHT = new AtomicLong();
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+	private static final AtomicLong EVICTIONS = new AtomicLong();
 
 	private static final String DEBUG_OPTION = SpringCore.PLUGIN_ID + "/java/classloader/debug";
 	private static final boolean DEBUG_CLASSLOADER = SpringCore.isDebug(DEBUG_OPTION);
 
-	private static ClassLoader cachedParentClassLoader = null;
-	private static IPropertyChangeListener propertyChangeListener = null;
-	private static IResourceChangeListener resourceChangeListener = null;
+	private static volatile ClassLoader cachedParentClassLoader = null;
+	private static volatile IPropertyChangeListener propertyChangeListener = null;
+	private static volatile IResourceChangeListener resourceChangeListener = null;
 
-	private static ClassLoader addClassLoaderToCache(IProject project, List<URL> urls, ClassLoader parentClassLoader) {
-		synchronized (CLASSLOADER_CACHE) {
-			int nEntries = CLASSLOADER_CACHE.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
-				ClassLoaderCacheEntry oldest = null;
-				List<ClassLoaderCacheEntry> obsoleteClassLoaders = new ArrayList<ClassLoaderCacheEntry>(CACHE_SIZE);
-				for (int i = 0; i < nEntries; i++) {
-					ClassLoaderCacheEntry entry = (ClassLoaderCacheEntry) CLASSLOADER_CACHE.get(i);
-					IProject curr = entry.getProject();
-					if (!curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
-						obsoleteClassLoaders.add(entry);
-					}
-					else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest = entry;
-						}
-					}
+	/**
+	 * Evicts entries until the total weight of all cached class loaders fits into the configured maximum weight
+	 * again. Entries of closed or deleted projects are evicted first, after that the least recently accessed ones.
+	 * The given entry, which was just added, is never evicted.
+	 */
+	private static void evictIfRequired(ClassLoaderCacheEntry newEntry) {
+		long maxWeight = getMaxWeight();
+		if (TOTAL_WEIGHT.get() <= maxWeight) {
+			return;
+		}
+
+		synchronized (EVICTION_LOCK) {
+			for (ClassLoaderCacheEntry entry : getCompletedEntries()) {
+				IProject curr = entry.getProject();
+				if (!curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
+					removeClassLoaderEntryFromCache(entry);
 				}
-				if (!obsoleteClassLoaders.isEmpty()) {
-					for (int i = 0; i < obsoleteClassLoaders.size(); i++) {
-						removeClassLoaderEntryFromCache((ClassLoaderCacheEntry) obsoleteClassLoaders.get(i));
+			}
+
+			while (TOTAL_WEIGHT.get() > maxWeight) {
+				ClassLoaderCacheEntry oldest = null;
+				for (ClassLoaderCacheEntry entry : getCompletedEntries()) {
+					if (entry != newEntry && (oldest == null || entry.getLastAccess() < oldest.getLastAccess())) {
+						oldest = entry;
 					}
 				}
-				else if (oldest != null) {
-					removeClassLoaderEntryFromCache(oldest);
+				if (oldest == null) {
+					break;
 				}
+				EVICTIONS.incrementAndGet();
+				removeClassLoaderEntryFromCache(oldest);
+			}
+
+			if (DEBUG_CLASSLOADER) {
+				System.out.println(String.format("> classloader cache after eviction: %s", getStatistics()));
+			}
+		}
+	}
+
+	private static List<ClassLoaderCacheEntry> getCompletedEntries() {
+		List<ClassLoaderCacheEntry> entries = new ArrayList<ClassLoaderCacheEntry>();
+		for (FutureTask<ClassLoaderCacheEntry> future : CLASSLOADER_CACHE.values()) {
+			ClassLoaderCacheEntry entry = getCompletedEntry(future);
+			if (entry != null) {
+				entries.add(entry);
+			}
+		}
+		return entries;
+	}
+
+	private static ClassLoaderCacheEntry getCompletedEntry(FutureTask<ClassLoaderCacheEntry> future) {
+		if (future.isDone()) {
+			try {
+				return future.get();
+			}
+			catch (Exception e) {
+				// failed entries are removed by the callers waiting for them
 			}
-			ClassLoaderCacheEntry newEntry = new ClassLoaderCacheEntry(project, urls, parentClassLoader);
-			CLASSLOADER_CACHE.add(newEntry);
-			return newEntry.getClassLoader();
 		}
+		return null;
+	}
+
+	private static long getMaxWeight() {
+		return SpringCore.getDefault().getPluginPreferences().getLong(SpringCore.CLASSLOADER_CACHE_MAX_WEIGHT);
 	}
 
 	/**
@@ -209,27 +267,84 @@ public class ProjectClassLoaderCache {
 		}
 	}
 
-	private static ClassLoader findClassLoaderInCache(IProject project, ClassLoader parentClassLoader) {
-		synchronized (CLASSLOADER_CACHE) {
-			for (int i = CLASSLOADER_CACHE.size() - 1; i >= 0; i--) {
-				ClassLoaderCacheEntry entry = (ClassLoaderCacheEntry) CLASSLOADER_CACHE.get(i);
+	/**
+	 * Returns the cache entry for the given project and parent class loader, creating it if required.
+	 */
+	private static ClassLoaderCacheEntry getCacheEntry(final IProject project, final ClassLoader parentClassLoader) {
+		final ClassLoaderCacheKey key = new ClassLoaderCacheKey(project, parentClassLoader);
+		while (true) {
+			FutureTask<ClassLoaderCacheEntry> future = CLASSLOADER_CACHE.get(key);
+			if (future != null) {
+				ClassLoaderCacheEntry entry = waitForEntry(key, future);
 				IProject curr = entry.getProject();
-				if (curr == null || !curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
+				if (!curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
 					removeClassLoaderEntryFromCache(entry);
-					if (DEBUG_CLASSLOADER) {
-						System.out.println(String.format("> removing classloader for '%s' : total %s",
-								entry.getProject(), CLASSLOADER_CACHE.size()));
-					}
 				}
 				else {
-					if (entry.matches(project, parentClassLoader)) {
-						entry.markAsAccessed();
-						return entry.getClassLoader();
+					HITS.incrementAndGet();
+					entry.markAsAccessed();
+					return entry;
+				}
+				continue;
+			}
+
+			FutureTask<ClassLoaderCacheEntry> newFuture = new FutureTask<ClassLoaderCacheEntry>(
+					new Callable<ClassLoaderCacheEntry>() {
+						public ClassLoaderCacheEntry call() throws Exception {
+							List<URL> urls = getClassPathUrls(project, parentClassLoader);
+							return new ClassLoaderCacheEntry(key, urls);
+						}
+					});
+			if (CLASSLOADER_CACHE.putIfAbsent(key, newFuture) == null) {
+				MISSES.incrementAndGet();
+				newFuture.run();
+
+				ClassLoaderCacheEntry entry = waitForEntry(key, newFuture);
+				TOTAL_WEIGHT.addAndGet(entry.getWeight());
+				if (DEBUG_CLASSLOADER) {
+					System.out.println(String.format("> creating new classloader for '%s' with parent '%s' : %s",
+							project.getName(), parentClassLoader, getStatistics()));
+				}
+				evictIfRequired(entry);
+				return entry;
+			}
+		}
+	}
+
+	/**
+	 * Waits for the given future to complete. If creating the entry failed, the future is removed from the cache
+	 * and the failure is rethrown to all waiting callers, so the next request tries again instead of every caller
+	 * retrying in a loop.
+	 */
+	private static ClassLoaderCacheEntry waitForEntry(ClassLoaderCacheKey key, FutureTask<ClassLoaderCacheEntry> future) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return future.get();
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+				catch (ExecutionException e) {
+					CLASSLOADER_CACHE.remove(key, future);
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
 					}
+					throw new IllegalStateException("Error creating classloader for '" + key.project.getName() + "'",
+							cause);
 				}
 			}
 		}
-		return null;
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
 	/**
@@ -270,16 +385,39 @@ public class ProjectClassLoaderCache {
 	 * @param entry the entry to remove
 	 */
 	private static void removeClassLoaderEntryFromCache(ClassLoaderCacheEntry entry) {
-		synchronized (CLASSLOADER_CACHE) {
+		FutureTask<ClassLoaderCacheEntry> future = CLASSLOADER_CACHE.get(entry.getKey());
+		if (future != null && getCompletedEntry(future) == entry && CLASSLOADER_CACHE.remove(entry.getKey(), future)) {
+			TOTAL_WEIGHT.addAndGet(-entry.getWeight());
 			if (DEBUG_CLASSLOADER) {
-				System.out.println(String.format("> removing classloader for '%s' : total %s", entry.getProject()
-						.getName(), CLASSLOADER_CACHE.size()));
+				System.out.println(String.format("> removing classloader for '%s' : %s", entry.getProject()
+						.getName(), getStatistics()));
 			}
-			entry.dispose();
-			CLASSLOADER_CACHE.remove(entry);
+		}
+		entry.dispose();
+	}
+
+	/**
+	 * Removes all entries from the internal cache.
+	 */
+	private static void clearCache() {
+		for (ClassLoaderCacheEntry entry : getCompletedEntries()) {
+			removeClassLoaderEntryFromCache(entry);
 		}
 	}
 
+	/**
+	 * Returns a snapshot of the current cache statistics.
+	 * @since 3.9.1
+	 */
+	public static Statistics getStatistics() {
+		int sharedJarClassLoaders;
+		synchronized (SHARED_JAR_CLASSLOADERS) {
+			sharedJarClassLoaders = SHARED_JAR_CLASSLOADERS.size();
+		}
+		return new Statistics(CLASSLOADER_CACHE.size(), sharedJarClassLoaders, TOTAL_WEIGHT.get(), getMaxWeight(),
+				HITS.get(), MISSES.get(), EVICTIONS.get());
+	}
+
 	public static boolean shouldFilter(String name) {
 		if ("commons-logging.properties".equals(name)) return true;
 		if (name != null && name.startsWith("META-INF/services/")) {
@@ -302,6 +440,30 @@ public class ProjectClassLoaderCache {
 	 * Returns a {@link ClassLoader} for the given project.
 	 */
 	protected static ClassLoader getClassLoader(IProject project, ClassLoader parentClassLoader) {
+		if ((parentClassLoader == null && cachedParentClassLoader == null)
+				|| (project != null && resourceChangeListener == null)) {
+			initialize(project, parentClassLoader);
+		}
+
+		if (project == null) {
+			return cachedParentClassLoader;
+		}
+
+		return getCacheEntry(project, parentClassLoader).getClassLoader();
+	}
+
+	/**
+	 * Returns an opaque token for the class path of the given project. The token stays the same as long as the
+	 * cached class loader for the project is reused and is replaced once the class path changes.
+	 */
+	protected static Object getClassPathIdentity(IProject project, ClassLoader parentClassLoader) {
+		if ((parentClassLoader == null && cachedParentClassLoader == null) || resourceChangeListener == null) {
+			initialize(project, parentClassLoader);
+		}
+		return getCacheEntry(project, parentClassLoader).getClassPathIdentity();
+	}
+
+	private static void initialize(IProject project, ClassLoader parentClassLoader) {
 		synchronized (ProjectClassLoaderCache.class) {
 			// Setup the root class loader to be used when no explicit parent class loader is given
 			if (parentClassLoader == null && cachedParentClassLoader == null) {
@@ -321,23 +483,10 @@ public class ProjectClassLoaderCache {
 				cachedParentClassLoader = new URLClassLoader(paths.toArray(new URL[paths.size()]));
 			}
 
-			if (project == null) {
-				return cachedParentClassLoader;
-			}
-
-			registerListenersIfRequired();
-		}
-
-		ClassLoader classLoader = findClassLoaderInCache(project, parentClassLoader);
-		if (classLoader == null) {
-			List<URL> urls = getClassPathUrls(project, parentClassLoader);
-			classLoader = addClassLoaderToCache(project, urls, parentClassLoader);
-			if (DEBUG_CLASSLOADER) {
-				System.out.println(String.format("> creating new classloader for '%s' with parent '%s' : total %s",
-						project.getName(), parentClassLoader, CLASSLOADER_CACHE.size()));
+			if (project != null) {
+				registerListenersIfRequired();
 			}
 		}
-		return classLoader;
 	}
 	
 	/**
@@ -345,20 +494,279 @@ public class ProjectClassLoaderCache {
 	 * @param project the project to remove {@link ClassLoaderCacheEntry} for
 	 */
 	protected static void removeClassLoaderEntryFromCache(IProject project) {
-		synchronized (CLASSLOADER_CACHE) {
-			if (DEBUG_CLASSLOADER) {
-				System.out.println(String.format("> removing classloader for '%s' : total %s", project.getName(),
-						CLASSLOADER_CACHE.size()));
+		for (ClassLoaderCacheEntry entry : getCompletedEntries()) {
+			if (project.equals(entry.getProject())) {
+				removeClassLoaderEntryFromCache(entry);
 			}
-			for (ClassLoaderCacheEntry entry : new ArrayList<ClassLoaderCacheEntry>(CLASSLOADER_CACHE)) {
-				if (project.equals(entry.getProject())) {
-					entry.dispose();
-					CLASSLOADER_CACHE.remove(entry);
+		}
+	}
+	
+	private static ClassLoader createJarClassLoader(String name, URL[] jars, ClassLoader parent, boolean nonLocking) {
+		if (nonLocking) {
+			return new FilteringNonLockingJarFileClassLoader(name, jars, parent);
+		}
+		else {
+			return new FilteringURLClassLoader(jars, parent);
+		}
+	}
+
+	private static boolean useSharedJarClassLoaders() {
+		return SpringCore.getDefault().getPluginPreferences().getBoolean(SpringCore.USE_SHARED_JAR_CLASSLOADERS);
+	}
+
+	/**
+	 * Returns the weight of the given class path entries: the number of jars plus the size of all jars in MB.
+	 * Directories don't count.
+	 */
+	private static long calculateJarWeight(URL[] urls) {
+		long jars = 0;
+		long bytes = 0;
+		for (URL url : urls) {
+			if (shouldLoadFromParent(url)) {
+				jars++;
+				try {
+					bytes += new File(url.toURI()).length();
+				}
+				catch (Exception e) {
+					// no file based url, count the jar only
 				}
 			}
 		}
+		return jars + bytes / WEIGHT_BYTES_PER_UNIT;
 	}
-	
+
+	private static boolean shouldLoadFromParent(URL url) {
+		String path = url.getPath();
+		if (path.endsWith(".jar") || path.endsWith(".zip")) {
+			return true;
+		}
+		else if (path.contains("/org.eclipse.osgi/bundles/")) {
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the shared class loader for the given set of jars, creating it if no other project uses the same
+	 * jars yet. Every call needs to be paired with a {@link #releaseSharedJarClassLoader(SharedJarClassLoaderKey)}.
+	 * <p>
+	 * The weight of the jars is added to the total weight of the cache once, when the shared class loader is
+	 * created, and not for every project using it.
+	 */
+	private static ClassLoader acquireSharedJarClassLoader(SharedJarClassLoaderKey key, URL[] jars) {
+		synchronized (SHARED_JAR_CLASSLOADERS) {
+			SharedJarClassLoader shared = SHARED_JAR_CLASSLOADERS.get(key);
+			if (shared == null) {
+				shared = new SharedJarClassLoader(createJarClassLoader("Shared jar ClassLoader", jars,
+						key.parentClassLoader, key.nonLocking), calculateJarWeight(jars));
+				SHARED_JAR_CLASSLOADERS.put(key, shared);
+				TOTAL_WEIGHT.addAndGet(shared.weight);
+				if (DEBUG_CLASSLOADER) {
+					System.out.println(String.format("> creating new shared jar classloader for %s jars : total %s",
+							jars.length, SHARED_JAR_CLASSLOADERS.size()));
+				}
+			}
+			shared.references++;
+			return shared.classLoader;
+		}
+	}
+
+	/**
+	 * Releases one reference to the shared class loader for the given key. Once the last cache entry using it is
+	 * disposed, the class loader is removed from the registry and its weight from the cache, so it can be garbage
+	 * collected as soon as no class loader handed out before refers to it anymore.
+	 */
+	private static void releaseSharedJarClassLoader(SharedJarClassLoaderKey key) {
+		synchronized (SHARED_JAR_CLASSLOADERS) {
+			SharedJarClassLoader shared = SHARED_JAR_CLASSLOADERS.get(key);
+			if (shared != null && --shared.references <= 0) {
+				SHARED_JAR_CLASSLOADERS.remove(key);
+				TOTAL_WEIGHT.addAndGet(-shared.weight);
+				if (DEBUG_CLASSLOADER) {
+					System.out.println(String.format("> removing shared jar classloader : total %s",
+							SHARED_JAR_CLASSLOADERS.size()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Identifies a set of jars by a hash over their locations, sizes and modification times (in classpath order),
+	 * so projects with the same jars can share a single class loader for them.
+	 */
+	static class SharedJarClassLoaderKey {
+
+		private final String contentHash;
+
+		private final ClassLoader parentClassLoader;
+
+		private final boolean nonLocking;
+
+		public SharedJarClassLoaderKey(URL[] jars, ClassLoader parentClassLoader, boolean nonLocking) {
+			this.contentHash = calculateContentHash(jars);
+			this.parentClassLoader = parentClassLoader;
+			this.nonLocking = nonLocking;
+		}
+
+		private static String calculateContentHash(URL[] jars) {
+			StringBuilder content = new StringBuilder();
+			for (URL jar : jars) {
+				content.append(jar.toString());
+				try {
+					File file = new File(jar.toURI());
+					content.append('|').append(file.length()).append('|').append(file.lastModified());
+				}
+				catch (Exception e) {
+					// no file based url, the location needs to be sufficient
+				}
+				content.append('\n');
+			}
+			try {
+				MessageDigest digest = MessageDigest.getInstance("SHA-1");
+				byte[] hash = digest.digest(content.toString().getBytes("UTF-8"));
+				StringBuilder result = new StringBuilder();
+				for (byte b : hash) {
+					result.append(String.format("%02x", b));
+				}
+				return result.toString();
+			}
+			catch (Exception e) {
+				return content.toString();
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * contentHash.hashCode() + (parentClassLoader != null ? parentClassLoader.hashCode() : 0)
+					+ (nonLocking ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SharedJarClassLoaderKey)) {
+				return false;
+			}
+			SharedJarClassLoaderKey other = (SharedJarClassLoaderKey) obj;
+			return contentHash.equals(other.contentHash) && nonLocking == other.nonLocking
+					&& parentClassLoader == other.parentClassLoader;
+		}
+	}
+
+	/**
+	 * A reference counted jar class loader that is shared by all cache entries with the same jars.
+	 */
+	static class SharedJarClassLoader {
+
+		private final ClassLoader classLoader;
+
+		private final long weight;
+
+		private int references;
+
+		public SharedJarClassLoader(ClassLoader classLoader, long weight) {
+			this.classLoader = classLoader;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Key of the internal cache: the project plus the (optional) parent class loader
+	 */
+	static class ClassLoaderCacheKey {
+
+		private final IProject project;
+
+		private final ClassLoader parentClassLoader;
+
+		public ClassLoaderCacheKey(IProject project, ClassLoader parentClassLoader) {
+			this.project = project;
+			this.parentClassLoader = parentClassLoader;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * project.hashCode() + (parentClassLoader != null ? parentClassLoader.hashCode() : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ClassLoaderCacheKey)) {
+				return false;
+			}
+			ClassLoaderCacheKey other = (ClassLoaderCacheKey) obj;
+			return project.equals(other.project)
+					&& ((parentClassLoader == null && other.parentClassLoader == null) || (parentClassLoader != null && parentClassLoader
+							.equals(other.parentClassLoader)));
+		}
+	}
+
+	/**
+	 * Snapshot of the class loader cache statistics, exposed for debugging and monitoring purposes.
+	 * @since 3.9.1
+	 */
+	public static class Statistics {
+
+		private final int entries;
+		private final int sharedJarClassLoaders;
+		private final long weight;
+		private final long maxWeight;
+		private final long hits;
+		private final long misses;
+		private final long evictions;
+
+		public Statistics(int entries, int sharedJarClassLoaders, long weight, long maxWeight, long hits,
+				long misses, long evictions) {
+			this.entries = entries;
+			this.sharedJarClassLoaders = sharedJarClassLoaders;
+			this.weight = weight;
+			this.maxWeight = maxWeight;
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+		}
+
+		public int getEntries() {
+			return entries;
+		}
+
+		public int getSharedJarClassLoaders() {
+			return sharedJarClassLoaders;
+		}
+
+		public long getWeight() {
+			return weight;
+		}
+
+		public long getMaxWeight() {
+			return maxWeight;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		public long getMisses() {
+			return misses;
+		}
+
+		public long getEvictions() {
+			return evictions;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"entries %s, shared jar classloaders %s, weight %s of %s, hits %s, misses %s, evictions %s",
+					entries, sharedJarClassLoaders, weight, maxWeight, hits, misses, evictions);
+		}
+	}
+
 	/**
 	 * Internal cache entry
 	 */
@@ -366,9 +774,20 @@ public class ProjectClassLoaderCache {
 
 		private URL[] directories;
 
+		private boolean disposed;
+
 		private ClassLoader jarClassLoader;
 
-		private long lastAccess;
+		private final boolean sharedJars;
+
+		private SharedJarClassLoaderKey sharedJarClassLoaderKey;
+
+		/** Identifies the class path of this entry without holding on to any of its class loaders */
+		private final Object classPathIdentity = new Object();
+
+		private final ClassLoaderCacheKey key;
+
+		private volatile long lastAccess;
 
 		private ClassLoader parentClassLoader;
 
@@ -376,18 +795,30 @@ public class ProjectClassLoaderCache {
 
 		private URL[] urls;
 
-		public ClassLoaderCacheEntry(IProject project, List<URL> urls, ClassLoader parentClassLoader) {
-			this.project = project;
+		private final long weight;
+
+		public ClassLoaderCacheEntry(ClassLoaderCacheKey key, List<URL> urls) {
+			this.key = key;
+			this.project = key.project;
 			this.urls = urls.toArray(new URL[urls.size()]);
-			this.parentClassLoader = parentClassLoader;
+			this.parentClassLoader = key.parentClassLoader;
+			this.sharedJars = useSharedJarClassLoaders();
+			// shared jars are charged to the cache once by the shared class loader
+			this.weight = sharedJars ? 1 : Math.max(1, calculateJarWeight(this.urls));
 			markAsAccessed();
 			JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
 		}
 
-		public void dispose() {
+		public synchronized void dispose() {
+			if (disposed) {
+				return;
+			}
+			disposed = true;
+			// the class loaders are kept as the entry might still be in use by concurrent callers
 			JavaCore.removeElementChangedListener(this);
-			this.urls = null;
-			this.jarClassLoader = null;
+			if (sharedJarClassLoaderKey != null) {
+				releaseSharedJarClassLoader(sharedJarClassLoaderKey);
+			}
 		}
 
 		public void elementChanged(ElementChangedEvent event) {
@@ -415,10 +846,22 @@ public class ProjectClassLoaderCache {
 			}
 		}
 
+		public Object getClassPathIdentity() {
+			return classPathIdentity;
+		}
+
+		public ClassLoaderCacheKey getKey() {
+			return key;
+		}
+
 		public long getLastAccess() {
 			return lastAccess;
 		}
 
+		public long getWeight() {
+			return weight;
+		}
+
 		public IProject getProject() {
 			return this.project;
 		}
@@ -427,12 +870,6 @@ public class ProjectClassLoaderCache {
 			lastAccess = System.currentTimeMillis();
 		}
 
-		public boolean matches(IProject project, ClassLoader parentClassLoader) {
-			return this.project.equals(project)
-					&& ((parentClassLoader == null && this.parentClassLoader == null) || (parentClassLoader != null && parentClassLoader
-							.equals(this.parentClassLoader)));
-		}
-
 		private synchronized ClassLoader getJarClassLoader() {
 			if (jarClassLoader == null) {
 				Set<URL> jars = new LinkedHashSet<URL>();
@@ -445,42 +882,21 @@ public class ProjectClassLoaderCache {
 						dirs.add(url);
 					}
 				}
-				if (parentClassLoader != null) {
-					// We use the parent class loader of the org.springframework.ide.eclipse.beans.core bundle
-					if (useNonLockingClassLoader()) {
-						jarClassLoader = new FilteringNonLockingJarFileClassLoader(String.format("ClassLoader for '%s'",
-								project.getName()), (URL[]) jars.toArray(new URL[jars.size()]), parentClassLoader);
-					}
-					else {
-						jarClassLoader = new FilteringURLClassLoader((URL[]) jars.toArray(new URL[jars.size()]),
-								parentClassLoader);
-					}
+				// We use the parent class loader of the org.springframework.ide.eclipse.beans.core bundle if given
+				ClassLoader parent = parentClassLoader != null ? parentClassLoader : cachedParentClassLoader;
+				URL[] jarUrls = (URL[]) jars.toArray(new URL[jars.size()]);
+				if (sharedJars && !disposed) {
+					sharedJarClassLoaderKey = new SharedJarClassLoaderKey(jarUrls, parent, useNonLockingClassLoader());
+					jarClassLoader = acquireSharedJarClassLoader(sharedJarClassLoaderKey, jarUrls);
 				}
 				else {
-					if (useNonLockingClassLoader()) {
-						jarClassLoader = new FilteringNonLockingJarFileClassLoader(String.format("ClassLoader for '%s'",
-								project.getName()), (URL[]) jars.toArray(new URL[jars.size()]), cachedParentClassLoader);
-					}
-					else {
-						jarClassLoader = new FilteringURLClassLoader((URL[]) jars.toArray(new URL[jars.size()]),
-								cachedParentClassLoader);
-					}
+					jarClassLoader = createJarClassLoader(String.format("ClassLoader for '%s'", project.getName()),
+							jarUrls, parent, useNonLockingClassLoader());
 				}
 				directories = dirs.toArray(new URL[dirs.size()]);
 			}
 			return jarClassLoader;
 		}
-
-		private boolean shouldLoadFromParent(URL url) {
-			String path = url.getPath();
-			if (path.endsWith(".jar") || path.endsWith(".zip")) {
-				return true;
-			}
-			else if (path.contains("/org.eclipse.osgi/bundles/")) {
-				return true;
-			}
-			return false;
-		}
 	}
 	
 	/**
@@ -493,10 +909,9 @@ public class ProjectClassLoaderCache {
 		 * {@inheritDoc}
 		 */
 		public void propertyChange(PropertyChangeEvent event) {
-			if (SpringCore.USE_NON_LOCKING_CLASSLOADER.equals(event.getProperty())) {
-				synchronized (CLASSLOADER_CACHE) {
-					CLASSLOADER_CACHE.clear();
-				}
+			if (SpringCore.USE_NON_LOCKING_CLASSLOADER.equals(event.getProperty())
+					|| SpringCore.USE_SHARED_JAR_CLASSLOADERS.equals(event.getProperty())) {
+				clearCache();
 			}
 		}
 	}
@@ -17,11 +17,11 @@ import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
@@ -29,6 +29,8 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IPathVariableManager;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -58,10 +60,15 @@ import org.springframework.ide.eclipse.core.SpringCore;
 import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
 
 /**
- * Object that caches instances of {@link TypeStructure}. Furthermore this implementation is able to answer if a given
+ * Object that caches structural fingerprints of types. Furthermore this implementation is able to answer if a given
  * {@link IResource} which represents a class file has structural changes.
  * <p>
  * For this implementation a change of class and method level annotation is considered a structural change.
+ * <p>
+ * Per recorded type only one fingerprint for each set of flags that leads to a different fingerprint is kept. The
+ * fingerprints are computed without holding any lock and kept in a separate concurrent map per project, so builders of
+ * different projects don't contend for the cache. All fingerprints of a project are dropped when it gets cleaned,
+ * closed or deleted.
  * 
  * @author Christian Dupuis
  * @author Martin Lippert
@@ -70,191 +77,256 @@ import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
 @SuppressWarnings("restriction")
 public class TypeStructureCache implements ITypeStructureCache {
 
-	private static final char[][] EMPTY_CHAR_ARRAY = new char[0][];
+	/** The flags the recorded fingerprints are computed with; indexed by {@link #getFingerprintIndex(int)} */
+	private static final int[] FINGERPRINT_FLAGS = new int[] { 0, FLAG_ANNOTATION,
+			FLAG_ANNOTATION | FLAG_ANNOTATION_VALUE };
 
 	private IElementChangedListener changedListener = null;
 
-	/** {@link TypeStructure} instances keyed by full-qualified class names */
-	private Map<IProject, Map<String, TypeStructure>> typeStructuresByProject = new ConcurrentHashMap<IProject, Map<String, TypeStructure>>();
-
-	protected final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
+	private IResourceChangeListener projectListener = null;
 
-	protected final Lock r = rwl.readLock();
+	/** Fingerprints by class file path; valid as long as the size and last modification time of the file match */
+	private final Map<String, StructuralFingerprint> fingerprints = new ConcurrentHashMap<String, StructuralFingerprint>();
 
-	protected final Lock w = rwl.writeLock();
+	/** Recorded fingerprints keyed by full-qualified class names; one array element per {@link #FINGERPRINT_FLAGS} */
+	private final ConcurrentMap<IProject, Map<String, long[]>> typeFingerprintsByProject = new ConcurrentHashMap<IProject, Map<String, long[]>>();
 
 	public void startup() {
 		changedListener = new TypeRemovingJavaElementChangeListener();
 		JavaCore.addElementChangedListener(changedListener);
+		projectListener = new ProjectRemovingResourceChangeListener();
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(projectListener,
+				IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
 	}
 
 	public void shutdown() {
 		JavaCore.removeElementChangedListener(changedListener);
 		changedListener = null;
-		typeStructuresByProject = null;
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(projectListener);
+		projectListener = null;
+		typeFingerprintsByProject.clear();
+		fingerprints.clear();
 	}
 
 	/**
-	 * Removes {@link TypeStructure}s for a given project.
+	 * Removes recorded type structures for a given project, as well as the cached fingerprints of its class files
+	 * and of class files that don't exist anymore.
 	 */
 	public void clearStateForProject(IProject project) {
-		try {
-			w.lock();
-			typeStructuresByProject.remove(project);
-		}
-		finally {
-			w.unlock();
+		typeFingerprintsByProject.remove(project);
+
+		List<String> locations = getLocations(project);
+		Iterator<StructuralFingerprint> cachedFingerprints = fingerprints.values().iterator();
+		while (cachedFingerprints.hasNext()) {
+			StructuralFingerprint fingerprint = cachedFingerprints.next();
+			if (!fingerprint.file.exists() || isInLocation(fingerprint.file, locations)) {
+				cachedFingerprints.remove();
+			}
 		}
 	}
 
 	/**
-	 * Checks if {@link TypeStructure} instances exist for a given project.
+	 * Checks if type structures have been recorded for a given project.
 	 */
 	public boolean hasRecordedTypeStructures(IProject project) {
-		try {
-			r.lock();
-			return typeStructuresByProject.containsKey(project);
-		}
-		finally {
-			r.unlock();
-		}
+		return typeFingerprintsByProject.containsKey(project);
 	}
 
 	/**
-	 * Record {@link TypeStructure} instances of the given <code>resources</code>.
+	 * Record the type structures of the given <code>resources</code>.
 	 */
 	public void recordTypeStructures(IProject project, IResource... resources) {
-		try {
-			w.lock();
-			Map<String, TypeStructure> typeStructures = null;
-			if (!typeStructuresByProject.containsKey(project)) {
-				typeStructures = new ConcurrentHashMap<String, TypeStructure>();
-				typeStructuresByProject.put(project, typeStructures);
-			}
-			else {
-				typeStructures = typeStructuresByProject.get(project);
-			}
-
-			for (IResource resource : resources) {
-				if (resource.getFileExtension().equals("class") && resource instanceof IFile) {
-					InputStream input = null;
-					try {
-						input = ((IFile) resource).getContents();
-						ClassFileReader reader = ClassFileReader.read(input, resource.getName());
-						TypeStructure typeStructure = new TypeStructure(reader);
-						typeStructures.put(new String(reader.getName()).replace('/', '.'), typeStructure);
+		Map<String, long[]> typeFingerprints = typeFingerprintsByProject.get(project);
+		if (typeFingerprints == null) {
+			typeFingerprints = new ConcurrentHashMap<String, long[]>();
+			Map<String, long[]> existingTypeFingerprints = typeFingerprintsByProject.putIfAbsent(project,
+					typeFingerprints);
+			if (existingTypeFingerprints != null) {
+				typeFingerprints = existingTypeFingerprints;
+			}
+		}
+
+		for (IResource resource : resources) {
+			if ("class".equals(resource.getFileExtension()) && resource instanceof IFile) {
+				InputStream input = null;
+				try {
+					input = ((IFile) resource).getContents();
+					ClassFileReader reader = ClassFileReader.read(input, resource.getName());
+					long[] values = new long[FINGERPRINT_FLAGS.length];
+					for (int i = 0; i < FINGERPRINT_FLAGS.length; i++) {
+						values[i] = computeStructuralFingerprint(reader, FINGERPRINT_FLAGS[i]);
 					}
-					catch (CoreException e) {
-					}
-					catch (ClassFormatException e) {
-					}
-					catch (IOException e) {
-					}
-					finally {
-						if (input != null) {
-							try {
-								input.close();
-							}
-							catch (IOException e) {
-							}
+					typeFingerprints.put(new String(reader.getName()).replace('/', '.'), values);
+				}
+				catch (CoreException e) {
+				}
+				catch (ClassFormatException e) {
+				}
+				catch (IOException e) {
+				}
+				finally {
+					if (input != null) {
+						try {
+							input.close();
+						}
+						catch (IOException e) {
 						}
 					}
 				}
 			}
 		}
-		finally {
-			w.unlock();
-		}
 	}
 
 	/**
 	 * Check if a given {@link IResource} representing a class file has structural changes.
 	 */
 	public boolean hasStructuralChanges(IResource resource, int flags) {
-		try {
-			r.lock();
-			if (!hasRecordedTypeStructures(resource.getProject())) {
-				return true;
-			}
+		Map<String, long[]> typeFingerprints = typeFingerprintsByProject.get(resource.getProject());
+		if (typeFingerprints == null) {
+			return true;
+		}
 
-			Map<String, TypeStructure> typeStructures = typeStructuresByProject.get(resource.getProject());
-
-			if (resource != null && resource.getFileExtension() != null && resource.getFileExtension().equals("java")) {
-				IJavaElement element = JavaCore.create(resource);
-				if (element instanceof ICompilationUnit && ((ICompilationUnit) element).isOpen()) {
-					try {
-						IType[] types = ((ICompilationUnit) element).getAllTypes();
-						for (IType type : types) {
-							String fqn = type.getFullyQualifiedName();
-							TypeStructure typeStructure = typeStructures.get(fqn);
-							if (typeStructure == null) {
-								return true;
-							}
-							ClassFileReader reader = getClassFileReaderForClassName(type.getFullyQualifiedName(),
-									resource.getProject());
-							if (reader != null && hasStructuralChanges(reader, typeStructure, flags)) {
-								return true;
-							}
+		if (resource.getFileExtension() != null && resource.getFileExtension().equals("java")) {
+			IJavaElement element = JavaCore.create(resource);
+			if (element instanceof ICompilationUnit && ((ICompilationUnit) element).isOpen()) {
+				try {
+					int index = getFingerprintIndex(flags);
+					IType[] types = ((ICompilationUnit) element).getAllTypes();
+					for (IType type : types) {
+						long[] recordedFingerprints = typeFingerprints.get(type.getFullyQualifiedName());
+						if (recordedFingerprints == null) {
+							return true;
+						}
+						File classFile = getClassFileForClassName(type.getFullyQualifiedName(),
+								resource.getProject());
+						if (classFile != null
+								&& getStructuralFingerprint(classFile, FINGERPRINT_FLAGS[index]) != recordedFingerprints[index]) {
+							return true;
 						}
-						return false;
-					}
-					catch (JavaModelException e) {
-						SpringCore.log(e);
-					}
-					catch (MalformedURLException e) {
-						SpringCore.log(e);
 					}
+					return false;
+				}
+				catch (JavaModelException e) {
+					SpringCore.log(e);
+				}
+				catch (MalformedURLException e) {
+					SpringCore.log(e);
 				}
 			}
-			return true;
 		}
-		finally {
-			r.unlock();
+		return true;
+	}
+
+	/**
+	 * Returns a fingerprint of the structure of the given class file. Fingerprints are cached until the class file
+	 * gets modified.
+	 */
+	public long getStructuralFingerprint(File classFile, int flags) {
+		flags = FINGERPRINT_FLAGS[getFingerprintIndex(flags)];
+		String key = classFile.getPath() + "#" + flags;
+		long lastModified = classFile.lastModified();
+		long length = classFile.length();
+		StructuralFingerprint fingerprint = fingerprints.get(key);
+		if (fingerprint != null && fingerprint.lastModified == lastModified && fingerprint.length == length) {
+			return fingerprint.value;
+		}
+
+		long value = 0;
+		try {
+			value = computeStructuralFingerprint(ClassFileReader.read(classFile), flags);
 		}
+		catch (ClassFormatException e) {
+		}
+		catch (IOException e) {
+		}
+		fingerprints.put(key, new StructuralFingerprint(classFile, lastModified, length, value));
+		return value;
 	}
 
 	/**
-	 * Removes cached type structures by the given className.
+	 * Removes recorded type structures by the given className.
 	 */
 	protected void removeRecordedTyeStructures(IProject project, String className) {
-		try {
-			w.lock();
-			if (!hasRecordedTypeStructures(project)) {
-				return;
+		Map<String, long[]> typeFingerprints = typeFingerprintsByProject.get(project);
+		if (typeFingerprints == null) {
+			return;
+		}
+
+		String innerClassName = className + "$";
+		Iterator<String> recordedClassNames = typeFingerprints.keySet().iterator();
+		while (recordedClassNames.hasNext()) {
+			String recordedClassName = recordedClassNames.next();
+			if (className.equals(recordedClassName) || recordedClassName.startsWith(innerClassName)) {
+				recordedClassNames.remove();
 			}
+		}
+	}
 
-			String innerClassName = className + "$";
-			List<String> typeStructuresToRemove = new ArrayList<String>();
+	/**
+	 * Returns the index of the fingerprint that covers the changes of interest given by the <code>flags</code>.
+	 * Annotation values are only considered together with annotations.
+	 */
+	private static int getFingerprintIndex(int flags) {
+		if ((flags & FLAG_ANNOTATION) == 0) {
+			return 0;
+		}
+		return ((flags & FLAG_ANNOTATION_VALUE) != 0 ? 2 : 1);
+	}
 
-			Map<String, TypeStructure> typeStructures = typeStructuresByProject.get(project);
-			for (String recordedClassName : typeStructures.keySet()) {
-				if (className.equals(recordedClassName) || recordedClassName.startsWith(innerClassName)) {
-					typeStructuresToRemove.add(recordedClassName);
+	/**
+	 * Returns the paths of the location of the given project and of all its output folders, each terminated by a
+	 * separator.
+	 */
+	private static List<String> getLocations(IProject project) {
+		List<String> locations = new ArrayList<String>();
+		if (project.getLocation() != null) {
+			locations.add(project.getLocation().toFile().getPath() + File.separator);
+		}
+		IJavaProject jp = JdtUtils.getJavaProject(project);
+		if (jp != null) {
+			try {
+				List<IPath> outputLocations = new ArrayList<IPath>();
+				outputLocations.add(jp.getOutputLocation());
+				for (IClasspathEntry entry : jp.getRawClasspath()) {
+					if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE) {
+						outputLocations.add(entry.getOutputLocation());
+					}
 				}
+				for (IPath outputLocation : outputLocations) {
+					File outputDirectory = convertPathToFile(project, outputLocation);
+					if (outputDirectory != null) {
+						locations.add(outputDirectory.getPath() + File.separator);
+					}
+				}
+			}
+			catch (JavaModelException e) {
+				// the project location needs to be sufficient
 			}
-			for (String recordedClassName : typeStructuresToRemove) {
-				typeStructures.remove(recordedClassName);
+			catch (MalformedURLException e) {
+				// the project location needs to be sufficient
 			}
 		}
-		finally {
-			w.unlock();
+		return locations;
+	}
+
+	private static boolean isInLocation(File file, List<String> locations) {
+		String path = file.getPath();
+		for (String location : locations) {
+			if (path.startsWith(location)) {
+				return true;
+			}
 		}
+		return false;
 	}
 
-	private static ClassFileReader getClassFileReaderForClassName(String className, IProject project)
-			throws JavaModelException, MalformedURLException {
+	private static File getClassFileForClassName(String className, IProject project) throws JavaModelException,
+			MalformedURLException {
 		IJavaProject jp = JavaCore.create(project);
 
 		File outputDirectory = convertPathToFile(project, jp.getOutputLocation());
 		File classFile = new File(outputDirectory, ClassUtils.getClassFileName(className));
 		if (classFile.exists() && classFile.canRead()) {
-			try {
-				return ClassFileReader.read(classFile);
-			}
-			catch (ClassFormatException e) {
-			}
-			catch (IOException e) {
-			}
+			return classFile;
 		}
 
 		IClasspathEntry[] classpath = jp.getRawClasspath();
@@ -264,13 +336,7 @@ public class TypeStructureCache implements ITypeStructureCache {
 				outputDirectory = convertPathToFile(project, path.getOutputLocation());
 				classFile = new File(outputDirectory, ClassUtils.getClassFileName(className));
 				if (classFile.exists() && classFile.canRead()) {
-					try {
-						return ClassFileReader.read(classFile);
-					}
-					catch (ClassFormatException e) {
-					}
-					catch (IOException e) {
-					}
+					return classFile;
 				}
 			}
 		}
@@ -312,163 +378,6 @@ public class TypeStructureCache implements ITypeStructureCache {
 		return null;
 	}
 
-	private boolean hasStructuralChanges(ClassFileReader reader, TypeStructure existingType, int flags) {
-		if (existingType == null) {
-			return true;
-		}
-
-		// modifiers
-		if (!modifiersEqual(reader.getModifiers(), existingType.modifiers)) {
-			return true;
-		}
-
-		// generic signature
-		if (!CharOperation.equals(reader.getGenericSignature(), existingType.genericSignature)) {
-			return true;
-		}
-
-		// superclass name
-		if (!CharOperation.equals(reader.getSuperclassName(), existingType.superclassName)) {
-			return true;
-		}
-
-		// class level annotations
-		if ((flags & FLAG_ANNOTATION) != 0) {
-			IBinaryAnnotation[] existingAnnotations = existingType.getAnnotations();
-			IBinaryAnnotation[] newAnnotations = reader.getAnnotations();
-			if (!annotationsEqual(existingAnnotations, newAnnotations, flags)) {
-				return true;
-			}
-		}
-
-		// tag bits; standard annotations like @Deprecated
-		if (reader.getTagBits() != existingType.getTagBits()) {
-			return true;
-		}
-
-		// interfaces
-		char[][] existingIfs = existingType.interfaces;
-		char[][] newIfsAsChars = reader.getInterfaceNames();
-		if (newIfsAsChars == null) {
-			newIfsAsChars = EMPTY_CHAR_ARRAY;
-		} // damn I'm lazy...
-		if (existingIfs == null) {
-			existingIfs = EMPTY_CHAR_ARRAY;
-		}
-		if (existingIfs.length != newIfsAsChars.length)
-			return true;
-		new_interface_loop: for (int i = 0; i < newIfsAsChars.length; i++) {
-			for (int j = 0; j < existingIfs.length; j++) {
-				if (CharOperation.equals(existingIfs[j], newIfsAsChars[i])) {
-					continue new_interface_loop;
-				}
-			}
-			return true;
-		}
-
-		// fields
-		IBinaryField[] newFields = reader.getFields();
-		if (newFields == null) {
-			newFields = TypeStructure.NoField;
-		}
-
-		IBinaryField[] existingFs = existingType.binFields;
-		if (newFields.length != existingFs.length)
-			return true;
-		new_field_loop: for (int i = 0; i < newFields.length; i++) {
-			IBinaryField field = newFields[i];
-			char[] fieldName = field.getName();
-			for (int j = 0; j < existingFs.length; j++) {
-				if (CharOperation.equals(existingFs[j].getName(), fieldName)) {
-					if (!modifiersEqual(field.getModifiers(), existingFs[j].getModifiers())) {
-						return true;
-					}
-					if (!CharOperation.equals(existingFs[j].getTypeName(), field.getTypeName())) {
-						return true;
-					}
-					if ((flags & FLAG_ANNOTATION) != 0) {
-						if (!annotationsEqual(field.getAnnotations(), existingFs[j].getAnnotations(), flags)) {
-							return true;
-						}
-					}
-					continue new_field_loop;
-				}
-			}
-			return true;
-		}
-
-		// methods
-		IBinaryMethod[] newMethods = reader.getMethods();
-		if (newMethods == null) {
-			newMethods = TypeStructure.NoMethod;
-		}
-		
-		char[] fileName = reader.getFileName();
-
-		IBinaryMethod[] existingMs = existingType.binMethods;
-		if (newMethods.length != existingMs.length)
-			return true;
-		new_method_loop: for (int i = 0; i < newMethods.length; i++) {
-			IBinaryMethod method = newMethods[i];
-			char[] methodName = method.getSelector();
-			for (int j = 0; j < existingMs.length; j++) {
-				if (CharOperation.equals(existingMs[j].getSelector(), methodName)) {
-					// candidate match
-					if (!CharOperation.equals(method.getMethodDescriptor(), existingMs[j].getMethodDescriptor())) {
-						continue; // might be overloading
-					}
-					else {
-						// matching sigs
-						if (!modifiersEqual(method.getModifiers(), existingMs[j].getModifiers())) {
-							return true;
-						}
-						if ((flags & FLAG_ANNOTATION) != 0) {
-							if (!annotationsEqual(method.getAnnotations(), existingMs[j].getAnnotations(), flags)) {
-								return true;
-							}
-							
-							if (!parameterAnnotationsEquals(method, existingMs[j], fileName, flags)) {
-								return true;
-							}
-							
-						}
-						continue new_method_loop;
-					}
-				}
-			}
-			return true; // (no match found)
-		}
-
-		return false;
-	}
-
-	private static boolean parameterAnnotationsEquals(IBinaryMethod newMethod,
-			IBinaryMethod existingMethod, char[] fileName, int flags) {
-		
-		char[][] argumentNames = newMethod.getArgumentNames();
-		char[][] existingArgumentNames = existingMethod.getArgumentNames();
-		
-		if (argumentNames == null && existingArgumentNames == null)
-			return true;
-		
-		int argumentCount = argumentNames != null ? argumentNames.length : 0;
-		int existingArgumentCount = existingArgumentNames != null ? existingArgumentNames.length : 0;
-		
-		if (argumentCount != existingArgumentCount)
-			return false;
-		
-		for (int i = 0; i < argumentCount; i++) {
-			IBinaryAnnotation[] parameterAnnotations = getParameterAnnotation(newMethod, i, fileName);
-			IBinaryAnnotation[] existingParameterAnnotations = getParameterAnnotation(existingMethod, i, fileName);
-			
-			if (!annotationsEqual(parameterAnnotations, existingParameterAnnotations, flags)) {
-				return false;
-			}
-		}
-		
-		return true;
-	}
-
 	// changed API of IBinaryMethod (between Eclipse 4.5 and Eclipse 4.6)
 	// therefore adapting to this via reflection to use the correct existing method
 	private static IBinaryAnnotation[] getParameterAnnotation(IBinaryMethod newMethod, int i, char[] fileName) {
@@ -500,124 +409,154 @@ public class TypeStructureCache implements ITypeStructureCache {
 		return result;
 	}
 
-	private static boolean annotationsEqual(IBinaryAnnotation[] existingAnnotations,
-			IBinaryAnnotation[] newAnnotations, int flags) {
-		if (existingAnnotations == null) {
-			existingAnnotations = TypeStructure.NoAnnotation;
-		}
-		if (newAnnotations == null) {
-			newAnnotations = TypeStructure.NoAnnotation;
+	/**
+	 * Hashes the parts of the class file that make up its structure: modifiers, generic signature, superclass, tag
+	 * bits, interfaces, fields and methods and, depending on the <code>flags</code>, annotations and annotation
+	 * values. Members, interfaces and annotations are hashed independent of their order: their hashes are mixed
+	 * before being summed up, so that swapping parts between members changes the fingerprint.
+	 */
+	private static long computeStructuralFingerprint(ClassFileReader reader, int flags) {
+		long hash = reader.getModifiers() & ExtraCompilerModifiers.AccJustFlag;
+		hash = 31 * hash + charsHashCode(reader.getGenericSignature());
+		hash = 31 * hash + charsHashCode(reader.getSuperclassName());
+		hash = 31 * hash + reader.getTagBits();
+		if ((flags & FLAG_ANNOTATION) != 0) {
+			hash = 31 * hash + annotationsHashCode(reader.getAnnotations(), flags);
 		}
-		if (existingAnnotations.length != newAnnotations.length) {
-			return false;
+
+		long interfacesHash = 0;
+		char[][] interfaceNames = reader.getInterfaceNames();
+		if (interfaceNames != null) {
+			for (char[] interfaceName : interfaceNames) {
+				interfacesHash += charsHashCode(interfaceName);
+			}
 		}
+		hash = 31 * hash + interfacesHash;
 
-		new_annotation_loop: for (int i = 0; i < newAnnotations.length; i++) {
-			for (int j = 0; j < existingAnnotations.length; j++) {
-				if (CharOperation.equals(newAnnotations[j].getTypeName(), existingAnnotations[i].getTypeName())) {
-					// compare annotation parameters
-					if ((flags & FLAG_ANNOTATION_VALUE) != 0) {
-						IBinaryElementValuePair[] newParameters = newAnnotations[j].getElementValuePairs();
-						IBinaryElementValuePair[] existingParameters = existingAnnotations[j].getElementValuePairs();
-						if (newParameters == null) {
-							newParameters = TypeStructure.NoElement;
-						}
-						if (existingParameters == null) {
-							existingParameters = TypeStructure.NoElement;
-						}
-						if (existingParameters.length != newParameters.length) {
-							return false;
-						}
-						for (int k = 0; k < newParameters.length; k++) {
-							for (int l = 0; l < existingParameters.length; l++) {
-								char[] newName = newParameters[l].getName();
-								char[] existingName = existingParameters[l].getName();
-								Object newValue = newParameters[l].getValue();
-								Object existingValue = existingParameters[l].getValue();
-
-								if (!CharOperation.equals(newName, existingName)) {
-									return false;
-								}
-
-								if (!parameterValuesEquals(flags, newValue, existingValue)) {
-									return false;
-								}
-							}
-						}
+		long fieldsHash = 0;
+		IBinaryField[] fields = reader.getFields();
+		if (fields != null) {
+			for (IBinaryField field : fields) {
+				long fieldHash = charsHashCode(field.getName());
+				fieldHash = 31 * fieldHash + (field.getModifiers() & ExtraCompilerModifiers.AccJustFlag);
+				fieldHash = 31 * fieldHash + charsHashCode(field.getTypeName());
+				if ((flags & FLAG_ANNOTATION) != 0) {
+					fieldHash = 31 * fieldHash + annotationsHashCode(field.getAnnotations(), flags);
+				}
+				fieldsHash += mix(fieldHash);
+			}
+		}
+		hash = 31 * hash + fieldsHash;
+
+		long methodsHash = 0;
+		IBinaryMethod[] methods = reader.getMethods();
+		if (methods != null) {
+			char[] fileName = reader.getFileName();
+			for (IBinaryMethod method : methods) {
+				long methodHash = charsHashCode(method.getSelector());
+				methodHash = 31 * methodHash + charsHashCode(method.getMethodDescriptor());
+				methodHash = 31 * methodHash + (method.getModifiers() & ExtraCompilerModifiers.AccJustFlag);
+				if ((flags & FLAG_ANNOTATION) != 0) {
+					methodHash = 31 * methodHash + annotationsHashCode(method.getAnnotations(), flags);
+					char[][] argumentNames = method.getArgumentNames();
+					int argumentCount = (argumentNames != null ? argumentNames.length : 0);
+					for (int i = 0; i < argumentCount; i++) {
+						methodHash = 31 * methodHash
+								+ annotationsHashCode(getParameterAnnotation(method, i, fileName), flags);
 					}
-					continue new_annotation_loop;
 				}
+				methodsHash += mix(methodHash);
 			}
-			return false;
 		}
-		return true;
+		return 31 * hash + methodsHash;
 	}
 
-	private static boolean parameterValuesEquals(int flags, Object newValue, Object existingValue) {
-		if (newValue.getClass().isArray() && existingValue.getClass().isArray()) {
-			Object[] newValueArray = (Object[]) newValue;
-			Object[] existingValueArray = (Object[]) existingValue;
-			if (newValueArray.length != existingValueArray.length) {
-				return false;
-			}
-			for (int i = 0; i < newValueArray.length; i++) {
-				if (!parameterValuesEquals(flags, newValueArray[i], existingValueArray[i])) {
-					return false;
+	private static long annotationsHashCode(IBinaryAnnotation[] annotations, int flags) {
+		long hash = 0;
+		if (annotations != null) {
+			for (IBinaryAnnotation annotation : annotations) {
+				long annotationHash = charsHashCode(annotation.getTypeName());
+				if ((flags & FLAG_ANNOTATION_VALUE) != 0 && annotation.getElementValuePairs() != null) {
+					for (IBinaryElementValuePair pair : annotation.getElementValuePairs()) {
+						annotationHash = 31 * annotationHash + charsHashCode(pair.getName());
+						annotationHash = 31 * annotationHash + parameterValueHashCode(pair.getValue(), flags);
+					}
 				}
+				hash += mix(annotationHash);
 			}
 		}
-		else if (newValue instanceof ClassSignature) {
-			if (existingValue instanceof ClassSignature) {
-				if (!CharOperation.equals(((ClassSignature) newValue).getTypeName(),
-						((ClassSignature) existingValue).getTypeName())) {
-					return false;
-				}
-			}
-			else {
-				return false;
+		return hash;
+	}
+
+	private static long parameterValueHashCode(Object value, int flags) {
+		if (value instanceof Object[]) {
+			long hash = 1;
+			for (Object element : (Object[]) value) {
+				hash = 31 * hash + parameterValueHashCode(element, flags);
 			}
+			return hash;
 		}
-		else if (newValue instanceof Constant) {
-			if (existingValue instanceof Constant) {
-				if (!((Constant) newValue).hasSameValue((Constant) existingValue)) {
-					return false;
-				}
-			}
-			else {
-				return false;
-			}
+		else if (value instanceof ClassSignature) {
+			return charsHashCode(((ClassSignature) value).getTypeName());
 		}
-		else if (newValue instanceof EnumConstantSignature) {
-			if (existingValue instanceof EnumConstantSignature) {
-				if (!(CharOperation.equals(((EnumConstantSignature) newValue).getTypeName(),
-						((EnumConstantSignature) existingValue).getTypeName()) && CharOperation.equals(
-						((EnumConstantSignature) newValue).getEnumConstantName(),
-						((EnumConstantSignature) existingValue).getEnumConstantName()))) {
-					return false;
-				}
-			}
-			else {
-				return false;
-			}
+		else if (value instanceof Constant) {
+			return ((Constant) value).stringValue().hashCode();
 		}
-		else if (newValue instanceof IBinaryAnnotation) {
-			if (existingValue instanceof EnumConstantSignature) {
-				if (!annotationsEqual(new IBinaryAnnotation[] { (IBinaryAnnotation) newValue },
-						new IBinaryAnnotation[] { (IBinaryAnnotation) existingValue }, flags)) {
-					return false;
-				}
-			}
-			else {
-				return false;
-			}
+		else if (value instanceof EnumConstantSignature) {
+			return 31 * charsHashCode(((EnumConstantSignature) value).getTypeName())
+					+ charsHashCode(((EnumConstantSignature) value).getEnumConstantName());
+		}
+		else if (value instanceof IBinaryAnnotation) {
+			return annotationsHashCode(new IBinaryAnnotation[] { (IBinaryAnnotation) value }, flags);
+		}
+		return 0;
+	}
+
+	/**
+	 * Spreads the bits of the given hash (finalizer of MurmurHash3), as the sum of plain polynomial hashes doesn't
+	 * change if the same parts are distributed differently among the summands.
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private static int charsHashCode(char[] array) {
+		return (array != null ? CharOperation.hashCode(array) : 0);
+	}
+
+	private static class StructuralFingerprint {
+
+		private final File file;
+
+		private final long lastModified;
+
+		private final long length;
+
+		private final long value;
+
+		public StructuralFingerprint(File file, long lastModified, long length, long value) {
+			this.file = file;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.value = value;
 		}
-		return true;
 	}
 
-	private static boolean modifiersEqual(int eclipseModifiers, int resolvedTypeModifiers) {
-		resolvedTypeModifiers = resolvedTypeModifiers & ExtraCompilerModifiers.AccJustFlag;
-		eclipseModifiers = eclipseModifiers & ExtraCompilerModifiers.AccJustFlag;
-		return (eclipseModifiers == resolvedTypeModifiers);
+	/**
+	 * Drops all state of projects that are about to be closed or deleted.
+	 */
+	private class ProjectRemovingResourceChangeListener implements IResourceChangeListener {
+
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getResource() instanceof IProject) {
+				clearStateForProject((IProject) event.getResource());
+			}
+		}
 	}
 
 	private class TypeRemovingJavaElementChangeListener implements IElementChangedListener {
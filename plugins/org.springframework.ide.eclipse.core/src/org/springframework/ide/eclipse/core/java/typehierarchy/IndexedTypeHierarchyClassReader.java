@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import org.eclipse.core.resources.IProject;
+
+/**
+ * Class reader that answers type hierarchy requests for classes from jar files out of the persistent
+ * {@link JarTypeHierarchyIndex}es and falls back to the given reader for everything else (e.g. output folders).
+ * <p>
+ * The jars are consulted in classpath order before the fallback reader, which is the same order the project
+ * class loader uses (jars are loaded from the parent class loader, output folders from the child).
+ *
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class IndexedTypeHierarchyClassReader implements TypeHierarchyClassReader {
+
+	private final JarTypeHierarchyIndex[] jarIndexes;
+	private final TypeHierarchyClassReader fallbackReader;
+
+	public IndexedTypeHierarchyClassReader(JarTypeHierarchyIndex[] jarIndexes, TypeHierarchyClassReader fallbackReader) {
+		this.jarIndexes = jarIndexes;
+		this.fallbackReader = fallbackReader;
+	}
+
+	public TypeHierarchyElement readTypeHierarchyInformation(char[] fullyQualifiedClassName, IProject project) {
+		for (int i = 0; i < jarIndexes.length; i++) {
+			TypeHierarchyElement result = jarIndexes[i].get(fullyQualifiedClassName);
+			if (result != null) {
+				return result;
+			}
+		}
+		return fallbackReader.readTypeHierarchyInformation(fullyQualifiedClassName, project);
+	}
+
+	public void cleanup() {
+		fallbackReader.cleanup();
+	}
+
+}
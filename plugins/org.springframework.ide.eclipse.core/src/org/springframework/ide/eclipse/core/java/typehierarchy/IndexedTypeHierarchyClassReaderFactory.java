@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
+
+/**
+ * Factory for {@link IndexedTypeHierarchyClassReader}s that use the shared {@link TypeHierarchyIndex} for all
+ * jar files on the classpath of a project.
+ *
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class IndexedTypeHierarchyClassReaderFactory implements TypeHierarchyClassReaderFactory {
+
+	private final TypeHierarchyIndex index;
+	private final TypeHierarchyClassReaderFactory fallbackFactory;
+
+	public IndexedTypeHierarchyClassReaderFactory(TypeHierarchyIndex index, TypeHierarchyClassReaderFactory fallbackFactory) {
+		this.index = index;
+		this.fallbackFactory = fallbackFactory;
+	}
+
+	public TypeHierarchyClassReader createClassReader(IProject project) {
+		// readers are created when the class path of a project changes, a good time to release outdated jar indexes
+		index.removeStaleIndexes();
+
+		List<JarTypeHierarchyIndex> jarIndexes = new ArrayList<JarTypeHierarchyIndex>();
+
+		Set<URL> urls = new LinkedHashSet<URL>(ProjectClassLoaderCache.getClassPathUrls(project, null));
+		for (URL url : urls) {
+			String path = url.getPath();
+			if (path.endsWith(".jar") || path.endsWith(".zip")) {
+				try {
+					File file = new File(url.toURI());
+					if (file.isFile()) {
+						jarIndexes.add(index.getJarIndex(file));
+					}
+				}
+				catch (Exception e) {
+					SpringCore.log(e);
+				}
+			}
+		}
+
+		return new IndexedTypeHierarchyClassReader(jarIndexes.toArray(new JarTypeHierarchyIndex[jarIndexes.size()]),
+				fallbackFactory.createClassReader(project));
+	}
+
+}
@@ -0,0 +1,437 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Persistent type hierarchy information (superclass and interfaces) for all classes of a single jar file.
+ * <p>
+ * The index is written once per jar version (identified by the jar's last modification time and size) into
+ * the index directory and memory mapped from there afterwards, so lookups don't need to open the jar file again,
+ * not even after a restart. The records are sorted by class name, lookups are done via a binary search directly
+ * on the mapped buffer. Index files are named after the hash of the jar path; the header holds the full path, and
+ * jars with colliding hashes use the next free file name.
+ * <p>
+ * A failure to load or create the index is remembered, so the jar is not read again on every lookup. A changed jar
+ * gets a new index instance (see {@link TypeHierarchyIndex}), which tries again.
+ * <p>
+ * Decoded elements are kept and handed out as shared {@link TypeHierarchyElement}s, so all projects that
+ * reference the same jar use the same element instances.
+ *
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class JarTypeHierarchyIndex {
+
+	private static final int MAGIC = 0x53544849;
+	private static final int VERSION = 1;
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+	private static final String INDEX_FILE_SUFFIX = ".idx";
+
+	/** Number of jars with colliding hashes that can be indexed at the same time */
+	private static final int MAX_INDEX_FILES_PER_HASH = 8;
+
+	private final String jarFileName;
+	private final long lastModified;
+	private final long fileSize;
+	private final File indexDirectory;
+	private final TypeHierarchyElementCache elements;
+
+	/** The mapped index, <code>null</code> until it has been loaded or created successfully */
+	private volatile ByteBuffer buffer;
+
+	/** Whether loading or creating the index failed for this version of the jar */
+	private volatile boolean failed;
+
+	private int count;
+	private int offsetsStart;
+
+	public JarTypeHierarchyIndex(String jarFileName, long lastModified, long fileSize, File indexDirectory) {
+		this.jarFileName = jarFileName;
+		this.lastModified = lastModified;
+		this.fileSize = fileSize;
+		this.indexDirectory = indexDirectory;
+		this.elements = new TypeHierarchyElementCache();
+	}
+
+	public boolean isValid(long lastModified, long fileSize) {
+		return this.lastModified == lastModified && this.fileSize == fileSize;
+	}
+
+	/**
+	 * Returns the type hierarchy information for the given class (in slashed notation) or <code>null</code> if the
+	 * jar doesn't contain the class. Loads or creates the persisted index on first access.
+	 */
+	public TypeHierarchyElement get(char[] fullyQualifiedClassName) {
+		TypeHierarchyElement result = elements.get(fullyQualifiedClassName);
+		if (result != null) {
+			return result;
+		}
+
+		ByteBuffer buffer = getBuffer();
+		if (buffer == null) {
+			return null;
+		}
+
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int recordOffset = buffer.getInt(offsetsStart + mid * 4);
+			int cmp = compare(buffer, recordOffset, fullyQualifiedClassName);
+			if (cmp < 0) {
+				low = mid + 1;
+			}
+			else if (cmp > 0) {
+				high = mid - 1;
+			}
+			else {
+				result = readElement(buffer, recordOffset);
+				elements.put(result.className, result);
+				return result;
+			}
+		}
+		return null;
+	}
+
+	private ByteBuffer getBuffer() {
+		ByteBuffer result = this.buffer;
+		if (result == null && !failed) {
+			synchronized (this) {
+				result = this.buffer;
+				if (result == null && !failed) {
+					result = loadOrCreateIndex();
+					this.buffer = result;
+					this.failed = (result == null);
+				}
+			}
+		}
+		return result;
+	}
+
+	private ByteBuffer loadOrCreateIndex() {
+		for (int slot = 0; slot < MAX_INDEX_FILES_PER_HASH; slot++) {
+			File indexFile = getIndexFile(slot);
+			try {
+				if (!indexFile.exists()) {
+					return createIndex(indexFile);
+				}
+
+				ByteBuffer result = map(indexFile);
+				String indexedJarFileName = readJarFileName(result);
+				if (indexedJarFileName == null) {
+					// corrupt, replace it
+					if (!indexFile.delete()) {
+						return null;
+					}
+					return createIndex(indexFile);
+				}
+				if (indexedJarFileName.equals(jarFileName) && result.getLong(8) == lastModified
+						&& result.getLong(16) == fileSize) {
+					return init(result);
+				}
+				// index of a different jar with the same hash, size and modification time
+			}
+			catch (IOException e) {
+				SpringCore.log("Error reading type hierarchy index for '" + jarFileName + "'", e);
+				return null;
+			}
+		}
+		SpringCore.log("Too many type hierarchy index files with the hash of '" + jarFileName + "'", null);
+		return null;
+	}
+
+	private ByteBuffer createIndex(File indexFile) {
+		try {
+			writeIndex(indexFile, readJar());
+			deleteOutdatedIndexFiles(indexFile);
+			return init(map(indexFile));
+		}
+		catch (IOException e) {
+			SpringCore.log("Error writing type hierarchy index for '" + jarFileName + "'", e);
+			return null;
+		}
+	}
+
+	private ByteBuffer init(ByteBuffer buffer) {
+		int countPosition = 26 + buffer.getShort(24) * 2;
+		this.count = buffer.getInt(countPosition);
+		this.offsetsStart = countPosition + 4;
+		return buffer;
+	}
+
+	private File getIndexFile(int slot) {
+		String name = getIndexFilePrefix() + Long.toHexString(lastModified) + "-" + Long.toHexString(fileSize)
+				+ (slot > 0 ? "-" + slot : "") + INDEX_FILE_SUFFIX;
+		return new File(indexDirectory, name);
+	}
+
+	private String getIndexFilePrefix() {
+		return Integer.toHexString(jarFileName.hashCode()) + "-";
+	}
+
+	/**
+	 * Deletes the index files of other versions of this jar. Files of other jars with the same hash are kept.
+	 */
+	private void deleteOutdatedIndexFiles(File currentIndexFile) {
+		String prefix = getIndexFilePrefix();
+		File[] files = indexDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.getName().startsWith(prefix) && file.getName().endsWith(INDEX_FILE_SUFFIX)
+						&& !file.equals(currentIndexFile) && jarFileName.equals(readJarFileName(file))) {
+					// might still be mapped, failures are fine
+					file.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the path of the jar the given index belongs to, or <code>null</code> if the index is corrupt.
+	 */
+	private static String readJarFileName(ByteBuffer buffer) {
+		if (buffer.limit() < 26 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			return null;
+		}
+		int length = buffer.getShort(24);
+		if (length < 0 || buffer.limit() < 26 + length * 2 + 4) {
+			return null;
+		}
+		return new String(readChars(buffer, 24));
+	}
+
+	/**
+	 * Reads the path of the jar from the header of the given index file without mapping it.
+	 */
+	private static String readJarFileName(File indexFile) {
+		try {
+			RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+			try {
+				if (file.readInt() != MAGIC || file.readInt() != VERSION) {
+					return null;
+				}
+				file.seek(24);
+				int length = file.readShort();
+				if (length < 0) {
+					return null;
+				}
+				char[] chars = new char[length];
+				for (int i = 0; i < chars.length; i++) {
+					chars[i] = file.readChar();
+				}
+				return new String(chars);
+			}
+			finally {
+				file.close();
+			}
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	private List<TypeHierarchyElement> readJar() throws IOException {
+		List<TypeHierarchyElement> elements = new ArrayList<TypeHierarchyElement>();
+		BytecodeTypeHierarchyClassReader reader = new BytecodeTypeHierarchyClassReader(null);
+
+		JarFile jarFile = new JarFile(jarFileName);
+		try {
+			for (Enumeration<? extends ZipEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				ZipEntry entry = entries.nextElement();
+				String name = entry.getName();
+				if (entry.isDirectory() || !name.endsWith(CLASS_FILE_SUFFIX) || name.startsWith("META-INF/")) {
+					continue;
+				}
+
+				InputStream stream = jarFile.getInputStream(entry);
+				try {
+					TypeHierarchyElement element = reader.readTypeHierarchy(stream);
+					// make sure the element is stored under the name it is looked up with
+					if (element != null && name.length() == element.className.length + CLASS_FILE_SUFFIX.length()
+							&& name.startsWith(new String(element.className))) {
+						elements.add(element);
+					}
+				}
+				finally {
+					stream.close();
+				}
+			}
+		}
+		finally {
+			jarFile.close();
+		}
+		return elements;
+	}
+
+	private void writeIndex(File indexFile, List<TypeHierarchyElement> elements) throws IOException {
+		Collections.sort(elements, new Comparator<TypeHierarchyElement>() {
+			public int compare(TypeHierarchyElement o1, TypeHierarchyElement o2) {
+				return JarTypeHierarchyIndex.compare(o1.className, o2.className);
+			}
+		});
+
+		int headerSize = 26 + jarFileName.length() * 2 + 4;
+		int position = headerSize + elements.size() * 4;
+		int[] offsets = new int[elements.size()];
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = position;
+			position += recordSize(elements.get(i));
+		}
+
+		indexDirectory.mkdirs();
+		File tempFile = new File(indexDirectory, indexFile.getName() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(lastModified);
+			out.writeLong(fileSize);
+			writeChars(out, jarFileName.toCharArray());
+			out.writeInt(elements.size());
+			for (int offset : offsets) {
+				out.writeInt(offset);
+			}
+			for (TypeHierarchyElement element : elements) {
+				writeChars(out, element.className);
+				writeChars(out, element.superclassName);
+				if (element.interfaces == null) {
+					out.writeShort(0);
+				}
+				else {
+					out.writeShort(element.interfaces.length);
+					for (char[] interfaceName : element.interfaces) {
+						writeChars(out, interfaceName);
+					}
+				}
+			}
+		}
+		finally {
+			out.close();
+		}
+
+		if (!tempFile.renameTo(indexFile)) {
+			tempFile.delete();
+			throw new IOException("Unable to create index file '" + indexFile + "'");
+		}
+	}
+
+	private static ByteBuffer map(File indexFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally {
+			// the mapping stays valid after the channel got closed
+			file.close();
+		}
+	}
+
+	private static TypeHierarchyElement readElement(ByteBuffer buffer, int position) {
+		char[] className = readChars(buffer, position);
+		position += 2 + className.length * 2;
+
+		char[] superclassName = readChars(buffer, position);
+		position += 2 + (superclassName != null ? superclassName.length * 2 : 0);
+
+		char[][] interfaces = null;
+		int interfacesCount = buffer.getShort(position);
+		position += 2;
+		if (interfacesCount > 0) {
+			interfaces = new char[interfacesCount][];
+			for (int i = 0; i < interfacesCount; i++) {
+				interfaces[i] = readChars(buffer, position);
+				position += 2 + interfaces[i].length * 2;
+			}
+		}
+
+		return new TypeHierarchyElement(className, superclassName, interfaces, true);
+	}
+
+	private static int recordSize(TypeHierarchyElement element) {
+		int size = 2 + element.className.length * 2;
+		size += 2 + (element.superclassName != null ? element.superclassName.length * 2 : 0);
+		size += 2;
+		if (element.interfaces != null) {
+			for (char[] interfaceName : element.interfaces) {
+				size += 2 + interfaceName.length * 2;
+			}
+		}
+		return size;
+	}
+
+	private static void writeChars(DataOutputStream out, char[] chars) throws IOException {
+		if (chars == null) {
+			out.writeShort(-1);
+		}
+		else {
+			out.writeShort(chars.length);
+			for (char c : chars) {
+				out.writeChar(c);
+			}
+		}
+	}
+
+	private static char[] readChars(ByteBuffer buffer, int position) {
+		int length = buffer.getShort(position);
+		if (length < 0) {
+			return null;
+		}
+		char[] result = new char[length];
+		for (int i = 0; i < length; i++) {
+			result[i] = buffer.getChar(position + 2 + i * 2);
+		}
+		return result;
+	}
+
+	private static int compare(ByteBuffer buffer, int position, char[] chars) {
+		int length = buffer.getShort(position);
+		int min = Math.min(length, chars.length);
+		for (int i = 0; i < min; i++) {
+			char c = buffer.getChar(position + 2 + i * 2);
+			if (c != chars[i]) {
+				return c - chars[i];
+			}
+		}
+		return length - chars.length;
+	}
+
+	private static int compare(char[] chars1, char[] chars2) {
+		int min = Math.min(chars1.length, chars2.length);
+		for (int i = 0; i < min; i++) {
+			if (chars1[i] != chars2[i]) {
+				return chars1[i] - chars2[i];
+			}
+		}
+		return chars1.length - chars2.length;
+	}
+
+}
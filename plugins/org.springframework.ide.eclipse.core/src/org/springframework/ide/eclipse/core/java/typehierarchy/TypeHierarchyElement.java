@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Spring IDE Developers
+ * Copyright (c) 2013, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,9 +28,21 @@ public class TypeHierarchyElement {
 	public final char[][] interfaces;
 	public TypeHierarchyElement[] interfacesElements; // array initialized, but elements being set lazy
 	
+	/**
+	 * Shared elements are used by multiple projects at the same time (e.g. elements from a jar file that is
+	 * on the classpath of several projects). Their super types might resolve to different elements in each
+	 * project, therefore the lazy element links must not be set for shared elements.
+	 */
+	public final boolean shared;
+	
 	public TypeHierarchyElement(char[] className, char[] superclassName, char[][] interfaces) {
+		this(className, superclassName, interfaces, false);
+	}
+	
+	public TypeHierarchyElement(char[] className, char[] superclassName, char[][] interfaces, boolean shared) {
 		super();
 		this.className = className;
+		this.shared = shared;
 		this.superclassName = superclassName;
 		
 		this.interfaces = interfaces;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Spring IDE Developers
+ * Copyright (c) 2013, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,35 +10,102 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.java.typehierarchy;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
 
 /**
+ * Cache of {@link TypeHierarchyElement}s keyed by the fully qualified class name.
+ * <p>
+ * Implemented as an open addressing hash table that compares the full names, so classes with colliding hash
+ * codes never share an element. Lookups are lock-free, only additions are synchronized. Entries are never
+ * removed, the whole cache is thrown away instead.
+ *
  * @author Martin Lippert
  * @since 3.3.0
  */
 public class TypeHierarchyElementCache {
 	
-	private Map<Integer, TypeHierarchyElement> cache;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private volatile AtomicReferenceArray<Entry> table;
+	private int size;
 	
 	public TypeHierarchyElementCache() {
-		this.cache = new ConcurrentHashMap<Integer, TypeHierarchyElement>();
+		this.table = new AtomicReferenceArray<Entry>(INITIAL_CAPACITY);
 	}
 
 	public TypeHierarchyElement get(char[] fullyQualifiedClassName) {
-		return cache.get(charArrayToHashcode(fullyQualifiedClassName));
+		int hash = hash(fullyQualifiedClassName);
+		AtomicReferenceArray<Entry> table = this.table;
+		int mask = table.length() - 1;
+
+		for (int index = hash & mask; ; index = (index + 1) & mask) {
+			Entry entry = table.get(index);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.hash == hash && CharOperation.equals(entry.name, fullyQualifiedClassName)) {
+				return entry.element;
+			}
+		}
 	}
 
-	public void put(char[] fullyQualifiedClassName, TypeHierarchyElement typeElement) {
-		cache.put(charArrayToHashcode(fullyQualifiedClassName), typeElement);
+	public synchronized void put(char[] fullyQualifiedClassName, TypeHierarchyElement typeElement) {
+		int hash = hash(fullyQualifiedClassName);
+		AtomicReferenceArray<Entry> table = this.table;
+		int mask = table.length() - 1;
+
+		int index = hash & mask;
+		for (Entry entry = table.get(index); entry != null; entry = table.get(index)) {
+			if (entry.hash == hash && CharOperation.equals(entry.name, fullyQualifiedClassName)) {
+				table.set(index, new Entry(entry.name, hash, typeElement));
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+		table.set(index, new Entry(fullyQualifiedClassName, hash, typeElement));
+
+		// keep the load factor below 0.5 to keep probe sequences short
+		if (++size * 2 > table.length()) {
+			rehash(table);
+		}
 	}
 	
-	private int charArrayToHashcode(char[] characters) {
-		int h = 0;
-		for (int i = 0; i < characters.length; i++) {
-			h = 31*h + characters[i];
+	private void rehash(AtomicReferenceArray<Entry> oldTable) {
+		AtomicReferenceArray<Entry> newTable = new AtomicReferenceArray<Entry>(oldTable.length() * 2);
+		int mask = newTable.length() - 1;
+		for (int i = 0; i < oldTable.length(); i++) {
+			Entry entry = oldTable.get(i);
+			if (entry != null) {
+				int index = entry.hash & mask;
+				while (newTable.get(index) != null) {
+					index = (index + 1) & mask;
+				}
+				newTable.set(index, entry);
+			}
 		}
-        return h;
+		this.table = newTable;
+	}
+
+	private static int hash(char[] characters) {
+		int h = CharOperation.hashCode(characters);
+		// spread the bits, the table size is always a power of two
+		return h ^ (h >>> 16);
+	}
+	
+	private static class Entry {
+
+		private final char[] name;
+		private final int hash;
+		private final TypeHierarchyElement element;
+
+		public Entry(char[] name, int hash, TypeHierarchyElement element) {
+			this.name = name;
+			this.hash = hash;
+			this.element = element;
+		}
+
 	}
 
 }
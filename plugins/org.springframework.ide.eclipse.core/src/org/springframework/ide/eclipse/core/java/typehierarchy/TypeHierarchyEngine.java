@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Spring IDE Developers
+ * Copyright (c) 2013, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,11 @@
 package org.springframework.ide.eclipse.core.java.typehierarchy;
 
 import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IProject;
@@ -27,6 +31,7 @@ import org.eclipse.jdt.core.compiler.CharOperation;
 public class TypeHierarchyEngine {
 	
 	public static final String ENABLE_PROPERTY = "org.springframework.ide.eclipse.core.java.enableTypeHierarchyEngine";
+	public static final String ENABLE_INDEX_PROPERTY = "org.springframework.ide.eclipse.core.java.enableTypeHierarchyIndex";
 	
 	private TypeHierarchyClassReaderFactory classReaderFactory;
 	private TypeHierarchyElementCacheFactory elementCacheFactory;
@@ -118,6 +123,49 @@ public class TypeHierarchyEngine {
 		return null;
 	}
 
+	/**
+	 * Returns all superclasses and all directly or indirectly implemented interfaces of each of the given classes.
+	 * <p>
+	 * The hierarchy of all classes is walked in one go, so class files of shared supertypes are read only once.
+	 * Classes that can't be found on the classpath of the project map to an empty set.
+	 * @param classNames the fully qualified names of the classes
+	 * @return the fully qualified names of the supertypes by the name of the class, not including the class itself
+	 * @since 3.9.1
+	 */
+	public Map<String, Set<String>> getSupertypes(IProject project, Collection<String> classNames) {
+		Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+		try {
+			TypeHierarchyElementCache elementCache = getTypeHierarchyElementCache(project);
+			for (String className : classNames) {
+				Set<String> supertypes = new LinkedHashSet<String>();
+				ArrayDeque<char[]> queue = new ArrayDeque<char[]>();
+				queue.add(className.replace('.', '/').toCharArray());
+				while (!queue.isEmpty()) {
+					TypeHierarchyElement typeElement = getTypeElement(queue.poll(), project, elementCache);
+					if (typeElement == null) {
+						continue;
+					}
+					if (typeElement.superclassName != null
+							&& supertypes.add(new String(typeElement.superclassName).replace('/', '.'))) {
+						queue.add(typeElement.superclassName);
+					}
+					if (typeElement.interfaces != null) {
+						for (char[] interfaceName : typeElement.interfaces) {
+							if (supertypes.add(new String(interfaceName).replace('/', '.'))) {
+								queue.add(interfaceName);
+							}
+						}
+					}
+				}
+				result.put(className, supertypes);
+			}
+		}
+		finally {
+			if (autoCleanup) cleanup(project);
+		}
+		return result;
+	}
+
 	public boolean doesExtend(IType type, String className) {
 		IJavaElement ancestor = type.getAncestor(IJavaElement.JAVA_PROJECT);
 		if (ancestor != null && ancestor instanceof IJavaProject) {
@@ -144,7 +192,7 @@ public class TypeHierarchyEngine {
 				else {
 					if (typeElement == null) {
 						typeElement = getTypeElement(typeName, project, elementCache);
-						if (previousTypeElement != null) {
+						if (previousTypeElement != null && !previousTypeElement.shared) {
 							previousTypeElement.superclassElement = typeElement;
 						}
 					}
@@ -217,7 +265,9 @@ public class TypeHierarchyEngine {
 							if (!cachedItemsOnly || interfaceToAnalyzeElement != null || elementCache.get(interfaceToAnalyze) != null) {
 								if (interfaceToAnalyzeElement == null) {
 									interfaceToAnalyzeElement = getTypeElement(interfaceToAnalyze, project, elementCache);
-									element.interfacesElements[i] = interfaceToAnalyzeElement;
+									if (!element.shared) {
+										element.interfacesElements[i] = interfaceToAnalyzeElement;
+									}
 								}
 								if (interfaceToAnalyzeElement != null && interfaceToAnalyzeElement.interfaces != null) {
 									elementStack.add(interfaceToAnalyzeElement);
@@ -232,7 +282,9 @@ public class TypeHierarchyEngine {
 				TypeHierarchyElement superClassTypeElement = classTypeElement.superclassElement;
 				if (superClassTypeElement == null && classTypeName != null && (!cachedItemsOnly || elementCache.get(classTypeName) != null)) {
 					superClassTypeElement = getTypeElement(classTypeName, project, elementCache);
-					classTypeElement.superclassElement = superClassTypeElement;
+					if (!classTypeElement.shared) {
+						classTypeElement.superclassElement = superClassTypeElement;
+					}
 				}
 				
 				classTypeElement = superClassTypeElement;
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Workspace-wide registry of persistent {@link JarTypeHierarchyIndex} instances. The jar indexes are keyed by the
+ * path of the jar file and shared across all projects that reference the same jar. An index is replaced as soon as
+ * the last modification time or the size of the jar file changes.
+ *
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class TypeHierarchyIndex {
+
+	private final File indexDirectory;
+	private final ConcurrentMap<String, JarTypeHierarchyIndex> jarIndexes;
+
+	public TypeHierarchyIndex(File indexDirectory) {
+		this.indexDirectory = indexDirectory;
+		this.jarIndexes = new ConcurrentHashMap<String, JarTypeHierarchyIndex>();
+	}
+
+	/**
+	 * Returns the index for the given jar file, the index itself is loaded lazily on first access.
+	 */
+	public JarTypeHierarchyIndex getJarIndex(File jarFile) {
+		String jarFileName = jarFile.getAbsolutePath();
+		long lastModified = jarFile.lastModified();
+		long fileSize = jarFile.length();
+
+		while (true) {
+			JarTypeHierarchyIndex jarIndex = jarIndexes.get(jarFileName);
+			if (jarIndex != null && jarIndex.isValid(lastModified, fileSize)) {
+				return jarIndex;
+			}
+
+			// only one index per jar version, so concurrent callers don't write the same index file twice
+			JarTypeHierarchyIndex newIndex = new JarTypeHierarchyIndex(jarFileName, lastModified, fileSize,
+					indexDirectory);
+			if (jarIndex == null ? jarIndexes.putIfAbsent(jarFileName, newIndex) == null : jarIndexes.replace(
+					jarFileName, jarIndex, newIndex)) {
+				return newIndex;
+			}
+		}
+	}
+
+	/**
+	 * Drops the indexes of jars that don't exist anymore or have changed since their index was requested, so that
+	 * their mapped index files can be released.
+	 */
+	public void removeStaleIndexes() {
+		for (Map.Entry<String, JarTypeHierarchyIndex> entry : jarIndexes.entrySet()) {
+			File jarFile = new File(entry.getKey());
+			if (!jarFile.isFile() || !entry.getValue().isValid(jarFile.lastModified(), jarFile.length())) {
+				jarIndexes.remove(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	public void clear() {
+		jarIndexes.clear();
+	}
+
+}
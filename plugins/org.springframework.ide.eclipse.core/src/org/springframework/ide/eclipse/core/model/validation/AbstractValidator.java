@@ -10,16 +10,32 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.model.validation;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.springframework.ide.eclipse.core.MarkerUtils;
+import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinitionFactory;
 import org.springframework.ide.eclipse.core.model.IModelElement;
@@ -39,6 +55,12 @@ import org.springframework.ide.eclipse.core.project.IProjectContributorStateAwar
  */
 public abstract class AbstractValidator implements IValidator, IProjectContributorStateAware {
 
+	/** Interval in which the build thread checks for cancellation while waiting for parallel validation */
+	private static final long CANCELLATION_CHECK_MILLIS = 100;
+
+	/** Pool shared by all validators that validate their resources in parallel */
+	private static ValidationPool validationPool;
+
 	/** Internal state object */
 	private IProjectContributorState contributorState;
 
@@ -78,45 +100,218 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	 */
 	public final void validate(Set<IResource> affectedResources, int kind, IProgressMonitor monitor)
 			throws CoreException {
-		SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, affectedResources.size());
+		ValidationStatistics statistics = SpringCore.getValidationStatistics();
+		ValidationStatistics.Run run = statistics.startRun(getValidatorId() != null ? getValidatorId() : getClass()
+				.getName());
+		long start = System.nanoTime();
+
+		SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, affectedResources.size() * 2);
 		try {
-			for (IResource resource : affectedResources) {
-				String progressMessage = "Validating '" + resource.getFullPath().toString().substring(1) + "'";
-				reportProgress(progressMessage, subMonitor);
+			Map<IResource, Set<ValidationProblem>> problems;
+			int parallelism = getValidationParallelism();
+			Map<IResource, Set<ValidationRuleDefinition>> ruleDefinitions = null;
+			if (parallelism > 1 && affectedResources.size() > 1 && supportsParallelValidation()) {
+				ruleDefinitions = getThreadSafeRuleDefinitions(affectedResources);
+			}
+			if (ruleDefinitions != null) {
+				problems = validateInParallel(ruleDefinitions, kind, parallelism, run, subMonitor);
+			}
+			else {
+				problems = validateSerially(affectedResources, kind, run, subMonitor);
+			}
+			updateProblemMarkers(problems, subMonitor);
 
-				cleanup(resource, subMonitor);
-				if (subMonitor.isCanceled()) {
-					throw new OperationCanceledException();
+			if (run != null) {
+				for (Set<ValidationProblem> resourceProblems : problems.values()) {
+					run.getValidator().addProblems(resourceProblems.size());
 				}
+			}
+		}
+		finally {
+			subMonitor.done();
+			if (run != null) {
+				statistics.finishRun(run, System.nanoTime() - start);
+			}
+		}
+	}
 
-				IValidationElementLifecycleManager callback = initValidationElementCallback(resource, kind);
+	private Map<IResource, Set<ValidationProblem>> validateSerially(Set<IResource> affectedResources, int kind,
+			ValidationStatistics.Run run, IProgressMonitor monitor) {
+		Map<IResource, Set<ValidationProblem>> problems = new LinkedHashMap<IResource, Set<ValidationProblem>>();
+		for (IResource resource : affectedResources) {
+			String progressMessage = "Validating '" + resource.getFullPath().toString().substring(1) + "'";
+			reportProgress(progressMessage, monitor);
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
 
-				IResourceModelElement rootElement = callback.getRootElement();
+			problems.put(resource, validate(resource, getRuleDefinitions(resource), kind, run, monitor));
 
-				// Check if resource model element is external to the workspace -> if so, do not validate the resource
-				if (rootElement != null && rootElement.isExternal()) {
-					monitor.worked(1);
-					break;
-				}
+			monitor.worked(1);
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+		}
+		return problems;
+	}
 
-				Set<ValidationRuleDefinition> ruleDefinitions = getRuleDefinitions(resource);
-				if (rootElement != null && ruleDefinitions != null && ruleDefinitions.size() > 0) {
-					Set<ValidationProblem> problems = validate(callback, ruleDefinitions, subMonitor);
-					ValidationUtils.createProblemMarkers(resource, problems, getMarkerId());
+	/**
+	 * Returns the rule definitions of every given resource or <code>null</code> if any of the enabled rules is not
+	 * {@link ValidationRuleDefinition#isThreadSafe() thread-safe}. The rule definitions are resolved on the build
+	 * thread as resolving them reads the project's preferences into the shared definitions.
+	 */
+	private Map<IResource, Set<ValidationRuleDefinition>> getThreadSafeRuleDefinitions(Set<IResource> affectedResources) {
+		Map<IResource, Set<ValidationRuleDefinition>> ruleDefinitions = new LinkedHashMap<IResource, Set<ValidationRuleDefinition>>();
+		for (IResource resource : affectedResources) {
+			Set<ValidationRuleDefinition> resourceRuleDefinitions = getRuleDefinitions(resource);
+			if (resourceRuleDefinitions != null) {
+				for (ValidationRuleDefinition ruleDefinition : resourceRuleDefinitions) {
+					if (!ruleDefinition.isThreadSafe()) {
+						return null;
+					}
 				}
+			}
+			ruleDefinitions.put(resource, resourceRuleDefinitions);
+		}
+		return ruleDefinitions;
+	}
 
-				// call close on callback to execute any required resource cleanup in template
-				callback.destroy();
+	/**
+	 * Validates the given resources concurrently on the shared validation pool. Every resource is validated by its
+	 * own task with its own {@link IValidationElementLifecycleManager}, {@link IValidationContext}s and progress
+	 * monitor. Only the build thread reports against the given <code>monitor</code>; it forwards cancellation to the
+	 * tasks while waiting for their results.
+	 */
+	private Map<IResource, Set<ValidationProblem>> validateInParallel(
+			Map<IResource, Set<ValidationRuleDefinition>> ruleDefinitions, int kind, int parallelism,
+			ValidationStatistics.Run run, IProgressMonitor monitor) {
+		ValidationPool pool = acquireValidationPool(parallelism);
+		List<ResourceValidationTask> tasks = new ArrayList<ResourceValidationTask>();
+		try {
+			for (Map.Entry<IResource, Set<ValidationRuleDefinition>> entry : ruleDefinitions.entrySet()) {
+				ResourceValidationTask task = new ResourceValidationTask(entry.getKey(), entry.getValue(), kind, run);
+				tasks.add(task);
+				pool.getPool().execute(task);
+			}
 
-				subMonitor.worked(1);
-				if (subMonitor.isCanceled()) {
-					throw new OperationCanceledException();
+			Map<IResource, Set<ValidationProblem>> problems = new LinkedHashMap<IResource, Set<ValidationProblem>>();
+			for (ResourceValidationTask task : tasks) {
+				String progressMessage = "Validating '" + task.resource.getFullPath().toString().substring(1) + "'";
+				reportProgress(progressMessage, monitor);
+				problems.put(task.resource, awaitResult(task, monitor));
+				monitor.worked(1);
+			}
+			return problems;
+		}
+		finally {
+			for (ResourceValidationTask task : tasks) {
+				task.monitor.setCanceled(true);
+				task.cancel(false);
+			}
+			releaseValidationPool(pool);
+		}
+	}
+
+	/**
+	 * Waits for the result of the given task and checks the given <code>monitor</code> for cancellation meanwhile.
+	 */
+	private Set<ValidationProblem> awaitResult(ResourceValidationTask task, IProgressMonitor monitor) {
+		while (true) {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			try {
+				return task.get(CANCELLATION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException e) {
+				// check for cancellation and wait again
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			}
+			catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
 				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Validates a single resource and returns the found problems.
+	 */
+	private Set<ValidationProblem> validate(IResource resource, Set<ValidationRuleDefinition> ruleDefinitions,
+			int kind, ValidationStatistics.Run run, IProgressMonitor monitor) {
+		IValidationElementLifecycleManager callback = initValidationElementCallback(resource, kind);
+		try {
+			IResourceModelElement rootElement = callback.getRootElement();
+
+			// Check if resource model element is external to the workspace -> if so, do not validate the resource
+			if (rootElement != null && rootElement.isExternal()) {
+				return Collections.emptySet();
 			}
+
+			if (rootElement != null && ruleDefinitions != null && ruleDefinitions.size() > 0) {
+				return validate(callback, ruleDefinitions, run, monitor);
+			}
+			return Collections.emptySet();
 		}
 		finally {
-			subMonitor.done();
+			// call close on callback to execute any required resource cleanup in template
+			callback.destroy();
+		}
+	}
+
+	/**
+	 * Brings the markers of all validated resources in line with the found problems. Runs as a single workspace
+	 * operation so that only one resource change event gets fired.
+	 */
+	private void updateProblemMarkers(final Map<IResource, Set<ValidationProblem>> problems,
+			final IProgressMonitor monitor) throws CoreException {
+		IWorkspaceRunnable markerUpdate = new IWorkspaceRunnable() {
+
+			public void run(IProgressMonitor workspaceMonitor) throws CoreException {
+				for (Map.Entry<IResource, Set<ValidationProblem>> entry : problems.entrySet()) {
+					IResource resource = entry.getKey();
+					if (resource.isAccessible()) {
+						ValidationUtils.updateProblemMarkers(resource, entry.getValue(), getMarkerId(),
+								getProblemMarkers(resource));
+					}
+					monitor.worked(1);
+				}
+			}
+		};
+		ResourcesPlugin.getWorkspace().run(markerUpdate, null, IWorkspace.AVOID_UPDATE, null);
+	}
+
+	/**
+	 * Returns the shared validation pool with the given parallelism. A pool that gets replaced because the
+	 * parallelism preference changed is shut down once the last validation that still uses it is finished.
+	 */
+	private static synchronized ValidationPool acquireValidationPool(int parallelism) {
+		if (validationPool == null || validationPool.getPool().getParallelism() != parallelism) {
+			if (validationPool != null) {
+				validationPool.retire();
+			}
+			validationPool = new ValidationPool(parallelism);
 		}
+		validationPool.acquire();
+		return validationPool;
+	}
+
+	private static synchronized void releaseValidationPool(ValidationPool pool) {
+		pool.release();
+	}
+
+	private int getValidationParallelism() {
+		SpringCore plugin = SpringCore.getDefault();
+		return (plugin != null ? plugin.getPluginPreferences().getInt(SpringCore.VALIDATION_PARALLELISM) : 1);
 	}
 
 	private IValidationElementLifecycleManager initValidationElementCallback(IResource resource, int kind) {
@@ -129,7 +324,7 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	}
 
 	private Set<ValidationProblem> validate(IValidationElementLifecycleManager callback,
-			Set<ValidationRuleDefinition> ruleDefinitions, SubProgressMonitor subMonitor) {
+			Set<ValidationRuleDefinition> ruleDefinitions, ValidationStatistics.Run run, IProgressMonitor subMonitor) {
 		Set<ValidationProblem> problems = new LinkedHashSet<ValidationProblem>();
 		for (IResourceModelElement contextElement : callback.getContextElements()) {
 			IValidationContext context = createContext(callback.getRootElement(), contextElement);
@@ -138,7 +333,7 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 			}
 
 			if (context != null) {
-				IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions);
+				IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions, run);
 				callback.getRootElement().accept(visitor, subMonitor);
 				problems.addAll(context.getProblems());
 			}
@@ -149,6 +344,29 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 		return problems;
 	}
 
+	/**
+	 * Returns the {@link IMarker validation markers} that this validator created for the given resource and that
+	 * {@link #cleanup(IResource, IProgressMonitor)} would remove. After validation these markers are updated to
+	 * reflect the new problems. Sub classes that override {@link #cleanup(IResource, IProgressMonitor)} must
+	 * override this method accordingly.
+	 * @since 3.9.1
+	 */
+	protected List<IMarker> getProblemMarkers(IResource resource) throws CoreException {
+		return Arrays.asList(resource.findMarkers(getMarkerId(), true, IResource.DEPTH_INFINITE));
+	}
+
+	/**
+	 * Returns <code>true</code> if this validator can validate several resources at the same time. Validators that
+	 * return <code>true</code> must not change any state of their own during validation and must create a new
+	 * {@link IValidationElementLifecycleManager} and new {@link IValidationContext}s on every call. Resources are
+	 * only validated in parallel if all enabled rules are declared {@link ValidationRuleDefinition#isThreadSafe()
+	 * thread-safe}.
+	 * @since 3.9.1
+	 */
+	protected boolean supportsParallelValidation() {
+		return false;
+	}
+
 	/**
 	 * Returns a newly created {@link IValidationContext} for the given {@link IResourceModelElement root element} and
 	 * it's {@link IResourceModelElement context element}.
@@ -248,6 +466,92 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 		return true;
 	}
 
+	/**
+	 * Shared {@link ForkJoinPool} that counts the validations using it.
+	 */
+	private static final class ValidationPool {
+
+		private final ForkJoinPool pool;
+
+		private int users;
+
+		private boolean retired;
+
+		public ValidationPool(int parallelism) {
+			this.pool = new ForkJoinPool(parallelism);
+		}
+
+		public ForkJoinPool getPool() {
+			return pool;
+		}
+
+		public void acquire() {
+			users++;
+		}
+
+		public void release() {
+			users--;
+			if (retired && users == 0) {
+				pool.shutdown();
+			}
+		}
+
+		public void retire() {
+			retired = true;
+			if (users == 0) {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Validates a single resource on the validation pool. Every task gets its own progress monitor that is only
+	 * used to forward cancellation from the build thread.
+	 */
+	private final class ResourceValidationTask extends RecursiveTask<Set<ValidationProblem>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IResource resource;
+
+		private final Set<ValidationRuleDefinition> ruleDefinitions;
+
+		private final int kind;
+
+		private final ValidationStatistics.Run run;
+
+		private final IProgressMonitor monitor = new NullProgressMonitor() {
+
+			private volatile boolean canceled;
+
+			@Override
+			public boolean isCanceled() {
+				return canceled;
+			}
+
+			@Override
+			public void setCanceled(boolean canceled) {
+				this.canceled = canceled;
+			}
+		};
+
+		public ResourceValidationTask(IResource resource, Set<ValidationRuleDefinition> ruleDefinitions, int kind,
+				ValidationStatistics.Run run) {
+			this.resource = resource;
+			this.ruleDefinitions = ruleDefinitions;
+			this.kind = kind;
+			this.run = run;
+		}
+
+		@Override
+		protected Set<ValidationProblem> compute() {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			return validate(resource, ruleDefinitions, kind, run, monitor);
+		}
+	}
+
 	/**
 	 * {@link IModelElementVisitor} implementation that validates a specified model tree.
 	 */
@@ -257,14 +561,29 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 
 		private Set<ValidationRuleDefinition> ruleDefinitions;
 
+		private ValidationStatistics.Run run;
+
 		public ValidationVisitor(IValidationContext context, Set<ValidationRuleDefinition> ruleDefinitions) {
+			this(context, ruleDefinitions, null);
+		}
+
+		/**
+		 * @param run the run to record timing and counters against or <code>null</code> if statistics are disabled
+		 * @since 3.9.1
+		 */
+		public ValidationVisitor(IValidationContext context, Set<ValidationRuleDefinition> ruleDefinitions,
+				ValidationStatistics.Run run) {
 			this.ruleDefinitions = ruleDefinitions;
 			this.context = context;
+			this.run = run;
 		}
 
 		@SuppressWarnings("unchecked")
 		public boolean visit(IModelElement element, IProgressMonitor monitor) {
 			if (supports(element) && shouldValidate(element, context)) {
+				if (run != null) {
+					run.getValidator().addElements(1);
+				}
 				SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, ruleDefinitions.size());
 				try {
 					for (ValidationRuleDefinition ruleDefinition : ruleDefinitions) {
@@ -274,10 +593,15 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 						String progressMessage = "Validating element '" + element.getElementName() + "' with rule '" + ruleDefinition.getName() + "'";
 						reportProgress(progressMessage, subMonitor);
 
-						IValidationRule rule = ruleDefinition.getRule();
-						if (rule.supports(element, context)) {
-							context.setCurrentRuleDefinition(ruleDefinition);
-							rule.validate(element, context, monitor);
+						if (run != null) {
+							validateWithStatistics(element, ruleDefinition, monitor);
+						}
+						else {
+							IValidationRule rule = ruleDefinition.getRule();
+							if (rule.supports(element, context)) {
+								context.setCurrentRuleDefinition(ruleDefinition);
+								rule.validate(element, context, monitor);
+							}
 						}
 						subMonitor.worked(1);
 					}
@@ -289,5 +613,25 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 			}
 			return false;
 		}
+
+		@SuppressWarnings("unchecked")
+		private void validateWithStatistics(IModelElement element, ValidationRuleDefinition ruleDefinition,
+				IProgressMonitor monitor) {
+			long start = System.nanoTime();
+			int problemCount = context.getProblems().size();
+			boolean invoked = false;
+			try {
+				IValidationRule rule = ruleDefinition.getRule();
+				if (rule.supports(element, context)) {
+					invoked = true;
+					context.setCurrentRuleDefinition(ruleDefinition);
+					rule.validate(element, context, monitor);
+				}
+			}
+			finally {
+				run.getRule(ruleDefinition.getId()).record(System.nanoTime() - start, invoked,
+						context.getProblems().size() - problemCount);
+			}
+		}
 	}
 }
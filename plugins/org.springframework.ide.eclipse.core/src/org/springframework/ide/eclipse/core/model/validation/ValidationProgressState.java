@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.model.validation;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Simple holder to report validation progress against. 
  * @author Christian Dupuis
@@ -18,46 +20,47 @@ package org.springframework.ide.eclipse.core.model.validation;
  */
 class ValidationProgressState {
 
-	private int errorCount = 0;
+	// atomic counters as validators might run in parallel
+	private final AtomicInteger errorCount = new AtomicInteger();
 
-	private int infoCount = 0;
+	private final AtomicInteger infoCount = new AtomicInteger();
 
-	private int warningCount = 0;
+	private final AtomicInteger warningCount = new AtomicInteger();
 
 	public void incrementErrorCount() {
-		errorCount++;
+		errorCount.incrementAndGet();
 	}
 
 	public void incrementErrorCountBy(int n) {
-		errorCount += n;
+		errorCount.addAndGet(n);
 	}
 
 	public void incrementInfoCount() {
-		infoCount++;
+		infoCount.incrementAndGet();
 	}
 
 	public void incrementInfoCountBy(int n) {
-		infoCount += n;
+		infoCount.addAndGet(n);
 	}
 
 	public void incrementWarningCount() {
-		warningCount++;
+		warningCount.incrementAndGet();
 	}
 
 	public void incrementWarningCountBy(int n) {
-		warningCount += n;
+		warningCount.addAndGet(n);
 	}
 
 	protected int getErrorCount() {
-		return errorCount;
+		return errorCount.get();
 	}
 
 	protected int getInfoCount() {
-		return infoCount;
+		return infoCount.get();
 	}
 
 	protected int getWarningCount() {
-		return warningCount;
+		return warningCount.get();
 	}
 
 }
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Collects timing and counters of the validation pipeline per {@link IValidator validator} and per
+ * {@link IValidationRule validation rule}.
+ * <p>
+ * The numbers of the last run of every validator are kept next to the cumulated numbers of all runs since startup
+ * (or the last {@link #reset()}). Collection is only enabled if the debug option {@link #DEBUG_OPTION} is set; the
+ * numbers of each run are then written to the plugin's log, and the cumulated numbers are written to
+ * <code>validation-statistics.json</code> in the plugin's state location on shutdown. They can be exported on
+ * demand with {@link #writeJson(File)}.
+ * @author Martin Lippert
+ * @since 3.9.1
+ * @see SpringCore#getValidationStatistics()
+ */
+public class ValidationStatistics {
+
+	public static final String DEBUG_OPTION = SpringCore.PLUGIN_ID + "/model/validation/statistics";
+
+	private final boolean enabled;
+
+	private final ConcurrentMap<String, Run> lastRuns = new ConcurrentHashMap<String, Run>();
+
+	private final ConcurrentMap<String, Run> totals = new ConcurrentHashMap<String, Run>();
+
+	public ValidationStatistics(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts recording a new run of the given validator or returns <code>null</code> if statistics are disabled.
+	 */
+	public Run startRun(String validatorId) {
+		return (enabled ? new Run(validatorId) : null);
+	}
+
+	/**
+	 * Finishes the given run and adds its numbers to the cumulated ones.
+	 */
+	public void finishRun(Run run, long nanos) {
+		run.validator.time.addAndGet(nanos);
+		run.validator.invocations.incrementAndGet();
+		lastRuns.put(run.validatorId, run);
+
+		Run total = totals.get(run.validatorId);
+		if (total == null) {
+			Run newTotal = new Run(run.validatorId);
+			total = totals.putIfAbsent(run.validatorId, newTotal);
+			if (total == null) {
+				total = newTotal;
+			}
+		}
+		total.add(run);
+
+		SpringCore.log(new Status(IStatus.INFO, SpringCore.PLUGIN_ID, String.format("Validation statistics: %s",
+				run)));
+	}
+
+	/**
+	 * Returns the numbers of the last run of the given validator or <code>null</code> if it didn't run yet.
+	 */
+	public Run getLastRun(String validatorId) {
+		return lastRuns.get(validatorId);
+	}
+
+	/**
+	 * Returns the cumulated numbers of all runs of the given validator or <code>null</code> if it didn't run yet.
+	 */
+	public Run getTotal(String validatorId) {
+		return totals.get(validatorId);
+	}
+
+	public void reset() {
+		lastRuns.clear();
+		totals.clear();
+	}
+
+	/**
+	 * Returns the last and the cumulated numbers of all validators as JSON document.
+	 */
+	public String toJson() {
+		StringBuilder builder = new StringBuilder("{\n  \"lastRuns\": ");
+		appendJson(builder, lastRuns);
+		builder.append(",\n  \"totals\": ");
+		appendJson(builder, totals);
+		builder.append("\n}\n");
+		return builder.toString();
+	}
+
+	/**
+	 * Writes the {@link #toJson() JSON document} to the given file.
+	 */
+	public void writeJson(File file) throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			writer.write(toJson());
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private static void appendJson(StringBuilder builder, Map<String, Run> runs) {
+		builder.append("[");
+		String separator = "\n";
+		for (Run run : new TreeMap<String, Run>(runs).values()) {
+			builder.append(separator).append("    {");
+			appendJson(builder, "validator", run.validator);
+			builder.append(", \"rules\": [");
+			String ruleSeparator = "\n";
+			for (Counters rule : new TreeMap<String, Counters>(run.rules).values()) {
+				builder.append(ruleSeparator).append("      {");
+				appendJson(builder, "rule", rule);
+				builder.append("}");
+				ruleSeparator = ",\n";
+			}
+			builder.append("]}");
+			separator = ",\n";
+		}
+		builder.append("]");
+	}
+
+	private static void appendJson(StringBuilder builder, String kind, Counters counters) {
+		builder.append("\"").append(kind).append("\": \"").append(escape(counters.id)).append("\"");
+		builder.append(", \"timeMillis\": ").append(counters.getTimeMillis());
+		builder.append(", \"invocations\": ").append(counters.getInvocations());
+		builder.append(", \"elements\": ").append(counters.getElements());
+		builder.append(", \"problems\": ").append(counters.getProblems());
+	}
+
+	private static String escape(String value) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				builder.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Numbers of a single run (or all runs) of a validator and its rules. Safe to be updated concurrently.
+	 */
+	public static class Run {
+
+		private final String validatorId;
+
+		private final Counters validator;
+
+		private final ConcurrentMap<String, Counters> rules = new ConcurrentHashMap<String, Counters>();
+
+		private Run(String validatorId) {
+			this.validatorId = validatorId;
+			this.validator = new Counters(validatorId);
+		}
+
+		public Counters getValidator() {
+			return validator;
+		}
+
+		public Counters getRule(String ruleId) {
+			Counters counters = rules.get(ruleId);
+			if (counters == null) {
+				Counters newCounters = new Counters(ruleId);
+				counters = rules.putIfAbsent(ruleId, newCounters);
+				if (counters == null) {
+					counters = newCounters;
+				}
+			}
+			return counters;
+		}
+
+		public Map<String, Counters> getRules() {
+			return new TreeMap<String, Counters>(rules);
+		}
+
+		private void add(Run run) {
+			validator.add(run.validator);
+			for (Counters rule : run.rules.values()) {
+				getRule(rule.id).add(rule);
+			}
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder(validator.toString());
+			for (Counters rule : getRules().values()) {
+				builder.append("\n    ").append(rule);
+			}
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * Wall time, invocation, element and problem counters of a validator or a rule.
+	 */
+	public static class Counters {
+
+		private final String id;
+
+		private final AtomicLong time = new AtomicLong();
+
+		private final AtomicLong invocations = new AtomicLong();
+
+		private final AtomicLong elements = new AtomicLong();
+
+		private final AtomicLong problems = new AtomicLong();
+
+		private Counters(String id) {
+			this.id = id;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public long getTimeMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(time.get());
+		}
+
+		public long getInvocations() {
+			return invocations.get();
+		}
+
+		public long getElements() {
+			return elements.get();
+		}
+
+		public long getProblems() {
+			return problems.get();
+		}
+
+		/**
+		 * Records the validation of a single element that took the given time and reported the given number of
+		 * problems.
+		 */
+		public void record(long nanos, boolean invoked, int problemCount) {
+			time.addAndGet(nanos);
+			elements.incrementAndGet();
+			if (invoked) {
+				invocations.incrementAndGet();
+			}
+			problems.addAndGet(problemCount);
+		}
+
+		public void addElements(int count) {
+			elements.addAndGet(count);
+		}
+
+		public void addProblems(int count) {
+			problems.addAndGet(count);
+		}
+
+		private void add(Counters counters) {
+			time.addAndGet(counters.time.get());
+			invocations.addAndGet(counters.invocations.get());
+			elements.addAndGet(counters.elements.get());
+			problems.addAndGet(counters.problems.get());
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %dms, %d invocations, %d elements, %d problems", id, getTimeMillis(),
+					getInvocations(), getElements(), getProblems());
+		}
+	}
+
+}
@@ -10,7 +10,10 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.model.validation;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -75,47 +78,196 @@ public final class ValidationUtils {
 
 				// Create new marker
 				IMarker marker = resource.createMarker(markerId);
-				Map<String, Object> attributes = new HashMap<String, Object>();
-				attributes.put(IMarker.MESSAGE, problem.getMessage());
-				attributes.put(IMarker.SEVERITY, new Integer(problem.getSeverity()));
-
-				// Store the originating resource reference in marker so that
-				// the marker can later on be deleted with a reference from the
-				// initial resource
-				attributes.put(MarkerUtils.ORIGINATING_RESOURCE_KEY, originatingResource.getFullPath().toString());
-				if (problem.getLine() > 0) {
-					attributes.put(IMarker.LINE_NUMBER, new Integer(problem.getLine()));
+				marker.setAttributes(createMarkerAttributes(originatingResource, problem));
+			}
+			catch (CoreException e) {
+				SpringCore.log(e);
+			}
+		}
+	}
+
+	/**
+	 * Updates the given existing {@link IMarker validation markers} of the specified resource to reflect the given
+	 * validation problems.
+	 * <p>
+	 * Instead of deleting and recreating all markers only the markers of problems that went away are deleted and
+	 * markers are only created for new problems; markers for unchanged problems (same resource, type, message, line,
+	 * rule id and attributes) are left untouched. Callers should run this within a single workspace operation.
+	 * @param existingMarkers the markers that have been created for the specified resource during the last validation
+	 * @since 3.9.1
+	 */
+	public static void updateProblemMarkers(IResource resource, Set<ValidationProblem> problems, String markerId,
+			Collection<IMarker> existingMarkers) {
+		Map<MarkerKey, List<IMarker>> unmatchedMarkers = new HashMap<MarkerKey, List<IMarker>>();
+		for (IMarker marker : existingMarkers) {
+			try {
+				if (marker.exists()) {
+					MarkerKey key = new MarkerKey(marker.getResource(), marker.getType(), marker.getAttributes());
+					List<IMarker> markers = unmatchedMarkers.get(key);
+					if (markers == null) {
+						markers = new ArrayList<IMarker>(1);
+						unmatchedMarkers.put(key, markers);
+					}
+					markers.add(marker);
 				}
-				if (problem.getErrorId() != null) {
-					attributes.put(IValidationProblemMarker.ERROR_ID, problem.getErrorId());
+			}
+			catch (CoreException e) {
+				SpringCore.log(e);
+			}
+		}
+
+		if (problems != null) {
+			Set<IMarker> ownMarkers = new HashSet<IMarker>(existingMarkers);
+			Map<IResource, IMarker[]> foreignMarkers = new HashMap<IResource, IMarker[]>();
+			Set<MarkerKey> reportedProblems = new HashSet<MarkerKey>();
+			for (ValidationProblem problem : problems) {
+				// Don't install problems that are configured to get ignored
+				if (problem.getSeverity() < 0) {
+					continue;
 				}
-				if (problem.getRuleId() != null) {
-					attributes.put(IValidationProblemMarker.RULE_ID, problem.getRuleId());
+
+				IResource markerResource = (problem.getResource() != null ? problem.getResource() : resource);
+				if (markerResource == null || !markerResource.isAccessible()) {
+					continue;
 				}
 
-				// Add validation attributes to the list of marker attributes
-				for (ValidationProblemAttribute attribute : problem.getAttributes()) {
-					Object value = attribute.getValue();
-
-					// Marker can only handle value of type String, Integer or Boolean
-					if (value instanceof String || value instanceof Integer || value instanceof Boolean) {
-						attributes.put(attribute.getKey(), value);
-					} else if (value instanceof List<?>) {
-						int counter = 1;
-						for(Object v: (List<?>) value) {
-							if (v instanceof String || value instanceof Integer || value instanceof Boolean) {
-								attributes.put(attribute.getKey() + counter, v);
-								counter++;
-							}
-						}
+				// Only one marker per resource, line and message, as createProblemMarker does
+				Map<String, Object> location = new HashMap<String, Object>();
+				location.put(IMarker.LINE_NUMBER, problem.getLine());
+				location.put(IMarker.MESSAGE, problem.getMessage());
+				if (!reportedProblems.add(new MarkerKey(markerResource, markerId, location))
+						|| isReportedByOtherMarker(markerResource, problem, markerId, ownMarkers, foreignMarkers)) {
+					continue;
+				}
+
+				Map<String, Object> attributes = createMarkerAttributes(resource, problem);
+				List<IMarker> markers = unmatchedMarkers.get(new MarkerKey(markerResource, markerId, attributes));
+				if (markers != null && markers.size() > 0) {
+					// Marker is already there, keep it
+					markers.remove(markers.size() - 1);
+				}
+				else {
+					try {
+						IMarker marker = markerResource.createMarker(markerId);
+						marker.setAttributes(attributes);
+					}
+					catch (CoreException e) {
+						SpringCore.log(e);
 					}
 				}
+			}
+		}
 
-				marker.setAttributes(attributes);
+		for (List<IMarker> markers : unmatchedMarkers.values()) {
+			for (IMarker marker : markers) {
+				try {
+					marker.delete();
+				}
+				catch (CoreException e) {
+					SpringCore.log(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if a marker that doesn't belong to the given existing markers (e.g. one that originates from another
+	 * resource) already reports the given problem.
+	 */
+	private static boolean isReportedByOtherMarker(IResource resource, ValidationProblem problem, String markerId,
+			Set<IMarker> existingMarkers, Map<IResource, IMarker[]> markerCache) {
+		IMarker[] markers = markerCache.get(resource);
+		if (markers == null) {
+			try {
+				markers = resource.findMarkers(markerId, false, IResource.DEPTH_ZERO);
 			}
 			catch (CoreException e) {
-				SpringCore.log(e);
+				markers = new IMarker[0];
+			}
+			markerCache.put(resource, markers);
+		}
+		for (IMarker marker : markers) {
+			if (!existingMarkers.contains(marker) && marker.getAttribute(IMarker.LINE_NUMBER, -1) == problem.getLine()
+					&& marker.getAttribute(IMarker.MESSAGE, "").equals(problem.getMessage())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Map<String, Object> createMarkerAttributes(IResource originatingResource, ValidationProblem problem) {
+		Map<String, Object> attributes = new HashMap<String, Object>();
+		attributes.put(IMarker.MESSAGE, problem.getMessage());
+		attributes.put(IMarker.SEVERITY, new Integer(problem.getSeverity()));
+
+		// Store the originating resource reference in marker so that
+		// the marker can later on be deleted with a reference from the
+		// initial resource
+		attributes.put(MarkerUtils.ORIGINATING_RESOURCE_KEY, originatingResource.getFullPath().toString());
+		if (problem.getLine() > 0) {
+			attributes.put(IMarker.LINE_NUMBER, new Integer(problem.getLine()));
+		}
+		if (problem.getErrorId() != null) {
+			attributes.put(IValidationProblemMarker.ERROR_ID, problem.getErrorId());
+		}
+		if (problem.getRuleId() != null) {
+			attributes.put(IValidationProblemMarker.RULE_ID, problem.getRuleId());
+		}
+
+		// Add validation attributes to the list of marker attributes
+		for (ValidationProblemAttribute attribute : problem.getAttributes()) {
+			Object value = attribute.getValue();
+
+			// Marker can only handle value of type String, Integer or Boolean
+			if (value instanceof String || value instanceof Integer || value instanceof Boolean) {
+				attributes.put(attribute.getKey(), value);
+			} else if (value instanceof List<?>) {
+				int counter = 1;
+				for(Object v: (List<?>) value) {
+					if (v instanceof String || value instanceof Integer || value instanceof Boolean) {
+						attributes.put(attribute.getKey() + counter, v);
+						counter++;
+					}
+				}
 			}
 		}
+
+		return attributes;
+	}
+
+	/**
+	 * Identifies a marker by its resource, type and attributes.
+	 */
+	private static class MarkerKey {
+
+		private final IResource resource;
+
+		private final String type;
+
+		private final Map<String, Object> attributes;
+
+		@SuppressWarnings("unchecked")
+		public MarkerKey(IResource resource, String type, Map<?, ?> attributes) {
+			this.resource = resource;
+			this.type = type;
+			this.attributes = (attributes != null ? (Map<String, Object>) attributes : new HashMap<String, Object>());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MarkerKey)) {
+				return false;
+			}
+			MarkerKey other = (MarkerKey) obj;
+			return resource.equals(other.resource) && type.equals(other.type) && attributes.equals(other.attributes);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * resource.hashCode() + type.hashCode()) + attributes.hashCode();
+		}
 	}
 }
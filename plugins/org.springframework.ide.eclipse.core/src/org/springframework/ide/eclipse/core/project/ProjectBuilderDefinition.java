@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 Spring IDE Developers
+ * Copyright (c) 2007, 2016 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,6 +36,8 @@ public class ProjectBuilderDefinition extends PersistablePreferenceObjectSupport
 
 	private static final String CLASS_ATTRIBUTE = "class";
 
+	private static final String DEPENDS_ON_ATTRIBUTE = "dependsOn";
+
 	private static final String DESCRIPTION_ATTRIBUTE = "description";
 
 	private static final String ENABLED_BY_DEFAULT_ATTRIBUTE = "enabledByDefault";
@@ -48,6 +50,10 @@ public class ProjectBuilderDefinition extends PersistablePreferenceObjectSupport
 
 	private static final String ORDER_ATTRIBUTE = "order";
 
+	private static final String PARALLEL_ATTRIBUTE = "parallel";
+
+	private Set<String> dependsOn;
+
 	private String description;
 
 	private String iconUri;
@@ -60,6 +66,8 @@ public class ProjectBuilderDefinition extends PersistablePreferenceObjectSupport
 
 	private Long order;
 
+	private boolean parallel;
+
 	private IProjectBuilder projectBuilder;
 	
 	public ProjectBuilderDefinition(IConfigurationElement element) throws Exception {
@@ -93,6 +101,14 @@ public class ProjectBuilderDefinition extends PersistablePreferenceObjectSupport
 		}
 	}
 
+	/**
+	 * Returns the ids of the builders and validators that need to be finished before this builder is started.
+	 * @since 3.9.1
+	 */
+	public Set<String> getDependsOn() {
+		return dependsOn;
+	}
+
 	public String getDescription() {
 		return description;
 	}
@@ -126,6 +142,14 @@ public class ProjectBuilderDefinition extends PersistablePreferenceObjectSupport
 		return order;
 	}
 
+	/**
+	 * Returns <code>true</code> if this builder can run concurrently with other parallel builders and validators.
+	 * @since 3.9.1
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
 	private void init(IConfigurationElement element) throws Exception {
 		Object builder = element.createExecutableExtension(CLASS_ATTRIBUTE);
 		if (builder instanceof IProjectBuilder) {
@@ -150,6 +174,9 @@ public class ProjectBuilderDefinition extends PersistablePreferenceObjectSupport
 		else {
 			setEnabledByDefault(true);
 		}
+		this.parallel = Boolean.valueOf(element.getAttribute(PARALLEL_ATTRIBUTE));
+		this.dependsOn = StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(element
+				.getAttribute(DEPENDS_ON_ATTRIBUTE)));
 
 		if (projectBuilder instanceof InitializingBean) {
 			((InitializingBean) projectBuilder).afterPropertiesSet();
@@ -23,7 +23,11 @@ import org.eclipse.jface.text.reconciler.MonoReconciler;
 public class ForceableReconciler extends MonoReconciler {
 
 	public ForceableReconciler(IReconcilingStrategy strategy) {
-		super(strategy, false);
+		this(strategy, false);
+	}
+
+	public ForceableReconciler(IReconcilingStrategy strategy, boolean isIncremental) {
+		super(strategy, isIncremental);
 	}
 
 	public void forceReconcile() {
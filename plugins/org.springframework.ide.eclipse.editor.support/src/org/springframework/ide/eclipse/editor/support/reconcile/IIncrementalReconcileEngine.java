@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.editor.support.reconcile;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * A {@link IReconcileEngine} that can also reconcile just the part of a document
+ * that was edited since its last reconcile of the same document.
+ *
+ * @author Kris De Volder
+ */
+public interface IIncrementalReconcileEngine extends IReconcileEngine {
+
+	/**
+	 * Reconciles the part of the document affected by an edit. The text before the edited
+	 * region is unchanged since the previous reconcile of the document by this engine, and the
+	 * text after it is only shifted by the difference in document length.
+	 * <p>
+	 * Only the problems in the affected part of the document are reported, using
+	 * {@link IScopedProblemCollector#beginCollecting(java.util.function.BiPredicate)} to say which
+	 * of the previously reported problems they replace.
+	 *
+	 * @param edited The region spanning all edits since the previous reconcile, in the coordinates
+	 *    of the current document.
+	 * @return false if the engine can't reconcile incrementally (e.g. because it hasn't reconciled
+	 *    the document before). Nothing has been reported in that case and a full reconcile
+	 *    should be done instead.
+	 */
+	boolean reconcile(IDocument doc, IRegion edited, IScopedProblemCollector problemCollector, IProgressMonitor mon);
+
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.editor.support.reconcile;
+
+import java.util.function.BiPredicate;
+
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * A {@link IProblemCollector} that can also replace just part of the problems it
+ * collected before.
+ *
+ * @author Kris De Volder
+ */
+public interface IScopedProblemCollector extends IProblemCollector {
+
+	/**
+	 * Starts collecting problems that only replace some of the previously collected problems.
+	 * When collecting ends, the previous problems within the given scope are removed, all others
+	 * are kept.
+	 * <p>
+	 * The scope is only tested when collecting ends. It is passed each previous problem together
+	 * with its current location, which differs from the problem's own offset when the document
+	 * was edited since it was reported.
+	 */
+	void beginCollecting(BiPredicate<ReconcileProblem, IRegion> scope);
+
+}
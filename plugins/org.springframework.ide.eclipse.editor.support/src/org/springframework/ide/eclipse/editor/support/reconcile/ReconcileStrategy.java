@@ -15,11 +15,14 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiPredicate;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.Position;
@@ -47,6 +50,23 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 	private IProgressMonitor fProgressMonitor;
 	private IProblemCollector fProblemCollector;
 
+	/**
+	 * Tracks the region spanning all edits since the last reconcile, for engines that can
+	 * reconcile incrementally. The dirty regions passed in by the reconciler can't be used
+	 * for that directly, as they may be outdated by later edits by the time they are processed.
+	 */
+	private final IDocumentListener fEditTracker = new IDocumentListener() {
+		public void documentAboutToBeChanged(DocumentEvent event) {
+		}
+		public void documentChanged(DocumentEvent event) {
+			String text = event.getText();
+			recordEdit(event.getOffset(), event.getLength(), text==null ? 0 : text.length());
+		}
+	};
+	private final Object fEditLock = new Object();
+	private int fEditStart = -1;
+	private int fEditEnd;
+
 	public ReconcileStrategy(ISourceViewer viewer, IReconcileEngine engine) {
 		this.fViewer = viewer;
 		this.fEngine = engine;
@@ -63,6 +83,12 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 	 * @see org.eclipse.jface.text.reconciler.IReconcilingStrategy#reconcile(org.eclipse.jface.text.reconciler.DirtyRegion,org.eclipse.jface.text.IRegion)
 	 */
 	public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
+		if (isIncremental() && (DirtyRegion.REMOVE.equals(dirtyRegion.getType()) || !coversDocument(subRegion))) {
+			//Note: reconciling is forced by 'replacing' the whole document, which we get as a
+			// dirty region removing the whole document followed by one inserting it again.
+			reconcileEdits();
+			return;
+		}
 		try {
 			IRegion startLineInfo= fDocument.getLineInformationOfOffset(subRegion.getOffset());
 			IRegion endLineInfo= fDocument.getLineInformationOfOffset(subRegion.getOffset() + Math.max(0, subRegion.getLength() - 1));
@@ -83,11 +109,61 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 	public void reconcile(IRegion region) {
 		if (getAnnotationModel() == null || fProblemCollector == null)
 			return;
-		//Note: This isn't an 'incremental' reconciler. It always checks the whole document. The dirty
-		// region is ignored.
+		//Note: This always checks the whole document. The region is ignored. Only dirty regions
+		// are reconciled incrementally, if the engine supports it.
+		takeEditedRegion();
 		fEngine.reconcile(fDocument, fProblemCollector, fProgressMonitor);
 	}
 
+	/**
+	 * Reconciles the edits since the last reconcile, if there were any.
+	 */
+	private void reconcileEdits() {
+		IRegion edited = takeEditedRegion();
+		if (edited == null || getAnnotationModel() == null)
+			return; //Already reconciled while processing an earlier dirty region.
+		IIncrementalReconcileEngine engine = (IIncrementalReconcileEngine) fEngine;
+		if (!engine.reconcile(fDocument, edited, (IScopedProblemCollector) fProblemCollector, fProgressMonitor)) {
+			fEngine.reconcile(fDocument, fProblemCollector, fProgressMonitor);
+		}
+	}
+
+	private boolean isIncremental() {
+		return fEngine instanceof IIncrementalReconcileEngine && fProblemCollector instanceof IScopedProblemCollector;
+	}
+
+	private boolean coversDocument(IRegion region) {
+		return region.getOffset() == 0 && region.getLength() >= fDocument.getLength();
+	}
+
+	private void recordEdit(int offset, int removedLength, int insertedLength) {
+		synchronized (fEditLock) {
+			int end = offset + insertedLength;
+			if (fEditStart < 0) {
+				fEditStart = offset;
+				fEditEnd = end;
+			} else {
+				//Move the end of the earlier edits along with the text following them
+				if (fEditEnd >= offset + removedLength)
+					fEditEnd += insertedLength - removedLength;
+				else if (fEditEnd > offset)
+					fEditEnd = end;
+				fEditStart = Math.min(fEditStart, offset);
+				fEditEnd = Math.max(fEditEnd, end);
+			}
+		}
+	}
+
+	private IRegion takeEditedRegion() {
+		synchronized (fEditLock) {
+			if (fEditStart < 0)
+				return null;
+			IRegion edited = new Region(fEditStart, fEditEnd - fEditStart);
+			fEditStart = -1;
+			return edited;
+		}
+	}
+
 	/**
 	 * Returns the annotation model to be used by this reconcile strategy.
 	 *
@@ -107,8 +183,14 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 
 	@Override
 	public void setDocument(IDocument document) {
+		if (fDocument != null)
+			fDocument.removePrenotifiedDocumentListener(fEditTracker);
 		fDocument= document;
 		fProblemCollector= createProblemCollector();
+		takeEditedRegion();
+		if (fDocument != null && isIncremental())
+			//Prenotified, so edits are recorded before the reconciler gets to process them
+			fDocument.addPrenotifiedDocumentListener(fEditTracker);
 	}
 
 	protected IDocument getDocument() {
@@ -126,7 +208,7 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 	/**
 	 * Problem collector.
 	 */
-	private class SeverityAwareProblemCollector implements IProblemCollector {
+	private class SeverityAwareProblemCollector implements IScopedProblemCollector {
 
 		/** Annotation model. */
 		private IAnnotationModel fAnnotationModel;
@@ -134,6 +216,9 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 		/** Annotations to add. */
 		private Map<Annotation, Position> fAddAnnotations;
 
+		/** Previous problems to replace, or <code>null</code> to replace all of them. */
+		private BiPredicate<ReconcileProblem, IRegion> fScope;
+
 		/** Lock object for modifying the annotations. */
 		private Object fLockObject;
 
@@ -160,8 +245,13 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 		}
 
 		public void beginCollecting() {
+			beginCollecting(null);
+		}
+
+		public void beginCollecting(BiPredicate<ReconcileProblem, IRegion> scope) {
 			getSeverities().startSession();
 			fAddAnnotations= new HashMap<>();
+			fScope= scope;
 		}
 
 		public void endCollecting() {
@@ -170,7 +260,7 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 				Iterator<Annotation> iter= fAnnotationModel.getAnnotationIterator();
 				while (iter.hasNext()) {
 					Annotation annotation= iter.next();
-					if (ReconcileProblemAnnotation.TYPES.contains(annotation.getType()))
+					if (ReconcileProblemAnnotation.TYPES.contains(annotation.getType()) && isInScope(annotation))
 						toRemove.add(annotation);
 				}
 				Annotation[] annotationsToRemove= toRemove.toArray(new Annotation[toRemove.size()]);
@@ -188,6 +278,17 @@ public class ReconcileStrategy implements IReconcilingStrategy, IReconcilingStra
 			}
 
 			fAddAnnotations= null;
+			fScope= null;
+		}
+
+		private boolean isInScope(Annotation annotation) {
+			if (fScope == null)
+				return true;
+			if (annotation instanceof ReconcileProblemAnnotation) {
+				Position position= fAnnotationModel.getPosition(annotation);
+				return position != null && fScope.test(((ReconcileProblemAnnotation)annotation).getSpringPropertyProblem(), new Region(position.getOffset(), position.getLength()));
+			}
+			return false;
 		}
 	}
 
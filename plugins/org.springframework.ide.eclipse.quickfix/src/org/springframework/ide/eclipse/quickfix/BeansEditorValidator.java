@@ -11,7 +11,6 @@
 package org.springframework.ide.eclipse.quickfix;
 
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Set;
 
@@ -22,8 +21,6 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
@@ -49,14 +46,10 @@ import org.eclipse.wst.xml.core.internal.provisional.document.IDOMNode;
 import org.eclipse.wst.xml.core.internal.provisional.document.IDOMText;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.BeansCoreUtils;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.ContextElementIndex;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
-import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
-import org.springframework.ide.eclipse.beans.core.model.IBeansImport;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
-import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
-import org.springframework.ide.eclipse.beans.core.model.IImportedBeansConfig;
-import org.springframework.ide.eclipse.core.model.IModelElement;
-import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
 import org.springframework.ide.eclipse.core.model.IResourceModelElement;
 import org.springframework.ide.eclipse.core.model.validation.ValidationProblemAttribute;
 import org.springframework.ide.eclipse.quickfix.processors.BeanQuickAssistProcessor;
@@ -76,55 +69,6 @@ import org.w3c.dom.NodeList;
  */
 public class BeansEditorValidator implements ISourceValidator, IValidator {
 
-	private static class ContextElementVisitor implements IModelElementVisitor {
-
-		private final Set<IResourceModelElement> contextElements;
-
-		private final IResource resource;
-
-		private IBeansConfig currentConfig = null;
-
-		public ContextElementVisitor(IResource resource, Set<IResourceModelElement> contextElements) {
-			this.resource = resource;
-			this.contextElements = contextElements;
-		}
-
-		public boolean visit(IModelElement element, IProgressMonitor monitor) {
-			if (element instanceof IBeansModel) {
-				return true;
-			}
-			else if (element instanceof IBeansProject) {
-				return true;
-			}
-			else if (element instanceof IImportedBeansConfig) {
-				if (resource.equals(((IImportedBeansConfig) element).getElementResource())) {
-					contextElements.add(currentConfig);
-				}
-				return true;
-			}
-			else if (element instanceof IBeansConfig) {
-				this.currentConfig = (IBeansConfig) element;
-				return true;
-			}
-			else if (element instanceof IBeansImport) {
-				for (IImportedBeansConfig config : ((IBeansImport) element).getImportedBeansConfigs()) {
-					config.accept(this, monitor);
-				}
-				return false;
-			}
-			else if (element instanceof IBeansConfigSet) {
-				for (IBeansConfig config : ((IBeansConfigSet) element).getConfigs()) {
-					if (resource.equals(config.getElementResource())) {
-						contextElements.add((IBeansConfigSet) element);
-						break;
-					}
-				}
-				return false;
-			}
-			return false;
-		}
-	}
-
 	protected class LocalizedMessage extends Message {
 
 		private String _message = null;
@@ -393,10 +337,11 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 	}
 
 	private final Set<IResourceModelElement> getContextElements(IBeansConfig config) {
-		Set<IResourceModelElement> contextElements = new LinkedHashSet<IResourceModelElement>();
-
-		BeansCorePlugin.getModel().accept(new ContextElementVisitor(config.getElementResource(), contextElements),
-				new NullProgressMonitor());
+		IBeansModel model = BeansCorePlugin.getModel();
+		ContextElementIndex index = (model instanceof BeansModel ? ((BeansModel) model).getContextElementIndex()
+				: new ContextElementIndex());
+		Set<IResourceModelElement> contextElements = index.getContextElements(config.getElementResource(),
+				model.getProjects());
 
 		if (contextElements.isEmpty()) {
 			contextElements.add(config);
@@ -12,14 +12,86 @@ package org.springframework.ide.test;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
 import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache.Statistics;
 
 /**
  * @author Martin Lippert
  */
 public class ProjectClassLoaderCacheTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File jar;
+	private IProject first;
+	private IProject second;
+
+	@Before
+	public void createProjects() throws Exception {
+		jar = folder.newFile("shared.jar");
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			out.putNextEntry(new JarEntry("shared.properties"));
+			out.closeEntry();
+			// random content doesn't compress, so the jar weighs two units for its size and one for itself
+			byte[] padding = new byte[2 * 1024 * 1024];
+			new Random(0).nextBytes(padding);
+			out.putNextEntry(new JarEntry("padding.bin"));
+			out.write(padding);
+			out.closeEntry();
+			String sharedType = SharedType.class.getName().replace('.', '/') + ".class";
+			out.putNextEntry(new JarEntry(sharedType));
+			InputStream in = SharedType.class.getClassLoader().getResourceAsStream(sharedType);
+			try {
+				byte[] buffer = new byte[4096];
+				for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+					out.write(buffer, 0, read);
+				}
+			}
+			finally {
+				in.close();
+			}
+			out.closeEntry();
+		}
+		finally {
+			out.close();
+		}
+		first = createProject("ProjectClassLoaderCacheTest1", jar);
+		second = createProject("ProjectClassLoaderCacheTest2", jar);
+	}
+
+	@After
+	public void deleteProjects() throws Exception {
+		SpringCore.getDefault().getPluginPreferences().setToDefault(SpringCore.CLASSLOADER_CACHE_MAX_WEIGHT);
+		SpringCore.getDefault().getPluginPreferences().setToDefault(SpringCore.USE_SHARED_JAR_CLASSLOADERS);
+		JdtUtils.removeClassLoaderEntryFromCache(first);
+		JdtUtils.removeClassLoaderEntryFromCache(second);
+		first.delete(true, true, null);
+		second.delete(true, true, null);
+	}
+
 	@Test
 	public void testFilter() {
 		assertFalse(ProjectClassLoaderCache.shouldFilter(null));
@@ -33,4 +105,131 @@ public class ProjectClassLoaderCacheTest {
 		assertTrue(ProjectClassLoaderCache.shouldFilter("META-INF/services/javax"));
 	}
 
+	@Test
+	public void testSharedJarClassLoader() throws Exception {
+		enableSharedJarClassLoaders();
+		ClassLoader firstClassLoader = JdtUtils.getClassLoader(first, null);
+		ClassLoader secondClassLoader = JdtUtils.getClassLoader(second, null);
+
+		assertNotSame(firstClassLoader, secondClassLoader);
+		assertSame(firstClassLoader.getParent(), secondClassLoader.getParent());
+		assertNotNull(secondClassLoader.getResource("shared.properties"));
+
+		// classes from the shared jars are the same for both projects
+		Class<?> firstType = firstClassLoader.loadClass(SharedType.class.getName());
+		assertSame(firstClassLoader.getParent(), firstType.getClassLoader());
+		assertSame(firstType, secondClassLoader.loadClass(SharedType.class.getName()));
+	}
+
+	@Test
+	public void testJarClassLoadersIsolatedByDefault() throws Exception {
+		assertFalse(SpringCore.getDefault().getPluginPreferences().getBoolean(SpringCore.USE_SHARED_JAR_CLASSLOADERS));
+		ClassLoader firstClassLoader = JdtUtils.getClassLoader(first, null);
+		ClassLoader secondClassLoader = JdtUtils.getClassLoader(second, null);
+
+		assertNotSame(firstClassLoader.getParent(), secondClassLoader.getParent());
+		Class<?> firstType = firstClassLoader.loadClass(SharedType.class.getName());
+		Class<?> secondType = secondClassLoader.loadClass(SharedType.class.getName());
+		assertNotSame(firstType, secondType);
+		assertNotSame(SharedType.class, firstType);
+	}
+
+	@Test
+	public void testSharedJarsWeighedOnce() {
+		JdtUtils.getClassLoader(first, null);
+		Statistics before = ProjectClassLoaderCache.getStatistics();
+		JdtUtils.getClassLoader(second, null);
+		long isolatedWeight = ProjectClassLoaderCache.getStatistics().getWeight() - before.getWeight();
+		JdtUtils.removeClassLoaderEntryFromCache(first);
+		JdtUtils.removeClassLoaderEntryFromCache(second);
+
+		enableSharedJarClassLoaders();
+		JdtUtils.getClassLoader(first, null);
+		before = ProjectClassLoaderCache.getStatistics();
+		JdtUtils.getClassLoader(second, null);
+		long sharedWeight = ProjectClassLoaderCache.getStatistics().getWeight() - before.getWeight();
+
+		// the second project only adds its own output folders, not the jar again
+		assertEquals(3, isolatedWeight);
+		assertEquals(1, sharedWeight);
+	}
+
+	@Test
+	public void testSharedJarClassLoaderReleasedWithLastProject() {
+		enableSharedJarClassLoaders();
+		Statistics before = ProjectClassLoaderCache.getStatistics();
+		JdtUtils.getClassLoader(first, null);
+		JdtUtils.getClassLoader(second, null);
+		assertEquals(before.getSharedJarClassLoaders() + 1, ProjectClassLoaderCache.getStatistics()
+				.getSharedJarClassLoaders());
+
+		JdtUtils.removeClassLoaderEntryFromCache(first);
+		assertEquals(before.getSharedJarClassLoaders() + 1, ProjectClassLoaderCache.getStatistics()
+				.getSharedJarClassLoaders());
+
+		JdtUtils.removeClassLoaderEntryFromCache(second);
+		Statistics after = ProjectClassLoaderCache.getStatistics();
+		assertEquals(before.getSharedJarClassLoaders(), after.getSharedJarClassLoaders());
+		assertEquals(before.getWeight(), after.getWeight());
+	}
+
+	@Test
+	public void testCacheHit() {
+		JdtUtils.getClassLoader(first, null);
+		Statistics before = ProjectClassLoaderCache.getStatistics();
+
+		JdtUtils.getClassLoader(first, null);
+		Statistics after = ProjectClassLoaderCache.getStatistics();
+		assertEquals(before.getHits() + 1, after.getHits());
+		assertEquals(before.getMisses(), after.getMisses());
+	}
+
+	@Test
+	public void testEviction() {
+		// every entry weighs at least one unit, so only the most recently created entry fits into the cache
+		SpringCore.getDefault().getPluginPreferences().setValue(SpringCore.CLASSLOADER_CACHE_MAX_WEIGHT, 1L);
+
+		JdtUtils.getClassLoader(first, null);
+		Statistics before = ProjectClassLoaderCache.getStatistics();
+
+		JdtUtils.getClassLoader(second, null);
+		Statistics afterSecond = ProjectClassLoaderCache.getStatistics();
+		assertEquals(before.getMisses() + 1, afterSecond.getMisses());
+		assertTrue(afterSecond.getEvictions() > before.getEvictions());
+		assertEquals(1, afterSecond.getEntries());
+
+		// the evicted entry is created again
+		ClassLoader classLoader = JdtUtils.getClassLoader(first, null);
+		Statistics afterFirst = ProjectClassLoaderCache.getStatistics();
+		assertEquals(afterSecond.getMisses() + 1, afterFirst.getMisses());
+		assertEquals(afterSecond.getEvictions() + 1, afterFirst.getEvictions());
+		assertNotNull(classLoader.getResource("shared.properties"));
+	}
+
+	private static void enableSharedJarClassLoaders() {
+		// changing the setting clears the cache
+		SpringCore.getDefault().getPluginPreferences().setValue(SpringCore.USE_SHARED_JAR_CLASSLOADERS, true);
+	}
+
+	private static IProject createProject(String name, File jar) throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		project.create(null);
+		project.open(null);
+		IProjectDescription description = project.getDescription();
+		description.setNatureIds(new String[] { JavaCore.NATURE_ID });
+		project.setDescription(description, null);
+
+		IJavaProject javaProject = JavaCore.create(project);
+		javaProject.setRawClasspath(
+				new IClasspathEntry[] { JavaCore.newLibraryEntry(new Path(jar.getAbsolutePath()), null, null) },
+				project.getFullPath(), null);
+		return project;
+	}
+
+	/**
+	 * Type copied into the jar on the classpath of the test projects.
+	 */
+	public static class SharedType {
+	}
+
 }
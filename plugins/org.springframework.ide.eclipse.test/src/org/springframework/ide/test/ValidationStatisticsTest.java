@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.model.validation.ValidationStatistics;
+import org.springframework.ide.eclipse.core.model.validation.ValidationStatistics.Counters;
+import org.springframework.ide.eclipse.core.model.validation.ValidationStatistics.Run;
+
+/**
+ * @author Martin Lippert
+ */
+public class ValidationStatisticsTest {
+
+	private final ValidationStatistics statistics = new ValidationStatistics(true);
+
+	@Test
+	public void testDisabled() {
+		assertNull(new ValidationStatistics(false).startRun("validator"));
+	}
+
+	@Test
+	public void testAggregation() {
+		Run first = statistics.startRun("validator");
+		first.getRule("rule1").record(TimeUnit.MILLISECONDS.toNanos(2), true, 1);
+		first.getRule("rule1").record(TimeUnit.MILLISECONDS.toNanos(3), false, 0);
+		first.getRule("rule2").record(TimeUnit.MILLISECONDS.toNanos(1), true, 2);
+		first.getValidator().addElements(2);
+		first.getValidator().addProblems(3);
+		statistics.finishRun(first, TimeUnit.MILLISECONDS.toNanos(10));
+
+		Run second = statistics.startRun("validator");
+		second.getRule("rule1").record(TimeUnit.MILLISECONDS.toNanos(5), true, 4);
+		second.getValidator().addElements(1);
+		second.getValidator().addProblems(4);
+		statistics.finishRun(second, TimeUnit.MILLISECONDS.toNanos(20));
+
+		assertSame(second, statistics.getLastRun("validator"));
+		assertCounters(second.getRule("rule1"), 5, 1, 1, 4);
+		assertFalse(second.getRules().containsKey("rule2"));
+
+		Run total = statistics.getTotal("validator");
+		assertCounters(total.getValidator(), 30, 2, 3, 7);
+		assertCounters(total.getRule("rule1"), 10, 2, 3, 5);
+		assertCounters(total.getRule("rule2"), 1, 1, 1, 2);
+
+		assertNull(statistics.getTotal("other"));
+		statistics.reset();
+		assertNull(statistics.getLastRun("validator"));
+		assertNull(statistics.getTotal("validator"));
+	}
+
+	@Test
+	public void testJson() {
+		Run run = statistics.startRun("valid\"ator");
+		run.getRule("rule").record(TimeUnit.MILLISECONDS.toNanos(4), true, 1);
+		run.getValidator().addElements(1);
+		run.getValidator().addProblems(1);
+		statistics.finishRun(run, TimeUnit.MILLISECONDS.toNanos(7));
+
+		String runJson = "    {\"validator\": \"valid\\\"ator\", \"timeMillis\": 7, \"invocations\": 1, \"elements\": 1, "
+				+ "\"problems\": 1, \"rules\": [\n"
+				+ "      {\"rule\": \"rule\", \"timeMillis\": 4, \"invocations\": 1, \"elements\": 1, \"problems\": 1}]}";
+		assertEquals("{\n  \"lastRuns\": [\n" + runJson + "],\n  \"totals\": [\n" + runJson + "]\n}\n",
+				statistics.toJson());
+	}
+
+	@Test
+	public void testEmptyJson() {
+		assertEquals("{\n  \"lastRuns\": [],\n  \"totals\": []\n}\n", statistics.toJson());
+	}
+
+	private static void assertCounters(Counters counters, long timeMillis, long invocations, long elements,
+			long problems) {
+		assertEquals(timeMillis, counters.getTimeMillis());
+		assertEquals(invocations, counters.getInvocations());
+		assertEquals(elements, counters.getElements());
+		assertEquals(problems, counters.getProblems());
+	}
+
+}
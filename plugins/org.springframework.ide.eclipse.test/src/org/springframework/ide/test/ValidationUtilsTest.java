@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.model.validation.IValidationProblemMarker;
+import org.springframework.ide.eclipse.core.model.validation.ValidationProblem;
+import org.springframework.ide.eclipse.core.model.validation.ValidationUtils;
+
+/**
+ * @author Martin Lippert
+ */
+public class ValidationUtilsTest {
+
+	private IProject project;
+	private IFile file;
+
+	@Before
+	public void createProject() throws Exception {
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("ValidationUtilsTest");
+		project.create(null);
+		project.open(null);
+		file = project.getFile("config.xml");
+		file.create(new ByteArrayInputStream(new byte[0]), true, null);
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, true, null);
+	}
+
+	@Test
+	public void testCreateMarkers() throws Exception {
+		update(problem("first", 1), problem("second", 2), problem("ignored", -1, 3));
+
+		Map<String, IMarker> markers = getMarkersByMessage();
+		assertEquals(2, markers.size());
+		assertEquals(1, markers.get("first").getAttribute(IMarker.LINE_NUMBER, -1));
+		assertEquals(IMarker.SEVERITY_ERROR, markers.get("first").getAttribute(IMarker.SEVERITY, -1));
+		assertEquals("rule", markers.get("first").getAttribute(IValidationProblemMarker.RULE_ID, null));
+		assertEquals(2, markers.get("second").getAttribute(IMarker.LINE_NUMBER, -1));
+	}
+
+	@Test
+	public void testUnchangedProblemsKeepMarkers() throws Exception {
+		update(problem("first", 1), problem("second", 2));
+		Map<String, IMarker> markers = getMarkersByMessage();
+
+		final AtomicInteger markerDeltas = new AtomicInteger();
+		IResourceChangeListener listener = new IResourceChangeListener() {
+
+			public void resourceChanged(IResourceChangeEvent event) {
+				markerDeltas.addAndGet(event.findMarkerDeltas(SpringCore.MARKER_ID, true).length);
+			}
+		};
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			update(problem("second", 2), problem("first", 1));
+		}
+		finally {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		}
+
+		assertEquals(0, markerDeltas.get());
+		assertEquals(markers, getMarkersByMessage());
+	}
+
+	@Test
+	public void testChangedProblemsUpdateMarkers() throws Exception {
+		update(problem("first", 1), problem("second", 2));
+		Map<String, IMarker> markers = getMarkersByMessage();
+
+		final Map<Integer, Integer> markerDeltas = new HashMap<Integer, Integer>();
+		IResourceChangeListener listener = new IResourceChangeListener() {
+
+			public void resourceChanged(IResourceChangeEvent event) {
+				for (IMarkerDelta delta : event.findMarkerDeltas(SpringCore.MARKER_ID, true)) {
+					Integer count = markerDeltas.get(delta.getKind());
+					markerDeltas.put(delta.getKind(), (count != null ? count + 1 : 1));
+				}
+			}
+		};
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			update(problem("second", 2), problem("third", 3));
+		}
+		finally {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		}
+
+		Map<String, IMarker> updatedMarkers = getMarkersByMessage();
+		assertEquals(2, updatedMarkers.size());
+		assertEquals(markers.get("second"), updatedMarkers.get("second"));
+		assertFalse(markers.get("first").exists());
+		assertEquals(3, updatedMarkers.get("third").getAttribute(IMarker.LINE_NUMBER, -1));
+		assertEquals(Integer.valueOf(1), markerDeltas.get(IResourceDelta.ADDED));
+		assertEquals(Integer.valueOf(1), markerDeltas.get(IResourceDelta.REMOVED));
+		assertNull(markerDeltas.get(IResourceDelta.CHANGED));
+	}
+
+	@Test
+	public void testChangedSeverityReplacesMarker() throws Exception {
+		update(problem("first", 1));
+		IMarker marker = getMarkersByMessage().get("first");
+
+		update(problem("first", IMarker.SEVERITY_WARNING, 1));
+		IMarker updatedMarker = getMarkersByMessage().get("first");
+		assertFalse(marker.exists());
+		assertEquals(IMarker.SEVERITY_WARNING, updatedMarker.getAttribute(IMarker.SEVERITY, -1));
+	}
+
+	@Test
+	public void testOneMarkerPerLineAndMessage() throws Exception {
+		update(problem("first", 1), new ValidationProblem("otherRule", null, IMarker.SEVERITY_ERROR, "first", file, 1));
+		assertEquals(1, file.findMarkers(SpringCore.MARKER_ID, false, IResource.DEPTH_ZERO).length);
+	}
+
+	@Test
+	public void testNoProblemsDeleteMarkers() throws Exception {
+		update(problem("first", 1), problem("second", 2));
+		update();
+		assertEquals(0, file.findMarkers(SpringCore.MARKER_ID, false, IResource.DEPTH_ZERO).length);
+	}
+
+	private ValidationProblem problem(String message, int line) {
+		return problem(message, IMarker.SEVERITY_ERROR, line);
+	}
+
+	private ValidationProblem problem(String message, int severity, int line) {
+		return new ValidationProblem("rule", null, severity, message, file, line);
+	}
+
+	/**
+	 * Updates the markers of the file to the given problems in one workspace operation, as the validators do.
+	 */
+	private void update(ValidationProblem... problems) throws CoreException {
+		final Set<ValidationProblem> problemSet = new LinkedHashSet<ValidationProblem>(Arrays.asList(problems));
+		final List<IMarker> existingMarkers = Arrays.asList(file.findMarkers(SpringCore.MARKER_ID, false,
+				IResource.DEPTH_ZERO));
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+
+			public void run(IProgressMonitor monitor) throws CoreException {
+				ValidationUtils.updateProblemMarkers(file, problemSet, SpringCore.MARKER_ID, existingMarkers);
+			}
+		}, null);
+	}
+
+	private Map<String, IMarker> getMarkersByMessage() throws CoreException {
+		Map<String, IMarker> markers = new HashMap<String, IMarker>();
+		for (IMarker marker : file.findMarkers(SpringCore.MARKER_ID, false, IResource.DEPTH_ZERO)) {
+			assertNull(markers.put(marker.getAttribute(IMarker.MESSAGE, ""), marker));
+		}
+		return markers;
+	}
+
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.ui.internal.actions;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.IObjectActionDelegate;
+import org.eclipse.ui.IWorkbenchPart;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.model.validation.ValidationStatistics;
+
+/**
+ * This action exports the collected {@link ValidationStatistics} as JSON document to a file chosen by the user.
+ * @author Martin Lippert
+ * @since 3.9.1
+ */
+public class ExportValidationStatisticsAction implements IObjectActionDelegate {
+
+	private Shell shell;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void setActivePart(IAction action, IWorkbenchPart targetPart) {
+		shell = targetPart.getSite().getShell();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void selectionChanged(IAction action, ISelection selection) {
+		action.setEnabled(SpringCore.getValidationStatistics().isEnabled());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void run(IAction action) {
+		FileDialog dialog = new FileDialog(shell, SWT.SAVE);
+		dialog.setText("Export Validation Statistics");
+		dialog.setFilterExtensions(new String[] { "*.json" });
+		dialog.setFileName("validation-statistics.json");
+		dialog.setOverwrite(true);
+		String fileName = dialog.open();
+		if (fileName != null) {
+			try {
+				SpringCore.getValidationStatistics().writeJson(new File(fileName));
+			}
+			catch (IOException e) {
+				SpringCore.log("Error exporting validation statistics", e);
+				MessageDialog.openError(shell, "Export Validation Statistics", "Error exporting validation statistics: "
+						+ e.getMessage());
+			}
+		}
+	}
+}